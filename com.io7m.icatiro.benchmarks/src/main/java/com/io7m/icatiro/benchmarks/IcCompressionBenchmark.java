@@ -0,0 +1,244 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.benchmarks;
+
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcTicketCreation;
+import com.io7m.icatiro.model.IcTicketTitle;
+import com.io7m.icatiro.protocol.IcProtocolException;
+import com.io7m.icatiro.protocol.tickets.IcTBatchMode;
+import com.io7m.icatiro.protocol.tickets.IcTCommandBatch;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketCreate;
+import com.io7m.icatiro.protocol.tickets.IcTCommandType;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.protocol.tickets.cb.IcT2Messages;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The cost of gzip-compressing request bodies in the manner of the client,
+ * and of decompressing them in the manner of the server, against sending
+ * them uncompressed. The number of bytes that would be transmitted is
+ * reported in the {@code bytes} secondary result, so the size of each
+ * variant can be compared as well as its latency.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IcCompressionBenchmark
+{
+  @Param({"1", "100", "1000"})
+  private int batchSize;
+
+  private IcT2Messages messages;
+  private IcTMessageType message;
+  private byte[] data;
+  private byte[] dataCompressed;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public IcCompressionBenchmark()
+  {
+
+  }
+
+  /**
+   * The number of bytes that would be transmitted.
+   */
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Transmitted
+  {
+    private long bytes;
+
+    /**
+     * The number of bytes that would be transmitted.
+     */
+
+    public Transmitted()
+    {
+
+    }
+
+    /**
+     * @return The number of bytes
+     */
+
+    public long bytes()
+    {
+      return this.bytes;
+    }
+
+    final void add(
+      final int count)
+    {
+      this.bytes += count;
+    }
+  }
+
+  /**
+   * Set up a batch of ticket creation commands.
+   *
+   * @throws IOException         On errors
+   * @throws IcProtocolException On errors
+   */
+
+  @Setup
+  public void setup()
+    throws IOException, IcProtocolException
+  {
+    this.messages = new IcT2Messages();
+
+    final var project =
+      new IcProjectID(1L);
+    final var commands =
+      new ArrayList<IcTCommandType<?>>(this.batchSize);
+
+    for (int index = 0; index < this.batchSize; ++index) {
+      commands.add(
+        new IcTCommandTicketCreate(
+          new IcTicketCreation(
+            project,
+            new IcTicketTitle("A ticket with a reasonably long title %d"
+                                .formatted(Integer.valueOf(index))),
+            """
+              Steps to reproduce: open the project page, select a ticket,
+              and then select the previous page of results. The page that
+              is shown is the first page, rather than the previous page.
+              """
+          )
+        )
+      );
+    }
+
+    this.message =
+      new IcTCommandBatch(commands, IcTBatchMode.ATOMIC);
+    this.data =
+      this.messages.serialize(this.message);
+    this.dataCompressed =
+      compress(this.data);
+  }
+
+  private static byte[] compress(
+    final byte[] data)
+    throws IOException
+  {
+    final var output = new ByteArrayOutputStream(data.length);
+    try (var gzip = new GZIPOutputStream(output)) {
+      gzip.write(data);
+    }
+    return output.toByteArray();
+  }
+
+  /**
+   * Serialize the message without compression.
+   *
+   * @param transmitted The transmitted byte count
+   *
+   * @return The serialized message
+   *
+   * @throws IcProtocolException On errors
+   */
+
+  @Benchmark
+  public byte[] serializeUncompressed(
+    final Transmitted transmitted)
+    throws IcProtocolException
+  {
+    final var result = this.messages.serialize(this.message);
+    transmitted.add(result.length);
+    return result;
+  }
+
+  /**
+   * Serialize and then compress the message.
+   *
+   * @param transmitted The transmitted byte count
+   *
+   * @return The compressed message
+   *
+   * @throws IOException         On errors
+   * @throws IcProtocolException On errors
+   */
+
+  @Benchmark
+  public byte[] serializeCompressed(
+    final Transmitted transmitted)
+    throws IOException, IcProtocolException
+  {
+    final var result = compress(this.messages.serialize(this.message));
+    transmitted.add(result.length);
+    return result;
+  }
+
+  /**
+   * @return The message parsed from the uncompressed body
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public IcTMessageType parseUncompressed()
+    throws Exception
+  {
+    try (var input = new ByteArrayInputStream(this.data)) {
+      return this.messages.parse(input);
+    }
+  }
+
+  /**
+   * @return The message parsed from the decompressed body
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public IcTMessageType parseCompressed()
+    throws Exception
+  {
+    try (var input =
+           new GZIPInputStream(new ByteArrayInputStream(this.dataCompressed))) {
+      return this.messages.parse(input);
+    }
+  }
+}
@@ -0,0 +1,439 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.benchmarks;
+
+import com.io7m.icatiro.database.api.IcDatabaseConfiguration;
+import com.io7m.icatiro.database.api.IcDatabaseCreate;
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.api.IcDatabaseProjectsQueriesType;
+import com.io7m.icatiro.database.api.IcDatabaseRole;
+import com.io7m.icatiro.database.api.IcDatabaseTicketImport;
+import com.io7m.icatiro.database.api.IcDatabaseTicketImportResult;
+import com.io7m.icatiro.database.api.IcDatabaseTicketsQueriesType;
+import com.io7m.icatiro.database.api.IcDatabaseType;
+import com.io7m.icatiro.database.api.IcDatabaseUpgrade;
+import com.io7m.icatiro.database.api.IcDatabaseUsersQueriesType;
+import com.io7m.icatiro.database.postgres.IcDatabases;
+import com.io7m.icatiro.model.IcPermission;
+import com.io7m.icatiro.model.IcPermissionGlobal;
+import com.io7m.icatiro.model.IcPermissionSet;
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcProjectShortName;
+import com.io7m.icatiro.model.IcProjectTitle;
+import com.io7m.icatiro.model.IcTicket;
+import com.io7m.icatiro.model.IcTicketColumn;
+import com.io7m.icatiro.model.IcTicketColumnOrdering;
+import com.io7m.icatiro.model.IcTicketCreation;
+import com.io7m.icatiro.model.IcTicketID;
+import com.io7m.icatiro.model.IcTicketSearch;
+import com.io7m.icatiro.model.IcTicketSearchProjection;
+import com.io7m.icatiro.model.IcTicketSummaryType;
+import com.io7m.icatiro.model.IcTicketTitle;
+import com.io7m.icatiro.model.IcTimeRange;
+import com.io7m.icatiro.model.IcUser;
+import com.io7m.idstore.model.IdName;
+import io.opentelemetry.api.OpenTelemetry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Ticket creation, import, retrieval, and search throughput against a PostgreSQL
+ * database. The database must exist, and is named by the system properties
+ * {@code icatiro.benchmark.database.address},
+ * {@code icatiro.benchmark.database.port},
+ * {@code icatiro.benchmark.database.name},
+ * {@code icatiro.benchmark.database.user}, and
+ * {@code icatiro.benchmark.database.password}. The schema is created or
+ * upgraded as necessary. Running the benchmark against builds either side of
+ * a schema change compares the throughput of the two schemas.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class IcDatabaseTicketsBenchmark
+{
+  private static final int PROJECTS = 32;
+  private static final int BATCH_SIZE = 1000;
+
+  @Param({"1000", "10000"})
+  private int ticketsPerProject;
+
+  private IcDatabaseType database;
+  private UUID user;
+  private List<IcProjectID> projects;
+  private List<IcTicketID> tickets;
+  private byte[] importTickets;
+  private byte[] importComments;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public IcDatabaseTicketsBenchmark()
+  {
+
+  }
+
+  /**
+   * Open the database, and create a set of projects and tickets that are
+   * unique to this run of the benchmark.
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  @Setup(Level.Trial)
+  public void setup()
+    throws IcDatabaseException
+  {
+    final var configuration =
+      new IcDatabaseConfiguration(
+        System.getProperty("icatiro.benchmark.database.user", "postgres"),
+        System.getProperty("icatiro.benchmark.database.password", ""),
+        System.getProperty("icatiro.benchmark.database.address", "localhost"),
+        Integer.getInteger("icatiro.benchmark.database.port", 5432).intValue(),
+        System.getProperty("icatiro.benchmark.database.name", "icatiro"),
+        IcDatabaseCreate.CREATE_DATABASE,
+        IcDatabaseUpgrade.UPGRADE_DATABASE,
+        Clock.systemUTC()
+      );
+
+    this.database =
+      new IcDatabases().open(configuration, OpenTelemetry.noop(), s -> {
+
+      });
+
+    this.user = UUID.randomUUID();
+    this.projects = new ArrayList<>(PROJECTS);
+    this.tickets = new ArrayList<>(PROJECTS * this.ticketsPerProject);
+
+    try (var c = this.database.openConnection(IcDatabaseRole.ICATIRO)) {
+      try (var t = c.openTransaction()) {
+        final var u = t.queries(IcDatabaseUsersQueriesType.class);
+        final var p = t.queries(IcDatabaseProjectsQueriesType.class);
+
+        u.userPut(new IcUser(
+          this.user,
+          new IdName("benchmark-" + this.user),
+          List.of(),
+          IcPermissionSet.of(
+            List.of(
+              new IcPermissionGlobal(IcPermission.TICKET_CREATE),
+              new IcPermissionGlobal(IcPermission.TICKET_READ)
+            )
+          )
+        ));
+        t.userIdSet(this.user);
+
+        final var prefix =
+          Long.toString(
+            ThreadLocalRandom.current().nextLong(0L, 1_000_000_000L),
+            36
+          ).toUpperCase();
+
+        for (int index = 0; index < PROJECTS; ++index) {
+          this.projects.add(
+            p.projectCreate(
+              new IcProjectTitle("Benchmark %s %d".formatted(prefix, index)),
+              new IcProjectShortName("B%s%d".formatted(prefix, index))
+            ).id()
+          );
+        }
+        t.commit();
+
+        final var q = t.queries(IcDatabaseTicketsQueriesType.class);
+        for (int index = 0; index < this.ticketsPerProject; ++index) {
+          for (final var project : this.projects) {
+            this.tickets.add(this.createTicket(q, project, index));
+          }
+          if (this.tickets.size() % BATCH_SIZE == 0) {
+            t.commit();
+          }
+        }
+        t.commit();
+      }
+    }
+
+    this.importTickets = this.importTicketsCSV();
+    this.importComments = this.importCommentsCSV();
+  }
+
+  private byte[] importTicketsCSV()
+  {
+    final var text = new StringBuilder(BATCH_SIZE * 128);
+    text.append("id,title,description,reporter,time_created,time_updated\n");
+    for (int index = 0; index < BATCH_SIZE; ++index) {
+      text.append(
+        "T%d,Ticket %d about a quick fox,The quick brown fox.,%s,%s,%s\n"
+          .formatted(
+            Integer.valueOf(index),
+            Integer.valueOf(index),
+            this.user,
+            "2020-01-01T00:00:00Z",
+            "2020-01-01T00:00:00Z"
+          )
+      );
+    }
+    return text.toString().getBytes(UTF_8);
+  }
+
+  private byte[] importCommentsCSV()
+  {
+    final var text = new StringBuilder(BATCH_SIZE * 128);
+    text.append("id,ticket,replied_to,owner,text,time\n");
+    for (int index = 0; index < BATCH_SIZE; ++index) {
+      text.append(
+        "C%d,T%d,,%s,A comment.,%s\n"
+          .formatted(
+            Integer.valueOf(index),
+            Integer.valueOf(index),
+            this.user,
+            "2020-01-01T00:00:00Z"
+          )
+      );
+    }
+    return text.toString().getBytes(UTF_8);
+  }
+
+  private IcTicketID createTicket(
+    final IcDatabaseTicketsQueriesType q,
+    final IcProjectID project,
+    final int index)
+    throws IcDatabaseException
+  {
+    return q.ticketCreate(
+      new IcTicketCreation(
+        project,
+        new IcTicketTitle("Ticket %d about a %s fox".formatted(
+          Integer.valueOf(index),
+          (index % 2 == 0) ? "quick" : "lazy"
+        )),
+        "The quick brown fox jumps over the lazy dog."
+      )
+    ).ticketId();
+  }
+
+  /**
+   * Close the database.
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+    throws IcDatabaseException
+  {
+    this.database.close();
+  }
+
+  /**
+   * Create a ticket in a random project.
+   *
+   * @return The ticket
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  @Benchmark
+  public IcTicketID ticketCreate()
+    throws IcDatabaseException
+  {
+    final var project =
+      this.projects.get(
+        ThreadLocalRandom.current().nextInt(this.projects.size()));
+
+    try (var c = this.database.openConnection(IcDatabaseRole.ICATIRO)) {
+      try (var t = c.openTransaction()) {
+        t.userIdSet(this.user);
+        final var ticket =
+          this.createTicket(
+            t.queries(IcDatabaseTicketsQueriesType.class),
+            project,
+            0
+          );
+        t.commit();
+        return ticket;
+      }
+    }
+  }
+
+  /**
+   * Import a batch of tickets, each with one comment, into a random project.
+   * Compare the throughput with {@link #ticketCreate()} multiplied by the
+   * batch size.
+   *
+   * @return The result of the import
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  @Benchmark
+  public IcDatabaseTicketImportResult ticketsImport()
+    throws IcDatabaseException
+  {
+    final var project =
+      this.projects.get(
+        ThreadLocalRandom.current().nextInt(this.projects.size()));
+
+    try (var c = this.database.openConnection(IcDatabaseRole.ICATIRO)) {
+      try (var t = c.openTransaction()) {
+        t.userIdSet(this.user);
+        final var result =
+          t.queries(IcDatabaseTicketsQueriesType.class)
+            .ticketsImport(
+              new IcDatabaseTicketImport(
+                project,
+                new ByteArrayInputStream(this.importTickets),
+                new ByteArrayInputStream(this.importComments),
+                Optional.empty()
+              ),
+              progress -> {
+
+              }
+            );
+        t.commit();
+        return result;
+      }
+    }
+  }
+
+  /**
+   * Retrieve a random ticket.
+   *
+   * @return The ticket
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  @Benchmark
+  public IcTicket ticketGet()
+    throws IcDatabaseException
+  {
+    final var ticket =
+      this.tickets.get(
+        ThreadLocalRandom.current().nextInt(this.tickets.size()));
+
+    try (var c = this.database.openConnection(IcDatabaseRole.ICATIRO)) {
+      try (var t = c.openTransaction()) {
+        t.userIdSet(this.user);
+        return t.queries(IcDatabaseTicketsQueriesType.class)
+          .ticketGetRequire(ticket);
+      }
+    }
+  }
+
+  /**
+   * Retrieve the first page of a full-text title search.
+   *
+   * @return The page
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  @Benchmark
+  public List<IcTicketSummaryType> ticketSearch()
+    throws IcDatabaseException
+  {
+    return this.ticketSearchProjected(IcTicketSearchProjection.FULL);
+  }
+
+  /**
+   * Retrieve the first page of a full-text title search, returning only
+   * ticket IDs.
+   *
+   * @return The page
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  @Benchmark
+  public List<IcTicketSummaryType> ticketSearchID()
+    throws IcDatabaseException
+  {
+    return this.ticketSearchProjected(IcTicketSearchProjection.ID);
+  }
+
+  /**
+   * Retrieve the first page of a full-text title search, returning only
+   * ticket IDs, titles, and times.
+   *
+   * @return The page
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  @Benchmark
+  public List<IcTicketSummaryType> ticketSearchIDAndTitle()
+    throws IcDatabaseException
+  {
+    return this.ticketSearchProjected(IcTicketSearchProjection.ID_AND_TITLE);
+  }
+
+  private List<IcTicketSummaryType> ticketSearchProjected(
+    final IcTicketSearchProjection projection)
+    throws IcDatabaseException
+  {
+    try (var c = this.database.openConnection(IcDatabaseRole.ICATIRO)) {
+      try (var t = c.openTransaction()) {
+        t.userIdSet(this.user);
+        final var q =
+          t.queries(IcDatabaseTicketsQueriesType.class);
+        final var search =
+          q.ticketSearch(
+            new IcTicketSearch(
+              IcTimeRange.largest(),
+              IcTimeRange.largest(),
+              new IcTicketColumnOrdering(IcTicketColumn.BY_ID, true),
+              100,
+              Optional.of("quick"),
+              Optional.empty(),
+              Optional.empty(),
+              false,
+              projection
+            )
+          );
+        return search.pageCurrent(q).items();
+      }
+    }
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.benchmarks;
+
+import com.io7m.icatiro.model.IcPermission;
+import com.io7m.icatiro.model.IcPermissionMatrix;
+import com.io7m.icatiro.model.IcPermissionProjectwide;
+import com.io7m.icatiro.model.IcPermissionSet;
+import com.io7m.icatiro.model.IcPermissionTicketwide;
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcTicketID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Permission set checks for users holding large numbers of ticketwide
+ * permissions.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IcPermissionSetBenchmark
+{
+  private static final int PROJECTS = 8;
+  private static final int PAGE_SIZE = 100;
+  private static final Set<IcPermission> PAGE_PERMISSIONS =
+    EnumSet.of(IcPermission.TICKET_WRITE, IcPermission.TICKET_COMMENT);
+
+  @Param({"100", "10000", "100000"})
+  private int ticketPermissions;
+
+  private IcPermissionSet permissions;
+  private IcTicketID ticketGranted;
+  private IcTicketID ticketNotGranted;
+  private IcTicketID ticketProjectwide;
+  private IcPermissionTicketwide grant;
+  private List<IcTicketID> page;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public IcPermissionSetBenchmark()
+  {
+
+  }
+
+  /**
+   * Set up the permission set.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final var builder = IcPermissionSet.builder();
+    for (int index = 0; index < this.ticketPermissions; ++index) {
+      final var project = new IcProjectID(index % PROJECTS);
+      builder.addTicketwide(
+        new IcPermissionTicketwide(
+          new IcTicketID(project, index * 2L),
+          IcPermission.TICKET_READ
+        )
+      );
+    }
+
+    final var projectwide = new IcProjectID(PROJECTS + 1L);
+    builder.addProjectwide(
+      new IcPermissionProjectwide(projectwide, IcPermission.TICKET_READ)
+    );
+
+    this.permissions =
+      builder.build();
+    this.ticketGranted =
+      new IcTicketID(new IcProjectID(1L), 2L);
+    this.ticketNotGranted =
+      new IcTicketID(new IcProjectID(1L), 3L);
+    this.ticketProjectwide =
+      new IcTicketID(projectwide, 1L);
+    this.grant =
+      new IcPermissionTicketwide(
+        new IcTicketID(new IcProjectID(1L), 1L),
+        IcPermission.TICKET_WRITE
+      );
+
+    final var pageTickets = new ArrayList<IcTicketID>(PAGE_SIZE);
+    for (int index = 0; index < PAGE_SIZE; ++index) {
+      pageTickets.add(
+        new IcTicketID(new IcProjectID(index % (PROJECTS + 2)), index)
+      );
+    }
+    this.page = List.copyOf(pageTickets);
+  }
+
+  /**
+   * @return The number of permissions held when checking a page of tickets
+   * one ticket and permission at a time
+   */
+
+  @Benchmark
+  public int impliesPagePerRow()
+  {
+    int held = 0;
+    for (final var ticket : this.page) {
+      for (final var permission : PAGE_PERMISSIONS) {
+        if (this.permissions.implies(ticket, permission)) {
+          ++held;
+        }
+      }
+    }
+    return held;
+  }
+
+  /**
+   * @return The permissions held when checking a page of tickets at once
+   */
+
+  @Benchmark
+  public IcPermissionMatrix impliesPageMany()
+  {
+    return this.permissions.impliesMany(this.page, PAGE_PERMISSIONS);
+  }
+
+  /**
+   * @return The result of checking a ticket that has been granted
+   */
+
+  @Benchmark
+  public boolean impliesTicketGranted()
+  {
+    return this.permissions.implies(
+      this.ticketGranted,
+      IcPermission.TICKET_READ
+    );
+  }
+
+  /**
+   * @return The result of checking a ticket that has not been granted
+   */
+
+  @Benchmark
+  public boolean impliesTicketNotGranted()
+  {
+    return this.permissions.implies(
+      this.ticketNotGranted,
+      IcPermission.TICKET_READ
+    );
+  }
+
+  /**
+   * @return The result of checking a ticket covered by a projectwide grant
+   */
+
+  @Benchmark
+  public boolean impliesTicketProjectwide()
+  {
+    return this.permissions.implies(
+      this.ticketProjectwide,
+      IcPermission.TICKET_READ
+    );
+  }
+
+  /**
+   * @return The permission set after granting a single permission
+   */
+
+  @Benchmark
+  public IcPermissionSet grantOne()
+  {
+    return this.permissions.toBuilder()
+      .addTicketwide(this.grant)
+      .build();
+  }
+}
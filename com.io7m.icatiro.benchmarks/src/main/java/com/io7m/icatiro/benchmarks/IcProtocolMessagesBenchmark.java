@@ -0,0 +1,204 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.benchmarks;
+
+import com.io7m.icatiro.model.IcPage;
+import com.io7m.icatiro.model.IcPermission;
+import com.io7m.icatiro.model.IcPermissionGlobal;
+import com.io7m.icatiro.model.IcPermissionSet;
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcProjectShortName;
+import com.io7m.icatiro.model.IcProjectTitle;
+import com.io7m.icatiro.model.IcTicketID;
+import com.io7m.icatiro.model.IcTicketSummary;
+import com.io7m.icatiro.model.IcTicketSummaryType;
+import com.io7m.icatiro.model.IcTicketTitle;
+import com.io7m.icatiro.protocol.IcProtocolException;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketSearchBegin;
+import com.io7m.icatiro.protocol.tickets.cb.IcT1Messages;
+import com.io7m.idstore.model.IdName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and serializing protocol messages through byte arrays compared to
+ * parsing and serializing them directly over streams, in the manner of the
+ * server. The allocation figures are produced by running the benchmark with
+ * the JMH GC profiler ({@code -prof gc}).
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IcProtocolMessagesBenchmark
+{
+  @Param({"10", "1000"})
+  private int pageSize;
+
+  private IcT1Messages messages;
+  private IcTMessageType message;
+  private byte[] data;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public IcProtocolMessagesBenchmark()
+  {
+
+  }
+
+  /**
+   * Set up a page of search results.
+   *
+   * @throws IcProtocolException On errors
+   */
+
+  @Setup
+  public void setup()
+    throws IcProtocolException
+  {
+    this.messages = new IcT1Messages();
+
+    final var time =
+      OffsetDateTime.of(2023, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    final var reporter =
+      UUID.randomUUID();
+    final var project =
+      new IcProjectID(1L);
+
+    final var tickets = new ArrayList<IcTicketSummaryType>(this.pageSize);
+    final var ids = new ArrayList<IcTicketID>(this.pageSize);
+    for (int index = 0; index < this.pageSize; ++index) {
+      final var id = new IcTicketID(project, index);
+      ids.add(id);
+      tickets.add(
+        new IcTicketSummary(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT"),
+          id,
+          new IcTicketTitle("A ticket with a reasonably long title %d"
+                              .formatted(Integer.valueOf(index))),
+          time,
+          time,
+          reporter,
+          new IdName("someone")
+        )
+      );
+    }
+
+    final var permissions =
+      IcPermissionSet.of(
+        List.of(new IcPermissionGlobal(IcPermission.TICKET_READ))
+      ).impliesMany(ids, EnumSet.of(IcPermission.TICKET_READ));
+
+    this.message =
+      new IcTResponseTicketSearchBegin(
+        UUID.randomUUID(),
+        new IcPage<>(tickets, 1, 1, 0L),
+        permissions
+      );
+    this.data =
+      this.messages.serialize(this.message);
+  }
+
+  /**
+   * @return The message after reading the whole body and parsing the bytes
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public IcTMessageType parseBytes()
+    throws Exception
+  {
+    try (var input = new ByteArrayInputStream(this.data)) {
+      return this.messages.parse(input.readAllBytes());
+    }
+  }
+
+  /**
+   * @return The message after parsing the body stream
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public IcTMessageType parseStream()
+    throws Exception
+  {
+    try (var input = new ByteArrayInputStream(this.data)) {
+      return this.messages.parse(input);
+    }
+  }
+
+  /**
+   * Serialize the message to a byte array, and then write the array.
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public void serializeBytes()
+    throws Exception
+  {
+    try (var output = OutputStream.nullOutputStream()) {
+      output.write(this.messages.serialize(this.message));
+    }
+  }
+
+  /**
+   * Serialize the message directly to the output.
+   *
+   * @throws IOException         On errors
+   * @throws IcProtocolException On errors
+   */
+
+  @Benchmark
+  public void serializeStream()
+    throws IOException, IcProtocolException
+  {
+    try (var output = OutputStream.nullOutputStream()) {
+      this.messages.serialize(this.message, output);
+    }
+  }
+}
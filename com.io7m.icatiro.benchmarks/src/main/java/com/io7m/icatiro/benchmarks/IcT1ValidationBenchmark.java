@@ -0,0 +1,235 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.benchmarks;
+
+import com.io7m.icatiro.model.IcPage;
+import com.io7m.icatiro.model.IcPermission;
+import com.io7m.icatiro.model.IcPermissionGlobal;
+import com.io7m.icatiro.model.IcPermissionSet;
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcProjectShortName;
+import com.io7m.icatiro.model.IcProjectTitle;
+import com.io7m.icatiro.model.IcTicket;
+import com.io7m.icatiro.model.IcTicketComment;
+import com.io7m.icatiro.model.IcTicketID;
+import com.io7m.icatiro.model.IcTicketSummary;
+import com.io7m.icatiro.model.IcTicketSummaryType;
+import com.io7m.icatiro.model.IcTicketTitle;
+import com.io7m.icatiro.protocol.IcProtocolException;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketGet;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketSearchBegin;
+import com.io7m.icatiro.protocol.tickets.cb.IcT1Validation;
+import com.io7m.icatiro.protocol.tickets.cb.ProtocolTicketsv1Type;
+import com.io7m.idstore.model.IdName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converting protocol messages to and from their wire representations, for
+ * pages of search results and for tickets with many comments. The conversion
+ * takes place before serialization and after parsing, and so the figures
+ * exclude the cost of encoding. The allocation figures are produced by
+ * running the benchmark with the JMH GC profiler ({@code -prof gc}).
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IcT1ValidationBenchmark
+{
+  @Param({"10", "1000"})
+  private int size;
+
+  private IcT1Validation validation;
+  private IcTMessageType searchPage;
+  private ProtocolTicketsv1Type searchPageWire;
+  private IcTMessageType ticket;
+  private ProtocolTicketsv1Type ticketWire;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public IcT1ValidationBenchmark()
+  {
+
+  }
+
+  /**
+   * Set up a page of search results containing {@code size} tickets, and a
+   * ticket with {@code size} comments.
+   *
+   * @throws IcProtocolException On errors
+   */
+
+  @Setup
+  public void setup()
+    throws IcProtocolException
+  {
+    this.validation = new IcT1Validation();
+
+    final var time =
+      OffsetDateTime.of(2023, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    final var reporter =
+      UUID.randomUUID();
+    final var project =
+      new IcProjectID(1L);
+
+    final var tickets = new ArrayList<IcTicketSummaryType>(this.size);
+    final var ids = new ArrayList<IcTicketID>(this.size);
+    for (int index = 0; index < this.size; ++index) {
+      final var id = new IcTicketID(project, index);
+      ids.add(id);
+      tickets.add(
+        new IcTicketSummary(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT"),
+          id,
+          new IcTicketTitle("A ticket with a reasonably long title %d"
+                              .formatted(Integer.valueOf(index))),
+          time,
+          time,
+          reporter,
+          new IdName("someone")
+        )
+      );
+    }
+
+    final var permissions =
+      IcPermissionSet.of(
+        List.of(new IcPermissionGlobal(IcPermission.TICKET_READ))
+      ).impliesMany(ids, EnumSet.of(IcPermission.TICKET_READ));
+
+    this.searchPage =
+      new IcTResponseTicketSearchBegin(
+        UUID.randomUUID(),
+        new IcPage<>(tickets, 1, 1, 0L),
+        permissions
+      );
+    this.searchPageWire =
+      this.validation.convertToWire(this.searchPage);
+
+    final var ticketId = new IcTicketID(project, 1L);
+    final var comments = new ArrayList<IcTicketComment>(this.size);
+    for (int index = 0; index < this.size; ++index) {
+      comments.add(
+        new IcTicketComment(
+          ticketId,
+          time,
+          reporter,
+          index,
+          index == 0 ? OptionalLong.empty() : OptionalLong.of(index - 1L),
+          "A comment with a reasonable amount of text %d"
+            .formatted(Integer.valueOf(index))
+        )
+      );
+    }
+
+    this.ticket =
+      new IcTResponseTicketGet(
+        UUID.randomUUID(),
+        new IcTicket(
+          ticketId,
+          new IcTicketTitle("A ticket with many comments"),
+          time,
+          time,
+          1L,
+          reporter,
+          new IdName("someone"),
+          "A description.",
+          comments
+        )
+      );
+    this.ticketWire =
+      this.validation.convertToWire(this.ticket);
+  }
+
+  /**
+   * @return The search page converted to the wire representation
+   *
+   * @throws IcProtocolException On errors
+   */
+
+  @Benchmark
+  public ProtocolTicketsv1Type searchPageToWire()
+    throws IcProtocolException
+  {
+    return this.validation.convertToWire(this.searchPage);
+  }
+
+  /**
+   * @return The search page converted from the wire representation
+   *
+   * @throws IcProtocolException On errors
+   */
+
+  @Benchmark
+  public IcTMessageType searchPageFromWire()
+    throws IcProtocolException
+  {
+    return this.validation.convertFromWire(this.searchPageWire);
+  }
+
+  /**
+   * @return The ticket converted to the wire representation
+   *
+   * @throws IcProtocolException On errors
+   */
+
+  @Benchmark
+  public ProtocolTicketsv1Type ticketToWire()
+    throws IcProtocolException
+  {
+    return this.validation.convertToWire(this.ticket);
+  }
+
+  /**
+   * @return The ticket converted from the wire representation
+   *
+   * @throws IcProtocolException On errors
+   */
+
+  @Benchmark
+  public IcTMessageType ticketFromWire()
+    throws IcProtocolException
+  {
+    return this.validation.convertFromWire(this.ticketWire);
+  }
+}
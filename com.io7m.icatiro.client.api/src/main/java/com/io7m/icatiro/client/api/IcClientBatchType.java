@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.client.api;
+
+import com.io7m.icatiro.protocol.tickets.IcTBatchMode;
+import com.io7m.icatiro.protocol.tickets.IcTCommandType;
+import com.io7m.icatiro.protocol.tickets.IcTResponseType;
+
+import java.util.List;
+
+/**
+ * Methods related to executing batches of commands.
+ */
+
+public interface IcClientBatchType
+{
+  /**
+   * Execute a sequence of commands, in order, in a single request. The
+   * returned list contains a response for each command that was executed;
+   * commands that failed are represented by error responses rather than
+   * exceptions. In {@link IcTBatchMode#ATOMIC} mode, execution stops at the
+   * first command that fails, and none of the commands have any effect.
+   * Batches require version 2 of the protocol.
+   *
+   * @param commands The commands
+   * @param mode     The manner in which the commands are committed
+   *
+   * @return The responses, in the order that the commands were executed
+   *
+   * @throws IcClientException    On errors
+   * @throws InterruptedException On interruption
+   */
+
+  List<IcTResponseType> batch(
+    List<IcTCommandType<?>> commands,
+    IcTBatchMode mode)
+    throws IcClientException, InterruptedException;
+}
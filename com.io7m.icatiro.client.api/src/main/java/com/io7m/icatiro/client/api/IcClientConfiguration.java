@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.client.api;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * The configuration for a client.
+ *
+ * @param locale                      The locale for messages
+ * @param requestCompressionThreshold The size in bytes at or above which
+ *                                    request bodies are gzip-compressed
+ */
+
+public record IcClientConfiguration(
+  Locale locale,
+  int requestCompressionThreshold)
+{
+  /**
+   * The default request compression threshold. Bodies smaller than this
+   * are typically not made any smaller by compression.
+   */
+
+  public static final int DEFAULT_REQUEST_COMPRESSION_THRESHOLD = 1024;
+
+  /**
+   * The configuration for a client.
+   *
+   * @param locale                      The locale for messages
+   * @param requestCompressionThreshold The size in bytes at or above which
+   *                                    request bodies are gzip-compressed
+   */
+
+  public IcClientConfiguration
+  {
+    Objects.requireNonNull(locale, "locale");
+
+    if (requestCompressionThreshold < 0) {
+      throw new IllegalArgumentException(
+        "Request compression threshold %d must be non-negative"
+          .formatted(Integer.valueOf(requestCompressionThreshold))
+      );
+    }
+  }
+
+  /**
+   * @param locale The locale for messages
+   *
+   * @return The default configuration for the given locale
+   */
+
+  public static IcClientConfiguration defaults(
+    final Locale locale)
+  {
+    return new IcClientConfiguration(
+      locale,
+      DEFAULT_REQUEST_COMPRESSION_THRESHOLD
+    );
+  }
+}
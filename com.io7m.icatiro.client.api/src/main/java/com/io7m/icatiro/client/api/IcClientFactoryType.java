@@ -35,7 +35,25 @@ public interface IcClientFactoryType
    * @throws InterruptedException On interruption
    */
 
+  default IcClientType create(
+    final Locale locale)
+    throws IcClientException, InterruptedException
+  {
+    return this.create(IcClientConfiguration.defaults(locale));
+  }
+
+  /**
+   * Create a new client.
+   *
+   * @param configuration The client configuration
+   *
+   * @return A new client
+   *
+   * @throws IcClientException    On errors
+   * @throws InterruptedException On interruption
+   */
+
   IcClientType create(
-    Locale locale)
+    IcClientConfiguration configuration)
     throws IcClientException, InterruptedException;
 }
@@ -17,7 +17,9 @@
 package com.io7m.icatiro.client.api;
 
 import com.io7m.icatiro.model.IcPermissionScopedType;
+import com.io7m.icatiro.model.IcUserPermission;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -40,4 +42,32 @@ public interface IcClientPermissionsType
     UUID targetUser,
     IcPermissionScopedType permission)
     throws IcClientException, InterruptedException;
+
+  /**
+   * Grant many permissions to many users in a single request. Either all of
+   * the permissions are granted, or none of them are.
+   *
+   * @param permissions The permissions
+   *
+   * @throws IcClientException    On errors
+   * @throws InterruptedException On interruption
+   */
+
+  void permissionGrantMany(
+    List<IcUserPermission> permissions)
+    throws IcClientException, InterruptedException;
+
+  /**
+   * Revoke many permissions from many users in a single request. Either all
+   * of the permissions are revoked, or none of them are.
+   *
+   * @param permissions The permissions
+   *
+   * @throws IcClientException    On errors
+   * @throws InterruptedException On interruption
+   */
+
+  void permissionRevokeMany(
+    List<IcUserPermission> permissions)
+    throws IcClientException, InterruptedException;
 }
@@ -17,8 +17,11 @@
 package com.io7m.icatiro.client.api;
 
 import com.io7m.icatiro.model.IcProject;
+import com.io7m.icatiro.model.IcProjectID;
 import com.io7m.icatiro.model.IcProjectShortName;
+import com.io7m.icatiro.model.IcProjectStatistics;
 import com.io7m.icatiro.model.IcProjectTitle;
+import com.io7m.icatiro.model.IcTimeRange;
 
 /**
  * Method related to projects.
@@ -42,4 +45,21 @@ public interface IcClientProjectsType
     IcProjectShortName shortName,
     IcProjectTitle title)
     throws IcClientException, InterruptedException;
+
+  /**
+   * Retrieve the daily ticket statistics for a project.
+   *
+   * @param project   The project
+   * @param timeRange The range of days
+   *
+   * @return The statistics
+   *
+   * @throws IcClientException    On errors
+   * @throws InterruptedException On interruption
+   */
+
+  IcProjectStatistics projectStatistics(
+    IcProjectID project,
+    IcTimeRange timeRange)
+    throws IcClientException, InterruptedException;
 }
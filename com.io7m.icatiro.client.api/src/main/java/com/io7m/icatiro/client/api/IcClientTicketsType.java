@@ -16,14 +16,30 @@
 
 package com.io7m.icatiro.client.api;
 
-import com.io7m.icatiro.model.IcPage;
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcSavedSearch;
+import com.io7m.icatiro.model.IcSavedSearchName;
+import com.io7m.icatiro.model.IcSavedSearchResults;
 import com.io7m.icatiro.model.IcTicket;
+import com.io7m.icatiro.model.IcTicketChangeCursor;
+import com.io7m.icatiro.model.IcTicketChanges;
 import com.io7m.icatiro.model.IcTicketComment;
 import com.io7m.icatiro.model.IcTicketCommentCreation;
 import com.io7m.icatiro.model.IcTicketCreation;
+import com.io7m.icatiro.model.IcTicketGetResultType;
 import com.io7m.icatiro.model.IcTicketID;
 import com.io7m.icatiro.model.IcTicketSearch;
+import com.io7m.icatiro.model.IcTicketSearchPage;
 import com.io7m.icatiro.model.IcTicketSummary;
+import com.io7m.icatiro.model.IcTicketUpdate;
+import com.io7m.icatiro.model.IcTicketVersionToken;
+import com.io7m.icatiro.model.IcTicketWatchResult;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Method related to tickets.
@@ -45,43 +61,60 @@ public interface IcClientTicketsType
   IcTicketSummary ticketCreate(IcTicketCreation create)
     throws IcClientException, InterruptedException;
 
+  /**
+   * Update the title and description of a ticket. The update fails with
+   * {@link com.io7m.icatiro.error_codes.IcStandardErrorCodes#TICKET_UPDATE_CONFLICT}
+   * if the ticket is no longer at the version upon which the update is
+   * based, in which case the ticket should be retrieved again.
+   *
+   * @param update The ticket update info
+   *
+   * @return The updated ticket
+   *
+   * @throws IcClientException    On errors
+   * @throws InterruptedException On interruption
+   */
+
+  IcTicket ticketUpdate(IcTicketUpdate update)
+    throws IcClientException, InterruptedException;
+
   /**
    * Start searching for tickets.
    *
    * @param parameters The search parameters
    *
-   * @return The first page of results
+   * @return The first page of results, with the permissions held for each ticket
    *
    * @throws IcClientException    On errors
    * @throws InterruptedException On interruption
    */
 
-  IcPage<IcTicketSummary> ticketSearchBegin(
+  IcTicketSearchPage ticketSearchBegin(
     IcTicketSearch parameters)
     throws IcClientException, InterruptedException;
 
   /**
    * Get the next page of search results.
    *
-   * @return The page of results
+   * @return The page of results, with the permissions held for each ticket
    *
    * @throws IcClientException    On errors
    * @throws InterruptedException On interruption
    */
 
-  IcPage<IcTicketSummary> ticketSearchNext()
+  IcTicketSearchPage ticketSearchNext()
     throws IcClientException, InterruptedException;
 
   /**
    * Get the previous page of search results.
    *
-   * @return The page of results
+   * @return The page of results, with the permissions held for each ticket
    *
    * @throws IcClientException    On errors
    * @throws InterruptedException On interruption
    */
 
-  IcPage<IcTicketSummary> ticketSearchPrevious()
+  IcTicketSearchPage ticketSearchPrevious()
     throws IcClientException, InterruptedException;
 
   /**
@@ -111,4 +144,157 @@ public interface IcClientTicketsType
 
   IcTicket ticketGet(IcTicketID id)
     throws IcClientException, InterruptedException;
+
+  /**
+   * Retrieve a ticket if the ticket has changed since the client retrieved
+   * the ticket with the given version token. This is considerably cheaper
+   * than {@link #ticketGet(IcTicketID)} for tickets that have not changed.
+   *
+   * @param id    The ticket id
+   * @param token The version token of the client's copy of the ticket
+   *
+   * @return The ticket, or nothing if the ticket has not changed
+   *
+   * @throws IcClientException    On errors
+   * @throws InterruptedException On interruption
+   * @see IcTicket#versionToken()
+   */
+
+  Optional<IcTicket> ticketGetIfChanged(
+    IcTicketID id,
+    IcTicketVersionToken token)
+    throws IcClientException, InterruptedException;
+
+  /**
+   * Export every ticket and comment of a project. The export is written to
+   * the given output as newline-delimited JSON, with one object per line. A
+   * ticket ({@code "type": "ticket"}) is always written immediately before
+   * its comments ({@code "type": "comment"}). The export is streamed from
+   * the server, and so exports of any size can be written without holding
+   * the export in memory.
+   *
+   * @param project The project
+   * @param output  The output
+   *
+   * @throws IcClientException    On errors
+   * @throws InterruptedException On interruption
+   */
+
+  void ticketExport(
+    IcProjectID project,
+    OutputStream output)
+    throws IcClientException, InterruptedException;
+
+  /**
+   * Retrieve many tickets at once. A result is returned for each requested
+   * ticket, in the order that the tickets were requested, indicating whether
+   * the ticket was found, does not exist, or cannot be read by the user.
+   *
+   * @param ids The ticket ids
+   *
+   * @return The results
+   *
+   * @throws IcClientException    On errors
+   * @throws InterruptedException On interruption
+   */
+
+  List<IcTicketGetResultType> ticketGetMany(Collection<IcTicketID> ids)
+    throws IcClientException, InterruptedException;
+
+  /**
+   * Create a saved search. The results of a saved search are maintained by
+   * the server as tickets are written, and can be fetched incrementally with
+   * {@link #savedSearchResults(IcSavedSearchName, long, int)}.
+   *
+   * @param search The search
+   *
+   * @return The search
+   *
+   * @throws IcClientException    On errors
+   * @throws InterruptedException On interruption
+   */
+
+  IcSavedSearch savedSearchCreate(IcSavedSearch search)
+    throws IcClientException, InterruptedException;
+
+  /**
+   * Delete a saved search.
+   *
+   * @param name The name of the search
+   *
+   * @throws IcClientException    On errors
+   * @throws InterruptedException On interruption
+   */
+
+  void savedSearchDelete(IcSavedSearchName name)
+    throws IcClientException, InterruptedException;
+
+  /**
+   * Retrieve the entries of a saved search that have changed since the given
+   * revision. The revision returned in the results should be passed as
+   * {@code since} in the next call.
+   *
+   * @param name  The name of the search
+   * @param since The revision after which to return changes ({@code 0}
+   *              returns the complete current results)
+   * @param limit The maximum number of entries to return
+   *
+   * @return The changed entries
+   *
+   * @throws IcClientException    On errors
+   * @throws InterruptedException On interruption
+   */
+
+  IcSavedSearchResults savedSearchResults(
+    IcSavedSearchName name,
+    long since,
+    int limit)
+    throws IcClientException, InterruptedException;
+
+  /**
+   * Retrieve the changes made to tickets after the given position in the
+   * change log. The returned cursor should be passed to the next call in
+   * order to receive only those changes that follow. Changes are held back
+   * while any older transaction is still running on the server; see
+   * {@link IcTicketChanges#stalledSince()}.
+   *
+   * @param cursor The position after which to return changes
+   * @param limit  The maximum number of changes to examine
+   *
+   * @return The changes
+   *
+   * @throws IcClientException    On errors
+   * @throws InterruptedException On interruption
+   *
+   * @see IcTicketChangeCursor#start()
+   */
+
+  IcTicketChanges ticketChangesSince(
+    IcTicketChangeCursor cursor,
+    int limit)
+    throws IcClientException, InterruptedException;
+
+
+  /**
+   * Wait for the given ticket to change. The call returns as soon as the
+   * ticket's revision differs from {@code revision}, or when the timeout
+   * elapses. The server may impose a shorter timeout than the one requested.
+   * As an existing ticket always has a revision of at least {@code 1}, a
+   * revision of {@code 0} returns the current revision immediately.
+   *
+   * @param ticket   The ticket
+   * @param revision The last revision of the ticket seen by the caller
+   * @param timeout  The maximum time to wait
+   *
+   * @return The result of watching the ticket
+   *
+   * @throws IcClientException    On errors
+   * @throws InterruptedException On interruption
+   */
+
+  IcTicketWatchResult ticketWatch(
+    IcTicketID ticket,
+    long revision,
+    Duration timeout)
+    throws IcClientException, InterruptedException;
 }
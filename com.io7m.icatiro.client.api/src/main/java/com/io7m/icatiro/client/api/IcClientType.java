@@ -29,7 +29,8 @@ public interface IcClientType
   extends Closeable,
   IcClientTicketsType,
   IcClientProjectsType,
-  IcClientPermissionsType
+  IcClientPermissionsType,
+  IcClientBatchType
 {
   /**
    * Log in.
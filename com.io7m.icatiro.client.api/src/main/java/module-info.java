@@ -25,6 +25,7 @@ module com.io7m.icatiro.client.api
 
   requires transitive com.io7m.icatiro.model;
   requires transitive com.io7m.icatiro.error_codes;
+  requires transitive com.io7m.icatiro.protocol.tickets;
 
   exports com.io7m.icatiro.client.api;
 }
@@ -16,6 +16,7 @@
 
 package com.io7m.icatiro.client;
 
+import com.io7m.icatiro.client.api.IcClientConfiguration;
 import com.io7m.icatiro.client.api.IcClientFactoryType;
 import com.io7m.icatiro.client.api.IcClientType;
 import com.io7m.icatiro.client.internal.IcClient;
@@ -27,6 +28,7 @@ import java.io.UncheckedIOException;
 import java.net.CookieManager;
 import java.net.http.HttpClient;
 import java.util.Locale;
+import java.util.Objects;
 
 /**
  * The default client factory.
@@ -44,14 +46,24 @@ public final class IcClients implements IcClientFactoryType
   }
 
   @Override
-  public IcClientType create(final Locale locale)
+  public IcClientType create(
+    final Locale locale)
   {
+    return this.create(IcClientConfiguration.defaults(locale));
+  }
+
+  @Override
+  public IcClientType create(
+    final IcClientConfiguration configuration)
+  {
+    Objects.requireNonNull(configuration, "configuration");
+
     final var cookieJar =
       new CookieManager();
 
     final IcStrings strings;
     try {
-      strings = new IcStrings(locale);
+      strings = new IcStrings(configuration.locale());
     } catch (final IOException e) {
       throw new UncheckedIOException(e);
     }
@@ -62,10 +74,10 @@ public final class IcClients implements IcClientFactoryType
         .build();
 
     return new IcClient(
-      locale,
+      configuration,
       strings,
       httpClient,
-      new IcClientProtocolHandlerDisconnected(locale, strings, httpClient)
+      new IcClientProtocolHandlerDisconnected(configuration, strings, httpClient)
     );
   }
 }
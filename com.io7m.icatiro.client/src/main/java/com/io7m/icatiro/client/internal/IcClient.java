@@ -16,27 +16,48 @@
 
 package com.io7m.icatiro.client.internal;
 
+import com.io7m.icatiro.client.api.IcClientConfiguration;
 import com.io7m.icatiro.client.api.IcClientException;
 import com.io7m.icatiro.client.api.IcClientType;
-import com.io7m.icatiro.model.IcPage;
 import com.io7m.icatiro.model.IcPermissionScopedType;
 import com.io7m.icatiro.model.IcProject;
+import com.io7m.icatiro.model.IcProjectID;
 import com.io7m.icatiro.model.IcProjectShortName;
+import com.io7m.icatiro.model.IcProjectStatistics;
 import com.io7m.icatiro.model.IcProjectTitle;
+import com.io7m.icatiro.model.IcSavedSearch;
+import com.io7m.icatiro.model.IcSavedSearchName;
+import com.io7m.icatiro.model.IcSavedSearchResults;
 import com.io7m.icatiro.model.IcTicket;
+import com.io7m.icatiro.model.IcTicketChangeCursor;
+import com.io7m.icatiro.model.IcTicketChanges;
 import com.io7m.icatiro.model.IcTicketComment;
 import com.io7m.icatiro.model.IcTicketCommentCreation;
 import com.io7m.icatiro.model.IcTicketCreation;
+import com.io7m.icatiro.model.IcTicketGetResultType;
 import com.io7m.icatiro.model.IcTicketID;
 import com.io7m.icatiro.model.IcTicketSearch;
+import com.io7m.icatiro.model.IcTicketSearchPage;
 import com.io7m.icatiro.model.IcTicketSummary;
+import com.io7m.icatiro.model.IcTicketUpdate;
+import com.io7m.icatiro.model.IcTicketVersionToken;
+import com.io7m.icatiro.model.IcTicketWatchResult;
+import com.io7m.icatiro.model.IcTimeRange;
 import com.io7m.icatiro.model.IcUser;
+import com.io7m.icatiro.model.IcUserPermission;
+import com.io7m.icatiro.protocol.tickets.IcTBatchMode;
+import com.io7m.icatiro.protocol.tickets.IcTCommandType;
+import com.io7m.icatiro.protocol.tickets.IcTResponseType;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
-import java.util.Locale;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -45,7 +66,7 @@ import java.util.UUID;
 
 public final class IcClient implements IcClientType
 {
-  private final Locale locale;
+  private final IcClientConfiguration configuration;
   private final IcStrings strings;
   private final HttpClient httpClient;
   private volatile IcClientProtocolHandlerType handler;
@@ -53,20 +74,20 @@ public final class IcClient implements IcClientType
   /**
    * The default client implementation.
    *
-   * @param inLocale     The locale
-   * @param inStrings    The string resources
-   * @param inHttpClient The HTTP client
-   * @param inHandler    The versioned handler
+   * @param inConfiguration The client configuration
+   * @param inStrings       The string resources
+   * @param inHttpClient    The HTTP client
+   * @param inHandler       The versioned handler
    */
 
   public IcClient(
-    final Locale inLocale,
+    final IcClientConfiguration inConfiguration,
     final IcStrings inStrings,
     final HttpClient inHttpClient,
     final IcClientProtocolHandlerType inHandler)
   {
-    this.locale =
-      Objects.requireNonNull(inLocale, "inLocale");
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "inConfiguration");
     this.strings =
       Objects.requireNonNull(inStrings, "strings");
     this.httpClient =
@@ -91,7 +112,7 @@ public final class IcClient implements IcClientType
   {
     final var newHandler =
       IcProtocolNegotiation.negotiateProtocolHandler(
-        this.locale,
+        this.configuration,
         this.httpClient,
         this.strings,
         base
@@ -113,7 +134,15 @@ public final class IcClient implements IcClientType
   }
 
   @Override
-  public IcPage<IcTicketSummary> ticketSearchBegin(
+  public IcTicket ticketUpdate(
+    final IcTicketUpdate update)
+    throws IcClientException, InterruptedException
+  {
+    return this.handler.ticketUpdate(update);
+  }
+
+  @Override
+  public IcTicketSearchPage ticketSearchBegin(
     final IcTicketSearch parameters)
     throws IcClientException, InterruptedException
   {
@@ -121,14 +150,14 @@ public final class IcClient implements IcClientType
   }
 
   @Override
-  public IcPage<IcTicketSummary> ticketSearchNext()
+  public IcTicketSearchPage ticketSearchNext()
     throws IcClientException, InterruptedException
   {
     return this.handler.ticketSearchNext();
   }
 
   @Override
-  public IcPage<IcTicketSummary> ticketSearchPrevious()
+  public IcTicketSearchPage ticketSearchPrevious()
     throws IcClientException, InterruptedException
   {
     return this.handler.ticketSearchPrevious();
@@ -150,6 +179,32 @@ public final class IcClient implements IcClientType
     return this.handler.ticketGet(id);
   }
 
+  @Override
+  public Optional<IcTicket> ticketGetIfChanged(
+    final IcTicketID id,
+    final IcTicketVersionToken token)
+    throws IcClientException, InterruptedException
+  {
+    return this.handler.ticketGetIfChanged(id, token);
+  }
+
+  @Override
+  public void ticketExport(
+    final IcProjectID project,
+    final OutputStream output)
+    throws IcClientException, InterruptedException
+  {
+    this.handler.ticketExport(project, output);
+  }
+
+  @Override
+  public List<IcTicketGetResultType> ticketGetMany(
+    final Collection<IcTicketID> ids)
+    throws IcClientException, InterruptedException
+  {
+    return this.handler.ticketGetMany(ids);
+  }
+
   @Override
   public IcProject projectCreate(
     final IcProjectShortName shortName,
@@ -167,4 +222,84 @@ public final class IcClient implements IcClientType
   {
     this.handler.permissionGrant(targetUser, permission);
   }
+
+  @Override
+  public void permissionGrantMany(
+    final List<IcUserPermission> permissions)
+    throws IcClientException, InterruptedException
+  {
+    this.handler.permissionGrantMany(permissions);
+  }
+
+  @Override
+  public void permissionRevokeMany(
+    final List<IcUserPermission> permissions)
+    throws IcClientException, InterruptedException
+  {
+    this.handler.permissionRevokeMany(permissions);
+  }
+
+  @Override
+  public IcProjectStatistics projectStatistics(
+    final IcProjectID project,
+    final IcTimeRange timeRange)
+    throws IcClientException, InterruptedException
+  {
+    return this.handler.projectStatistics(project, timeRange);
+  }
+
+  @Override
+  public IcSavedSearch savedSearchCreate(
+    final IcSavedSearch search)
+    throws IcClientException, InterruptedException
+  {
+    return this.handler.savedSearchCreate(search);
+  }
+
+  @Override
+  public void savedSearchDelete(
+    final IcSavedSearchName name)
+    throws IcClientException, InterruptedException
+  {
+    this.handler.savedSearchDelete(name);
+  }
+
+  @Override
+  public IcSavedSearchResults savedSearchResults(
+    final IcSavedSearchName name,
+    final long since,
+    final int limit)
+    throws IcClientException, InterruptedException
+  {
+    return this.handler.savedSearchResults(name, since, limit);
+  }
+
+  @Override
+  public IcTicketChanges ticketChangesSince(
+    final IcTicketChangeCursor cursor,
+    final int limit)
+    throws IcClientException, InterruptedException
+  {
+    return this.handler.ticketChangesSince(cursor, limit);
+  }
+
+
+  @Override
+  public IcTicketWatchResult ticketWatch(
+    final IcTicketID ticket,
+    final long revision,
+    final Duration timeout)
+    throws IcClientException, InterruptedException
+  {
+    return this.handler.ticketWatch(ticket, revision, timeout);
+  }
+
+  @Override
+  public List<IcTResponseType> batch(
+    final List<IcTCommandType<?>> commands,
+    final IcTBatchMode mode)
+    throws IcClientException, InterruptedException
+  {
+    return this.handler.batch(commands, mode);
+  }
 }
@@ -17,61 +17,112 @@
 
 package com.io7m.icatiro.client.internal;
 
+import com.io7m.icatiro.client.api.IcClientConfiguration;
 import com.io7m.icatiro.client.api.IcClientException;
 import com.io7m.icatiro.error_codes.IcErrorCode;
-import com.io7m.icatiro.model.IcPage;
 import com.io7m.icatiro.model.IcPermissionScopedType;
 import com.io7m.icatiro.model.IcProject;
+import com.io7m.icatiro.model.IcProjectID;
 import com.io7m.icatiro.model.IcProjectShortName;
+import com.io7m.icatiro.model.IcProjectStatistics;
 import com.io7m.icatiro.model.IcProjectTitle;
+import com.io7m.icatiro.model.IcSavedSearch;
+import com.io7m.icatiro.model.IcSavedSearchName;
+import com.io7m.icatiro.model.IcSavedSearchResults;
 import com.io7m.icatiro.model.IcTicket;
+import com.io7m.icatiro.model.IcTicketChangeCursor;
+import com.io7m.icatiro.model.IcTicketChanges;
 import com.io7m.icatiro.model.IcTicketComment;
 import com.io7m.icatiro.model.IcTicketCommentCreation;
 import com.io7m.icatiro.model.IcTicketCreation;
+import com.io7m.icatiro.model.IcTicketGetResultType;
 import com.io7m.icatiro.model.IcTicketID;
 import com.io7m.icatiro.model.IcTicketSearch;
+import com.io7m.icatiro.model.IcTicketSearchPage;
 import com.io7m.icatiro.model.IcTicketSummary;
+import com.io7m.icatiro.model.IcTicketUpdate;
+import com.io7m.icatiro.model.IcTicketVersionToken;
+import com.io7m.icatiro.model.IcTicketWatchResult;
+import com.io7m.icatiro.model.IcTimeRange;
+import com.io7m.icatiro.model.IcUserPermission;
 import com.io7m.icatiro.protocol.IcProtocolException;
+import com.io7m.icatiro.protocol.IcProtocolMessagesType;
+import com.io7m.icatiro.protocol.tickets.IcTBatchMode;
+import com.io7m.icatiro.protocol.tickets.IcTCommandBatch;
 import com.io7m.icatiro.protocol.tickets.IcTCommandLogin;
+import com.io7m.icatiro.protocol.tickets.IcTCommandLoginCompact;
 import com.io7m.icatiro.protocol.tickets.IcTCommandPermissionGrant;
+import com.io7m.icatiro.protocol.tickets.IcTCommandPermissionGrantMany;
+import com.io7m.icatiro.protocol.tickets.IcTCommandPermissionRevokeMany;
 import com.io7m.icatiro.protocol.tickets.IcTCommandProjectCreate;
+import com.io7m.icatiro.protocol.tickets.IcTCommandProjectStatistics;
+import com.io7m.icatiro.protocol.tickets.IcTCommandSavedSearchCreate;
+import com.io7m.icatiro.protocol.tickets.IcTCommandSavedSearchDelete;
+import com.io7m.icatiro.protocol.tickets.IcTCommandSavedSearchResults;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketChangesSince;
 import com.io7m.icatiro.protocol.tickets.IcTCommandTicketCommentCreate;
 import com.io7m.icatiro.protocol.tickets.IcTCommandTicketCreate;
 import com.io7m.icatiro.protocol.tickets.IcTCommandTicketGet;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketGetIfChanged;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketGetMany;
 import com.io7m.icatiro.protocol.tickets.IcTCommandTicketSearchBegin;
 import com.io7m.icatiro.protocol.tickets.IcTCommandTicketSearchNext;
 import com.io7m.icatiro.protocol.tickets.IcTCommandTicketSearchPrevious;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketUpdate;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketWatch;
 import com.io7m.icatiro.protocol.tickets.IcTCommandType;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.protocol.tickets.IcTResponseBatch;
 import com.io7m.icatiro.protocol.tickets.IcTResponseError;
 import com.io7m.icatiro.protocol.tickets.IcTResponseLogin;
+import com.io7m.icatiro.protocol.tickets.IcTResponseLoginCompact;
 import com.io7m.icatiro.protocol.tickets.IcTResponsePermissionGrant;
+import com.io7m.icatiro.protocol.tickets.IcTResponsePermissionGrantMany;
+import com.io7m.icatiro.protocol.tickets.IcTResponsePermissionRevokeMany;
 import com.io7m.icatiro.protocol.tickets.IcTResponseProjectCreate;
+import com.io7m.icatiro.protocol.tickets.IcTResponseProjectStatistics;
+import com.io7m.icatiro.protocol.tickets.IcTResponseSavedSearchCreate;
+import com.io7m.icatiro.protocol.tickets.IcTResponseSavedSearchDelete;
+import com.io7m.icatiro.protocol.tickets.IcTResponseSavedSearchResults;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketChangesSince;
 import com.io7m.icatiro.protocol.tickets.IcTResponseTicketCommentCreate;
 import com.io7m.icatiro.protocol.tickets.IcTResponseTicketCreate;
 import com.io7m.icatiro.protocol.tickets.IcTResponseTicketGet;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketGetIfChanged;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketGetMany;
 import com.io7m.icatiro.protocol.tickets.IcTResponseTicketSearchBegin;
 import com.io7m.icatiro.protocol.tickets.IcTResponseTicketSearchNext;
 import com.io7m.icatiro.protocol.tickets.IcTResponseTicketSearchPrevious;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketUpdate;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketWatch;
 import com.io7m.icatiro.protocol.tickets.IcTResponseType;
 import com.io7m.icatiro.protocol.tickets.cb.IcT1Messages;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
-import static com.io7m.icatiro.client.internal.IcCompression.decompressResponse;
+import static com.io7m.icatiro.client.internal.IcCompression.compressRequest;
+import static com.io7m.icatiro.client.internal.IcCompression.decompressResponseStream;
 import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.IO_ERROR;
 import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.PROTOCOL_ERROR;
 import static com.io7m.idstore.error_codes.IdStandardErrorCodes.AUTHENTICATION_ERROR;
 import static java.net.http.HttpResponse.BodyHandlers;
 
 /**
- * The version 1 protocol handler.
+ * The version 1 protocol handler. Version 2 of the protocol differs only in
+ * the encoding of messages, and so is handled by this class using the
+ * version 2 message codec.
  */
 
 public final class IcClientProtocolHandler1
@@ -80,28 +131,42 @@ public final class IcClientProtocolHandler1
   private static final Logger LOG =
     LoggerFactory.getLogger(IcClientProtocolHandler1.class);
 
+  /**
+   * The content type of ticket exports.
+   */
+
+  private static final String EXPORT_CONTENT_TYPE = "application/x-ndjson";
+
   private final URI commandURI;
-  private final IcT1Messages messages;
+  private final IcProtocolMessagesType<IcTMessageType> messages;
   private final URI loginURI;
+  private final URI exportURI;
+  private final IcClientConfiguration configuration;
   private IcTCommandLogin mostRecentLogin;
 
   /**
    * The version 1 protocol handler.
    *
-   * @param inHttpClient The HTTP client
-   * @param inStrings    The string resources
-   * @param inBase       The base URI
+   * @param inHttpClient    The HTTP client
+   * @param inStrings       The string resources
+   * @param inConfiguration The client configuration
+   * @param inBase          The base URI
+   * @param inMessages      The message codec
    */
 
   public IcClientProtocolHandler1(
     final HttpClient inHttpClient,
     final IcStrings inStrings,
-    final URI inBase)
+    final IcClientConfiguration inConfiguration,
+    final URI inBase,
+    final IcProtocolMessagesType<IcTMessageType> inMessages)
   {
     super(inHttpClient, inStrings, inBase);
 
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
     this.messages =
-      new IcT1Messages();
+      Objects.requireNonNull(inMessages, "messages");
 
     this.loginURI =
       inBase.resolve("login")
@@ -109,6 +174,9 @@ public final class IcClientProtocolHandler1
     this.commandURI =
       inBase.resolve("command")
         .normalize();
+    this.exportURI =
+      inBase.resolve("export")
+        .normalize();
   }
 
   @Override
@@ -130,6 +198,24 @@ public final class IcClientProtocolHandler1
     return this.send(1, this.loginURI, IcTResponseLogin.class, true, message);
   }
 
+  /*
+   * The user returned by a re-login is discarded, so the compact variant
+   * that omits the user's ticketwide permissions is used.
+   */
+
+  private IcTResponseLoginCompact sendLoginCompact(
+    final IcTCommandLogin message)
+    throws InterruptedException, IcClientException
+  {
+    return this.send(
+      1,
+      this.loginURI,
+      IcTResponseLoginCompact.class,
+      true,
+      new IcTCommandLoginCompact(message.userName(), message.password())
+    );
+  }
+
   private <T extends IcTResponseType> T sendCommand(
     final Class<T> responseClass,
     final IcTCommandType<T> message)
@@ -150,17 +236,37 @@ public final class IcClientProtocolHandler1
       final var commandType = message.getClass().getSimpleName();
       LOG.debug("sending {} to {}", commandType, uri);
 
-      final var sendBytes =
-        this.messages.serialize(message);
+      final var sendBytes = new IcRequestBodyOutput();
+      this.messages.serialize(message, sendBytes);
 
-      final var request =
+      final var requestBuilder =
         HttpRequest.newBuilder(uri)
-          .POST(HttpRequest.BodyPublishers.ofByteArray(sendBytes))
-          .build();
+          .header("Accept-Encoding", "gzip");
+
+      /*
+       * Bodies below the threshold are sent as-is; compressing them costs
+       * time and rarely makes them any smaller.
+       */
+
+      if (sendBytes.size() >= this.configuration.requestCompressionThreshold()) {
+        final var compressed = compressRequest(sendBytes);
+        LOG.debug(
+          "compressed request {} -> {} bytes",
+          Integer.valueOf(sendBytes.size()),
+          Integer.valueOf(compressed.size())
+        );
+        requestBuilder.header("Content-Encoding", "gzip");
+        requestBuilder.POST(compressed.publisher());
+      } else {
+        requestBuilder.POST(sendBytes.publisher());
+      }
+
+      final var request =
+        requestBuilder.build();
 
       final var response =
         this.httpClient()
-          .send(request, BodyHandlers.ofByteArray());
+          .send(request, BodyHandlers.ofInputStream());
 
       LOG.debug("server: status {}", response.statusCode());
 
@@ -172,6 +278,7 @@ public final class IcClientProtocolHandler1
           .orElse("application/octet-stream");
 
       if (!contentType.equals(IcT1Messages.contentType())) {
+        response.body().close();
         throw new IcClientException(
           PROTOCOL_ERROR,
           this.strings()
@@ -183,8 +290,10 @@ public final class IcClientProtocolHandler1
         );
       }
 
-      final var responseMessage =
-        this.messages.parse(decompressResponse(response, responseHeaders));
+      final IcTMessageType responseMessage;
+      try (var input = decompressResponseStream(response, responseHeaders)) {
+        responseMessage = this.messages.parse(input);
+      }
 
       if (!(responseMessage instanceof IcTResponseType)) {
         throw new IcClientException(
@@ -204,7 +313,7 @@ public final class IcClientProtocolHandler1
         if (attempt < 3) {
           if (isAuthenticationError(error) && !isLoggingIn) {
             LOG.debug("attempting re-login");
-            this.sendLogin(this.mostRecentLogin);
+            this.sendLoginCompact(this.mostRecentLogin);
             return this.send(
               attempt + 1,
               uri,
@@ -267,34 +376,51 @@ public final class IcClientProtocolHandler1
   }
 
   @Override
-  public IcPage<IcTicketSummary> ticketSearchBegin(
-    final IcTicketSearch parameters)
+  public IcTicket ticketUpdate(
+    final IcTicketUpdate update)
     throws IcClientException, InterruptedException
   {
     return this.sendCommand(
-      IcTResponseTicketSearchBegin.class,
-      new IcTCommandTicketSearchBegin(parameters)
-    ).tickets();
+      IcTResponseTicketUpdate.class,
+      new IcTCommandTicketUpdate(update)
+    ).ticket();
   }
 
   @Override
-  public IcPage<IcTicketSummary> ticketSearchNext()
+  public IcTicketSearchPage ticketSearchBegin(
+    final IcTicketSearch parameters)
     throws IcClientException, InterruptedException
   {
-    return this.sendCommand(
-      IcTResponseTicketSearchNext.class,
-      new IcTCommandTicketSearchNext()
-    ).tickets();
+    final var response =
+      this.sendCommand(
+        IcTResponseTicketSearchBegin.class,
+        new IcTCommandTicketSearchBegin(parameters)
+      );
+    return new IcTicketSearchPage(response.tickets(), response.permissions());
   }
 
   @Override
-  public IcPage<IcTicketSummary> ticketSearchPrevious()
+  public IcTicketSearchPage ticketSearchNext()
     throws IcClientException, InterruptedException
   {
-    return this.sendCommand(
-      IcTResponseTicketSearchPrevious.class,
-      new IcTCommandTicketSearchPrevious()
-    ).tickets();
+    final var response =
+      this.sendCommand(
+        IcTResponseTicketSearchNext.class,
+        new IcTCommandTicketSearchNext()
+      );
+    return new IcTicketSearchPage(response.tickets(), response.permissions());
+  }
+
+  @Override
+  public IcTicketSearchPage ticketSearchPrevious()
+    throws IcClientException, InterruptedException
+  {
+    final var response =
+      this.sendCommand(
+        IcTResponseTicketSearchPrevious.class,
+        new IcTCommandTicketSearchPrevious()
+      );
+    return new IcTicketSearchPage(response.tickets(), response.permissions());
   }
 
   @Override
@@ -319,6 +445,131 @@ public final class IcClientProtocolHandler1
     ).ticket();
   }
 
+  @Override
+  public Optional<IcTicket> ticketGetIfChanged(
+    final IcTicketID id,
+    final IcTicketVersionToken token)
+    throws IcClientException, InterruptedException
+  {
+    return this.sendCommand(
+      IcTResponseTicketGetIfChanged.class,
+      new IcTCommandTicketGetIfChanged(id, token)
+    ).ticket();
+  }
+
+  @Override
+  public void ticketExport(
+    final IcProjectID project,
+    final OutputStream output)
+    throws IcClientException, InterruptedException
+  {
+    Objects.requireNonNull(project, "project");
+    Objects.requireNonNull(output, "output");
+
+    this.export(1, project, output);
+  }
+
+  private void export(
+    final int attempt,
+    final IcProjectID project,
+    final OutputStream output)
+    throws IcClientException, InterruptedException
+  {
+    final var commandType = "TicketExport";
+    final var uri =
+      URI.create("%s?project=%s".formatted(this.exportURI, project));
+
+    try {
+      LOG.debug("exporting {} from {}", project, uri);
+
+      final var request =
+        HttpRequest.newBuilder(uri)
+          .header("Accept-Encoding", "gzip")
+          .GET()
+          .build();
+
+      final var response =
+        this.httpClient()
+          .send(request, BodyHandlers.ofInputStream());
+
+      LOG.debug("server: status {}", response.statusCode());
+
+      final var responseHeaders =
+        response.headers();
+      final var contentType =
+        responseHeaders.firstValue("content-type")
+          .orElse("application/octet-stream");
+
+      try (var input = decompressResponseStream(response, responseHeaders)) {
+        if (response.statusCode() == 200
+            && contentType.startsWith(EXPORT_CONTENT_TYPE)) {
+          input.transferTo(output);
+          return;
+        }
+
+        if (!contentType.equals(IcT1Messages.contentType())) {
+          throw new IcClientException(
+            PROTOCOL_ERROR,
+            this.strings()
+              .format(
+                "errorContentType",
+                commandType,
+                EXPORT_CONTENT_TYPE,
+                contentType)
+          );
+        }
+
+        final var message = this.messages.parse(input);
+        if (!(message instanceof IcTResponseError error)) {
+          throw new IcClientException(
+            PROTOCOL_ERROR,
+            this.strings()
+              .format(
+                "errorResponseType",
+                "(unavailable)",
+                commandType,
+                IcTResponseError.class,
+                message.getClass())
+          );
+        }
+
+        if (attempt < 3 && isAuthenticationError(error)) {
+          LOG.debug("attempting re-login");
+          this.sendLoginCompact(this.mostRecentLogin);
+          this.export(attempt + 1, project, output);
+          return;
+        }
+
+        throw new IcClientException(
+          new IcErrorCode(error.errorCode()),
+          this.strings()
+            .format(
+              "errorResponse",
+              error.requestId(),
+              commandType,
+              Integer.valueOf(response.statusCode()),
+              error.errorCode(),
+              error.message())
+        );
+      }
+    } catch (final IcProtocolException e) {
+      throw new IcClientException(PROTOCOL_ERROR, e);
+    } catch (final IOException e) {
+      throw new IcClientException(IO_ERROR, e);
+    }
+  }
+
+  @Override
+  public List<IcTicketGetResultType> ticketGetMany(
+    final Collection<IcTicketID> ids)
+    throws IcClientException, InterruptedException
+  {
+    return this.sendCommand(
+      IcTResponseTicketGetMany.class,
+      new IcTCommandTicketGetMany(List.copyOf(ids))
+    ).results();
+  }
+
   @Override
   public IcProject projectCreate(
     final IcProjectShortName shortName,
@@ -331,6 +582,18 @@ public final class IcClientProtocolHandler1
     ).project();
   }
 
+  @Override
+  public IcProjectStatistics projectStatistics(
+    final IcProjectID project,
+    final IcTimeRange timeRange)
+    throws IcClientException, InterruptedException
+  {
+    return this.sendCommand(
+      IcTResponseProjectStatistics.class,
+      new IcTCommandProjectStatistics(project, timeRange)
+    ).statistics();
+  }
+
   @Override
   public void permissionGrant(
     final UUID targetUser,
@@ -342,4 +605,99 @@ public final class IcClientProtocolHandler1
       new IcTCommandPermissionGrant(targetUser, permission)
     );
   }
+
+  @Override
+  public void permissionGrantMany(
+    final List<IcUserPermission> permissions)
+    throws IcClientException, InterruptedException
+  {
+    this.sendCommand(
+      IcTResponsePermissionGrantMany.class,
+      new IcTCommandPermissionGrantMany(permissions)
+    );
+  }
+
+  @Override
+  public void permissionRevokeMany(
+    final List<IcUserPermission> permissions)
+    throws IcClientException, InterruptedException
+  {
+    this.sendCommand(
+      IcTResponsePermissionRevokeMany.class,
+      new IcTCommandPermissionRevokeMany(permissions)
+    );
+  }
+
+  @Override
+  public IcSavedSearch savedSearchCreate(
+    final IcSavedSearch search)
+    throws IcClientException, InterruptedException
+  {
+    return this.sendCommand(
+      IcTResponseSavedSearchCreate.class,
+      new IcTCommandSavedSearchCreate(search)
+    ).search();
+  }
+
+  @Override
+  public void savedSearchDelete(
+    final IcSavedSearchName name)
+    throws IcClientException, InterruptedException
+  {
+    this.sendCommand(
+      IcTResponseSavedSearchDelete.class,
+      new IcTCommandSavedSearchDelete(name)
+    );
+  }
+
+  @Override
+  public IcSavedSearchResults savedSearchResults(
+    final IcSavedSearchName name,
+    final long since,
+    final int limit)
+    throws IcClientException, InterruptedException
+  {
+    return this.sendCommand(
+      IcTResponseSavedSearchResults.class,
+      new IcTCommandSavedSearchResults(name, since, limit)
+    ).results();
+  }
+
+  @Override
+  public IcTicketChanges ticketChangesSince(
+    final IcTicketChangeCursor cursor,
+    final int limit)
+    throws IcClientException, InterruptedException
+  {
+    return this.sendCommand(
+      IcTResponseTicketChangesSince.class,
+      new IcTCommandTicketChangesSince(cursor, limit)
+    ).changes();
+  }
+
+
+  @Override
+  public IcTicketWatchResult ticketWatch(
+    final IcTicketID ticket,
+    final long revision,
+    final Duration timeout)
+    throws IcClientException, InterruptedException
+  {
+    return this.sendCommand(
+      IcTResponseTicketWatch.class,
+      new IcTCommandTicketWatch(ticket, revision, timeout)
+    ).result();
+  }
+
+  @Override
+  public List<IcTResponseType> batch(
+    final List<IcTCommandType<?>> commands,
+    final IcTBatchMode mode)
+    throws IcClientException, InterruptedException
+  {
+    return this.sendCommand(
+      IcTResponseBatch.class,
+      new IcTCommandBatch(commands, mode)
+    ).responses();
+  }
 }
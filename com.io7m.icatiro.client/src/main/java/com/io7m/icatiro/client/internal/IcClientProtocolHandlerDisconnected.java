@@ -16,24 +16,45 @@
 
 package com.io7m.icatiro.client.internal;
 
+import com.io7m.icatiro.client.api.IcClientConfiguration;
 import com.io7m.icatiro.client.api.IcClientException;
-import com.io7m.icatiro.model.IcPage;
 import com.io7m.icatiro.model.IcPermissionScopedType;
 import com.io7m.icatiro.model.IcProject;
+import com.io7m.icatiro.model.IcProjectID;
 import com.io7m.icatiro.model.IcProjectShortName;
+import com.io7m.icatiro.model.IcProjectStatistics;
 import com.io7m.icatiro.model.IcProjectTitle;
+import com.io7m.icatiro.model.IcSavedSearch;
+import com.io7m.icatiro.model.IcSavedSearchName;
+import com.io7m.icatiro.model.IcSavedSearchResults;
 import com.io7m.icatiro.model.IcTicket;
+import com.io7m.icatiro.model.IcTicketChangeCursor;
+import com.io7m.icatiro.model.IcTicketChanges;
 import com.io7m.icatiro.model.IcTicketComment;
 import com.io7m.icatiro.model.IcTicketCommentCreation;
 import com.io7m.icatiro.model.IcTicketCreation;
+import com.io7m.icatiro.model.IcTicketGetResultType;
 import com.io7m.icatiro.model.IcTicketID;
 import com.io7m.icatiro.model.IcTicketSearch;
+import com.io7m.icatiro.model.IcTicketSearchPage;
 import com.io7m.icatiro.model.IcTicketSummary;
+import com.io7m.icatiro.model.IcTicketUpdate;
+import com.io7m.icatiro.model.IcTicketVersionToken;
+import com.io7m.icatiro.model.IcTicketWatchResult;
+import com.io7m.icatiro.model.IcTimeRange;
+import com.io7m.icatiro.model.IcUserPermission;
+import com.io7m.icatiro.protocol.tickets.IcTBatchMode;
+import com.io7m.icatiro.protocol.tickets.IcTCommandType;
+import com.io7m.icatiro.protocol.tickets.IcTResponseType;
 
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
-import java.util.Locale;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.NOT_LOGGED_IN;
@@ -46,25 +67,25 @@ public final class IcClientProtocolHandlerDisconnected
   implements IcClientProtocolHandlerType
 {
   private final HttpClient httpClient;
-  private final Locale locale;
+  private final IcClientConfiguration configuration;
   private final IcStrings strings;
   private IcClientProtocolHandlerType handler;
 
   /**
    * The "disconnected" protocol handler.
    *
-   * @param inLocale     The locale
-   * @param inStrings    The string resources
-   * @param inHttpClient The HTTP client
+   * @param inConfiguration The client configuration
+   * @param inStrings       The string resources
+   * @param inHttpClient    The HTTP client
    */
 
   public IcClientProtocolHandlerDisconnected(
-    final Locale inLocale,
+    final IcClientConfiguration inConfiguration,
     final IcStrings inStrings,
     final HttpClient inHttpClient)
   {
-    this.locale =
-      Objects.requireNonNull(inLocale, "inLocale");
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "inConfiguration");
     this.strings =
       Objects.requireNonNull(inStrings, "strings");
     this.httpClient =
@@ -80,7 +101,7 @@ public final class IcClientProtocolHandlerDisconnected
   {
     final var newHandler =
       IcProtocolNegotiation.negotiateProtocolHandler(
-        this.locale,
+        this.configuration,
         this.httpClient,
         this.strings,
         base
@@ -106,7 +127,15 @@ public final class IcClientProtocolHandlerDisconnected
   }
 
   @Override
-  public IcPage<IcTicketSummary> ticketSearchBegin(
+  public IcTicket ticketUpdate(
+    final IcTicketUpdate update)
+    throws IcClientException
+  {
+    throw this.notLoggedIn();
+  }
+
+  @Override
+  public IcTicketSearchPage ticketSearchBegin(
     final IcTicketSearch parameters)
     throws IcClientException
   {
@@ -114,14 +143,14 @@ public final class IcClientProtocolHandlerDisconnected
   }
 
   @Override
-  public IcPage<IcTicketSummary> ticketSearchNext()
+  public IcTicketSearchPage ticketSearchNext()
     throws IcClientException
   {
     throw this.notLoggedIn();
   }
 
   @Override
-  public IcPage<IcTicketSummary> ticketSearchPrevious()
+  public IcTicketSearchPage ticketSearchPrevious()
     throws IcClientException
   {
     throw this.notLoggedIn();
@@ -143,6 +172,32 @@ public final class IcClientProtocolHandlerDisconnected
     throw this.notLoggedIn();
   }
 
+  @Override
+  public Optional<IcTicket> ticketGetIfChanged(
+    final IcTicketID id,
+    final IcTicketVersionToken token)
+    throws IcClientException
+  {
+    throw this.notLoggedIn();
+  }
+
+  @Override
+  public void ticketExport(
+    final IcProjectID project,
+    final OutputStream output)
+    throws IcClientException
+  {
+    throw this.notLoggedIn();
+  }
+
+  @Override
+  public List<IcTicketGetResultType> ticketGetMany(
+    final Collection<IcTicketID> ids)
+    throws IcClientException
+  {
+    throw this.notLoggedIn();
+  }
+
   @Override
   public IcProject projectCreate(
     final IcProjectShortName shortName,
@@ -152,6 +207,15 @@ public final class IcClientProtocolHandlerDisconnected
     throw this.notLoggedIn();
   }
 
+  @Override
+  public IcProjectStatistics projectStatistics(
+    final IcProjectID project,
+    final IcTimeRange timeRange)
+    throws IcClientException
+  {
+    throw this.notLoggedIn();
+  }
+
   @Override
   public void permissionGrant(
     final UUID targetUser,
@@ -160,4 +224,75 @@ public final class IcClientProtocolHandlerDisconnected
   {
     throw this.notLoggedIn();
   }
+
+  @Override
+  public void permissionGrantMany(
+    final List<IcUserPermission> permissions)
+    throws IcClientException
+  {
+    throw this.notLoggedIn();
+  }
+
+  @Override
+  public void permissionRevokeMany(
+    final List<IcUserPermission> permissions)
+    throws IcClientException
+  {
+    throw this.notLoggedIn();
+  }
+
+  @Override
+  public IcSavedSearch savedSearchCreate(
+    final IcSavedSearch search)
+    throws IcClientException
+  {
+    throw this.notLoggedIn();
+  }
+
+  @Override
+  public void savedSearchDelete(
+    final IcSavedSearchName name)
+    throws IcClientException
+  {
+    throw this.notLoggedIn();
+  }
+
+  @Override
+  public IcSavedSearchResults savedSearchResults(
+    final IcSavedSearchName name,
+    final long since,
+    final int limit)
+    throws IcClientException
+  {
+    throw this.notLoggedIn();
+  }
+
+  @Override
+  public IcTicketChanges ticketChangesSince(
+    final IcTicketChangeCursor cursor,
+    final int limit)
+    throws IcClientException
+  {
+    throw this.notLoggedIn();
+  }
+
+
+  @Override
+  public IcTicketWatchResult ticketWatch(
+    final IcTicketID ticket,
+    final long revision,
+    final Duration timeout)
+    throws IcClientException
+  {
+    throw this.notLoggedIn();
+  }
+
+  @Override
+  public List<IcTResponseType> batch(
+    final List<IcTCommandType<?>> commands,
+    final IcTBatchMode mode)
+    throws IcClientException
+  {
+    throw this.notLoggedIn();
+  }
 }
@@ -17,6 +17,7 @@
 package com.io7m.icatiro.client.internal;
 
 import com.io7m.genevan.core.GenProtocolClientHandlerType;
+import com.io7m.icatiro.client.api.IcClientConfiguration;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -31,9 +32,10 @@ public interface IcClientProtocolHandlerFactoryType
   /**
    * Create a new handler.
    *
-   * @param inHttpClient The underlying HTTP client
-   * @param inStrings    The string resources
-   * @param inBase       The server base URI
+   * @param inHttpClient    The underlying HTTP client
+   * @param inStrings       The string resources
+   * @param inConfiguration The client configuration
+   * @param inBase          The server base URI
    *
    * @return A new handler
    */
@@ -41,5 +43,6 @@ public interface IcClientProtocolHandlerFactoryType
   IcClientProtocolHandlerType createHandler(
     HttpClient inHttpClient,
     IcStrings inStrings,
+    IcClientConfiguration inConfiguration,
     URI inBase);
 }
@@ -16,6 +16,7 @@
 
 package com.io7m.icatiro.client.internal;
 
+import com.io7m.icatiro.client.api.IcClientBatchType;
 import com.io7m.icatiro.client.api.IcClientException;
 import com.io7m.icatiro.client.api.IcClientPermissionsType;
 import com.io7m.icatiro.client.api.IcClientProjectsType;
@@ -28,7 +29,10 @@ import java.net.URI;
  */
 
 public interface IcClientProtocolHandlerType
-  extends IcClientTicketsType, IcClientProjectsType, IcClientPermissionsType
+  extends IcClientTicketsType,
+  IcClientProjectsType,
+  IcClientPermissionsType,
+  IcClientBatchType
 {
   /**
    * Attempt to log in.
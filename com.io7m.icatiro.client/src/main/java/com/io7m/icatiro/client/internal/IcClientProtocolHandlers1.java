@@ -19,6 +19,7 @@ package com.io7m.icatiro.client.internal;
 
 import com.io7m.genevan.core.GenProtocolIdentifier;
 import com.io7m.genevan.core.GenProtocolVersion;
+import com.io7m.icatiro.client.api.IcClientConfiguration;
 import com.io7m.icatiro.protocol.tickets.cb.IcT1Messages;
 
 import java.net.URI;
@@ -47,9 +48,16 @@ public final class IcClientProtocolHandlers1
   public IcClientProtocolHandlerType createHandler(
     final HttpClient inHttpClient,
     final IcStrings inStrings,
+    final IcClientConfiguration inConfiguration,
     final URI inBase)
   {
-    return new IcClientProtocolHandler1(inHttpClient, inStrings, inBase);
+    return new IcClientProtocolHandler1(
+      inHttpClient,
+      inStrings,
+      inConfiguration,
+      inBase,
+      new IcT1Messages()
+    );
   }
 
   @Override
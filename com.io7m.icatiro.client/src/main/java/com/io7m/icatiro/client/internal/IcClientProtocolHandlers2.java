@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.client.internal;
+
+import com.io7m.genevan.core.GenProtocolIdentifier;
+import com.io7m.genevan.core.GenProtocolVersion;
+import com.io7m.icatiro.client.api.IcClientConfiguration;
+import com.io7m.icatiro.protocol.tickets.cb.IcT2Messages;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+
+import static java.math.BigInteger.TWO;
+import static java.math.BigInteger.ZERO;
+
+/**
+ * The factory of version 2 protocol handlers.
+ */
+
+public final class IcClientProtocolHandlers2
+  implements IcClientProtocolHandlerFactoryType
+{
+  /**
+   * The factory of version 2 protocol handlers.
+   */
+
+  public IcClientProtocolHandlers2()
+  {
+
+  }
+
+  @Override
+  public IcClientProtocolHandlerType createHandler(
+    final HttpClient inHttpClient,
+    final IcStrings inStrings,
+    final IcClientConfiguration inConfiguration,
+    final URI inBase)
+  {
+    return new IcClientProtocolHandler1(
+      inHttpClient,
+      inStrings,
+      inConfiguration,
+      inBase,
+      new IcT2Messages()
+    );
+  }
+
+  @Override
+  public GenProtocolIdentifier supported()
+  {
+    return new GenProtocolIdentifier(
+      IcT2Messages.protocolId().toString(),
+      new GenProtocolVersion(TWO, ZERO)
+    );
+  }
+}
@@ -18,14 +18,16 @@ package com.io7m.icatiro.client.internal;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.http.HttpHeaders;
 import java.net.http.HttpResponse;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
- * Functions to decompress responses.
+ * Functions to compress requests and decompress responses.
  */
 
 public final class IcCompression
@@ -64,4 +66,50 @@ public final class IcCompression
     }
     return body;
   }
+
+  /**
+   * Decompress the response stream if necessary.
+   *
+   * @param response        The response
+   * @param responseHeaders The response headers
+   *
+   * @return The decompressed stream
+   *
+   * @throws IOException On errors
+   */
+
+  public static InputStream decompressResponseStream(
+    final HttpResponse<InputStream> response,
+    final HttpHeaders responseHeaders)
+    throws IOException
+  {
+    final var encoding =
+      responseHeaders.firstValue("Content-Encoding");
+
+    if (Objects.equals(encoding, Optional.of("gzip"))) {
+      return new GZIPInputStream(response.body());
+    }
+    return response.body();
+  }
+
+  /**
+   * Compress a request body with gzip.
+   *
+   * @param body The uncompressed body
+   *
+   * @return The compressed body
+   *
+   * @throws IOException On errors
+   */
+
+  static IcRequestBodyOutput compressRequest(
+    final IcRequestBodyOutput body)
+    throws IOException
+  {
+    final var output = new IcRequestBodyOutput();
+    try (var s = new GZIPOutputStream(output)) {
+      body.writeTo(s);
+    }
+    return output;
+  }
 }
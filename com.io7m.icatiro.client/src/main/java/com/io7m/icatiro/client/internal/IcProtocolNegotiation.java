@@ -23,6 +23,7 @@ import com.io7m.genevan.core.GenProtocolServerEndpointType;
 import com.io7m.genevan.core.GenProtocolSolved;
 import com.io7m.genevan.core.GenProtocolSolver;
 import com.io7m.genevan.core.GenProtocolVersion;
+import com.io7m.icatiro.client.api.IcClientConfiguration;
 import com.io7m.icatiro.client.api.IcClientException;
 import com.io7m.icatiro.protocol.tickets.cb.IcT1Messages;
 import com.io7m.verdant.core.VProtocolException;
@@ -38,7 +39,6 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.List;
-import java.util.Locale;
 import java.util.Objects;
 
 import static com.io7m.icatiro.client.internal.IcCompression.decompressResponse;
@@ -135,10 +135,10 @@ public final class IcProtocolNegotiation
   /**
    * Negotiate a protocol handler.
    *
-   * @param locale     The locale
-   * @param httpClient The HTTP client
-   * @param strings    The string resources
-   * @param base       The base URI
+   * @param configuration The client configuration
+   * @param httpClient    The HTTP client
+   * @param strings       The string resources
+   * @param base          The base URI
    *
    * @return The protocol handler
    *
@@ -147,20 +147,21 @@ public final class IcProtocolNegotiation
    */
 
   public static IcClientProtocolHandlerType negotiateProtocolHandler(
-    final Locale locale,
+    final IcClientConfiguration configuration,
     final HttpClient httpClient,
     final IcStrings strings,
     final URI base)
     throws IcClientException, InterruptedException
   {
-    Objects.requireNonNull(locale, "locale");
+    Objects.requireNonNull(configuration, "configuration");
     Objects.requireNonNull(httpClient, "httpClient");
     Objects.requireNonNull(strings, "strings");
     Objects.requireNonNull(base, "base");
 
     final var clientSupports =
       List.of(
-        new IcClientProtocolHandlers1()
+        new IcClientProtocolHandlers1(),
+        new IcClientProtocolHandlers2()
       );
 
     final var serverProtocols =
@@ -169,7 +170,7 @@ public final class IcProtocolNegotiation
     LOG.debug("server supports {} protocols", serverProtocols.size());
 
     final var solver =
-      GenProtocolSolver.<IcClientProtocolHandlerFactoryType, IcServerEndpoint>create(locale);
+      GenProtocolSolver.<IcClientProtocolHandlerFactoryType, IcServerEndpoint>create(configuration.locale());
 
     final GenProtocolSolved<IcClientProtocolHandlerFactoryType, IcServerEndpoint> solved;
     try {
@@ -200,6 +201,7 @@ public final class IcProtocolNegotiation
     return solved.clientHandler().createHandler(
       httpClient,
       strings,
+      configuration,
       target
     );
   }
@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.client.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpRequest;
+
+/**
+ * A byte array output stream that can be used as the body of a request
+ * without first copying its contents to a new array.
+ */
+
+final class IcRequestBodyOutput extends ByteArrayOutputStream
+{
+  IcRequestBodyOutput()
+  {
+    super(1024);
+  }
+
+  /**
+   * @return A publisher of the bytes written so far
+   */
+
+  HttpRequest.BodyPublisher publisher()
+  {
+    return HttpRequest.BodyPublishers.ofByteArray(this.buf, 0, this.count);
+  }
+}
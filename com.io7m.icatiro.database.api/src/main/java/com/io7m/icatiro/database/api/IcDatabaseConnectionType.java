@@ -37,4 +37,16 @@ public interface IcDatabaseConnectionType extends AutoCloseable
 
   IcDatabaseTransactionType openTransaction()
     throws IcDatabaseException;
+
+  /**
+   * Begin a new read-only transaction. Any attempt to write to the database
+   * within the transaction fails.
+   *
+   * @return The transaction
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  IcDatabaseTransactionType openTransactionReadOnly()
+    throws IcDatabaseException;
 }
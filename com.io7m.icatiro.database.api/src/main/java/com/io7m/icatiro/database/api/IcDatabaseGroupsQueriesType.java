@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.database.api;
+
+import com.io7m.icatiro.model.IcGroup;
+import com.io7m.icatiro.model.IcGroupID;
+import com.io7m.icatiro.model.IcGroupName;
+import com.io7m.icatiro.model.IcPermissionScopedType;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The database queries involving groups. Permissions granted to a group are
+ * held by every member of the group, and are returned along with the
+ * permissions granted directly to users by the queries in
+ * {@link IcDatabaseUsersQueriesType}.
+ *
+ * <p>Groups are managed only in the database: neither version of the
+ * tickets protocol has commands to create groups, or to change their members
+ * or permissions, and so the server never executes these queries on behalf
+ * of a client. The server is not notified of changes made with these
+ * queries, and so the permissions held by the active sessions of the
+ * affected users are not updated; the users observe the changes when they
+ * next log in. The results of saved searches are updated as part of each
+ * change.</p>
+ */
+
+public non-sealed interface IcDatabaseGroupsQueriesType
+  extends IcDatabaseQueriesType
+{
+  /**
+   * Create a new group.
+   *
+   * @param name The group name
+   *
+   * @return The group
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  @IcDatabaseRequiresUser
+  IcGroup groupCreate(IcGroupName name)
+    throws IcDatabaseException;
+
+  /**
+   * @param id The group ID
+   *
+   * @return The group
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  Optional<IcGroup> groupGet(IcGroupID id)
+    throws IcDatabaseException;
+
+  /**
+   * Add a user to a group. Adding a user that is already a member of the
+   * group has no effect.
+   *
+   * @param id   The group ID
+   * @param user The user ID
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  void groupMemberAdd(
+    IcGroupID id,
+    UUID user)
+    throws IcDatabaseException;
+
+  /**
+   * Remove a user from a group.
+   *
+   * @param id   The group ID
+   * @param user The user ID
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  void groupMemberRemove(
+    IcGroupID id,
+    UUID user)
+    throws IcDatabaseException;
+
+  /**
+   * @param id The group ID
+   *
+   * @return The members of the group
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  List<UUID> groupMembers(IcGroupID id)
+    throws IcDatabaseException;
+
+  /**
+   * Add permissions to the given group. Permissions that the group already
+   * holds are ignored.
+   *
+   * @param id          The group ID
+   * @param permissions The permissions
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  void groupPermissionsAdd(
+    IcGroupID id,
+    Collection<IcPermissionScopedType> permissions)
+    throws IcDatabaseException;
+}
@@ -17,8 +17,11 @@
 package com.io7m.icatiro.database.api;
 
 import com.io7m.icatiro.model.IcProject;
+import com.io7m.icatiro.model.IcProjectID;
 import com.io7m.icatiro.model.IcProjectShortName;
+import com.io7m.icatiro.model.IcProjectStatistics;
 import com.io7m.icatiro.model.IcProjectTitle;
+import com.io7m.icatiro.model.IcTimeRange;
 
 /**
  * The database queries involving projects.
@@ -43,4 +46,23 @@ public non-sealed interface IcDatabaseProjectsQueriesType
     IcProjectTitle title,
     IcProjectShortName shortName)
     throws IcDatabaseException;
+
+  /**
+   * Retrieve the daily ticket statistics for a project. The statistics are
+   * read from rollup tables that are maintained as tickets and comments are
+   * created, and so this is a single indexed read regardless of the number
+   * of tickets in the project.
+   *
+   * @param project   The project
+   * @param timeRange The range of days (the bounds are taken as UTC days)
+   *
+   * @return The statistics
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  IcProjectStatistics projectStatistics(
+    IcProjectID project,
+    IcTimeRange timeRange)
+    throws IcDatabaseException;
 }
@@ -27,7 +27,9 @@ import static java.time.ZoneOffset.UTC;
 
 public sealed interface IcDatabaseQueriesType
   permits IcDatabaseAuditQueriesType,
+  IcDatabaseGroupsQueriesType,
   IcDatabaseProjectsQueriesType,
+  IcDatabaseSavedSearchesQueriesType,
   IcDatabaseTicketsQueriesType,
   IcDatabaseUsersQueriesType
 {
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.database.api;
+
+import com.io7m.icatiro.model.IcSavedSearch;
+import com.io7m.icatiro.model.IcSavedSearchName;
+import com.io7m.icatiro.model.IcSavedSearchResults;
+
+/**
+ * The database queries involving saved searches.
+ */
+
+public non-sealed interface IcDatabaseSavedSearchesQueriesType
+  extends IcDatabaseQueriesType
+{
+  /**
+   * Create a new saved search owned by the current user. The results of the
+   * search are computed once on creation, and are subsequently maintained
+   * as tickets are written.
+   *
+   * @param search The search
+   *
+   * @return The search
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  @IcDatabaseRequiresUser
+  IcSavedSearch savedSearchCreate(
+    IcSavedSearch search)
+    throws IcDatabaseException;
+
+  /**
+   * Delete a saved search owned by the current user.
+   *
+   * @param name The name of the search
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  @IcDatabaseRequiresUser
+  void savedSearchDelete(
+    IcSavedSearchName name)
+    throws IcDatabaseException;
+
+  /**
+   * Retrieve the entries of a saved search owned by the current user that
+   * have changed since the given revision. Entries that refer to tickets
+   * that the current user can no longer read are returned as removals, and
+   * are omitted from the complete results.
+   *
+   * @param name  The name of the search
+   * @param since The revision after which to return changes ({@code 0}
+   *              returns the complete current results)
+   * @param limit The maximum number of entries to return
+   *
+   * @return The changed entries
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  @IcDatabaseRequiresUser
+  IcSavedSearchResults savedSearchResults(
+    IcSavedSearchName name,
+    long since,
+    int limit)
+    throws IcDatabaseException;
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.database.api;
+
+import com.io7m.icatiro.model.IcTicketExportItemType;
+
+import java.util.Optional;
+
+/**
+ * A cursor over the tickets and comments of a project. The cursor holds an
+ * open database cursor, and must be closed before the transaction that
+ * created it is committed or closed.
+ */
+
+public interface IcDatabaseTicketExportType extends AutoCloseable
+{
+  /**
+   * Fetch the next exported item. Rows are fetched from the database in
+   * blocks of the fetch size given when the export was started.
+   *
+   * @return The next item, or nothing if the export is complete
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  Optional<IcTicketExportItemType> next()
+    throws IcDatabaseException;
+
+  @Override
+  void close()
+    throws IcDatabaseException;
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.database.api;
+
+import com.io7m.icatiro.model.IcProjectID;
+
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The input to a bulk import of tickets into a project. Each stream holds
+ * UTF-8 encoded CSV data that begins with a header line, and rows refer to
+ * each other using the IDs of the system from which the tickets are being
+ * imported; these IDs are arbitrary strings that must be unique within each
+ * stream. New IDs are allocated to the imported tickets and comments.
+ *
+ * <ul>
+ *   <li>{@code tickets}: {@code id, title, description, reporter,
+ *   time_created, time_updated}</li>
+ *   <li>{@code comments}: {@code id, ticket, replied_to, owner, text,
+ *   time}, where {@code replied_to} is empty for comments that are not
+ *   replies</li>
+ *   <li>{@code permissions}: {@code ticket, user, permission}, where
+ *   {@code permission} is the integer value of a permission</li>
+ * </ul>
+ *
+ * <p>The streams are not closed by the import.</p>
+ *
+ * @param project     The project into which tickets are imported
+ * @param tickets     The tickets
+ * @param comments    The comments
+ * @param permissions The ticket-scoped permissions granted to users, if any
+ */
+
+public record IcDatabaseTicketImport(
+  IcProjectID project,
+  InputStream tickets,
+  InputStream comments,
+  Optional<InputStream> permissions)
+{
+  /**
+   * The input to a bulk import of tickets into a project.
+   *
+   * @param project     The project into which tickets are imported
+   * @param tickets     The tickets
+   * @param comments    The comments
+   * @param permissions The ticket-scoped permissions granted to users, if any
+   */
+
+  public IcDatabaseTicketImport
+  {
+    Objects.requireNonNull(project, "project");
+    Objects.requireNonNull(tickets, "tickets");
+    Objects.requireNonNull(comments, "comments");
+    Objects.requireNonNull(permissions, "permissions");
+  }
+}
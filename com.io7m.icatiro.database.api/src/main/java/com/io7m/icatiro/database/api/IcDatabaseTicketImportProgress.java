@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.database.api;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * The progress of a stage of a bulk ticket import. Progress is published
+ * periodically while input is being copied, in which case the row count is
+ * zero until the copy completes, and once at the end of every stage.
+ *
+ * @param stage     The stage
+ * @param completed {@code true} if the stage has completed
+ * @param rows      The number of rows processed by the stage
+ * @param bytes     The number of bytes of input consumed by the stage
+ * @param elapsed   The time elapsed since the stage started
+ */
+
+public record IcDatabaseTicketImportProgress(
+  IcDatabaseTicketImportStage stage,
+  boolean completed,
+  long rows,
+  long bytes,
+  Duration elapsed)
+{
+  /**
+   * The progress of a stage of a bulk ticket import.
+   *
+   * @param stage     The stage
+   * @param completed {@code true} if the stage has completed
+   * @param rows      The number of rows processed by the stage
+   * @param bytes     The number of bytes of input consumed by the stage
+   * @param elapsed   The time elapsed since the stage started
+   */
+
+  public IcDatabaseTicketImportProgress
+  {
+    Objects.requireNonNull(stage, "stage");
+    Objects.requireNonNull(elapsed, "elapsed");
+  }
+
+  /**
+   * @return The number of rows processed per second
+   */
+
+  public double rowsPerSecond()
+  {
+    return perSecond(this.rows, this.elapsed);
+  }
+
+  /**
+   * @return The number of bytes of input consumed per second
+   */
+
+  public double bytesPerSecond()
+  {
+    return perSecond(this.bytes, this.elapsed);
+  }
+
+  static double perSecond(
+    final long count,
+    final Duration elapsed)
+  {
+    final var nanos = elapsed.toNanos();
+    if (nanos <= 0L) {
+      return 0.0;
+    }
+    return (double) count / ((double) nanos / 1_000_000_000.0);
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.database.api;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * The result of a bulk ticket import.
+ *
+ * @param tickets     The number of tickets imported
+ * @param comments    The number of comments imported
+ * @param permissions The number of permissions imported
+ * @param elapsed     The time taken by the import
+ */
+
+public record IcDatabaseTicketImportResult(
+  long tickets,
+  long comments,
+  long permissions,
+  Duration elapsed)
+{
+  /**
+   * The result of a bulk ticket import.
+   *
+   * @param tickets     The number of tickets imported
+   * @param comments    The number of comments imported
+   * @param permissions The number of permissions imported
+   * @param elapsed     The time taken by the import
+   */
+
+  public IcDatabaseTicketImportResult
+  {
+    Objects.requireNonNull(elapsed, "elapsed");
+  }
+
+  /**
+   * @return The number of tickets and comments imported per second
+   */
+
+  public double itemsPerSecond()
+  {
+    return IcDatabaseTicketImportProgress.perSecond(
+      this.tickets + this.comments,
+      this.elapsed
+    );
+  }
+}
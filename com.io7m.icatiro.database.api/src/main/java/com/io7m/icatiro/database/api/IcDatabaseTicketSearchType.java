@@ -16,14 +16,14 @@
 
 package com.io7m.icatiro.database.api;
 
-import com.io7m.icatiro.model.IcTicketSummary;
+import com.io7m.icatiro.model.IcTicketSummaryType;
 
 /**
  * The type of ticket searches.
  */
 
 public interface IcDatabaseTicketSearchType
-  extends IcDatabasePagedQueryType<IcDatabaseTicketsQueriesType, IcTicketSummary>
+  extends IcDatabasePagedQueryType<IcDatabaseTicketsQueriesType, IcTicketSummaryType>
 {
 
 }
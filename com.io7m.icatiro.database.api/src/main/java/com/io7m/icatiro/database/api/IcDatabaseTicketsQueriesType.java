@@ -16,15 +16,28 @@
 
 package com.io7m.icatiro.database.api;
 
+import com.io7m.icatiro.model.IcProjectID;
 import com.io7m.icatiro.model.IcTicket;
+import com.io7m.icatiro.model.IcTicketAttachment;
+import com.io7m.icatiro.model.IcTicketAttachmentCreation;
+import com.io7m.icatiro.model.IcTicketChangeCursor;
+import com.io7m.icatiro.model.IcTicketChanges;
 import com.io7m.icatiro.model.IcTicketComment;
 import com.io7m.icatiro.model.IcTicketCommentCreation;
 import com.io7m.icatiro.model.IcTicketCreation;
 import com.io7m.icatiro.model.IcTicketID;
 import com.io7m.icatiro.model.IcTicketSearch;
+import com.io7m.icatiro.model.IcTicketSearchProjection;
 import com.io7m.icatiro.model.IcTicketSummary;
+import com.io7m.icatiro.model.IcTicketUpdate;
+import com.io7m.icatiro.model.IcTicketVersionToken;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * The database queries involving tickets.
@@ -34,7 +47,8 @@ public non-sealed interface IcDatabaseTicketsQueriesType
   extends IcDatabaseQueriesType
 {
   /**
-   * Retrieve a ticket.
+   * Retrieve a ticket. Archived tickets are returned if the ticket is not
+   * live.
    *
    * @param id The ticket ID
    *
@@ -60,7 +74,51 @@ public non-sealed interface IcDatabaseTicketsQueriesType
     throws IcDatabaseException;
 
   /**
-   * Check if a ticket exists.
+   * Retrieve many tickets at once. Tickets that do not exist are simply
+   * absent from the returned map. Archived tickets are included.
+   *
+   * @param ids The ticket IDs
+   *
+   * @return The tickets that exist
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  Map<IcTicketID, IcTicket> ticketGetMany(Collection<IcTicketID> ids)
+    throws IcDatabaseException;
+
+  /**
+   * Retrieve the revision of a ticket. The revision is the number of changes
+   * that have been made to the ticket, and increases each time the ticket is
+   * written or commented upon.
+   *
+   * @param id The ticket ID
+   *
+   * @return The ticket revision
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  long ticketRevision(IcTicketID id)
+    throws IcDatabaseException;
+
+  /**
+   * Retrieve the version token of a ticket. The token is calculated in the
+   * same manner as {@link IcTicket#versionToken()}, but without retrieving
+   * the ticket description or comments.
+   *
+   * @param id The ticket ID
+   *
+   * @return The ticket version token
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  IcTicketVersionToken ticketVersionToken(IcTicketID id)
+    throws IcDatabaseException;
+
+  /**
+   * Check if a ticket exists, either live or archived.
    *
    * @param id The ticket ID
    *
@@ -73,7 +131,9 @@ public non-sealed interface IcDatabaseTicketsQueriesType
     throws IcDatabaseException;
 
   /**
-   * Search for tickets.
+   * Search for tickets. Only the information required by the projection of
+   * the search parameters is retrieved; in particular, projects and users
+   * are only consulted for {@link IcTicketSearchProjection#FULL} searches.
    *
    * @param parameters The search parameters
    *
@@ -102,6 +162,26 @@ public non-sealed interface IcDatabaseTicketsQueriesType
     IcTicketCreation creation)
     throws IcDatabaseException;
 
+  /**
+   * Update the title and description of a ticket. The update is only applied
+   * if the current version of the ticket is the version given in the update.
+   * An update is never blocked by a concurrent update of the same ticket; if
+   * the ticket is being updated by another transaction, or its version
+   * differs from the given version, the update fails with
+   * {@link com.io7m.icatiro.error_codes.IcStandardErrorCodes#TICKET_UPDATE_CONFLICT}.
+   *
+   * @param update The update information
+   *
+   * @return The updated ticket
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  @IcDatabaseRequiresUser
+  IcTicket ticketUpdate(
+    IcTicketUpdate update)
+    throws IcDatabaseException;
+
   /**
    * Create a new ticket comment.
    *
@@ -116,4 +196,153 @@ public non-sealed interface IcDatabaseTicketsQueriesType
   IcTicketComment ticketCommentCreate(
     IcTicketCommentCreation creation)
     throws IcDatabaseException;
+
+  /**
+   * Attach a file to a ticket. The content of the file must already have been
+   * stored; only the metadata of the attachment is held in the database.
+   *
+   * @param creation The creation information
+   *
+   * @return The new attachment
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  @IcDatabaseRequiresUser
+  IcTicketAttachment ticketAttachmentCreate(
+    IcTicketAttachmentCreation creation)
+    throws IcDatabaseException;
+
+  /**
+   * Retrieve an attachment of a ticket. The attachments of archived tickets
+   * are retained.
+   *
+   * @param ticket       The ticket ID
+   * @param attachmentId The attachment ID
+   *
+   * @return The attachment, if it exists and belongs to the given ticket
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  Optional<IcTicketAttachment> ticketAttachmentGet(
+    IcTicketID ticket,
+    long attachmentId)
+    throws IcDatabaseException;
+
+  /**
+   * List the attachments of a ticket in the order in which they were
+   * created.
+   *
+   * @param ticket The ticket ID
+   *
+   * @return The attachments
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  List<IcTicketAttachment> ticketAttachmentList(
+    IcTicketID ticket)
+    throws IcDatabaseException;
+
+  /**
+   * Retrieve the changes made to tickets after the given position in the
+   * change log. Changes to tickets that the current user cannot read are
+   * omitted.
+   *
+   * <p>Changes are only returned once every older transaction has completed,
+   * so that no change can later appear behind the returned position. A
+   * long-running transaction therefore stalls the log for every reader
+   * until it completes; the returned changes report the time of the first
+   * change being held back, if any.</p>
+   *
+   * @param cursor The position after which to return changes
+   * @param limit  The maximum number of changes to examine
+   *
+   * @return The changes, and the position following them
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  @IcDatabaseRequiresUser
+  IcTicketChanges ticketChangesSince(
+    IcTicketChangeCursor cursor,
+    int limit)
+    throws IcDatabaseException;
+
+  /**
+   * Archive tickets that have not been updated since the given time. The
+   * tickets are moved, along with their comments and ticket-scoped
+   * permissions, into the archive tables. Archived tickets can still be
+   * retrieved, but cannot be updated or commented upon, and are only
+   * returned by searches that request them. The oldest tickets are archived
+   * first, and tickets that are locked by concurrent updates are skipped.
+   *
+   * @param updatedBefore Only tickets last updated before this time are
+   *                      archived
+   * @param limit         The maximum number of tickets to archive
+   *
+   * @return The number of archived tickets
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  @IcDatabaseRequiresUser
+  long ticketsArchive(
+    OffsetDateTime updatedBefore,
+    int limit)
+    throws IcDatabaseException;
+
+  /**
+   * Export every ticket, live and archived, of the given project along with
+   * the comments of each ticket. Tickets are exported in ascending order of
+   * ID, and each ticket is immediately followed by its comments in ascending
+   * order of ID. The items are read through a single database cursor that
+   * fetches {@code fetchSize} rows at a time, and so the memory required is
+   * independent of the size of the project. As the cursor remains open
+   * while the items are consumed, the export should be performed in a
+   * transaction opened with
+   * {@link IcDatabaseConnectionType#openTransactionReadOnly()}.
+   *
+   * <p>Exports cover entire projects. Exporting the results of a ticket
+   * search is not supported, as searches are paged through session state
+   * rather than evaluated as a single query.</p>
+   *
+   * @param project   The project
+   * @param fetchSize The number of rows to fetch from the database at once
+   *
+   * @return A cursor over the exported items
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  IcDatabaseTicketExportType ticketExport(
+    IcProjectID project,
+    int fetchSize)
+    throws IcDatabaseException;
+
+  /**
+   * Import tickets, comments, and ticket-scoped permissions in bulk. The
+   * input is streamed into temporary staging tables using the PostgreSQL
+   * {@code COPY} protocol, and the staged rows are then merged into the
+   * project with a fixed number of statements regardless of the number of
+   * rows. The imported rows are visible to the daily statistics, the change
+   * log, and saved searches in the same way as tickets and comments that are
+   * created individually, but only a single audit event is recorded for the
+   * entire import. Nothing is imported if any row of the input is invalid.
+   *
+   * @param ticketImport The import
+   * @param progress     A receiver of progress updates
+   *
+   * @return The result of the import
+   *
+   * @throws IcDatabaseException On errors
+   * @see IcDatabaseTicketImport
+   */
+
+  @IcDatabaseRequiresUser
+  IcDatabaseTicketImportResult ticketsImport(
+    IcDatabaseTicketImport ticketImport,
+    Consumer<IcDatabaseTicketImportProgress> progress)
+    throws IcDatabaseException;
 }
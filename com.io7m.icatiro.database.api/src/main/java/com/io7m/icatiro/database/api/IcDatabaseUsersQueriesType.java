@@ -16,8 +16,13 @@
 
 package com.io7m.icatiro.database.api;
 
+import com.io7m.icatiro.model.IcPermissionScopedType;
+import com.io7m.icatiro.model.IcPermissionSet;
+import com.io7m.icatiro.model.IcTicketID;
 import com.io7m.icatiro.model.IcUser;
+import com.io7m.icatiro.model.IcUserPermission;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -29,7 +34,9 @@ public non-sealed interface IcDatabaseUsersQueriesType
   extends IcDatabaseQueriesType
 {
   /**
-   * Update the given user.
+   * Update the given user. Permissions that the user holds through the groups
+   * of which they are a member, or as the reporter of a ticket, are not
+   * stored as grants to the user.
    *
    * @param user The user
    *
@@ -40,11 +47,18 @@ public non-sealed interface IcDatabaseUsersQueriesType
     throws IcDatabaseException;
 
   /**
+   * Retrieve a user. The permissions of the returned user include the
+   * permissions granted to the user, the permissions granted to the groups
+   * of which the user is a member, and the permissions implicitly held by
+   * the user as the reporter of tickets.
+   *
    * @param id The user ID
    *
    * @return The user
    *
    * @throws IcDatabaseException On errors
+   *
+   * @see com.io7m.icatiro.model.IcPermissionSet#reporterPermissions()
    */
 
   Optional<IcUser> userGet(UUID id)
@@ -61,6 +75,96 @@ public non-sealed interface IcDatabaseUsersQueriesType
   IcUser userGetRequire(UUID id)
     throws IcDatabaseException;
 
+  /**
+   * Create or update the name and email addresses of the given user. The
+   * permissions of the given user are ignored, and any permissions held by
+   * an existing user are left unchanged.
+   *
+   * @param user The user
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  void userIdentityPut(IcUser user)
+    throws IcDatabaseException;
+
+  /**
+   * Retrieve a user along with their global and projectwide permissions.
+   * Ticketwide permissions are not loaded, and must be retrieved with
+   * {@link #userTicketPermissions(UUID, Collection)}.
+   *
+   * @param id The user ID
+   *
+   * @return The user
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  Optional<IcUser> userGetWithoutTicketPermissions(UUID id)
+    throws IcDatabaseException;
+
+  /**
+   * Retrieve the ticketwide permissions held by a user for the given tickets,
+   * whether granted to the user, granted to a group of which the user is a
+   * member, or held implicitly as the reporter of a ticket.
+   *
+   * @param id      The user ID
+   * @param tickets The tickets
+   *
+   * @return The ticketwide permissions for the given tickets
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  IcPermissionSet userTicketPermissions(
+    UUID id,
+    Collection<IcTicketID> tickets)
+    throws IcDatabaseException;
+
+  /**
+   * Add permissions to the given user. Permissions that the user already
+   * holds are ignored.
+   *
+   * @param id          The user ID
+   * @param permissions The permissions
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  void userPermissionsAdd(
+    UUID id,
+    Collection<IcPermissionScopedType> permissions)
+    throws IcDatabaseException;
+
+  /**
+   * Add permissions to many users at once. Permissions that users already
+   * hold are ignored. The permissions are inserted with a single statement
+   * regardless of the number of users and permissions.
+   *
+   * @param permissions The permissions
+   *
+   * @throws IcDatabaseException On errors, or if any of the users do not exist
+   */
+
+  void usersPermissionsAdd(
+    Collection<IcUserPermission> permissions)
+    throws IcDatabaseException;
+
+  /**
+   * Remove permissions from many users at once. Permissions that users do
+   * not hold are ignored. Only permissions granted directly to users are
+   * removed; permissions held through groups, or as the reporter of a
+   * ticket, are unaffected.
+   *
+   * @param permissions The permissions
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  void usersPermissionsRemove(
+    Collection<IcUserPermission> permissions)
+    throws IcDatabaseException;
+
   /**
    * Set the user as the initial user. Only one user can be the initial user.
    *
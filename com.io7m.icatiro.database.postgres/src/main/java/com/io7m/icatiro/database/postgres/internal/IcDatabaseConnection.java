@@ -59,6 +59,26 @@ record IcDatabaseConnection(
     }
   }
 
+  @Override
+  public IcDatabaseTransactionType openTransactionReadOnly()
+    throws IcDatabaseException
+  {
+    final var t = (IcDatabaseTransaction) this.openTransaction();
+
+    try {
+      t.setReadOnly();
+      return t;
+    } catch (final SQLException e) {
+      final var ex = new IcDatabaseException(e.getMessage(), e, SQL_ERROR);
+      try {
+        t.close();
+      } catch (final IcDatabaseException exc) {
+        ex.addSuppressed(exc);
+      }
+      throw ex;
+    }
+  }
+
   @Override
   public void close()
     throws IcDatabaseException
@@ -0,0 +1,391 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.database.postgres.internal;
+
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.api.IcDatabaseGroupsQueriesType;
+import com.io7m.icatiro.database.postgres.internal.tables.records.UserGroupsRecord;
+import com.io7m.icatiro.model.IcGroup;
+import com.io7m.icatiro.model.IcGroupID;
+import com.io7m.icatiro.model.IcGroupName;
+import com.io7m.icatiro.model.IcPermissionProjectwide;
+import com.io7m.icatiro.model.IcPermissionScopedType;
+import com.io7m.icatiro.model.IcPermissionTicketwide;
+import org.jooq.DSLContext;
+import org.jooq.Query;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.io7m.icatiro.database.postgres.internal.IcDatabaseExceptions.handleDatabaseException;
+import static com.io7m.icatiro.database.postgres.internal.IcDatabaseSavedSearchesQueries.savedSearchesReevaluate;
+import static com.io7m.icatiro.database.postgres.internal.Tables.AUDIT;
+import static com.io7m.icatiro.database.postgres.internal.Tables.USER_GROUPS;
+import static com.io7m.icatiro.database.postgres.internal.Tables.USER_GROUP_MEMBERS;
+import static com.io7m.icatiro.database.postgres.internal.Tables.USER_GROUP_PERMISSIONS;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.GROUP_DUPLICATE;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.GROUP_NONEXISTENT;
+
+final class IcDatabaseGroupsQueries
+  extends IcBaseQueries
+  implements IcDatabaseGroupsQueriesType
+{
+  IcDatabaseGroupsQueries(
+    final IcDatabaseTransaction inTransaction)
+  {
+    super(inTransaction);
+  }
+
+  private static IcGroup toGroup(
+    final UserGroupsRecord r)
+  {
+    return new IcGroup(
+      new IcGroupID(r.getId().longValue()),
+      new IcGroupName(r.getName())
+    );
+  }
+
+  private static void groupRequire(
+    final DSLContext context,
+    final IcGroupID id)
+    throws IcDatabaseException
+  {
+    final var exists =
+      context.fetchExists(
+        USER_GROUPS,
+        USER_GROUPS.ID.eq(Long.valueOf(id.value()))
+      );
+
+    if (!exists) {
+      throw new IcDatabaseException(
+        "Group '%s' does not exist.".formatted(id),
+        GROUP_NONEXISTENT
+      );
+    }
+  }
+
+  @Override
+  public IcGroup groupCreate(
+    final IcGroupName name)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(name, "name");
+
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var userId =
+      transaction.userId();
+    final var querySpan =
+      transaction.createQuerySpan("IcDatabaseGroupsQueries.groupCreate");
+
+    try {
+      final var existing =
+        context.fetchOne(USER_GROUPS, USER_GROUPS.NAME.eq(name.value()));
+
+      if (existing != null) {
+        throw new IcDatabaseException(
+          "A group with name '%s' already exists.".formatted(name),
+          GROUP_DUPLICATE
+        );
+      }
+
+      final var newRecord = context.newRecord(USER_GROUPS);
+      newRecord.setName(name.value());
+      newRecord.store();
+
+      context.insertInto(AUDIT)
+        .set(AUDIT.USER_ID, userId)
+        .set(AUDIT.TIME, this.currentTime())
+        .set(AUDIT.MESSAGE, newRecord.getId().toString())
+        .set(AUDIT.TYPE, "GROUP_CREATED")
+        .execute();
+
+      return toGroup(newRecord);
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  @Override
+  public Optional<IcGroup> groupGet(
+    final IcGroupID id)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(id, "id");
+
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan("IcDatabaseGroupsQueries.groupGet");
+
+    try {
+      return context.selectFrom(USER_GROUPS)
+        .where(USER_GROUPS.ID.eq(Long.valueOf(id.value())))
+        .fetchOptional()
+        .map(IcDatabaseGroupsQueries::toGroup);
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  @Override
+  public void groupMemberAdd(
+    final IcGroupID id,
+    final UUID user)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(id, "id");
+    Objects.requireNonNull(user, "user");
+
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan("IcDatabaseGroupsQueries.groupMemberAdd");
+
+    try {
+      groupRequire(context, id);
+
+      context.insertInto(USER_GROUP_MEMBERS)
+        .set(USER_GROUP_MEMBERS.GROUP_ID, Long.valueOf(id.value()))
+        .set(USER_GROUP_MEMBERS.USER_ID, user)
+        .onConflictDoNothing()
+        .execute();
+
+      savedSearchesReevaluate(context, user);
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  @Override
+  public void groupMemberRemove(
+    final IcGroupID id,
+    final UUID user)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(id, "id");
+    Objects.requireNonNull(user, "user");
+
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan("IcDatabaseGroupsQueries.groupMemberRemove");
+
+    try {
+      groupRequire(context, id);
+
+      context.deleteFrom(USER_GROUP_MEMBERS)
+        .where(
+          USER_GROUP_MEMBERS.GROUP_ID.eq(Long.valueOf(id.value()))
+            .and(USER_GROUP_MEMBERS.USER_ID.eq(user))
+        )
+        .execute();
+
+      savedSearchesReevaluate(context, user);
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  @Override
+  public List<UUID> groupMembers(
+    final IcGroupID id)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(id, "id");
+
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan("IcDatabaseGroupsQueries.groupMembers");
+
+    try {
+      groupRequire(context, id);
+
+      return context.select(USER_GROUP_MEMBERS.USER_ID)
+        .from(USER_GROUP_MEMBERS)
+        .where(USER_GROUP_MEMBERS.GROUP_ID.eq(Long.valueOf(id.value())))
+        .orderBy(USER_GROUP_MEMBERS.USER_ID)
+        .fetch(USER_GROUP_MEMBERS.USER_ID);
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  @Override
+  public void groupPermissionsAdd(
+    final IcGroupID id,
+    final Collection<IcPermissionScopedType> permissions)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(id, "id");
+    Objects.requireNonNull(permissions, "permissions");
+
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan(
+        "IcDatabaseGroupsQueries.groupPermissionsAdd");
+
+    try {
+      groupRequire(context, id);
+
+      if (permissions.isEmpty()) {
+        return;
+      }
+
+      final var batches = new ArrayList<Query>(permissions.size());
+      for (final var permission : permissions) {
+        batches.add(permissionInsertIfAbsent(context, id, permission));
+      }
+      context.batch(batches).execute();
+      savedSearchesReevaluateMembers(context, id, permissions);
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  /**
+   * Update the results of the saved searches owned by the members of a group
+   * to which the given permissions were granted.
+   */
+
+  private static void savedSearchesReevaluateMembers(
+    final DSLContext context,
+    final IcGroupID groupId,
+    final Collection<IcPermissionScopedType> permissions)
+  {
+    final var members =
+      context.select(USER_GROUP_MEMBERS.USER_ID)
+        .from(USER_GROUP_MEMBERS)
+        .where(USER_GROUP_MEMBERS.GROUP_ID.eq(Long.valueOf(groupId.value())))
+        .fetch(USER_GROUP_MEMBERS.USER_ID);
+
+    final var size = members.size() * permissions.size();
+    final var users = new UUID[size];
+    final var scopeProjects = new Long[size];
+    final var scopeTickets = new Long[size];
+    final var codes = new Integer[size];
+
+    int index = 0;
+    for (final var member : members) {
+      for (final var permission : permissions) {
+        users[index] = member;
+        codes[index] = Integer.valueOf(permission.permission().value());
+        if (permission instanceof IcPermissionProjectwide projectwide) {
+          scopeProjects[index] = Long.valueOf(projectwide.projectId().value());
+        } else if (permission instanceof IcPermissionTicketwide ticketwide) {
+          final var ticket = ticketwide.ticketId();
+          scopeProjects[index] = Long.valueOf(ticket.project().value());
+          scopeTickets[index] = Long.valueOf(ticket.value());
+        }
+        ++index;
+      }
+    }
+
+    savedSearchesReevaluate(context, users, scopeProjects, scopeTickets, codes);
+  }
+
+  /**
+   * Insert a permission unless an identical row exists. As with the
+   * permissions table, the nullable scope columns are compared with
+   * "is not distinct from".
+   */
+
+  private static Query permissionInsertIfAbsent(
+    final DSLContext context,
+    final IcGroupID groupId,
+    final IcPermissionScopedType permission)
+  {
+    final var group =
+      Long.valueOf(groupId.value());
+    final var icode =
+      Integer.valueOf(permission.permission().value());
+
+    Long scopeProject = null;
+    Long scopeTicket = null;
+    if (permission instanceof IcPermissionProjectwide projectwide) {
+      scopeProject = Long.valueOf(projectwide.projectId().value());
+    } else if (permission instanceof IcPermissionTicketwide ticketwide) {
+      scopeProject = Long.valueOf(ticketwide.ticketId().project().value());
+      scopeTicket = Long.valueOf(ticketwide.ticketId().value());
+    }
+
+    final var existing =
+      context.selectOne()
+        .from(USER_GROUP_PERMISSIONS)
+        .where(
+          USER_GROUP_PERMISSIONS.GROUP_ID.eq(group)
+            .and(USER_GROUP_PERMISSIONS.PERMISSION.eq(icode))
+            .and(USER_GROUP_PERMISSIONS.SCOPE_PROJECT
+                   .isNotDistinctFrom(scopeProject))
+            .and(USER_GROUP_PERMISSIONS.SCOPE_TICKET
+                   .isNotDistinctFrom(scopeTicket))
+        );
+
+    return context.insertInto(
+        USER_GROUP_PERMISSIONS,
+        USER_GROUP_PERMISSIONS.GROUP_ID,
+        USER_GROUP_PERMISSIONS.PERMISSION,
+        USER_GROUP_PERMISSIONS.SCOPE_PROJECT,
+        USER_GROUP_PERMISSIONS.SCOPE_TICKET)
+      .select(
+        DSL.select(
+            DSL.val(group),
+            DSL.val(icode),
+            DSL.val(scopeProject, USER_GROUP_PERMISSIONS.SCOPE_PROJECT),
+            DSL.val(scopeTicket, USER_GROUP_PERMISSIONS.SCOPE_TICKET))
+          .whereNotExists(existing)
+      );
+  }
+}
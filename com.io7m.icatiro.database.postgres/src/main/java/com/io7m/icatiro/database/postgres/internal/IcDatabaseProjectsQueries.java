@@ -22,15 +22,20 @@ import com.io7m.icatiro.database.api.IcDatabaseProjectsQueriesType;
 import com.io7m.icatiro.model.IcProject;
 import com.io7m.icatiro.model.IcProjectID;
 import com.io7m.icatiro.model.IcProjectShortName;
+import com.io7m.icatiro.model.IcProjectStatistics;
+import com.io7m.icatiro.model.IcProjectStatisticsDay;
 import com.io7m.icatiro.model.IcProjectTitle;
+import com.io7m.icatiro.model.IcTimeRange;
 import org.jooq.exception.DataAccessException;
 
 import java.util.Objects;
 
 import static com.io7m.icatiro.database.postgres.internal.IcDatabaseExceptions.handleDatabaseException;
 import static com.io7m.icatiro.database.postgres.internal.Tables.AUDIT;
+import static com.io7m.icatiro.database.postgres.internal.Tables.TICKET_STATISTICS_DAILY;
 import static com.io7m.icatiro.database.postgres.internal.tables.Projects.PROJECTS;
 import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.PROJECT_DUPLICATE;
+import static java.time.ZoneOffset.UTC;
 
 final class IcDatabaseProjectsQueries
   extends IcBaseQueries
@@ -104,4 +109,53 @@ final class IcDatabaseProjectsQueries
       throw handleDatabaseException(transaction, e);
     }
   }
+
+  @Override
+  public IcProjectStatistics projectStatistics(
+    final IcProjectID project,
+    final IcTimeRange timeRange)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(project, "project");
+    Objects.requireNonNull(timeRange, "timeRange");
+
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan(
+        "IcDatabaseProjectsQueries.projectStatistics");
+
+    try {
+      final var dayLower =
+        timeRange.timeLower().atZoneSameInstant(UTC).toLocalDate();
+      final var dayUpper =
+        timeRange.timeUpper().atZoneSameInstant(UTC).toLocalDate();
+
+      final var days =
+        context.selectFrom(TICKET_STATISTICS_DAILY)
+          .where(
+            TICKET_STATISTICS_DAILY.PROJECT.eq(Long.valueOf(project.value()))
+              .and(TICKET_STATISTICS_DAILY.TIME_DAY.between(dayLower, dayUpper))
+          )
+          .orderBy(TICKET_STATISTICS_DAILY.TIME_DAY.asc())
+          .fetch()
+          .map(r -> {
+            return new IcProjectStatisticsDay(
+              r.getTimeDay(),
+              r.getTicketsCreated().longValue(),
+              r.getTicketsUpdated().longValue(),
+              r.getCommentsCreated().longValue()
+            );
+          });
+
+      return new IcProjectStatistics(project, days);
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
 }
@@ -0,0 +1,365 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.database.postgres.internal;
+
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.api.IcDatabaseSavedSearchesQueriesType;
+import com.io7m.icatiro.database.postgres.internal.tables.records.SavedSearchesRecord;
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcSavedSearch;
+import com.io7m.icatiro.model.IcSavedSearchEntry;
+import com.io7m.icatiro.model.IcSavedSearchName;
+import com.io7m.icatiro.model.IcSavedSearchResults;
+import com.io7m.icatiro.model.IcTicketID;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.UUID;
+
+import static com.io7m.icatiro.database.postgres.internal.IcDatabaseExceptions.handleDatabaseException;
+import static com.io7m.icatiro.database.postgres.internal.Tables.AUDIT;
+import static com.io7m.icatiro.database.postgres.internal.Tables.SAVED_SEARCHES;
+import static com.io7m.icatiro.database.postgres.internal.Tables.SAVED_SEARCH_RESULTS;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.SAVED_SEARCH_DUPLICATE;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.SAVED_SEARCH_NONEXISTENT;
+import static com.io7m.icatiro.model.IcPermission.TICKET_READ;
+import static java.lang.Long.valueOf;
+
+final class IcDatabaseSavedSearchesQueries
+  extends IcBaseQueries
+  implements IcDatabaseSavedSearchesQueriesType
+{
+  protected IcDatabaseSavedSearchesQueries(
+    final IcDatabaseTransaction inTransaction)
+  {
+    super(inTransaction);
+  }
+
+  /**
+   * Update the results of all saved searches for the given ticket. This must
+   * be called whenever a ticket is created or modified.
+   *
+   * @param context The SQL context
+   * @param project The project of the ticket
+   * @param ticket  The ticket
+   */
+
+  static void savedSearchesRefresh(
+    final DSLContext context,
+    final long project,
+    final long ticket)
+  {
+    context.fetch(
+      "select saved_search_refresh(?, ?, ?)",
+      valueOf(project),
+      valueOf(ticket),
+      Integer.valueOf(TICKET_READ.value())
+    );
+  }
+
+  /**
+   * Update the results of the saved searches owned by the given users after
+   * their permissions have changed. The arrays are parallel: each element
+   * names a user, and the project and ticket (either of which may be
+   * {@code null}) to which the changed permission was scoped. Elements that
+   * do not concern {@link com.io7m.icatiro.model.IcPermission#TICKET_READ}
+   * are ignored, as no other permission affects the results of a search.
+   *
+   * @param context       The SQL context
+   * @param users         The users
+   * @param scopeProjects The project scopes
+   * @param scopeTickets  The ticket scopes
+   * @param permissions   The changed permissions
+   */
+
+  static void savedSearchesReevaluate(
+    final DSLContext context,
+    final UUID[] users,
+    final Long[] scopeProjects,
+    final Long[] scopeTickets,
+    final Integer[] permissions)
+  {
+    final var read = Integer.valueOf(TICKET_READ.value());
+
+    context.fetch(
+      """
+        select count(*) from (
+          select saved_search_reevaluate(s.id, u.scope_project, u.scope_ticket, ?::integer)
+            from (
+              select distinct u.user_id, u.scope_project, u.scope_ticket
+                from unnest(?::uuid[], ?::bigint[], ?::bigint[], ?::integer[])
+                  as u (user_id, scope_project, scope_ticket, permission)
+                where u.permission = ?::integer
+            ) u
+              join saved_searches s on s.owner = u.user_id
+            order by s.id
+        ) r
+        """,
+      read,
+      users,
+      scopeProjects,
+      scopeTickets,
+      permissions,
+      read
+    );
+  }
+
+  /**
+   * Update the results of the saved searches owned by the given user after
+   * any of their permissions may have changed.
+   *
+   * @param context The SQL context
+   * @param user    The user
+   */
+
+  static void savedSearchesReevaluate(
+    final DSLContext context,
+    final UUID user)
+  {
+    savedSearchesReevaluate(
+      context,
+      new UUID[]{user},
+      new Long[]{null},
+      new Long[]{null},
+      new Integer[]{Integer.valueOf(TICKET_READ.value())}
+    );
+  }
+
+  private static SavedSearchesRecord findSavedSearch(
+    final DSLContext context,
+    final UUID owner,
+    final IcSavedSearchName name)
+    throws IcDatabaseException
+  {
+    return context.fetchOptional(
+        SAVED_SEARCHES,
+        SAVED_SEARCHES.OWNER.eq(owner)
+          .and(SAVED_SEARCHES.NAME.eq(name.value())))
+      .orElseThrow(() -> {
+        return new IcDatabaseException(
+          "No such saved search '%s'".formatted(name),
+          SAVED_SEARCH_NONEXISTENT
+        );
+      });
+  }
+
+  @Override
+  public IcSavedSearch savedSearchCreate(
+    final IcSavedSearch search)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(search, "search");
+
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var userId =
+      transaction.userId();
+    final var querySpan =
+      transaction.createQuerySpan(
+        "IcDatabaseSavedSearchesQueries.savedSearchCreate");
+
+    try {
+      final var name = search.name();
+      final var existing =
+        context.fetchOne(
+          SAVED_SEARCHES,
+          SAVED_SEARCHES.OWNER.eq(userId)
+            .and(SAVED_SEARCHES.NAME.eq(name.value()))
+        );
+
+      if (existing != null) {
+        throw new IcDatabaseException(
+          "A saved search with name '%s' already exists."
+            .formatted(name.value()),
+          SAVED_SEARCH_DUPLICATE
+        );
+      }
+
+      final var created = search.timeCreatedRange();
+      final var updated = search.timeUpdatedRange();
+
+      final var newSearch = context.newRecord(SAVED_SEARCHES);
+      newSearch.setOwner(userId);
+      newSearch.setName(name.value());
+      newSearch.setRevision(valueOf(0L));
+      newSearch.setTimeCreatedLower(created.timeLower());
+      newSearch.setTimeCreatedUpper(created.timeUpper());
+      newSearch.setTimeUpdatedLower(updated.timeLower());
+      newSearch.setTimeUpdatedUpper(updated.timeUpper());
+      newSearch.setReporter(search.reporter().orElse(null));
+      newSearch.setTitleSearch(search.titleSearch().orElse(null));
+      newSearch.setDescriptionSearch(search.descriptionSearch().orElse(null));
+      newSearch.store();
+
+      /*
+       * Evaluate the search once against all existing tickets. From this
+       * point onwards, the results are maintained by saved_search_refresh()
+       * as tickets are written, and by saved_search_reevaluate() as the
+       * permissions of the owner change.
+       */
+
+      context.fetch(
+        "select saved_search_reevaluate(?, null, null, ?)",
+        newSearch.getId(),
+        Integer.valueOf(TICKET_READ.value())
+      );
+
+      context.insertInto(AUDIT)
+        .set(AUDIT.USER_ID, userId)
+        .set(AUDIT.TIME, this.currentTime())
+        .set(AUDIT.MESSAGE, name.value())
+        .set(AUDIT.TYPE, "SAVED_SEARCH_CREATED")
+        .execute();
+
+      return search;
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  @Override
+  public void savedSearchDelete(
+    final IcSavedSearchName name)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(name, "name");
+
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var userId =
+      transaction.userId();
+    final var querySpan =
+      transaction.createQuerySpan(
+        "IcDatabaseSavedSearchesQueries.savedSearchDelete");
+
+    try {
+      final var search = findSavedSearch(context, userId, name);
+      search.delete();
+
+      context.insertInto(AUDIT)
+        .set(AUDIT.USER_ID, userId)
+        .set(AUDIT.TIME, this.currentTime())
+        .set(AUDIT.MESSAGE, name.value())
+        .set(AUDIT.TYPE, "SAVED_SEARCH_DELETED")
+        .execute();
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  @Override
+  public IcSavedSearchResults savedSearchResults(
+    final IcSavedSearchName name,
+    final long since,
+    final int limit)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(name, "name");
+
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var userId =
+      transaction.userId();
+    final var querySpan =
+      transaction.createQuerySpan(
+        "IcDatabaseSavedSearchesQueries.savedSearchResults");
+
+    try {
+      final var search = findSavedSearch(context, userId, name);
+      final var r = SAVED_SEARCH_RESULTS;
+
+      /*
+       * The entries are keyed by revision, and so each request is an index
+       * range scan starting from the revision the client last saw.
+       *
+       * The user's permissions may have been revoked since the entries were
+       * recorded. An entry for a ticket that the user can no longer read is
+       * delivered as a removal, rather than being filtered out, so that the
+       * client discards the ticket; removals carry nothing but the ticket ID.
+       * A client fetching the complete results has no use for removals.
+       */
+
+      final var readable =
+        DSL.field(
+          "permission_is_allowed(?, SAVED_SEARCH_RESULTS.PROJECT, SAVED_SEARCH_RESULTS.TICKET_ID, ?)",
+          Boolean.class,
+          userId,
+          Integer.valueOf(TICKET_READ.value())
+        );
+
+      var condition =
+        r.SEARCH_ID.eq(search.getId())
+          .and(r.REVISION.gt(valueOf(since)));
+
+      if (since == 0L) {
+        condition = condition.and(r.REMOVED.isFalse())
+          .and(DSL.condition(readable));
+      }
+
+      final var records =
+        context.select(r.PROJECT, r.TICKET_ID, r.REVISION, r.REMOVED, readable)
+          .from(r)
+          .where(condition)
+          .orderBy(r.REVISION.asc())
+          .limit(Integer.valueOf(limit))
+          .fetch();
+
+      var revision = since;
+      final var entries =
+        new ArrayList<IcSavedSearchEntry>(records.size());
+
+      for (final var record : records) {
+        final var removed =
+          record.get(r.REMOVED).booleanValue()
+          || !Boolean.TRUE.equals(record.get(readable));
+
+        revision = Math.max(revision, record.get(r.REVISION).longValue());
+        entries.add(
+          new IcSavedSearchEntry(
+            new IcTicketID(
+              new IcProjectID(record.get(r.PROJECT).longValue()),
+              record.get(r.TICKET_ID).longValue()
+            ),
+            removed
+          )
+        );
+      }
+
+      return new IcSavedSearchResults(name, revision, entries);
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+}
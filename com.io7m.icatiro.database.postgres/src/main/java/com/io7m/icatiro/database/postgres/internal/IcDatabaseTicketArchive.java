@@ -0,0 +1,263 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.database.postgres.internal;
+
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+
+import static com.io7m.icatiro.database.postgres.internal.IcDatabaseExceptions.handleDatabaseException;
+import static com.io7m.icatiro.database.postgres.internal.Tables.AUDIT;
+import static com.io7m.icatiro.database.postgres.internal.Tables.PERMISSIONS;
+import static com.io7m.icatiro.database.postgres.internal.Tables.PERMISSIONS_ARCHIVED;
+import static com.io7m.icatiro.database.postgres.internal.Tables.SAVED_SEARCHES;
+import static com.io7m.icatiro.database.postgres.internal.Tables.SAVED_SEARCH_RESULTS;
+import static com.io7m.icatiro.database.postgres.internal.Tables.TICKETS;
+import static com.io7m.icatiro.database.postgres.internal.Tables.TICKETS_ARCHIVED;
+import static com.io7m.icatiro.database.postgres.internal.Tables.TICKET_COMMENTS;
+import static com.io7m.icatiro.database.postgres.internal.Tables.TICKET_COMMENTS_ARCHIVED;
+import static com.io7m.icatiro.database.postgres.internal.Tables.USER_GROUP_PERMISSIONS;
+import static java.lang.Long.valueOf;
+
+/**
+ * The movement of old tickets, and everything that refers to them, into
+ * the archive tables.
+ */
+
+final class IcDatabaseTicketArchive
+{
+  private IcDatabaseTicketArchive()
+  {
+
+  }
+
+  static long ticketsArchive(
+    final IcDatabaseTransaction transaction,
+    final OffsetDateTime timeNow,
+    final OffsetDateTime updatedBefore,
+    final int limit)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(updatedBefore, "updatedBefore");
+
+    final var context =
+      transaction.createContext();
+    final var userId =
+      transaction.userId();
+    final var querySpan =
+      transaction.createQuerySpan(
+        "IdDatabaseTicketsQueries.ticketsArchive");
+
+    try {
+      /*
+       * Lock the oldest tickets. Tickets that are locked by concurrent
+       * updates are skipped, and will be archived by a later call.
+       */
+
+      final var locked =
+        context.select(TICKETS.PROJECT, TICKETS.ID)
+          .from(TICKETS)
+          .where(TICKETS.TIME_UPDATED.lt(updatedBefore))
+          .orderBy(TICKETS.TIME_UPDATED.asc(), TICKETS.ID.asc())
+          .limit(Integer.valueOf(limit))
+          .forUpdate()
+          .skipLocked()
+          .fetch();
+
+      if (locked.isEmpty()) {
+        return 0L;
+      }
+
+      /*
+       * The tickets and comments are selected by project as well as by ID
+       * so that only the partitions holding the projects are examined.
+       */
+
+      final var ids =
+        locked.map(r -> r.value2()).toArray(Long[]::new);
+      final var projects =
+        locked.stream()
+          .map(r -> r.value1())
+          .distinct()
+          .toArray(Long[]::new);
+      final var ticketCondition =
+        TICKETS.PROJECT.eq(DSL.any(projects))
+          .and(TICKETS.ID.eq(DSL.any(ids)));
+      final var commentCondition =
+        TICKET_COMMENTS.PROJECT.eq(DSL.any(projects))
+          .and(TICKET_COMMENTS.TICKET_ID.eq(DSL.any(ids)));
+
+      final var a = TICKETS_ARCHIVED;
+      context.insertInto(
+          a,
+          a.ID,
+          a.PROJECT,
+          a.TITLE,
+          a.DESCRIPTION,
+          a.REPORTER,
+          a.TIME_CREATED,
+          a.TIME_UPDATED,
+          a.VERSION,
+          a.TIME_ARCHIVED)
+        .select(
+          DSL.select(
+              TICKETS.ID,
+              TICKETS.PROJECT,
+              TICKETS.TITLE,
+              TICKETS.DESCRIPTION,
+              TICKETS.REPORTER,
+              TICKETS.TIME_CREATED,
+              TICKETS.TIME_UPDATED,
+              TICKETS.VERSION,
+              DSL.val(timeNow))
+            .from(TICKETS)
+            .where(ticketCondition))
+        .execute();
+
+      final var ac = TICKET_COMMENTS_ARCHIVED;
+      context.insertInto(
+          ac,
+          ac.ID,
+          ac.PROJECT,
+          ac.TICKET_ID,
+          ac.TICKET_REPLIED_TO,
+          ac.OWNER,
+          ac.TEXT,
+          ac.TIME)
+        .select(
+          DSL.select(
+              TICKET_COMMENTS.ID,
+              TICKET_COMMENTS.PROJECT,
+              TICKET_COMMENTS.TICKET_ID,
+              TICKET_COMMENTS.TICKET_REPLIED_TO,
+              TICKET_COMMENTS.OWNER,
+              TICKET_COMMENTS.TEXT,
+              TICKET_COMMENTS.TIME)
+            .from(TICKET_COMMENTS)
+            .where(commentCondition))
+        .execute();
+
+      archivePermissions(context, ids);
+      archiveSavedSearchResults(context, ids);
+
+      context.deleteFrom(TICKET_COMMENTS)
+        .where(commentCondition)
+        .execute();
+      context.deleteFrom(TICKETS)
+        .where(ticketCondition)
+        .execute();
+
+      context.insertInto(AUDIT)
+        .set(AUDIT.USER_ID, userId)
+        .set(AUDIT.TIME, timeNow)
+        .set(AUDIT.MESSAGE, Integer.toString(ids.length))
+        .set(AUDIT.TYPE, "TICKETS_ARCHIVED")
+        .execute();
+
+      return ids.length;
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  private static void archivePermissions(
+    final DSLContext context,
+    final Long[] ids)
+  {
+    final var pa = PERMISSIONS_ARCHIVED;
+    final var p = PERMISSIONS;
+    final var g = USER_GROUP_PERMISSIONS;
+
+    context.insertInto(
+        pa,
+        pa.USER_ID,
+        pa.SCOPE_PROJECT,
+        pa.SCOPE_TICKET,
+        pa.PERMISSION)
+      .select(
+        DSL.select(p.USER_ID, p.SCOPE_PROJECT, p.SCOPE_TICKET, p.PERMISSION)
+          .from(p)
+          .where(p.SCOPE_TICKET.eq(DSL.any(ids))))
+      .execute();
+
+    context.insertInto(
+        pa,
+        pa.GROUP_ID,
+        pa.SCOPE_PROJECT,
+        pa.SCOPE_TICKET,
+        pa.PERMISSION)
+      .select(
+        DSL.select(g.GROUP_ID, g.SCOPE_PROJECT, g.SCOPE_TICKET, g.PERMISSION)
+          .from(g)
+          .where(g.SCOPE_TICKET.eq(DSL.any(ids))))
+      .execute();
+
+    context.deleteFrom(p)
+      .where(p.SCOPE_TICKET.eq(DSL.any(ids)))
+      .execute();
+    context.deleteFrom(g)
+      .where(g.SCOPE_TICKET.eq(DSL.any(ids)))
+      .execute();
+  }
+
+  private static void archiveSavedSearchResults(
+    final DSLContext context,
+    final Long[] ids)
+  {
+    final var r = SAVED_SEARCH_RESULTS;
+    final var s = SAVED_SEARCHES;
+
+    /*
+     * Archived tickets no longer match any saved search. Each search that
+     * contained an archived ticket has its revision incremented once, and
+     * the tickets are marked as removed at that revision. Searches are
+     * updated in ID order, as in saved_search_refresh, so that concurrent
+     * writers lock searches in the same order.
+     */
+
+    final var searches =
+      context.selectDistinct(r.SEARCH_ID)
+        .from(r)
+        .where(r.TICKET_ID.eq(DSL.any(ids)).and(r.REMOVED.isFalse()))
+        .orderBy(r.SEARCH_ID.asc())
+        .fetch(r.SEARCH_ID);
+
+    for (final var search : searches) {
+      final var revision =
+        context.update(s)
+          .set(s.REVISION, s.REVISION.plus(valueOf(1L)))
+          .where(s.ID.eq(search))
+          .returning(s.REVISION)
+          .fetchOne(s.REVISION);
+
+      context.update(r)
+        .set(r.REVISION, revision)
+        .set(r.REMOVED, Boolean.TRUE)
+        .where(r.SEARCH_ID.eq(search))
+        .and(r.TICKET_ID.eq(DSL.any(ids)))
+        .and(r.REMOVED.isFalse())
+        .execute();
+    }
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.database.postgres.internal;
+
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.postgres.internal.tables.records.TicketAttachmentsRecord;
+import com.io7m.icatiro.model.IcHash;
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcTicketAttachment;
+import com.io7m.icatiro.model.IcTicketAttachmentCreation;
+import com.io7m.icatiro.model.IcTicketID;
+import org.jooq.exception.DataAccessException;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.io7m.icatiro.database.postgres.internal.IcDatabaseExceptions.handleDatabaseException;
+import static com.io7m.icatiro.database.postgres.internal.IcDatabaseTicketsQueries.checkTicketExists;
+import static com.io7m.icatiro.database.postgres.internal.Tables.AUDIT;
+import static com.io7m.icatiro.database.postgres.internal.Tables.TICKET_ATTACHMENTS;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.TICKET_NONEXISTENT;
+import static java.lang.Long.toUnsignedString;
+import static java.lang.Long.valueOf;
+
+/**
+ * Queries over the metadata of ticket attachments.
+ */
+
+final class IcDatabaseTicketAttachments
+{
+  private IcDatabaseTicketAttachments()
+  {
+
+  }
+
+  static IcTicketAttachment ticketAttachmentCreate(
+    final IcDatabaseTransaction transaction,
+    final OffsetDateTime timeNow,
+    final IcTicketAttachmentCreation creation)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(creation, "creation");
+
+    final var context =
+      transaction.createContext();
+    final var userId =
+      transaction.userId();
+    final var querySpan =
+      transaction.createQuerySpan(
+        "IdDatabaseTicketsQueries.ticketAttachmentCreate");
+
+    try {
+      final var ticketId = creation.ticket();
+      if (!checkTicketExists(context, ticketId)) {
+        throw new IcDatabaseException(
+          "No such ticket %s".formatted(ticketId),
+          TICKET_NONEXISTENT
+        );
+      }
+
+      final var hash = creation.hash();
+
+      final var newAttachment = context.newRecord(TICKET_ATTACHMENTS);
+      newAttachment.setProject(valueOf(ticketId.project().value()));
+      newAttachment.setTicketId(valueOf(ticketId.value()));
+      newAttachment.setName(creation.name());
+      newAttachment.setContentType(creation.contentType());
+      newAttachment.setSize(valueOf(creation.size()));
+      newAttachment.setHashAlgorithm(hash.algorithm());
+      newAttachment.setHash(hash.hash());
+      newAttachment.setOwner(userId);
+      newAttachment.setTime(timeNow);
+      newAttachment.store();
+
+      final var newId =
+        newAttachment.getId().longValue();
+
+      context.insertInto(AUDIT)
+        .set(AUDIT.USER_ID, userId)
+        .set(AUDIT.TIME, timeNow)
+        .set(AUDIT.MESSAGE, "%s:%s".formatted(toUnsignedString(newId), hash))
+        .set(AUDIT.TYPE, "TICKET_ATTACHMENT_CREATED")
+        .execute();
+
+      return mapAttachment(newAttachment);
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  static Optional<IcTicketAttachment> ticketAttachmentGet(
+    final IcDatabaseTransaction transaction,
+    final IcTicketID ticket,
+    final long attachmentId)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(ticket, "ticket");
+
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan(
+        "IdDatabaseTicketsQueries.ticketAttachmentGet");
+
+    try {
+      return context.selectFrom(TICKET_ATTACHMENTS)
+        .where(TICKET_ATTACHMENTS.PROJECT.eq(valueOf(ticket.project().value())))
+        .and(TICKET_ATTACHMENTS.TICKET_ID.eq(valueOf(ticket.value())))
+        .and(TICKET_ATTACHMENTS.ID.eq(valueOf(attachmentId)))
+        .fetchOptional()
+        .map(IcDatabaseTicketAttachments::mapAttachment);
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  static List<IcTicketAttachment> ticketAttachmentList(
+    final IcDatabaseTransaction transaction,
+    final IcTicketID ticket)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(ticket, "ticket");
+
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan(
+        "IdDatabaseTicketsQueries.ticketAttachmentList");
+
+    try {
+      return context.selectFrom(TICKET_ATTACHMENTS)
+        .where(TICKET_ATTACHMENTS.PROJECT.eq(valueOf(ticket.project().value())))
+        .and(TICKET_ATTACHMENTS.TICKET_ID.eq(valueOf(ticket.value())))
+        .orderBy(TICKET_ATTACHMENTS.ID.asc())
+        .fetch(IcDatabaseTicketAttachments::mapAttachment);
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  private static IcTicketAttachment mapAttachment(
+    final TicketAttachmentsRecord r)
+  {
+    return new IcTicketAttachment(
+      new IcTicketID(
+        new IcProjectID(r.getProject().longValue()),
+        r.getTicketId().longValue()
+      ),
+      r.getId().longValue(),
+      r.getName(),
+      r.getContentType(),
+      r.getSize().longValue(),
+      new IcHash(r.getHashAlgorithm(), r.getHash()),
+      r.getOwner(),
+      r.getTime()
+    );
+  }
+}
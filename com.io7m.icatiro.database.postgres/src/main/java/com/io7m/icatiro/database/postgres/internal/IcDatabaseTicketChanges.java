@@ -0,0 +1,191 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.database.postgres.internal;
+
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcTicketChange;
+import com.io7m.icatiro.model.IcTicketChangeCursor;
+import com.io7m.icatiro.model.IcTicketChangeKind;
+import com.io7m.icatiro.model.IcTicketChanges;
+import com.io7m.icatiro.model.IcTicketID;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Objects;
+
+import static com.io7m.icatiro.database.postgres.internal.IcDatabaseExceptions.handleDatabaseException;
+import static com.io7m.icatiro.database.postgres.internal.IcDatabaseTicketsQueries.toOptionalLong;
+import static com.io7m.icatiro.database.postgres.internal.Tables.TICKET_CHANGES;
+import static com.io7m.icatiro.model.IcPermission.TICKET_READ;
+import static java.lang.Long.valueOf;
+
+/**
+ * Queries over the log of changes made to tickets.
+ */
+
+final class IcDatabaseTicketChanges
+{
+  private IcDatabaseTicketChanges()
+  {
+
+  }
+
+  static void changeLogAppend(
+    final DSLContext context,
+    final Long project,
+    final Long ticket,
+    final Long comment,
+    final IcTicketChangeKind kind,
+    final OffsetDateTime time)
+  {
+    /*
+     * The transaction ID column is filled in by the database.
+     */
+
+    final var c = TICKET_CHANGES;
+    context.insertInto(c)
+      .set(c.PROJECT, project)
+      .set(c.TICKET_ID, ticket)
+      .set(c.COMMENT_ID, comment)
+      .set(c.KIND, Integer.valueOf(kind.value()))
+      .set(c.TIME, time)
+      .execute();
+  }
+
+  static IcTicketChanges ticketChangesSince(
+    final IcDatabaseTransaction transaction,
+    final IcTicketChangeCursor cursor,
+    final int limit)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(cursor, "cursor");
+
+    final var context =
+      transaction.createContext();
+    final var userId =
+      transaction.userId();
+    final var querySpan =
+      transaction.createQuerySpan(
+        "IdDatabaseTicketsQueries.ticketChangesSince");
+
+    try {
+      final var c = TICKET_CHANGES;
+
+      /*
+       * Only changes made by transactions older than the oldest transaction
+       * still running are visible; any change that becomes visible later is
+       * guaranteed to sort after the returned cursor. A consequence is that
+       * a single long-running transaction holds back every change committed
+       * after it started, for every reader.
+       */
+
+      final var horizon =
+        context.fetchValue(
+          DSL.field(
+            "pg_snapshot_xmin(pg_current_snapshot())::text::bigint",
+            Long.class
+          )
+        );
+
+      /*
+       * Changes to tickets that the user cannot read are scanned but not
+       * returned, so that the cursor still advances past them.
+       */
+
+      final var allowed =
+        DSL.field(
+          "permission_is_allowed(?, TICKET_CHANGES.PROJECT, TICKET_CHANGES.TICKET_ID, ?)",
+          Boolean.class,
+          userId,
+          Integer.valueOf(TICKET_READ.value())
+        );
+
+      final var records =
+        context.select(
+            c.ID,
+            c.TXID,
+            c.PROJECT,
+            c.TICKET_ID,
+            c.COMMENT_ID,
+            c.KIND,
+            c.TIME,
+            allowed)
+          .from(c)
+          .where(
+            DSL.row(c.TXID, c.ID)
+              .gt(valueOf(cursor.transaction()), valueOf(cursor.sequence()))
+              .and(c.TXID.lt(DSL.val(horizon, Long.class))))
+          .orderBy(c.TXID.asc(), c.ID.asc())
+          .limit(Integer.valueOf(limit))
+          .fetch();
+
+      /*
+       * Report the first committed change that is being held back, so that
+       * clients can distinguish a stalled feed from an idle one.
+       */
+
+      final var stalledSince =
+        context.select(c.TIME)
+          .from(c)
+          .where(
+            DSL.row(c.TXID, c.ID)
+              .gt(valueOf(cursor.transaction()), valueOf(cursor.sequence()))
+              .and(c.TXID.ge(DSL.val(horizon, Long.class))))
+          .orderBy(c.TXID.asc(), c.ID.asc())
+          .limit(1)
+          .fetchOptional(c.TIME);
+
+      var next = cursor;
+      final var changes =
+        new ArrayList<IcTicketChange>(records.size());
+
+      for (final var record : records) {
+        next = new IcTicketChangeCursor(
+          record.get(c.TXID).longValue(),
+          record.get(c.ID).longValue()
+        );
+
+        if (!Boolean.TRUE.equals(record.get(allowed))) {
+          continue;
+        }
+
+        changes.add(
+          new IcTicketChange(
+            new IcTicketID(
+              new IcProjectID(record.get(c.PROJECT).longValue()),
+              record.get(c.TICKET_ID).longValue()
+            ),
+            IcTicketChangeKind.ofInteger(record.get(c.KIND).intValue()),
+            toOptionalLong(record.get(c.COMMENT_ID)),
+            record.get(c.TIME)
+          )
+        );
+      }
+
+      return new IcTicketChanges(changes, next, stalledSince);
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+}
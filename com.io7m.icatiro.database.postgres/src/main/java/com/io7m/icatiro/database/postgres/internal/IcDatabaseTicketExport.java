@@ -0,0 +1,170 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.database.postgres.internal;
+
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.api.IcDatabaseTicketExportType;
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcTicketComment;
+import com.io7m.icatiro.model.IcTicketExportItemType;
+import com.io7m.icatiro.model.IcTicketExported;
+import com.io7m.icatiro.model.IcTicketID;
+import com.io7m.icatiro.model.IcTicketTitle;
+import io.opentelemetry.api.trace.Span;
+import org.jooq.Cursor;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.exception.DataAccessException;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static com.io7m.icatiro.database.postgres.internal.IcDatabaseExceptions.handleDatabaseException;
+import static com.io7m.icatiro.database.postgres.internal.Tables.TICKETS;
+import static com.io7m.icatiro.database.postgres.internal.Tables.TICKET_COMMENTS;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.SQL_ERROR;
+
+/**
+ * A ticket export over a database cursor. Each row of the cursor holds
+ * either a ticket, in which case the comment ID is null, or a comment. The
+ * rows are ordered by ticket and then by comment, with the row of each
+ * ticket preceding the rows of its comments.
+ */
+
+final class IcDatabaseTicketExport implements IcDatabaseTicketExportType
+{
+  /**
+   * The ticket ID column of the export query.
+   */
+
+  static final Field<Long> EXPORT_TICKET_ID =
+    TICKETS.ID.as("export_ticket_id");
+
+  /**
+   * The comment ID column of the export query.
+   */
+
+  static final Field<Long> EXPORT_COMMENT_ID =
+    TICKET_COMMENTS.ID.as("export_comment_id");
+
+  /**
+   * The name of the archived flag column of the export query.
+   */
+
+  static final String EXPORT_ARCHIVED =
+    "export_archived";
+
+  private final IcDatabaseTransaction transaction;
+  private final Span querySpan;
+  private final Cursor<Record> cursor;
+  private final IcProjectID project;
+
+  IcDatabaseTicketExport(
+    final IcDatabaseTransaction inTransaction,
+    final Span inQuerySpan,
+    final Cursor<Record> inCursor,
+    final IcProjectID inProject)
+  {
+    this.transaction =
+      Objects.requireNonNull(inTransaction, "transaction");
+    this.querySpan =
+      Objects.requireNonNull(inQuerySpan, "querySpan");
+    this.cursor =
+      Objects.requireNonNull(inCursor, "cursor");
+    this.project =
+      Objects.requireNonNull(inProject, "project");
+  }
+
+  @Override
+  public Optional<IcTicketExportItemType> next()
+    throws IcDatabaseException
+  {
+    final Record r;
+    try {
+      r = this.cursor.fetchNext();
+    } catch (final DataAccessException e) {
+      this.querySpan.recordException(e);
+      throw handleDatabaseException(this.transaction, e);
+    }
+
+    if (r == null) {
+      return Optional.empty();
+    }
+
+    final var ticketId =
+      new IcTicketID(this.project, r.get(EXPORT_TICKET_ID).longValue());
+    final var commentId =
+      r.get(EXPORT_COMMENT_ID);
+
+    if (commentId == null) {
+      return Optional.of(mapTicket(ticketId, r));
+    }
+    return Optional.of(mapComment(ticketId, commentId, r));
+  }
+
+  private static IcTicketExported mapTicket(
+    final IcTicketID id,
+    final Record r)
+  {
+    return new IcTicketExported(
+      id,
+      new IcTicketTitle(r.get(TICKETS.TITLE)),
+      r.get(TICKETS.TIME_CREATED),
+      r.get(TICKETS.TIME_UPDATED),
+      r.get(TICKETS.VERSION).longValue(),
+      r.get(TICKETS.REPORTER),
+      r.get(TICKETS.DESCRIPTION),
+      r.get(EXPORT_ARCHIVED, Boolean.class).booleanValue()
+    );
+  }
+
+  private static IcTicketComment mapComment(
+    final IcTicketID id,
+    final Long commentId,
+    final Record r)
+  {
+    final var repliedTo =
+      r.get(TICKET_COMMENTS.TICKET_REPLIED_TO);
+
+    return new IcTicketComment(
+      id,
+      r.get(TICKET_COMMENTS.TIME),
+      r.get(TICKET_COMMENTS.OWNER),
+      commentId.longValue(),
+      repliedTo == null
+        ? OptionalLong.empty()
+        : OptionalLong.of(repliedTo.longValue()),
+      r.get(TICKET_COMMENTS.TEXT)
+    );
+  }
+
+  @Override
+  public void close()
+    throws IcDatabaseException
+  {
+    try {
+      this.cursor.close();
+    } catch (final DataAccessException e) {
+      this.querySpan.recordException(e);
+      throw new IcDatabaseException(e.getMessage(), e, SQL_ERROR);
+    } finally {
+      this.querySpan.end();
+    }
+  }
+}
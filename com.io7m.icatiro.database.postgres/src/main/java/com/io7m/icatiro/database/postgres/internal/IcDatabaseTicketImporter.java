@@ -0,0 +1,579 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.database.postgres.internal;
+
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.api.IcDatabaseTicketImport;
+import com.io7m.icatiro.database.api.IcDatabaseTicketImportProgress;
+import com.io7m.icatiro.database.api.IcDatabaseTicketImportResult;
+import com.io7m.icatiro.database.api.IcDatabaseTicketImportStage;
+import org.jooq.DSLContext;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static com.io7m.icatiro.database.api.IcDatabaseTicketImportStage.COPYING_COMMENTS;
+import static com.io7m.icatiro.database.api.IcDatabaseTicketImportStage.COPYING_PERMISSIONS;
+import static com.io7m.icatiro.database.api.IcDatabaseTicketImportStage.COPYING_TICKETS;
+import static com.io7m.icatiro.database.api.IcDatabaseTicketImportStage.MERGING_COMMENTS;
+import static com.io7m.icatiro.database.api.IcDatabaseTicketImportStage.MERGING_PERMISSIONS;
+import static com.io7m.icatiro.database.api.IcDatabaseTicketImportStage.MERGING_TICKETS;
+import static com.io7m.icatiro.database.postgres.internal.Tables.AUDIT;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.TICKET_COMMENT_NONEXISTENT;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.TICKET_NONEXISTENT;
+import static com.io7m.icatiro.model.IcPermission.TICKET_READ;
+import static com.io7m.icatiro.model.IcTicketChangeKind.TICKET_COMMENT_CREATED;
+import static com.io7m.icatiro.model.IcTicketChangeKind.TICKET_CREATED;
+import static java.lang.Long.toUnsignedString;
+
+/**
+ * A bulk import of tickets. The input is copied into temporary staging tables
+ * with {@code COPY}, checked, assigned new IDs, and then merged into the
+ * live tables with one statement per table. The staging tables are dropped
+ * when the transaction ends.
+ */
+
+final class IcDatabaseTicketImporter
+{
+  private static final int BUFFER_SIZE =
+    64 * 1024;
+
+  private static final long PROGRESS_INTERVAL_BYTES =
+    16L * 1024L * 1024L;
+
+  private final DSLContext context;
+  private final CopyManager copyManager;
+  private final Consumer<IcDatabaseTicketImportProgress> progress;
+  private final Long project;
+
+  IcDatabaseTicketImporter(
+    final DSLContext inContext,
+    final CopyManager inCopyManager,
+    final Consumer<IcDatabaseTicketImportProgress> inProgress,
+    final Long inProject)
+  {
+    this.context =
+      Objects.requireNonNull(inContext, "context");
+    this.copyManager =
+      Objects.requireNonNull(inCopyManager, "copyManager");
+    this.progress =
+      Objects.requireNonNull(inProgress, "progress");
+    this.project =
+      Objects.requireNonNull(inProject, "project");
+  }
+
+  IcDatabaseTicketImportResult execute(
+    final IcDatabaseTicketImport ticketImport,
+    final UUID userId,
+    final OffsetDateTime timeNow)
+    throws IcDatabaseException, SQLException, IOException
+  {
+    final var timeStart = System.nanoTime();
+
+    this.stagingCreate();
+
+    this.copy(
+      COPYING_TICKETS,
+      """
+        copy ticket_import_tickets
+          (legacy_id, title, description, reporter, time_created, time_updated)
+          from stdin (format csv, header true, encoding 'UTF8')
+        """,
+      ticketImport.tickets()
+    );
+    this.copy(
+      COPYING_COMMENTS,
+      """
+        copy ticket_import_comments
+          (legacy_id, legacy_ticket, legacy_replied_to, owner, text, time)
+          from stdin (format csv, header true, encoding 'UTF8')
+        """,
+      ticketImport.comments()
+    );
+
+    final var permissionsInput = ticketImport.permissions();
+    if (permissionsInput.isPresent()) {
+      this.copy(
+        COPYING_PERMISSIONS,
+        """
+          copy ticket_import_permissions
+            (legacy_ticket, user_id, permission)
+            from stdin (format csv, header true, encoding 'UTF8')
+          """,
+        permissionsInput.get()
+      );
+    }
+
+    this.stagingIndex();
+    this.stagingCheck();
+
+    final var tickets =
+      this.mergeTickets();
+    final var comments =
+      this.mergeComments();
+    final var permissions =
+      this.mergePermissions();
+
+    this.statisticsUpdate();
+    this.changeLogAppend(timeNow);
+    this.savedSearchesRefresh();
+
+    this.context.insertInto(AUDIT)
+      .set(AUDIT.USER_ID, userId)
+      .set(AUDIT.TIME, timeNow)
+      .set(AUDIT.MESSAGE, "%s:%d:%d:%d".formatted(
+        toUnsignedString(this.project.longValue()),
+        Long.valueOf(tickets),
+        Long.valueOf(comments),
+        Long.valueOf(permissions)))
+      .set(AUDIT.TYPE, "TICKETS_IMPORTED")
+      .execute();
+
+    return new IcDatabaseTicketImportResult(
+      tickets,
+      comments,
+      permissions,
+      Duration.ofNanos(System.nanoTime() - timeStart)
+    );
+  }
+
+  /**
+   * Create the staging tables. The tables are created without indexes, as
+   * building an index once the rows are present is considerably faster than
+   * maintaining it during the copy.
+   */
+
+  private void stagingCreate()
+  {
+    this.context.execute("drop table if exists ticket_import_tickets");
+    this.context.execute("drop table if exists ticket_import_comments");
+    this.context.execute("drop table if exists ticket_import_permissions");
+
+    this.context.execute(
+      """
+        create temporary table ticket_import_tickets (
+          ordinal       bigint                    not null generated always as identity,
+          legacy_id     text                      not null,
+          title         text                      not null,
+          description   text                      not null,
+          reporter      uuid                      not null,
+          time_created  timestamp with time zone  not null,
+          time_updated  timestamp with time zone  not null,
+          id            bigint
+        ) on commit drop
+        """
+    );
+
+    this.context.execute(
+      """
+        create temporary table ticket_import_comments (
+          ordinal            bigint                    not null generated always as identity,
+          legacy_id          text                      not null,
+          legacy_ticket      text                      not null,
+          legacy_replied_to  text,
+          owner              uuid                      not null,
+          text               text                      not null,
+          time               timestamp with time zone  not null,
+          id                 bigint
+        ) on commit drop
+        """
+    );
+
+    this.context.execute(
+      """
+        create temporary table ticket_import_permissions (
+          legacy_ticket  text     not null,
+          user_id        uuid     not null,
+          permission     integer  not null
+        ) on commit drop
+        """
+    );
+  }
+
+  /**
+   * Index the staged rows by their original IDs, rejecting duplicates, and
+   * collect statistics so that the merges are planned with the real row
+   * counts. Temporary tables are never analyzed automatically.
+   */
+
+  private void stagingIndex()
+  {
+    this.context.execute(
+      "alter table ticket_import_tickets add primary key (legacy_id)");
+    this.context.execute(
+      "alter table ticket_import_comments add primary key (legacy_id)");
+    this.context.execute("analyze ticket_import_tickets");
+    this.context.execute("analyze ticket_import_comments");
+    this.context.execute("analyze ticket_import_permissions");
+  }
+
+  /**
+   * Check that every reference between staged rows can be resolved.
+   */
+
+  private void stagingCheck()
+    throws IcDatabaseException
+  {
+    final var missingTicket =
+      this.context.fetchOptional(
+        """
+          select c.legacy_id, c.legacy_ticket
+            from ticket_import_comments c
+            where not exists (
+              select 1 from ticket_import_tickets t
+                where t.legacy_id = c.legacy_ticket
+            )
+            limit 1
+          """
+      );
+
+    if (missingTicket.isPresent()) {
+      final var r = missingTicket.get();
+      throw new IcDatabaseException(
+        "Imported comment %s refers to nonexistent ticket %s"
+          .formatted(r.get(0), r.get(1)),
+        TICKET_NONEXISTENT
+      );
+    }
+
+    final var missingComment =
+      this.context.fetchOptional(
+        """
+          select c.legacy_id, c.legacy_replied_to
+            from ticket_import_comments c
+            where c.legacy_replied_to is not null
+              and not exists (
+                select 1 from ticket_import_comments r
+                  where r.legacy_id = c.legacy_replied_to
+              )
+            limit 1
+          """
+      );
+
+    if (missingComment.isPresent()) {
+      final var r = missingComment.get();
+      throw new IcDatabaseException(
+        "Imported comment %s replies to nonexistent comment %s"
+          .formatted(r.get(0), r.get(1)),
+        TICKET_COMMENT_NONEXISTENT
+      );
+    }
+
+    final var missingPermissionTicket =
+      this.context.fetchOptional(
+        """
+          select p.legacy_ticket
+            from ticket_import_permissions p
+            where not exists (
+              select 1 from ticket_import_tickets t
+                where t.legacy_id = p.legacy_ticket
+            )
+            limit 1
+          """
+      );
+
+    if (missingPermissionTicket.isPresent()) {
+      final var r = missingPermissionTicket.get();
+      throw new IcDatabaseException(
+        "Imported permission refers to nonexistent ticket %s"
+          .formatted(r.get(0)),
+        TICKET_NONEXISTENT
+      );
+    }
+  }
+
+  /**
+   * Allocate IDs for the staged tickets in input order, and insert them.
+   */
+
+  private long mergeTickets()
+  {
+    final var timeStart = System.nanoTime();
+
+    this.idsAllocate("ticket_import_tickets", "tickets");
+
+    final long rows =
+      this.context.execute(
+        """
+          insert into tickets
+            (id, project, title, description, reporter, time_created, time_updated)
+            overriding system value
+            select s.id, ?::bigint, s.title, s.description, s.reporter, s.time_created, s.time_updated
+              from ticket_import_tickets s
+              order by s.id
+          """,
+        this.project
+      );
+
+    this.publish(MERGING_TICKETS, true, rows, 0L, timeStart);
+    return rows;
+  }
+
+  /**
+   * Allocate IDs for the staged comments in input order, and insert them.
+   * The foreign key that refers to the comment being replied to is checked
+   * at the end of the statement, and so the order in which replies and the
+   * comments to which they reply are inserted is irrelevant.
+   */
+
+  private long mergeComments()
+  {
+    final var timeStart = System.nanoTime();
+
+    this.idsAllocate("ticket_import_comments", "ticket_comments");
+
+    final long rows =
+      this.context.execute(
+        """
+          insert into ticket_comments
+            (id, project, ticket_id, ticket_replied_to, owner, text, time)
+            overriding system value
+            select c.id, ?::bigint, t.id, r.id, c.owner, c.text, c.time
+              from ticket_import_comments c
+                join ticket_import_tickets t on t.legacy_id = c.legacy_ticket
+                left join ticket_import_comments r on r.legacy_id = c.legacy_replied_to
+              order by c.id
+          """,
+        this.project
+      );
+
+    this.publish(MERGING_COMMENTS, true, rows, 0L, timeStart);
+    return rows;
+  }
+
+  private long mergePermissions()
+  {
+    final var timeStart = System.nanoTime();
+
+    final long rows =
+      this.context.execute(
+        """
+          insert into permissions (user_id, scope_project, scope_ticket, permission)
+            select distinct p.user_id, ?::bigint, t.id, p.permission
+              from ticket_import_permissions p
+                join ticket_import_tickets t on t.legacy_id = p.legacy_ticket
+          """,
+        this.project
+      );
+
+    this.publish(MERGING_PERMISSIONS, true, rows, 0L, timeStart);
+    return rows;
+  }
+
+  /**
+   * Draw one value from the identity sequence of the given table for each
+   * staged row. The sequence is looked up once rather than once per row.
+   */
+
+  private void idsAllocate(
+    final String staging,
+    final String table)
+  {
+    final var sequence =
+      this.context.fetchValue(
+        "select pg_get_serial_sequence(?, 'id')",
+        table
+      );
+
+    this.context.execute(
+      """
+        update %1$s s
+          set id = n.id
+          from (
+            select o.legacy_id, nextval(?::regclass) as id
+              from (select legacy_id from %1$s order by ordinal) o
+          ) n
+          where s.legacy_id = n.legacy_id
+        """.formatted(staging),
+      sequence
+    );
+  }
+
+  /**
+   * Add the imported tickets and comments to the daily statistics of the
+   * days on which they were created.
+   */
+
+  private void statisticsUpdate()
+  {
+    this.context.execute(
+      """
+        insert into ticket_statistics_daily
+          (project, time_day, tickets_created, tickets_updated, comments_created)
+          select ?::bigint, d.time_day, sum(d.tickets), 0, sum(d.comments)
+            from (
+              select (t.time_created at time zone 'UTC')::date as time_day, 1 as tickets, 0 as comments
+                from ticket_import_tickets t
+              union all
+              select (c.time at time zone 'UTC')::date, 0, 1
+                from ticket_import_comments c
+            ) d
+            group by d.time_day
+          on conflict (project, time_day) do update
+            set tickets_created  = ticket_statistics_daily.tickets_created + excluded.tickets_created,
+                comments_created = ticket_statistics_daily.comments_created + excluded.comments_created
+        """,
+      this.project
+    );
+  }
+
+  private void changeLogAppend(
+    final OffsetDateTime timeNow)
+  {
+    /*
+     * The transaction ID column is filled in by the database.
+     */
+
+    this.context.execute(
+      """
+        insert into ticket_changes (project, ticket_id, comment_id, kind, time)
+          select ?::bigint, t.id, null::bigint, ?::integer, ?::timestamp with time zone
+            from ticket_import_tickets t
+          union all
+          select ?::bigint, t.id, c.id, ?::integer, ?::timestamp with time zone
+            from ticket_import_comments c
+              join ticket_import_tickets t on t.legacy_id = c.legacy_ticket
+        """,
+      this.project,
+      Integer.valueOf(TICKET_CREATED.value()),
+      timeNow,
+      this.project,
+      Integer.valueOf(TICKET_COMMENT_CREATED.value()),
+      timeNow
+    );
+  }
+
+  /**
+   * Add the imported tickets to the results of every saved search that
+   * matches them. Each search is evaluated against all of the imported
+   * tickets in a single statement, and its revision is incremented once by
+   * the number of tickets added, with each added ticket recorded at its own
+   * revision. The imported tickets are new, and so no search can already
+   * contain them, and no removals need to be recorded.
+   */
+
+  private void savedSearchesRefresh()
+  {
+    final var searches =
+      this.context.fetchValues("select id from saved_searches order by id");
+
+    for (final var search : searches) {
+      this.context.execute(
+        """
+          with matched as (
+            select t.project                          as project,
+                   t.id                               as ticket_id,
+                   row_number () over (order by t.id) as n
+              from saved_searches s, tickets t
+                join ticket_import_tickets i on i.id = t.id
+              where s.id = ?::bigint
+                and t.project = ?::bigint
+                and saved_search_matches (s, t, ?::integer)
+          ),
+          bump as (
+            update saved_searches s
+              set revision = s.revision + (select count(*) from matched)
+              where s.id = ?::bigint
+              returning s.revision - (select count(*) from matched) as base
+          )
+          insert into saved_search_results (search_id, project, ticket_id, revision, removed)
+            select ?::bigint, m.project, m.ticket_id, b.base + m.n, false
+              from matched m, bump b
+          """,
+        search,
+        this.project,
+        Integer.valueOf(TICKET_READ.value()),
+        search,
+        search
+      );
+    }
+  }
+
+  /**
+   * Copy the given input into a staging table. The input is streamed to the
+   * server in fixed-size blocks, and so the memory required is independent
+   * of the size of the input.
+   */
+
+  private void copy(
+    final IcDatabaseTicketImportStage stage,
+    final String sql,
+    final InputStream input)
+    throws SQLException, IOException
+  {
+    final var timeStart = System.nanoTime();
+    final var copyIn = this.copyManager.copyIn(sql);
+
+    try {
+      final var buffer = new byte[BUFFER_SIZE];
+      var bytes = 0L;
+      var bytesReport = PROGRESS_INTERVAL_BYTES;
+
+      while (true) {
+        final var r = input.read(buffer);
+        if (r == -1) {
+          break;
+        }
+        copyIn.writeToCopy(buffer, 0, r);
+        bytes += r;
+
+        if (bytes >= bytesReport) {
+          this.publish(stage, false, 0L, bytes, timeStart);
+          bytesReport += PROGRESS_INTERVAL_BYTES;
+        }
+      }
+
+      final var rows = copyIn.endCopy();
+      this.publish(stage, true, rows, bytes, timeStart);
+    } catch (final SQLException | IOException e) {
+      if (copyIn.isActive()) {
+        try {
+          copyIn.cancelCopy();
+        } catch (final SQLException ex) {
+          e.addSuppressed(ex);
+        }
+      }
+      throw e;
+    }
+  }
+
+  private void publish(
+    final IcDatabaseTicketImportStage stage,
+    final boolean completed,
+    final long rows,
+    final long bytes,
+    final long timeStart)
+  {
+    this.progress.accept(
+      new IcDatabaseTicketImportProgress(
+        stage,
+        completed,
+        rows,
+        bytes,
+        Duration.ofNanos(System.nanoTime() - timeStart)
+      )
+    );
+  }
+}
@@ -0,0 +1,397 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.database.postgres.internal;
+
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.api.IcDatabaseTicketSearchType;
+import com.io7m.icatiro.database.api.IcDatabaseTicketsQueriesType;
+import com.io7m.icatiro.model.IcPage;
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcProjectShortName;
+import com.io7m.icatiro.model.IcProjectTitle;
+import com.io7m.icatiro.model.IcTicketColumnOrdering;
+import com.io7m.icatiro.model.IcTicketID;
+import com.io7m.icatiro.model.IcTicketSearch;
+import com.io7m.icatiro.model.IcTicketSearchProjection;
+import com.io7m.icatiro.model.IcTicketSummary;
+import com.io7m.icatiro.model.IcTicketSummaryID;
+import com.io7m.icatiro.model.IcTicketSummaryTitled;
+import com.io7m.icatiro.model.IcTicketSummaryType;
+import com.io7m.icatiro.model.IcTicketTitle;
+import com.io7m.idstore.model.IdName;
+import com.io7m.jqpage.core.JQKeysetRandomAccessPageDefinition;
+import com.io7m.jqpage.core.JQKeysetRandomAccessPagination;
+import org.jooq.Condition;
+import org.jooq.Field;
+import org.jooq.Select;
+import org.jooq.SelectField;
+import org.jooq.Table;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+
+import java.util.List;
+import java.util.Objects;
+
+import static com.io7m.icatiro.database.postgres.internal.IcDatabaseExceptions.handleDatabaseException;
+import static com.io7m.icatiro.database.postgres.internal.Tables.TICKETS;
+import static com.io7m.icatiro.database.postgres.internal.Tables.TICKETS_ARCHIVED;
+import static com.io7m.icatiro.database.postgres.internal.Tables.USERS;
+import static com.io7m.icatiro.database.postgres.internal.tables.Projects.PROJECTS;
+import static com.io7m.icatiro.model.IcPermission.TICKET_READ;
+import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.DB_STATEMENT;
+import static java.lang.Long.valueOf;
+
+/**
+ * Paginated ticket searches.
+ */
+
+final class IcDatabaseTicketSearches
+{
+  private IcDatabaseTicketSearches()
+  {
+
+  }
+
+  private static IcTicketSummary mapTicketWithPermissions(
+    final org.jooq.Record record)
+  {
+    return new IcTicketSummary(
+      new IcProjectTitle(record.get(PROJECTS.NAME_DISPLAY)),
+      new IcProjectShortName(record.get(PROJECTS.NAME_SHORT)),
+      new IcTicketID(
+        new IcProjectID(record.get(TICKETS.PROJECT)),
+        record.get(TICKETS.ID)
+      ),
+      new IcTicketTitle(record.get(TICKETS.TITLE)),
+      record.get(TICKETS.TIME_CREATED),
+      record.get(TICKETS.TIME_UPDATED),
+      record.get(TICKETS.REPORTER),
+      new IdName(record.get(USERS.NAME))
+    );
+  }
+
+  private static IcTicketSummaryType mapTicketSummary(
+    final IcTicketSearchProjection projection,
+    final org.jooq.Record record)
+  {
+    final var ticketId =
+      new IcTicketID(
+        new IcProjectID(record.get(TICKETS.PROJECT)),
+        record.get(TICKETS.ID)
+      );
+
+    return switch (projection) {
+      case ID -> new IcTicketSummaryID(ticketId);
+      case ID_AND_TITLE -> new IcTicketSummaryTitled(
+        ticketId,
+        new IcTicketTitle(record.get(TICKETS.TITLE)),
+        record.get(TICKETS.TIME_CREATED),
+        record.get(TICKETS.TIME_UPDATED)
+      );
+      case FULL -> mapTicketWithPermissions(record);
+    };
+  }
+
+  static IcDatabaseTicketSearchType ticketSearch(
+    final IcDatabaseTransaction transaction,
+    final IcTicketSearch parameters)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(parameters, "parameters");
+
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan(
+        "IdDatabaseTicketsQueries.ticketSearch.create");
+
+    try {
+      final var observer =
+        transaction.userId();
+
+      final var projection =
+        parameters.projection();
+      final var baseTable =
+        searchBaseTable(parameters.includeArchived(), projection);
+
+      /*
+       * The permission condition is responsible for filtering out
+       * tickets with which the user has no permission to read. The
+       * reporter of a ticket can always read it, and checking the
+       * reporter first avoids evaluating the permission function for
+       * the user's own tickets.
+       */
+
+      final var permissionCondition =
+        TICKETS.REPORTER.eq(observer)
+          .or(DSL.condition(
+            "permission_is_allowed(?, TICKETS.PROJECT, TICKETS.ID, ?)",
+            observer,
+            Integer.valueOf(TICKET_READ.value())
+          ));
+
+      /*
+       * The tickets must lie within the given time ranges.
+       */
+
+      final var timeCreatedRange = parameters.timeCreatedRange();
+      final var timeCreatedCondition =
+        DSL.condition(
+          TICKETS.TIME_CREATED.ge(timeCreatedRange.timeLower())
+            .and(TICKETS.TIME_CREATED.le(timeCreatedRange.timeUpper()))
+        );
+
+      final var timeUpdatedRange = parameters.timeUpdatedRange();
+      final var timeUpdatedCondition =
+        DSL.condition(
+          TICKETS.TIME_UPDATED.ge(timeUpdatedRange.timeLower())
+            .and(TICKETS.TIME_UPDATED.le(timeUpdatedRange.timeUpper()))
+        );
+
+      Condition whereCondition = permissionCondition;
+      whereCondition = whereCondition.and(timeCreatedCondition);
+      whereCondition = whereCondition.and(timeUpdatedCondition);
+
+      /*
+       * Filter by reporter if requested.
+       */
+
+      final var reporterOpt = parameters.reporter();
+      if (reporterOpt.isPresent()) {
+        whereCondition =
+          whereCondition.and(TICKETS.REPORTER.eq(reporterOpt.get()));
+      }
+
+      /*
+       * Do fulltext title and description searches if requested.
+       */
+
+      final var titleOpt = parameters.titleSearch();
+      if (titleOpt.isPresent()) {
+        whereCondition =
+          whereCondition.and(
+            DSL.condition(
+              "? @@ to_tsquery('english', ?)",
+              TICKETS.TITLE,
+              titleOpt.get()
+            )
+          );
+      }
+
+      final var descriptionOpt = parameters.descriptionSearch();
+      if (descriptionOpt.isPresent()) {
+        whereCondition =
+          whereCondition.and(
+            DSL.condition(
+              "? @@ to_tsquery('english', ?)",
+              TICKETS.DESCRIPTION,
+              descriptionOpt.get()
+            )
+          );
+      }
+
+      final var query =
+        baseTable.where(whereCondition);
+
+      final var pages =
+        JQKeysetRandomAccessPagination.createPageDefinitions(
+          context,
+          query,
+          List.of(orderField(parameters.ordering())),
+          Integer.toUnsignedLong(parameters.limit()),
+          statement -> {
+            querySpan.setAttribute(DB_STATEMENT, statement.toString());
+          }
+        );
+
+      return new TicketSearch(
+        baseTable,
+        projection,
+        whereCondition,
+        pages
+      );
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  /**
+   * Projects and users are only joined when the projection requires them.
+   */
+
+  private static Table<?> searchBaseTable(
+    final boolean includeArchived,
+    final IcTicketSearchProjection projection)
+  {
+    final var tickets = searchTickets(includeArchived);
+    return switch (projection) {
+      case ID, ID_AND_TITLE -> tickets;
+      case FULL -> tickets
+        .join(PROJECTS).on(PROJECTS.ID.eq(TICKETS.PROJECT))
+        .join(USERS).on(USERS.ID.eq(TICKETS.REPORTER));
+    };
+  }
+
+  /**
+   * The columns selected for the given projection. An empty list selects
+   * every column of the base table.
+   */
+
+  private static List<SelectField<?>> searchFields(
+    final IcTicketSearchProjection projection)
+  {
+    return switch (projection) {
+      case ID -> List.of(
+        TICKETS.PROJECT,
+        TICKETS.ID
+      );
+      case ID_AND_TITLE -> List.of(
+        TICKETS.PROJECT,
+        TICKETS.ID,
+        TICKETS.TITLE,
+        TICKETS.TIME_CREATED,
+        TICKETS.TIME_UPDATED
+      );
+      case FULL -> List.of();
+    };
+  }
+
+  /**
+   * Archived tickets are searched by appending them to the live tickets,
+   * under the name of the live tickets table, so that the search conditions
+   * and orderings apply to both without modification.
+   */
+
+  private static Table<?> searchTickets(
+    final boolean includeArchived)
+  {
+    if (!includeArchived) {
+      return TICKETS;
+    }
+
+    final var a = TICKETS_ARCHIVED;
+    return DSL.select(
+        TICKETS.ID,
+        TICKETS.PROJECT,
+        TICKETS.TITLE,
+        TICKETS.DESCRIPTION,
+        TICKETS.REPORTER,
+        TICKETS.TIME_CREATED,
+        TICKETS.TIME_UPDATED)
+      .from(TICKETS)
+      .unionAll(
+        DSL.select(
+            a.ID,
+            a.PROJECT,
+            a.TITLE,
+            a.DESCRIPTION,
+            a.REPORTER,
+            a.TIME_CREATED,
+            a.TIME_UPDATED)
+          .from(a))
+      .asTable(TICKETS.getUnqualifiedName());
+  }
+
+  private static final class TicketSearch
+    extends IcAbstractSearch<IcDatabaseTicketsQueries, IcDatabaseTicketsQueriesType, IcTicketSummaryType>
+    implements IcDatabaseTicketSearchType
+  {
+    private final Table<?> baseTable;
+    private final IcTicketSearchProjection projection;
+    private final Condition whereCondition;
+
+    TicketSearch(
+      final Table<?> inBaseTable,
+      final IcTicketSearchProjection inProjection,
+      final Condition inWhereCondition,
+      final List<JQKeysetRandomAccessPageDefinition> pages)
+    {
+      super(pages);
+
+      this.baseTable =
+        Objects.requireNonNull(inBaseTable, "baseTable");
+      this.projection =
+        Objects.requireNonNull(inProjection, "projection");
+      this.whereCondition =
+        Objects.requireNonNull(inWhereCondition, "whereCondition");
+    }
+
+    @Override
+    protected IcPage<IcTicketSummaryType> page(
+      final IcDatabaseTicketsQueries queries,
+      final JQKeysetRandomAccessPageDefinition page)
+      throws IcDatabaseException
+    {
+      final var transaction =
+        queries.transaction();
+      final var context =
+        transaction.createContext();
+
+      final var querySpan =
+        transaction.createQuerySpan(
+          "IdDatabaseTicketsQueries.ticketSearch.page");
+
+      try {
+        final var query =
+          context.select(searchFields(this.projection))
+            .from(this.baseTable)
+            .where(this.whereCondition)
+            .orderBy(page.orderBy());
+
+        final var seek = page.seek();
+        final Select<?> select;
+        if (seek.length != 0) {
+          select = query.seek(seek).limit(valueOf(page.limit()));
+        } else {
+          select = query.limit(valueOf(page.limit()));
+        }
+
+        querySpan.setAttribute(DB_STATEMENT, select.toString());
+
+        final var items =
+          select.fetch()
+            .map(r -> mapTicketSummary(this.projection, r));
+
+        return new IcPage<>(
+          items,
+          (int) page.index(),
+          this.pageCount(),
+          page.firstOffset()
+        );
+      } catch (final DataAccessException e) {
+        querySpan.recordException(e);
+        throw handleDatabaseException(transaction, e);
+      } finally {
+        querySpan.end();
+      }
+    }
+  }
+
+  private static Field<?> orderField(
+    final IcTicketColumnOrdering ordering)
+  {
+    return switch (ordering.column()) {
+      case BY_ID -> TICKETS.ID;
+      case BY_TITLE -> TICKETS.TITLE;
+      case BY_TIME_CREATED -> TICKETS.TIME_CREATED;
+      case BY_TIME_UPDATED -> TICKETS.TIME_UPDATED;
+    };
+  }
+}
@@ -17,16 +17,23 @@
 package com.io7m.icatiro.database.postgres.internal;
 
 import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.api.IcDatabaseTicketExportType;
+import com.io7m.icatiro.database.api.IcDatabaseTicketImport;
+import com.io7m.icatiro.database.api.IcDatabaseTicketImportProgress;
+import com.io7m.icatiro.database.api.IcDatabaseTicketImportResult;
 import com.io7m.icatiro.database.api.IcDatabaseTicketSearchType;
 import com.io7m.icatiro.database.api.IcDatabaseTicketsQueriesType;
 import com.io7m.icatiro.database.postgres.internal.tables.records.ProjectsRecord;
-import com.io7m.icatiro.model.IcPage;
+import com.io7m.icatiro.database.postgres.internal.tables.records.TicketCommentsRecord;
 import com.io7m.icatiro.model.IcProjectID;
 import com.io7m.icatiro.model.IcProjectShortName;
 import com.io7m.icatiro.model.IcProjectTitle;
 import com.io7m.icatiro.model.IcProjectUniqueIdentifierType;
 import com.io7m.icatiro.model.IcTicket;
-import com.io7m.icatiro.model.IcTicketColumnOrdering;
+import com.io7m.icatiro.model.IcTicketAttachment;
+import com.io7m.icatiro.model.IcTicketAttachmentCreation;
+import com.io7m.icatiro.model.IcTicketChangeCursor;
+import com.io7m.icatiro.model.IcTicketChanges;
 import com.io7m.icatiro.model.IcTicketComment;
 import com.io7m.icatiro.model.IcTicketCommentCreation;
 import com.io7m.icatiro.model.IcTicketCreation;
@@ -34,36 +41,55 @@ import com.io7m.icatiro.model.IcTicketID;
 import com.io7m.icatiro.model.IcTicketSearch;
 import com.io7m.icatiro.model.IcTicketSummary;
 import com.io7m.icatiro.model.IcTicketTitle;
+import com.io7m.icatiro.model.IcTicketUpdate;
+import com.io7m.icatiro.model.IcTicketVersionToken;
 import com.io7m.idstore.model.IdName;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPageDefinition;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPagination;
-import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.jooq.Field;
 import org.jooq.Record;
-import org.jooq.Select;
-import org.jooq.TableOnConditionStep;
+import org.jooq.SelectConditionStep;
+import org.jooq.SelectField;
+import org.jooq.Table;
 import org.jooq.exception.DataAccessException;
 import org.jooq.impl.DSL;
 
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static com.io7m.icatiro.database.postgres.internal.IcDatabaseExceptions.handleDatabaseException;
+import static com.io7m.icatiro.database.postgres.internal.IcDatabaseSavedSearchesQueries.savedSearchesRefresh;
 import static com.io7m.icatiro.database.postgres.internal.Tables.AUDIT;
 import static com.io7m.icatiro.database.postgres.internal.Tables.TICKETS;
+import static com.io7m.icatiro.database.postgres.internal.Tables.TICKETS_ARCHIVED;
+import static com.io7m.icatiro.database.postgres.internal.Tables.TICKET_CHANGES;
 import static com.io7m.icatiro.database.postgres.internal.Tables.TICKET_COMMENTS;
+import static com.io7m.icatiro.database.postgres.internal.Tables.TICKET_COMMENTS_ARCHIVED;
+import static com.io7m.icatiro.database.postgres.internal.Tables.TICKET_STATISTICS_DAILY;
 import static com.io7m.icatiro.database.postgres.internal.Tables.USERS;
 import static com.io7m.icatiro.database.postgres.internal.tables.Projects.PROJECTS;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.IO_ERROR;
 import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.PROJECT_NONEXISTENT;
 import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.TICKET_COMMENT_NONEXISTENT;
 import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.TICKET_NONEXISTENT;
-import static com.io7m.icatiro.model.IcPermission.TICKET_READ;
-import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.DB_STATEMENT;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.TICKET_UPDATE_CONFLICT;
+import static com.io7m.icatiro.model.IcTicketChangeKind.TICKET_COMMENT_CREATED;
+import static com.io7m.icatiro.model.IcTicketChangeKind.TICKET_CREATED;
+import static com.io7m.icatiro.model.IcTicketChangeKind.TICKET_UPDATED;
 import static java.lang.Long.toUnsignedString;
 import static java.lang.Long.valueOf;
+import static java.time.ZoneOffset.UTC;
 
 final class IcDatabaseTicketsQueries
   extends IcBaseQueries
@@ -75,24 +101,6 @@ final class IcDatabaseTicketsQueries
     super(inTransaction);
   }
 
-  private static IcTicketSummary mapTicketWithPermissions(
-    final org.jooq.Record record)
-  {
-    return new IcTicketSummary(
-      new IcProjectTitle(record.get(PROJECTS.NAME_DISPLAY)),
-      new IcProjectShortName(record.get(PROJECTS.NAME_SHORT)),
-      new IcTicketID(
-        new IcProjectID(record.get(TICKETS.PROJECT)),
-        record.get(TICKETS.ID)
-      ),
-      new IcTicketTitle(record.get(TICKETS.TITLE)),
-      record.get(TICKETS.TIME_CREATED),
-      record.get(TICKETS.TIME_UPDATED),
-      record.get(TICKETS.REPORTER),
-      new IdName(record.get(USERS.NAME))
-    );
-  }
-
   private static ProjectsRecord findProject(
     final DSLContext context,
     final IcProjectUniqueIdentifierType project)
@@ -166,6 +174,17 @@ final class IcDatabaseTicketsQueries
         .set(AUDIT.TYPE, "TICKET_CREATED")
         .execute();
 
+      statisticsUpdate(context, project.getId(), timeNow, 1L, 0L, 0L);
+      savedSearchesRefresh(context, project.getId().longValue(), newId);
+      IcDatabaseTicketChanges.changeLogAppend(
+        context,
+        project.getId(),
+        newTicket.getId(),
+        null,
+        TICKET_CREATED,
+        timeNow
+      );
+
       return new IcTicketSummary(
         new IcProjectTitle(project.getNameDisplay()),
         new IcProjectShortName(project.getNameShort()),
@@ -184,6 +203,163 @@ final class IcDatabaseTicketsQueries
     }
   }
 
+  @Override
+  public IcTicket ticketUpdate(
+    final IcTicketUpdate update)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(update, "update");
+
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var userId =
+      transaction.userId();
+    final var querySpan =
+      transaction.createQuerySpan(
+        "IdDatabaseTicketsQueries.ticketUpdate");
+
+    try {
+      final var ticketId =
+        update.ticket();
+      final var project =
+        valueOf(ticketId.project().value());
+      final var ticket =
+        valueOf(ticketId.value());
+      final var timeNow =
+        this.currentTime();
+
+      /*
+       * The row is only updated if it is at the expected version. Rows
+       * locked by a concurrent update are skipped rather than waited upon,
+       * so concurrent editors of the same ticket fail immediately instead
+       * of queueing behind each other.
+       */
+
+      final var current =
+        context.select(TICKETS.ID)
+          .from(TICKETS)
+          .where(TICKETS.PROJECT.eq(project))
+          .and(TICKETS.ID.eq(ticket))
+          .and(TICKETS.VERSION.eq(valueOf(update.version())))
+          .forUpdate()
+          .skipLocked();
+
+      final var updated =
+        context.update(TICKETS)
+          .set(TICKETS.TITLE, update.title().value())
+          .set(TICKETS.DESCRIPTION, update.description())
+          .set(TICKETS.VERSION, TICKETS.VERSION.plus(valueOf(1L)))
+          .set(TICKETS.TIME_UPDATED, timeNow)
+          .where(TICKETS.PROJECT.eq(project))
+          .and(TICKETS.ID.in(current))
+          .execute();
+
+      if (updated == 0) {
+        if (!checkTicketExists(context, ticketId)) {
+          throw new IcDatabaseException(
+            "No such ticket %s".formatted(ticketId),
+            TICKET_NONEXISTENT
+          );
+        }
+        throw new IcDatabaseException(
+          "Ticket %s is not at version %s, or is being updated concurrently."
+            .formatted(ticketId, Long.toUnsignedString(update.version())),
+          TICKET_UPDATE_CONFLICT
+        );
+      }
+
+      context.insertInto(AUDIT)
+        .set(AUDIT.USER_ID, userId)
+        .set(AUDIT.TIME, this.currentTime())
+        .set(AUDIT.MESSAGE, toUnsignedString(ticketId.value()))
+        .set(AUDIT.TYPE, "TICKET_UPDATED")
+        .execute();
+
+      statisticsUpdate(context, project, timeNow, 0L, 1L, 0L);
+      savedSearchesRefresh(
+        context,
+        ticketId.project().value(),
+        ticketId.value()
+      );
+      IcDatabaseTicketChanges.changeLogAppend(
+        context,
+        project,
+        ticket,
+        null,
+        TICKET_UPDATED,
+        timeNow
+      );
+
+      return this.ticketGetRequire(ticketId);
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  private static void statisticsUpdate(
+    final DSLContext context,
+    final Long project,
+    final OffsetDateTime time,
+    final long ticketsCreated,
+    final long ticketsUpdated,
+    final long commentsCreated)
+  {
+    final var day =
+      time.atZoneSameInstant(UTC).toLocalDate();
+    final var t =
+      TICKET_STATISTICS_DAILY;
+
+    /*
+     * Add the given counts to the statistics row for the day, creating
+     * the row if it does not already exist.
+     */
+
+    context.insertInto(t)
+      .set(t.PROJECT, project)
+      .set(t.TIME_DAY, day)
+      .set(t.TICKETS_CREATED, valueOf(ticketsCreated))
+      .set(t.TICKETS_UPDATED, valueOf(ticketsUpdated))
+      .set(t.COMMENTS_CREATED, valueOf(commentsCreated))
+      .onConflict(t.PROJECT, t.TIME_DAY)
+      .doUpdate()
+      .set(t.TICKETS_CREATED, t.TICKETS_CREATED.plus(valueOf(ticketsCreated)))
+      .set(t.TICKETS_UPDATED, t.TICKETS_UPDATED.plus(valueOf(ticketsUpdated)))
+      .set(t.COMMENTS_CREATED, t.COMMENTS_CREATED.plus(valueOf(commentsCreated)))
+      .execute();
+  }
+
+  @Override
+  public IcTicketChanges ticketChangesSince(
+    final IcTicketChangeCursor cursor,
+    final int limit)
+    throws IcDatabaseException
+  {
+    return IcDatabaseTicketChanges.ticketChangesSince(
+      this.transaction(),
+      cursor,
+      limit
+    );
+  }
+
+  @Override
+  public long ticketsArchive(
+    final OffsetDateTime updatedBefore,
+    final int limit)
+    throws IcDatabaseException
+  {
+    return IcDatabaseTicketArchive.ticketsArchive(
+      this.transaction(),
+      this.currentTime(),
+      updatedBefore,
+      limit
+    );
+  }
+
   @Override
   public IcTicketComment ticketCommentCreate(
     final IcTicketCommentCreation creation)
@@ -225,7 +401,8 @@ final class IcDatabaseTicketsQueries
           valueOf(inReplyTo.getAsLong());
         final var existingTicketOpt =
           context.selectFrom(TICKET_COMMENTS)
-            .where(TICKET_COMMENTS.ID.eq(replyComment))
+            .where(TICKET_COMMENTS.PROJECT.eq(valueOf(ticketId.project().value())))
+            .and(TICKET_COMMENTS.ID.eq(replyComment))
             .fetchOptional();
 
         if (existingTicketOpt.isEmpty()) {
@@ -245,6 +422,7 @@ final class IcDatabaseTicketsQueries
       }
 
       final var newComment = context.newRecord(TICKET_COMMENTS);
+      newComment.set(TICKET_COMMENTS.PROJECT, valueOf(ticketId.project().value()));
       newComment.set(TICKET_COMMENTS.TICKET_ID, valueOf(ticketId.value()));
       newComment.set(TICKET_COMMENTS.TIME, timeNow);
       newComment.set(TICKET_COMMENTS.TEXT, creation.text());
@@ -270,6 +448,23 @@ final class IcDatabaseTicketsQueries
         .set(AUDIT.TYPE, "TICKET_COMMENT_CREATED")
         .execute();
 
+      statisticsUpdate(
+        context,
+        valueOf(ticketId.project().value()),
+        timeNow,
+        0L,
+        0L,
+        1L
+      );
+      IcDatabaseTicketChanges.changeLogAppend(
+        context,
+        valueOf(ticketId.project().value()),
+        valueOf(ticketId.value()),
+        newComment.getId(),
+        TICKET_COMMENT_CREATED,
+        timeNow
+      );
+
       return new IcTicketComment(
         ticketId,
         timeNow,
@@ -286,6 +481,42 @@ final class IcDatabaseTicketsQueries
     }
   }
 
+  @Override
+  public IcTicketAttachment ticketAttachmentCreate(
+    final IcTicketAttachmentCreation creation)
+    throws IcDatabaseException
+  {
+    return IcDatabaseTicketAttachments.ticketAttachmentCreate(
+      this.transaction(),
+      this.currentTime(),
+      creation
+    );
+  }
+
+  @Override
+  public Optional<IcTicketAttachment> ticketAttachmentGet(
+    final IcTicketID ticket,
+    final long attachmentId)
+    throws IcDatabaseException
+  {
+    return IcDatabaseTicketAttachments.ticketAttachmentGet(
+      this.transaction(),
+      ticket,
+      attachmentId
+    );
+  }
+
+  @Override
+  public List<IcTicketAttachment> ticketAttachmentList(
+    final IcTicketID ticket)
+    throws IcDatabaseException
+  {
+    return IcDatabaseTicketAttachments.ticketAttachmentList(
+      this.transaction(),
+      ticket
+    );
+  }
+
   @Override
   public Optional<IcTicket> ticketGet(
     final IcTicketID id)
@@ -302,53 +533,22 @@ final class IcDatabaseTicketsQueries
         "IdDatabaseTicketsQueries.ticketGet");
 
     try {
-      final var baseTable =
-        TICKETS
-          .join(PROJECTS).on(PROJECTS.ID.eq(TICKETS.PROJECT))
-          .join(USERS).on(USERS.ID.eq(TICKETS.REPORTER));
-
-      final var ticketQuery =
-        context.selectFrom(baseTable)
-          .where(TICKETS.ID.eq(valueOf(id.value())));
-
-      final var ticketRecordOpt = ticketQuery.fetchOptional();
-      if (ticketRecordOpt.isEmpty()) {
-        return Optional.empty();
+      final var requested = Set.of(id);
+      final var tickets =
+        fetchTickets(context, TICKETS, TICKET_COMMENTS, requested);
+
+      if (tickets.isEmpty()) {
+        tickets.putAll(
+          fetchTickets(
+            context,
+            ticketsArchivedAsLive(),
+            ticketCommentsArchivedAsLive(),
+            requested
+          )
+        );
       }
 
-      final var ticketRecord =
-        ticketRecordOpt.get();
-
-      final var selectComments =
-        context.selectFrom(TICKET_COMMENTS)
-          .where(TICKET_COMMENTS.TICKET_ID.eq(valueOf(id.value())))
-          .orderBy(TICKET_COMMENTS.TIME.asc());
-
-      final var comments =
-        selectComments.fetch()
-          .map(r -> {
-            return new IcTicketComment(
-              id,
-              r.getTime(),
-              r.getOwner(),
-              r.getId().longValue(),
-              toOptionalLong(r.getTicketRepliedTo()),
-              r.getText()
-            );
-          });
-
-      return Optional.of(
-        new IcTicket(
-          id,
-          new IcTicketTitle(ticketRecord.get(TICKETS.TITLE)),
-          ticketRecord.get(TICKETS.TIME_CREATED),
-          ticketRecord.get(TICKETS.TIME_UPDATED),
-          ticketRecord.get(TICKETS.REPORTER),
-          new IdName(ticketRecord.get(USERS.NAME)),
-          ticketRecord.get(TICKETS.DESCRIPTION),
-          comments
-        )
-      );
+      return Optional.ofNullable(tickets.get(id));
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
       throw handleDatabaseException(transaction, e);
@@ -357,7 +557,202 @@ final class IcDatabaseTicketsQueries
     }
   }
 
-  private static OptionalLong toOptionalLong(
+  @Override
+  public Map<IcTicketID, IcTicket> ticketGetMany(
+    final Collection<IcTicketID> ids)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(ids, "ids");
+
+    if (ids.isEmpty()) {
+      return Map.of();
+    }
+
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan(
+        "IdDatabaseTicketsQueries.ticketGetMany");
+
+    try {
+      final var requested =
+        Set.copyOf(ids);
+      final var results =
+        fetchTickets(context, TICKETS, TICKET_COMMENTS, requested);
+
+      /*
+       * Any tickets that are not live are looked up in the archive.
+       */
+
+      if (results.size() != requested.size()) {
+        final var remaining = new HashSet<>(requested);
+        remaining.removeAll(results.keySet());
+        results.putAll(
+          fetchTickets(
+            context,
+            ticketsArchivedAsLive(),
+            ticketCommentsArchivedAsLive(),
+            remaining
+          )
+        );
+      }
+      return Map.copyOf(results);
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  /**
+   * Fetch the given tickets, and their comments, from the given tables. The
+   * tables are either the live tables, or archive tables aliased with the
+   * names of the live tables so that the same field references apply.
+   */
+
+  private static Map<IcTicketID, IcTicket> fetchTickets(
+    final DSLContext context,
+    final Table<?> tickets,
+    final Table<?> comments,
+    final Set<IcTicketID> requested)
+  {
+    final var idValues =
+      requested.stream()
+        .map(i -> valueOf(i.value()))
+        .distinct()
+        .toArray(Long[]::new);
+    final var projectValues =
+      requested.stream()
+        .map(i -> valueOf(i.project().value()))
+        .distinct()
+        .toArray(Long[]::new);
+
+    final var baseTable =
+      tickets
+        .join(PROJECTS).on(PROJECTS.ID.eq(TICKETS.PROJECT))
+        .join(USERS).on(USERS.ID.eq(TICKETS.REPORTER));
+
+    /*
+     * Fetch all of the tickets in a single query, and then all of the
+     * comments for those tickets in a second query. Tickets whose project
+     * does not match the requested ID are treated as nonexistent. The
+     * project condition allows the database to consider only the partitions
+     * that hold the requested projects.
+     */
+
+    final var ticketRecords =
+      context.selectFrom(baseTable)
+        .where(TICKETS.PROJECT.eq(DSL.any(projectValues)))
+        .and(TICKETS.ID.eq(DSL.any(idValues)))
+        .fetch();
+
+    final var found =
+      new HashMap<Long, IcTicketID>(ticketRecords.size());
+    for (final var ticketRecord : ticketRecords) {
+      final var ticketId =
+        new IcTicketID(
+          new IcProjectID(ticketRecord.get(TICKETS.PROJECT).longValue()),
+          ticketRecord.get(TICKETS.ID).longValue()
+        );
+      if (requested.contains(ticketId)) {
+        found.put(ticketRecord.get(TICKETS.ID), ticketId);
+      }
+    }
+
+    final var results =
+      new HashMap<IcTicketID, IcTicket>(found.size());
+
+    if (found.isEmpty()) {
+      return results;
+    }
+
+    final var commentRecords =
+      context.select(TICKET_COMMENTS.fields())
+        .from(comments)
+        .where(TICKET_COMMENTS.PROJECT.eq(DSL.any(projectValues)))
+        .and(TICKET_COMMENTS.TICKET_ID.eq(
+          DSL.any(found.keySet().toArray(Long[]::new))))
+        .orderBy(TICKET_COMMENTS.TICKET_ID, TICKET_COMMENTS.TIME.asc())
+        .fetchInto(TICKET_COMMENTS);
+
+    final var commentsByTicket =
+      new HashMap<Long, List<IcTicketComment>>(found.size());
+    for (final var r : commentRecords) {
+      final var ticketId = found.get(r.getTicketId());
+      commentsByTicket.computeIfAbsent(r.getTicketId(), k -> new ArrayList<>())
+        .add(mapComment(ticketId, r));
+    }
+
+    for (final var ticketRecord : ticketRecords) {
+      final var key = ticketRecord.get(TICKETS.ID);
+      final var ticketId = found.get(key);
+      if (ticketId != null) {
+        results.put(
+          ticketId,
+          mapTicket(
+            ticketId,
+            ticketRecord,
+            commentsByTicket.getOrDefault(key, List.of()))
+        );
+      }
+    }
+    return results;
+  }
+
+  /**
+   * @return The archived tickets table, aliased as the live tickets table
+   */
+
+  private static Table<?> ticketsArchivedAsLive()
+  {
+    return TICKETS_ARCHIVED.as(TICKETS.getUnqualifiedName());
+  }
+
+  /**
+   * @return The archived comments table, aliased as the live comments table
+   */
+
+  private static Table<?> ticketCommentsArchivedAsLive()
+  {
+    return TICKET_COMMENTS_ARCHIVED.as(TICKET_COMMENTS.getUnqualifiedName());
+  }
+
+  private static IcTicket mapTicket(
+    final IcTicketID id,
+    final Record ticketRecord,
+    final List<IcTicketComment> comments)
+  {
+    return new IcTicket(
+      id,
+      new IcTicketTitle(ticketRecord.get(TICKETS.TITLE)),
+      ticketRecord.get(TICKETS.TIME_CREATED),
+      ticketRecord.get(TICKETS.TIME_UPDATED),
+      ticketRecord.get(TICKETS.VERSION).longValue(),
+      ticketRecord.get(TICKETS.REPORTER),
+      new IdName(ticketRecord.get(USERS.NAME)),
+      ticketRecord.get(TICKETS.DESCRIPTION),
+      comments
+    );
+  }
+
+  private static IcTicketComment mapComment(
+    final IcTicketID id,
+    final TicketCommentsRecord r)
+  {
+    return new IcTicketComment(
+      id,
+      r.getTime(),
+      r.getOwner(),
+      r.getId().longValue(),
+      toOptionalLong(r.getTicketRepliedTo()),
+      r.getText()
+    );
+  }
+
+  static OptionalLong toOptionalLong(
     final Long id)
   {
     if (id == null) {
@@ -381,7 +776,7 @@ final class IcDatabaseTicketsQueries
   }
 
   @Override
-  public boolean ticketExists(
+  public long ticketRevision(
     final IcTicketID id)
     throws IcDatabaseException
   {
@@ -393,10 +788,22 @@ final class IcDatabaseTicketsQueries
       transaction.createContext();
     final var querySpan =
       transaction.createQuerySpan(
-        "IdDatabaseTicketsQueries.ticketExists");
+        "IdDatabaseTicketsQueries.ticketRevision");
 
     try {
-      return checkTicketExists(context, id);
+      if (!checkTicketExistsOrArchived(context, id)) {
+        throw new IcDatabaseException(
+          "No such ticket %s".formatted(id),
+          TICKET_NONEXISTENT
+        );
+      }
+
+      return Integer.toUnsignedLong(
+        context.fetchCount(
+          TICKET_CHANGES,
+          TICKET_CHANGES.TICKET_ID.eq(valueOf(id.value()))
+        )
+      );
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
       throw handleDatabaseException(transaction, e);
@@ -405,24 +812,12 @@ final class IcDatabaseTicketsQueries
     }
   }
 
-  private static boolean checkTicketExists(
-    final DSLContext context,
-    final IcTicketID id)
-  {
-    return context.fetchExists(
-      TICKETS.where(
-        DSL.condition(TICKETS.PROJECT.eq(valueOf(id.project().value())))
-          .and(DSL.condition(TICKETS.ID.eq(valueOf(id.value()))))
-      )
-    );
-  }
-
   @Override
-  public IcDatabaseTicketSearchType ticketSearch(
-    final IcTicketSearch parameters)
+  public IcTicketVersionToken ticketVersionToken(
+    final IcTicketID id)
     throws IcDatabaseException
   {
-    Objects.requireNonNull(parameters, "parameters");
+    Objects.requireNonNull(id, "id");
 
     final var transaction =
       this.transaction();
@@ -430,194 +825,322 @@ final class IcDatabaseTicketsQueries
       transaction.createContext();
     final var querySpan =
       transaction.createQuerySpan(
-        "IdDatabaseTicketsQueries.ticketSearch.create");
+        "IdDatabaseTicketsQueries.ticketVersionToken");
 
     try {
-      final var observer =
-        transaction.userId();
-
-      final var baseTable =
-        TICKETS
-          .join(PROJECTS).on(PROJECTS.ID.eq(TICKETS.PROJECT))
-          .join(USERS).on(USERS.ID.eq(TICKETS.REPORTER));
-
-      /*
-       * The permission condition is responsible for filtering out
-       * tickets with which the user has no permission to read.
-       */
+      var token =
+        fetchVersionToken(context, TICKETS, TICKET_COMMENTS, id);
 
-      final var permissionCondition =
-        DSL.condition(
-          "permission_is_allowed(?, TICKETS.PROJECT, TICKETS.ID, ?)",
-          observer,
-          Integer.valueOf(TICKET_READ.value())
+      if (token.isEmpty()) {
+        token = fetchVersionToken(
+          context,
+          ticketsArchivedAsLive(),
+          ticketCommentsArchivedAsLive(),
+          id
         );
+      }
 
-      /*
-       * The tickets must lie within the given time ranges.
-       */
-
-      final var timeCreatedRange = parameters.timeCreatedRange();
-      final var timeCreatedCondition =
-        DSL.condition(
-          TICKETS.TIME_CREATED.ge(timeCreatedRange.timeLower())
-            .and(TICKETS.TIME_CREATED.le(timeCreatedRange.timeUpper()))
+      return token.orElseThrow(() -> {
+        return new IcDatabaseException(
+          "No such ticket %s".formatted(id),
+          TICKET_NONEXISTENT
         );
+      });
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  /**
+   * Calculate the version token of the given ticket from the given tables.
+   * The comment count and largest comment ID are aggregated over the
+   * (project, ticket_id) index of the comments table, and so neither the
+   * ticket description nor the comment texts are read.
+   */
 
-      final var timeUpdatedRange = parameters.timeUpdatedRange();
-      final var timeUpdatedCondition =
-        DSL.condition(
-          TICKETS.TIME_UPDATED.ge(timeUpdatedRange.timeLower())
-            .and(TICKETS.TIME_UPDATED.le(timeUpdatedRange.timeUpper()))
+  private static Optional<IcTicketVersionToken> fetchVersionToken(
+    final DSLContext context,
+    final Table<?> tickets,
+    final Table<?> comments,
+    final IcTicketID id)
+  {
+    final var commentCount =
+      DSL.count(TICKET_COMMENTS.ID);
+    final var commentMax =
+      DSL.coalesce(DSL.max(TICKET_COMMENTS.ID), valueOf(0L));
+
+    return context.select(
+        TICKETS.VERSION,
+        TICKETS.TIME_UPDATED,
+        commentCount,
+        commentMax)
+      .from(tickets)
+      .leftJoin(comments)
+      .on(TICKET_COMMENTS.PROJECT.eq(TICKETS.PROJECT)
+            .and(TICKET_COMMENTS.TICKET_ID.eq(TICKETS.ID)))
+      .where(TICKETS.PROJECT.eq(valueOf(id.project().value())))
+      .and(TICKETS.ID.eq(valueOf(id.value())))
+      .groupBy(TICKETS.VERSION, TICKETS.TIME_UPDATED)
+      .fetchOptional()
+      .map(r -> {
+        return IcTicketVersionToken.of(
+          r.value1().longValue(),
+          r.value2(),
+          r.value3().longValue(),
+          r.value4().longValue()
         );
+      });
+  }
 
-      Condition whereCondition = permissionCondition;
-      whereCondition = whereCondition.and(timeCreatedCondition);
-      whereCondition = whereCondition.and(timeUpdatedCondition);
+  @Override
+  public IcDatabaseTicketExportType ticketExport(
+    final IcProjectID project,
+    final int fetchSize)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(project, "project");
 
-      /*
-       * Filter by reporter if requested.
-       */
+    if (fetchSize < 1) {
+      throw new IllegalArgumentException(
+        "Fetch size %d must be positive."
+          .formatted(Integer.valueOf(fetchSize))
+      );
+    }
 
-      final var reporterOpt = parameters.reporter();
-      if (reporterOpt.isPresent()) {
-        whereCondition =
-          whereCondition.and(TICKETS.REPORTER.eq(reporterOpt.get()));
-      }
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan(
+        "IdDatabaseTicketsQueries.ticketExport");
 
+    try {
       /*
-       * Do fulltext title and description searches if requested.
+       * The PostgreSQL driver only fetches rows incrementally inside a
+       * transaction, and so the cursor remains open until the transaction
+       * ends. Tickets and comments are selected as separate rows, so that
+       * the ticket columns are not repeated for each comment.
        */
 
-      final var titleOpt = parameters.titleSearch();
-      if (titleOpt.isPresent()) {
-        whereCondition =
-          whereCondition.and(
-            DSL.condition(
-              "? @@ to_tsquery('english', ?)",
-              TICKETS.TITLE,
-              titleOpt.get()
-            )
-          );
-      }
-
-      final var descriptionOpt = parameters.descriptionSearch();
-      if (descriptionOpt.isPresent()) {
-        whereCondition =
-          whereCondition.and(
-            DSL.condition(
-              "? @@ to_tsquery('english', ?)",
-              TICKETS.DESCRIPTION,
-              descriptionOpt.get()
-            )
-          );
-      }
+      final var projectId = valueOf(project.value());
+      final var ticketsArchived = ticketsArchivedAsLive();
+      final var commentsArchived = ticketCommentsArchivedAsLive();
+      final var cursor =
+        exportSelectTickets(context, TICKETS, projectId, false)
+          .unionAll(
+            exportSelectComments(context, TICKET_COMMENTS, projectId, false))
+          .unionAll(
+            exportSelectTickets(context, ticketsArchived, projectId, true))
+          .unionAll(
+            exportSelectComments(context, commentsArchived, projectId, true))
+          .orderBy(
+            IcDatabaseTicketExport.EXPORT_TICKET_ID.asc(),
+            IcDatabaseTicketExport.EXPORT_COMMENT_ID.asc().nullsFirst())
+          .fetchSize(fetchSize)
+          .fetchLazy();
+
+      return new IcDatabaseTicketExport(
+        transaction,
+        querySpan,
+        cursor,
+        project
+      );
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      querySpan.end();
+      throw handleDatabaseException(transaction, e);
+    }
+  }
 
-      final var query =
-        baseTable.where(whereCondition);
+  @Override
+  public IcDatabaseTicketImportResult ticketsImport(
+    final IcDatabaseTicketImport ticketImport,
+    final Consumer<IcDatabaseTicketImportProgress> progress)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(ticketImport, "ticketImport");
+    Objects.requireNonNull(progress, "progress");
 
-      final var pages =
-        JQKeysetRandomAccessPagination.createPageDefinitions(
-          context,
-          query,
-          List.of(orderField(parameters.ordering())),
-          Integer.toUnsignedLong(parameters.limit()),
-          statement -> {
-            querySpan.setAttribute(DB_STATEMENT, statement.toString());
-          }
-        );
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var userId =
+      transaction.userId();
+    final var querySpan =
+      transaction.createQuerySpan(
+        "IdDatabaseTicketsQueries.ticketsImport");
 
-      return new TicketSearch(
-        baseTable,
-        whereCondition,
-        pages
-      );
+    try {
+      final var project =
+        findProject(context, ticketImport.project());
+
+      return new IcDatabaseTicketImporter(
+        context,
+        transaction.copyManager(),
+        progress,
+        project.getId()
+      ).execute(ticketImport, userId, this.currentTime());
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
       throw handleDatabaseException(transaction, e);
+    } catch (final SQLException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(
+        transaction, new DataAccessException(e.getMessage(), e));
+    } catch (final IOException e) {
+      querySpan.recordException(e);
+      final var ex = new IcDatabaseException(e.getMessage(), e, IO_ERROR);
+      try {
+        transaction.rollback();
+      } catch (final IcDatabaseException exr) {
+        ex.addSuppressed(exr);
+      }
+      throw ex;
     } finally {
       querySpan.end();
     }
   }
 
-  private static final class TicketSearch
-    extends IcAbstractSearch<IcDatabaseTicketsQueries, IcDatabaseTicketsQueriesType, IcTicketSummary>
-    implements IcDatabaseTicketSearchType
+  /**
+   * Select the tickets of the given project from the given table. The
+   * comment columns are null.
+   */
+
+  private static SelectConditionStep<Record> exportSelectTickets(
+    final DSLContext context,
+    final Table<?> tickets,
+    final Long project,
+    final boolean archived)
   {
-    private final TableOnConditionStep<Record> baseTable;
-    private final Condition whereCondition;
+    final List<SelectField<?>> fields =
+      List.of(
+        IcDatabaseTicketExport.EXPORT_TICKET_ID,
+        TICKETS.TITLE,
+        TICKETS.DESCRIPTION,
+        TICKETS.REPORTER,
+        TICKETS.TIME_CREATED,
+        TICKETS.TIME_UPDATED,
+        TICKETS.VERSION,
+        DSL.inline(archived).as(IcDatabaseTicketExport.EXPORT_ARCHIVED),
+        DSL.castNull(TICKET_COMMENTS.ID)
+          .as(IcDatabaseTicketExport.EXPORT_COMMENT_ID.getUnqualifiedName()),
+        exportNull(TICKET_COMMENTS.TICKET_REPLIED_TO),
+        exportNull(TICKET_COMMENTS.OWNER),
+        exportNull(TICKET_COMMENTS.TEXT),
+        exportNull(TICKET_COMMENTS.TIME)
+      );
 
-    TicketSearch(
-      final TableOnConditionStep<Record> inBaseTable,
-      final Condition inWhereCondition,
-      final List<JQKeysetRandomAccessPageDefinition> pages)
-    {
-      super(pages);
+    return context.select(fields)
+      .from(tickets)
+      .where(TICKETS.PROJECT.eq(project));
+  }
 
-      this.baseTable =
-        Objects.requireNonNull(inBaseTable, "baseTable");
-      this.whereCondition =
-        Objects.requireNonNull(inWhereCondition, "whereCondition");
-    }
+  /**
+   * Select the comments of the tickets of the given project from the given
+   * table. The ticket columns other than the ticket ID are null.
+   */
 
-    @Override
-    protected IcPage<IcTicketSummary> page(
-      final IcDatabaseTicketsQueries queries,
-      final JQKeysetRandomAccessPageDefinition page)
-      throws IcDatabaseException
-    {
-      final var transaction =
-        queries.transaction();
-      final var context =
-        transaction.createContext();
-
-      final var querySpan =
-        transaction.createQuerySpan(
-          "IdDatabaseTicketsQueries.ticketSearch.page");
+  private static SelectConditionStep<Record> exportSelectComments(
+    final DSLContext context,
+    final Table<?> comments,
+    final Long project,
+    final boolean archived)
+  {
+    final List<SelectField<?>> fields =
+      List.of(
+        TICKET_COMMENTS.TICKET_ID
+          .as(IcDatabaseTicketExport.EXPORT_TICKET_ID.getUnqualifiedName()),
+        exportNull(TICKETS.TITLE),
+        exportNull(TICKETS.DESCRIPTION),
+        exportNull(TICKETS.REPORTER),
+        exportNull(TICKETS.TIME_CREATED),
+        exportNull(TICKETS.TIME_UPDATED),
+        exportNull(TICKETS.VERSION),
+        DSL.inline(archived).as(IcDatabaseTicketExport.EXPORT_ARCHIVED),
+        IcDatabaseTicketExport.EXPORT_COMMENT_ID,
+        TICKET_COMMENTS.TICKET_REPLIED_TO,
+        TICKET_COMMENTS.OWNER,
+        TICKET_COMMENTS.TEXT,
+        TICKET_COMMENTS.TIME
+      );
 
-      try {
-        final var query =
-          context.selectFrom(this.baseTable)
-            .where(this.whereCondition)
-            .orderBy(page.orderBy());
-
-        final var seek = page.seek();
-        final Select<?> select;
-        if (seek.length != 0) {
-          select = query.seek(seek).limit(valueOf(page.limit()));
-        } else {
-          select = query.limit(valueOf(page.limit()));
-        }
+    return context.select(fields)
+      .from(comments)
+      .where(TICKET_COMMENTS.PROJECT.eq(project));
+  }
 
-        querySpan.setAttribute(DB_STATEMENT, select.toString());
+  private static <T> Field<T> exportNull(
+    final Field<T> field)
+  {
+    return DSL.castNull(field).as(field.getUnqualifiedName());
+  }
 
-        final var items =
-          select.fetch()
-            .map(IcDatabaseTicketsQueries::mapTicketWithPermissions);
+  @Override
+  public boolean ticketExists(
+    final IcTicketID id)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(id, "id");
 
-        return new IcPage<>(
-          items,
-          (int) page.index(),
-          this.pageCount(),
-          page.firstOffset()
-        );
-      } catch (final DataAccessException e) {
-        querySpan.recordException(e);
-        throw handleDatabaseException(transaction, e);
-      } finally {
-        querySpan.end();
-      }
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan(
+        "IdDatabaseTicketsQueries.ticketExists");
+
+    try {
+      return checkTicketExistsOrArchived(context, id);
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  static boolean checkTicketExists(
+    final DSLContext context,
+    final IcTicketID id)
+  {
+    return context.fetchExists(
+      TICKETS.where(
+        DSL.condition(TICKETS.PROJECT.eq(valueOf(id.project().value())))
+          .and(DSL.condition(TICKETS.ID.eq(valueOf(id.value()))))
+      )
+    );
+  }
+
+  private static boolean checkTicketExistsOrArchived(
+    final DSLContext context,
+    final IcTicketID id)
+  {
+    if (checkTicketExists(context, id)) {
+      return true;
     }
+
+    return context.fetchExists(
+      TICKETS_ARCHIVED.where(
+        DSL.condition(TICKETS_ARCHIVED.PROJECT.eq(valueOf(id.project().value())))
+          .and(DSL.condition(TICKETS_ARCHIVED.ID.eq(valueOf(id.value()))))
+      )
+    );
   }
 
-  private static Field<?> orderField(
-    final IcTicketColumnOrdering ordering)
+  @Override
+  public IcDatabaseTicketSearchType ticketSearch(
+    final IcTicketSearch parameters)
+    throws IcDatabaseException
   {
-    return switch (ordering.column()) {
-      case BY_ID -> TICKETS.ID;
-      case BY_TITLE -> TICKETS.TITLE;
-      case BY_TIME_CREATED -> TICKETS.TIME_CREATED;
-      case BY_TIME_UPDATED -> TICKETS.TIME_UPDATED;
-    };
+    return IcDatabaseTicketSearches.ticketSearch(
+      this.transaction(),
+      parameters
+    );
   }
 }
@@ -18,9 +18,11 @@ package com.io7m.icatiro.database.postgres.internal;
 
 import com.io7m.icatiro.database.api.IcDatabaseAuditQueriesType;
 import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.api.IcDatabaseGroupsQueriesType;
 import com.io7m.icatiro.database.api.IcDatabaseProjectsQueriesType;
 import com.io7m.icatiro.database.api.IcDatabaseQueriesType;
 import com.io7m.icatiro.database.api.IcDatabaseRole;
+import com.io7m.icatiro.database.api.IcDatabaseSavedSearchesQueriesType;
 import com.io7m.icatiro.database.api.IcDatabaseTicketsQueriesType;
 import com.io7m.icatiro.database.api.IcDatabaseTransactionType;
 import com.io7m.icatiro.database.api.IcDatabaseUsersQueriesType;
@@ -30,6 +32,8 @@ import io.opentelemetry.context.Context;
 import org.jooq.DSLContext;
 import org.jooq.exception.DataAccessException;
 import org.jooq.impl.DSL;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
 
 import java.sql.SQLException;
 import java.time.Clock;
@@ -118,6 +122,21 @@ final class IcDatabaseTransaction
     }
   }
 
+  /**
+   * Make the current transaction read-only. This must be called before any
+   * other statement is executed in the transaction.
+   */
+
+  void setReadOnly()
+    throws SQLException
+  {
+    try (var st =
+           this.connection.connection()
+             .prepareStatement("set transaction read only")) {
+      st.execute();
+    }
+  }
+
   @Override
   public <T extends IcDatabaseQueriesType> T queries(
     final Class<T> qClass)
@@ -135,6 +154,12 @@ final class IcDatabaseTransaction
     if (Objects.equals(qClass, IcDatabaseProjectsQueriesType.class)) {
       return qClass.cast(new IcDatabaseProjectsQueries(this));
     }
+    if (Objects.equals(qClass, IcDatabaseSavedSearchesQueriesType.class)) {
+      return qClass.cast(new IcDatabaseSavedSearchesQueries(this));
+    }
+    if (Objects.equals(qClass, IcDatabaseGroupsQueriesType.class)) {
+      return qClass.cast(new IcDatabaseGroupsQueries(this));
+    }
 
     throw new IcDatabaseException(
       "Unsupported query type: %s".formatted(qClass),
@@ -162,6 +187,20 @@ final class IcDatabaseTransaction
     return DSL.using(sqlConnection, POSTGRES, settings);
   }
 
+  /**
+   * @return The {@code COPY} API of the underlying connection
+   *
+   * @throws SQLException On errors
+   */
+
+  CopyManager copyManager()
+    throws SQLException
+  {
+    return this.connection.connection()
+      .unwrap(PGConnection.class)
+      .getCopyAPI();
+  }
+
   public Clock clock()
   {
     return this.connection.database().clock();
@@ -29,24 +29,35 @@ import com.io7m.icatiro.model.IcPermissionTicketwide;
 import com.io7m.icatiro.model.IcProjectID;
 import com.io7m.icatiro.model.IcTicketID;
 import com.io7m.icatiro.model.IcUser;
+import com.io7m.icatiro.model.IcUserPermission;
 import com.io7m.idstore.model.IdEmail;
 import com.io7m.idstore.model.IdName;
+import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.jooq.Query;
 import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.io7m.icatiro.database.postgres.internal.IcDatabaseExceptions.handleDatabaseException;
+import static com.io7m.icatiro.database.postgres.internal.IcDatabaseSavedSearchesQueries.savedSearchesReevaluate;
 import static com.io7m.icatiro.database.postgres.internal.Tables.EMAILS;
 import static com.io7m.icatiro.database.postgres.internal.Tables.PERMISSIONS;
+import static com.io7m.icatiro.database.postgres.internal.Tables.PERMISSIONS_ARCHIVED;
+import static com.io7m.icatiro.database.postgres.internal.Tables.TICKETS;
+import static com.io7m.icatiro.database.postgres.internal.Tables.TICKETS_ARCHIVED;
+import static com.io7m.icatiro.database.postgres.internal.Tables.USER_GROUP_MEMBERS;
+import static com.io7m.icatiro.database.postgres.internal.Tables.USER_GROUP_PERMISSIONS;
 import static com.io7m.icatiro.database.postgres.internal.Tables.USERS;
 import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.USER_NONEXISTENT;
 import static java.lang.Boolean.FALSE;
@@ -82,53 +93,32 @@ final class IcDatabaseUsersQueries
       transaction.createQuerySpan("IdDatabaseUsersQueries.userPut");
 
     try {
-      var userRec = context.fetchOne(USERS, USERS.ID.eq(user.id()));
-      if (userRec == null) {
-        userRec = context.newRecord(USERS);
-        userRec.set(USERS.ID, user.id());
-        userRec.set(USERS.INITIAL, FALSE);
-      }
-      userRec.setName(user.name().value());
-      userRec.store();
-
-      final var emailsThen =
-        context.selectFrom(EMAILS)
-          .where(EMAILS.USER_ID.eq(user.id()))
-          .stream()
-          .map(v -> new IdEmail(v.getEmailAddress()))
-          .collect(Collectors.toUnmodifiableSet());
-
-      final var emailsNow = new HashSet<>(user.emails());
-      final var emailsToAdd = new HashSet<>(emailsNow);
-      emailsToAdd.removeAll(emailsThen);
-      final var emailsToRemove = new HashSet<>(emailsThen);
-      emailsToRemove.removeAll(emailsNow);
-
-      final var batches = new ArrayList<Query>();
-      for (final var email : emailsToRemove) {
-        final var condition =
-          EMAILS.USER_ID.eq(user.id())
-            .and(EMAILS.EMAIL_ADDRESS.eq(email.value()));
-        batches.add(context.deleteFrom(EMAILS).where(condition));
-      }
-      for (final var email : emailsToAdd) {
-        batches.add(
-          context.insertInto(EMAILS)
-            .set(EMAILS.USER_ID, user.id())
-            .set(EMAILS.EMAIL_ADDRESS, email.value())
-        );
-      }
+      final var batches = identityPut(context, user);
 
       batches.add(
         context.deleteFrom(PERMISSIONS)
           .where(PERMISSIONS.USER_ID.eq(user.id()))
       );
 
+      /*
+       * Permissions held through groups or as the reporter of a ticket are
+       * included in the permissions returned by userGet, but are not stored
+       * as grants to the user.
+       */
+
+      final var derived =
+        derivedPermissions(context, user.id(), DSL.trueCondition())
+          .stream()
+          .collect(Collectors.toUnmodifiableSet());
+
       for (final var permission : user.permissions().stream().toList()) {
-        batches.add(permissionInsert(context, user.id(), permission));
+        if (!derived.contains(permission)) {
+          batches.add(permissionInsert(context, user.id(), permission));
+        }
       }
 
       context.batch(batches).execute();
+      savedSearchesReevaluate(context, user.id());
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
       throw handleDatabaseException(transaction, e);
@@ -137,6 +127,81 @@ final class IcDatabaseUsersQueries
     }
   }
 
+  @Override
+  public void userIdentityPut(
+    final IcUser user)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(user, "user");
+
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan("IdDatabaseUsersQueries.userIdentityPut");
+
+    try {
+      final var batches = identityPut(context, user);
+      if (!batches.isEmpty()) {
+        context.batch(batches).execute();
+      }
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  /**
+   * Create or update the user record, and return the queries required to
+   * update the user's email addresses.
+   */
+
+  private static ArrayList<Query> identityPut(
+    final DSLContext context,
+    final IcUser user)
+  {
+    var userRec = context.fetchOne(USERS, USERS.ID.eq(user.id()));
+    if (userRec == null) {
+      userRec = context.newRecord(USERS);
+      userRec.set(USERS.ID, user.id());
+      userRec.set(USERS.INITIAL, FALSE);
+    }
+    userRec.setName(user.name().value());
+    userRec.store();
+
+    final var emailsThen =
+      context.selectFrom(EMAILS)
+        .where(EMAILS.USER_ID.eq(user.id()))
+        .stream()
+        .map(v -> new IdEmail(v.getEmailAddress()))
+        .collect(Collectors.toUnmodifiableSet());
+
+    final var emailsNow = new HashSet<>(user.emails());
+    final var emailsToAdd = new HashSet<>(emailsNow);
+    emailsToAdd.removeAll(emailsThen);
+    final var emailsToRemove = new HashSet<>(emailsThen);
+    emailsToRemove.removeAll(emailsNow);
+
+    final var batches = new ArrayList<Query>();
+    for (final var email : emailsToRemove) {
+      final var condition =
+        EMAILS.USER_ID.eq(user.id())
+          .and(EMAILS.EMAIL_ADDRESS.eq(email.value()));
+      batches.add(context.deleteFrom(EMAILS).where(condition));
+    }
+    for (final var email : emailsToAdd) {
+      batches.add(
+        context.insertInto(EMAILS)
+          .set(EMAILS.USER_ID, user.id())
+          .set(EMAILS.EMAIL_ADDRESS, email.value())
+      );
+    }
+    return batches;
+  }
+
   private static Query permissionInsert(
     final DSLContext context,
     final UUID userId,
@@ -178,13 +243,34 @@ final class IcDatabaseUsersQueries
   public Optional<IcUser> userGet(
     final UUID id)
     throws IcDatabaseException
+  {
+    return this.userGetWith(id, true, "IdDatabaseUsersQueries.userGet");
+  }
+
+  @Override
+  public Optional<IcUser> userGetWithoutTicketPermissions(
+    final UUID id)
+    throws IcDatabaseException
+  {
+    return this.userGetWith(
+      id,
+      false,
+      "IdDatabaseUsersQueries.userGetWithoutTicketPermissions"
+    );
+  }
+
+  private Optional<IcUser> userGetWith(
+    final UUID id,
+    final boolean withTicketPermissions,
+    final String spanName)
+    throws IcDatabaseException
   {
     final var transaction =
       this.transaction();
     final var context =
       transaction.createContext();
     final var querySpan =
-      transaction.createQuerySpan("IdDatabaseUsersQueries.userGet");
+      transaction.createQuerySpan(spanName);
 
     try {
       final var userRec = context.fetchOne(USERS, USERS.ID.eq(id));
@@ -199,13 +285,26 @@ final class IcDatabaseUsersQueries
           .map(v -> new IdEmail(v.getEmailAddress()))
           .toList();
 
+      var condition = PERMISSIONS.USER_ID.eq(id);
+      Condition derivedCondition = DSL.trueCondition();
+      if (!withTicketPermissions) {
+        condition =
+          condition.and(PERMISSIONS.SCOPE_TICKET.isNull());
+        derivedCondition =
+          derivedCondition.and(USER_GROUP_PERMISSIONS.SCOPE_TICKET.isNull());
+      }
+
       final var permissions =
         IcPermissionSet.of(
           context.selectFrom(PERMISSIONS)
-            .where(PERMISSIONS.USER_ID.eq(id))
+            .where(condition)
             .stream()
             .map(IcDatabaseUsersQueries::toPermissionScoped)
             .toList()
+        ).union(
+          withTicketPermissions
+            ? derivedPermissions(context, id, derivedCondition)
+            : groupPermissions(context, id, derivedCondition)
         );
 
       return Optional.of(
@@ -224,14 +323,421 @@ final class IcDatabaseUsersQueries
     }
   }
 
+  @Override
+  public IcPermissionSet userTicketPermissions(
+    final UUID id,
+    final Collection<IcTicketID> tickets)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(id, "id");
+    Objects.requireNonNull(tickets, "tickets");
+
+    if (tickets.isEmpty()) {
+      return IcPermissionSet.empty();
+    }
+
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan(
+        "IdDatabaseUsersQueries.userTicketPermissions");
+
+    try {
+      final var projectIds =
+        tickets.stream()
+          .map(t -> Long.valueOf(t.project().value()))
+          .distinct()
+          .toArray(Long[]::new);
+      final var ticketIds =
+        tickets.stream()
+          .map(t -> Long.valueOf(t.value()))
+          .distinct()
+          .toArray(Long[]::new);
+
+      /*
+       * Both scope columns are constrained so that the lookup can use the
+       * (user_id, scope_project, scope_ticket, permission) index. The
+       * cross product of projects and tickets is then filtered down to
+       * the requested tickets.
+       */
+
+      final var requested = Set.copyOf(tickets);
+      final var builder = IcPermissionSet.builder();
+      context.selectFrom(PERMISSIONS)
+        .where(
+          PERMISSIONS.USER_ID.eq(id)
+            .and(PERMISSIONS.SCOPE_PROJECT.eq(DSL.any(projectIds)))
+            .and(PERMISSIONS.SCOPE_TICKET.eq(DSL.any(ticketIds)))
+        )
+        .stream()
+        .map(IcDatabaseUsersQueries::toPermissionScoped)
+        .filter(p -> p instanceof IcPermissionTicketwide tw
+                     && requested.contains(tw.ticketId()))
+        .forEach(builder::add);
+
+      final var derived =
+        derivedPermissions(
+          context,
+          id,
+          USER_GROUP_PERMISSIONS.SCOPE_PROJECT.eq(DSL.any(projectIds))
+            .and(USER_GROUP_PERMISSIONS.SCOPE_TICKET.eq(DSL.any(ticketIds))),
+          TICKETS.PROJECT.eq(DSL.any(projectIds))
+            .and(TICKETS.ID.eq(DSL.any(ticketIds)))
+        );
+
+      derived.stream()
+        .filter(p -> p instanceof IcPermissionTicketwide tw
+                     && requested.contains(tw.ticketId()))
+        .forEach(builder::add);
+
+      archivedPermissions(context, id, ticketIds)
+        .stream()
+        .filter(p -> p instanceof IcPermissionTicketwide tw
+                     && requested.contains(tw.ticketId()))
+        .forEach(builder::add);
+
+      return builder.build();
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  @Override
+  public void userPermissionsAdd(
+    final UUID id,
+    final Collection<IcPermissionScopedType> permissions)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(id, "id");
+    Objects.requireNonNull(permissions, "permissions");
+
+    this.usersPermissionsAdd(
+      permissions.stream()
+        .map(p -> new IcUserPermission(id, p))
+        .toList()
+    );
+  }
+
+  @Override
+  public void usersPermissionsAdd(
+    final Collection<IcUserPermission> permissions)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(permissions, "permissions");
+
+    if (permissions.isEmpty()) {
+      return;
+    }
+
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan("IdDatabaseUsersQueries.usersPermissionsAdd");
+
+    try {
+      final var rows = PermissionRows.of(permissions);
+
+      /*
+       * Check that all of the users exist so that a missing user is
+       * reported as such rather than as a foreign key violation.
+       */
+
+      final var userIds =
+        Arrays.stream(rows.users)
+          .distinct()
+          .toArray(UUID[]::new);
+
+      final var existing =
+        context.select(USERS.ID)
+          .from(USERS)
+          .where(USERS.ID.eq(DSL.any(userIds)))
+          .fetchSet(USERS.ID);
+
+      for (final var userId : userIds) {
+        if (!existing.contains(userId)) {
+          throw new IcDatabaseException(
+            "User '%s' does not exist".formatted(userId),
+            USER_NONEXISTENT
+          );
+        }
+      }
+
+      /*
+       * The scope columns are nullable, and so the unique constraint on the
+       * table does not reject duplicate global and projectwide permissions.
+       * Existing rows are therefore excluded by comparing the scopes with
+       * "is not distinct from", and "on conflict" handles the remaining
+       * ticketwide duplicates that can be inserted concurrently.
+       */
+
+      context.execute(
+        """
+          insert into permissions (user_id, scope_project, scope_ticket, permission)
+            select distinct u.user_id, u.scope_project, u.scope_ticket, u.permission
+              from unnest(?::uuid[], ?::bigint[], ?::bigint[], ?::integer[])
+                as u (user_id, scope_project, scope_ticket, permission)
+              where not exists (
+                select 1 from permissions p
+                  where p.user_id       = u.user_id
+                    and p.permission    = u.permission
+                    and p.scope_project is not distinct from u.scope_project
+                    and p.scope_ticket  is not distinct from u.scope_ticket
+              )
+            on conflict do nothing
+          """,
+        rows.users,
+        rows.scopeProjects,
+        rows.scopeTickets,
+        rows.permissions
+      );
+
+      savedSearchesReevaluate(
+        context,
+        rows.users,
+        rows.scopeProjects,
+        rows.scopeTickets,
+        rows.permissions
+      );
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  @Override
+  public void usersPermissionsRemove(
+    final Collection<IcUserPermission> permissions)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(permissions, "permissions");
+
+    if (permissions.isEmpty()) {
+      return;
+    }
+
+    final var transaction =
+      this.transaction();
+    final var context =
+      transaction.createContext();
+    final var querySpan =
+      transaction.createQuerySpan(
+        "IdDatabaseUsersQueries.usersPermissionsRemove");
+
+    try {
+      final var rows = PermissionRows.of(permissions);
+
+      context.execute(
+        """
+          delete from permissions p
+            using unnest(?::uuid[], ?::bigint[], ?::bigint[], ?::integer[])
+              as u (user_id, scope_project, scope_ticket, permission)
+            where p.user_id       = u.user_id
+              and p.permission    = u.permission
+              and p.scope_project is not distinct from u.scope_project
+              and p.scope_ticket  is not distinct from u.scope_ticket
+          """,
+        rows.users,
+        rows.scopeProjects,
+        rows.scopeTickets,
+        rows.permissions
+      );
+
+      savedSearchesReevaluate(
+        context,
+        rows.users,
+        rows.scopeProjects,
+        rows.scopeTickets,
+        rows.permissions
+      );
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, e);
+    } finally {
+      querySpan.end();
+    }
+  }
+
+  /**
+   * A set of user permissions as parallel arrays, suitable for passing to
+   * {@code unnest}.
+   */
+
+  private record PermissionRows(
+    UUID[] users,
+    Long[] scopeProjects,
+    Long[] scopeTickets,
+    Integer[] permissions)
+  {
+    static PermissionRows of(
+      final Collection<IcUserPermission> permissions)
+    {
+      final var size = permissions.size();
+      final var rows =
+        new PermissionRows(
+          new UUID[size],
+          new Long[size],
+          new Long[size],
+          new Integer[size]
+        );
+
+      int index = 0;
+      for (final var p : permissions) {
+        final var permission = p.permission();
+        rows.users[index] = p.user();
+        rows.permissions[index] =
+          Integer.valueOf(permission.permission().value());
+
+        if (permission instanceof IcPermissionProjectwide projectwide) {
+          rows.scopeProjects[index] =
+            Long.valueOf(projectwide.projectId().value());
+        } else if (permission instanceof IcPermissionTicketwide ticketwide) {
+          final var ticket = ticketwide.ticketId();
+          rows.scopeProjects[index] =
+            Long.valueOf(ticket.project().value());
+          rows.scopeTickets[index] =
+            Long.valueOf(ticket.value());
+        }
+        ++index;
+      }
+      return rows;
+    }
+  }
+
+  /**
+   * Retrieve the permissions that a user holds through the groups of which
+   * they are a member, and as the reporter of tickets.
+   */
+
+  private static IcPermissionSet derivedPermissions(
+    final DSLContext context,
+    final UUID userId,
+    final Condition groupCondition)
+  {
+    return derivedPermissions(
+      context,
+      userId,
+      groupCondition,
+      DSL.trueCondition()
+    );
+  }
+
+  private static IcPermissionSet derivedPermissions(
+    final DSLContext context,
+    final UUID userId,
+    final Condition groupCondition,
+    final Condition ticketCondition)
+  {
+    final var builder =
+      groupPermissions(context, userId, groupCondition)
+        .toBuilder();
+
+    context.select(TICKETS.PROJECT, TICKETS.ID)
+      .from(TICKETS)
+      .where(TICKETS.REPORTER.eq(userId).and(ticketCondition))
+      .stream()
+      .map(r -> {
+        return new IcTicketID(
+          new IcProjectID(r.value1().longValue()),
+          r.value2().longValue()
+        );
+      })
+      .forEach(builder::addReporter);
+
+    return builder.build();
+  }
+
+  /**
+   * Retrieve the permissions that a user holds through the groups of which
+   * they are a member.
+   */
+
+  /**
+   * Archived tickets keep the permissions that were granted on them, both
+   * directly and to groups, along with the implicit reporter grant.
+   */
+
+  private static IcPermissionSet archivedPermissions(
+    final DSLContext context,
+    final UUID userId,
+    final Long[] ticketIds)
+  {
+    final var p = PERMISSIONS_ARCHIVED;
+    final var groups =
+      DSL.select(USER_GROUP_MEMBERS.GROUP_ID)
+        .from(USER_GROUP_MEMBERS)
+        .where(USER_GROUP_MEMBERS.USER_ID.eq(userId));
+
+    final var builder =
+      IcPermissionSet.of(
+        context.select(p.SCOPE_PROJECT, p.SCOPE_TICKET, p.PERMISSION)
+          .from(p)
+          .where(p.SCOPE_TICKET.eq(DSL.any(ticketIds)))
+          .and(p.USER_ID.eq(userId).or(p.GROUP_ID.in(groups)))
+          .stream()
+          .map(r -> toPermissionScoped(r.value1(), r.value2(), r.value3()))
+          .toList()
+      ).toBuilder();
+
+    context.select(TICKETS_ARCHIVED.PROJECT, TICKETS_ARCHIVED.ID)
+      .from(TICKETS_ARCHIVED)
+      .where(TICKETS_ARCHIVED.REPORTER.eq(userId))
+      .and(TICKETS_ARCHIVED.ID.eq(DSL.any(ticketIds)))
+      .stream()
+      .map(r -> {
+        return new IcTicketID(
+          new IcProjectID(r.value1().longValue()),
+          r.value2().longValue()
+        );
+      })
+      .forEach(builder::addReporter);
+
+    return builder.build();
+  }
+
+  private static IcPermissionSet groupPermissions(
+    final DSLContext context,
+    final UUID userId,
+    final Condition condition)
+  {
+    return IcPermissionSet.of(
+      context.select(
+          USER_GROUP_PERMISSIONS.SCOPE_PROJECT,
+          USER_GROUP_PERMISSIONS.SCOPE_TICKET,
+          USER_GROUP_PERMISSIONS.PERMISSION)
+        .from(USER_GROUP_PERMISSIONS)
+        .join(USER_GROUP_MEMBERS)
+        .on(USER_GROUP_MEMBERS.GROUP_ID.eq(USER_GROUP_PERMISSIONS.GROUP_ID))
+        .where(USER_GROUP_MEMBERS.USER_ID.eq(userId).and(condition))
+        .stream()
+        .map(r -> toPermissionScoped(r.value1(), r.value2(), r.value3()))
+        .toList()
+    );
+  }
+
   private static IcPermissionScopedType toPermissionScoped(
     final PermissionsRecord p)
   {
-    final var scopeProject =
-      p.getScopeProject();
-    final var scopeTicket =
-      p.getScopeTicket();
+    return toPermissionScoped(
+      p.getScopeProject(),
+      p.getScopeTicket(),
+      p.getPermission()
+    );
+  }
 
+  private static IcPermissionScopedType toPermissionScoped(
+    final Long scopeProject,
+    final Long scopeTicket,
+    final Integer permission)
+  {
     if (scopeProject != null) {
       if (scopeTicket != null) {
         return new IcPermissionTicketwide(
@@ -239,17 +745,17 @@ final class IcDatabaseUsersQueries
             new IcProjectID(scopeProject.longValue()),
             scopeTicket.longValue()
           ),
-          toPermission(p.getPermission())
+          toPermission(permission)
         );
       } else {
         return new IcPermissionProjectwide(
           new IcProjectID(scopeProject.longValue()),
-          toPermission(p.getPermission())
+          toPermission(permission)
         );
       }
     } else {
       return new IcPermissionGlobal(
-        toPermission(p.getPermission())
+        toPermission(permission)
       );
     }
   }
@@ -310,6 +816,7 @@ final class IcDatabaseUsersQueries
       }
 
       context.batch(batches).execute();
+      savedSearchesReevaluate(context, id);
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
       throw handleDatabaseException(transaction, e);
@@ -367,6 +874,8 @@ final class IcDatabaseUsersQueries
       context.deleteFrom(PERMISSIONS)
         .where(PERMISSIONS.USER_ID.eq(id))
         .execute();
+
+      savedSearchesReevaluate(context, id);
     } catch (final DataAccessException e) {
       querySpan.recordException(e);
       throw handleDatabaseException(transaction, e);
@@ -139,6 +139,13 @@ public final class IcStandardErrorCodes
   public static final IcErrorCode HTTP_SIZE_LIMIT =
     new IcErrorCode("error-http-size-limit");
 
+  /**
+   * An HTTP request specified a range that could not be satisfied.
+   */
+
+  public static final IcErrorCode HTTP_RANGE_INVALID =
+    new IcErrorCode("error-http-range-invalid");
+
 
   /**
    * An attempt was made to create a user that already exists.
@@ -253,4 +260,47 @@ public final class IcStandardErrorCodes
 
   public static final IcErrorCode TICKET_COMMENT_NONEXISTENT =
     new IcErrorCode("error-ticket-comment-nonexistent");
+
+  /**
+   * An attempt was made to update a ticket based on a version of the ticket
+   * that is no longer current, or that is being updated concurrently.
+   */
+
+  public static final IcErrorCode TICKET_UPDATE_CONFLICT =
+    new IcErrorCode("error-ticket-update-conflict");
+
+  /**
+   * A ticket attachment does not exist.
+   */
+
+  public static final IcErrorCode TICKET_ATTACHMENT_NONEXISTENT =
+    new IcErrorCode("error-ticket-attachment-nonexistent");
+
+  /**
+   * An attempt was made to create a saved search that already exists.
+   */
+
+  public static final IcErrorCode SAVED_SEARCH_DUPLICATE =
+    new IcErrorCode("error-saved-search-duplicate");
+
+  /**
+   * A saved search does not exist.
+   */
+
+  public static final IcErrorCode SAVED_SEARCH_NONEXISTENT =
+    new IcErrorCode("error-saved-search-nonexistent");
+
+  /**
+   * An attempt was made to create a group that already exists.
+   */
+
+  public static final IcErrorCode GROUP_DUPLICATE =
+    new IcErrorCode("error-group-duplicate");
+
+  /**
+   * A group does not exist.
+   */
+
+  public static final IcErrorCode GROUP_NONEXISTENT =
+    new IcErrorCode("error-group-nonexistent");
 }
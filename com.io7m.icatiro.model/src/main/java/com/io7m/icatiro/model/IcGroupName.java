@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.model;
+
+import java.util.regex.Pattern;
+
+/**
+ * The name of a group. Names are unique.
+ *
+ * @param value The name value
+ */
+
+public record IcGroupName(String value)
+{
+  /**
+   * The pattern that defines valid group names.
+   */
+
+  public static final Pattern VALID_NAMES =
+    Pattern.compile("[a-z][a-z0-9_\\-]{0,63}");
+
+  /**
+   * The name of a group. Names are unique.
+   *
+   * @param value The name value
+   */
+
+  public IcGroupName
+  {
+    if (!VALID_NAMES.matcher(value).matches()) {
+      throw new IcValidityException(
+        "Group name '%s' must match %s"
+          .formatted(value, VALID_NAMES)
+      );
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return this.value;
+  }
+}
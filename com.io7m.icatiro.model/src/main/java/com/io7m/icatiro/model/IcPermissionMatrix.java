@@ -0,0 +1,223 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A compact matrix of permissions evaluated for a sequence of objects. Each
+ * row corresponds to an object, and each column corresponds to a permission.
+ * Each row is held as a single bitmask in which bit {@code n} is set if the
+ * permission with ordinal {@code n} is held for the object.
+ */
+
+public final class IcPermissionMatrix
+{
+  private static final IcPermission[] PERMISSIONS =
+    IcPermission.values();
+
+  private static final IcPermissionMatrix EMPTY =
+    new IcPermissionMatrix(0, new int[0]);
+
+  private final int columns;
+  private final int[] rows;
+
+  private IcPermissionMatrix(
+    final int inColumns,
+    final int[] inRows)
+  {
+    this.columns = inColumns;
+    this.rows = Objects.requireNonNull(inRows, "rows");
+  }
+
+  private static int bit(
+    final IcPermission permission)
+  {
+    return 1 << permission.ordinal();
+  }
+
+  /**
+   * @return An empty matrix with no rows and no columns
+   */
+
+  public static IcPermissionMatrix empty()
+  {
+    return EMPTY;
+  }
+
+  /**
+   * Construct a matrix from the given row masks. Any bits in the row masks
+   * that do not correspond to one of the given columns are discarded.
+   *
+   * @param columns The columns
+   * @param rows    The row masks
+   *
+   * @return A permission matrix
+   */
+
+  public static IcPermissionMatrix ofMasks(
+    final Set<IcPermission> columns,
+    final int[] rows)
+  {
+    Objects.requireNonNull(columns, "columns");
+    Objects.requireNonNull(rows, "rows");
+
+    final var columnMask = maskOf(columns);
+    final var copy = new int[rows.length];
+    for (int index = 0; index < rows.length; ++index) {
+      copy[index] = rows[index] & columnMask;
+    }
+    return new IcPermissionMatrix(columnMask, copy);
+  }
+
+  /**
+   * @param permissions A set of permissions
+   *
+   * @return The given permissions as a bitmask
+   */
+
+  public static int maskOf(
+    final Set<IcPermission> permissions)
+  {
+    Objects.requireNonNull(permissions, "permissions");
+
+    int mask = 0;
+    for (final var permission : permissions) {
+      mask |= bit(permission);
+    }
+    return mask;
+  }
+
+  /**
+   * @return The number of rows
+   */
+
+  public int rows()
+  {
+    return this.rows.length;
+  }
+
+  /**
+   * @return The permissions represented by the columns
+   */
+
+  public Set<IcPermission> columns()
+  {
+    final var result = EnumSet.noneOf(IcPermission.class);
+    for (final var permission : PERMISSIONS) {
+      if ((this.columns & bit(permission)) != 0) {
+        result.add(permission);
+      }
+    }
+    return Collections.unmodifiableSet(result);
+  }
+
+  /**
+   * @param permission The permission
+   *
+   * @return {@code true} if the given permission is a column of this matrix
+   */
+
+  public boolean hasColumn(
+    final IcPermission permission)
+  {
+    Objects.requireNonNull(permission, "permission");
+    return (this.columns & bit(permission)) != 0;
+  }
+
+  /**
+   * @param row The row
+   *
+   * @return The permissions held for the object at the given row as a bitmask
+   */
+
+  public int rowMask(
+    final int row)
+  {
+    return this.rows[Objects.checkIndex(row, this.rows.length)];
+  }
+
+  /**
+   * @param row        The row
+   * @param permission The permission
+   *
+   * @return {@code true} if the given permission is held for the object at
+   * the given row
+   *
+   * @throws IllegalArgumentException If the permission is not a column of
+   *                                  this matrix
+   */
+
+  public boolean implies(
+    final int row,
+    final IcPermission permission)
+  {
+    Objects.requireNonNull(permission, "permission");
+
+    if (!this.hasColumn(permission)) {
+      throw new IllegalArgumentException(
+        "Permission %s is not a column of this matrix".formatted(permission)
+      );
+    }
+    return (this.rowMask(row) & bit(permission)) != 0;
+  }
+
+  /**
+   * @param row The row
+   *
+   * @return {@code true} if every permission in the matrix is held for the
+   * object at the given row
+   */
+
+  public boolean impliesAll(
+    final int row)
+  {
+    return this.rowMask(row) == this.columns;
+  }
+
+  @Override
+  public boolean equals(
+    final Object o)
+  {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || !this.getClass().equals(o.getClass())) {
+      return false;
+    }
+    final IcPermissionMatrix that = (IcPermissionMatrix) o;
+    return this.columns == that.columns
+           && Arrays.equals(this.rows, that.rows);
+  }
+
+  @Override
+  public int hashCode()
+  {
+    return 31 * Integer.hashCode(this.columns) + Arrays.hashCode(this.rows);
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[IcPermissionMatrix %s %d]"
+      .formatted(this.columns(), Integer.valueOf(this.rows.length));
+  }
+}
@@ -14,43 +14,95 @@
  * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
  */
 
-
 package com.io7m.icatiro.model;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Stream;
 
+import static com.io7m.icatiro.model.IcPermission.TICKET_COMMENT;
+import static com.io7m.icatiro.model.IcPermission.TICKET_READ;
+import static com.io7m.icatiro.model.IcPermission.TICKET_WRITE;
+
 /**
  * The set of permissions held by a user.
+ *
+ * <p>The set is held in a compact primitive form: global permissions are a
+ * single bitmask, projectwide permissions are a sorted array of project IDs
+ * with a parallel array of bitmasks, and ticketwide permissions are held, for
+ * each permission, as a sorted array of project IDs with a sorted array of
+ * ticket numbers for each project. Checking permissions does not allocate.</p>
  */
 
 public final class IcPermissionSet
 {
+  private static final IcPermission[] PERMISSIONS =
+    IcPermission.values();
+
+  private static final long[] NO_LONGS =
+    new long[0];
+  private static final int[] NO_INTS =
+    new int[0];
+  private static final long[][] NO_LONG_ARRAYS =
+    new long[0][];
+
+  private static final TicketScopes NO_TICKETS =
+    new TicketScopes(NO_LONGS, NO_LONG_ARRAYS);
+
+  private static final Set<IcPermission> REPORTER_PERMISSIONS =
+    Collections.unmodifiableSet(
+      EnumSet.of(TICKET_READ, TICKET_WRITE, TICKET_COMMENT)
+    );
+
   private static final IcPermissionSet EMPTY =
     new IcPermissionSet(
-      Set.of(),
-      Set.of(),
-      Set.of()
+      0,
+      NO_LONGS,
+      NO_INTS,
+      emptyTicketScopes()
     );
 
-  private final Set<IcPermissionGlobal> globals;
-  private final Set<IcPermissionProjectwide> projectwides;
-  private final Set<IcPermissionTicketwide> ticketwides;
+  private final int globals;
+  private final long[] projects;
+  private final int[] projectMasks;
+  private final TicketScopes[] tickets;
 
   private IcPermissionSet(
-    final Set<IcPermissionGlobal> inGlobals,
-    final Set<IcPermissionProjectwide> inProjectWides,
-    final Set<IcPermissionTicketwide> inTicketWides)
+    final int inGlobals,
+    final long[] inProjects,
+    final int[] inProjectMasks,
+    final TicketScopes[] inTickets)
   {
     this.globals =
-      Objects.requireNonNull(inGlobals, "globals");
-    this.projectwides =
-      Objects.requireNonNull(inProjectWides, "projectwides");
-    this.ticketwides =
-      Objects.requireNonNull(inTicketWides, "ticketwides");
+      inGlobals;
+    this.projects =
+      Objects.requireNonNull(inProjects, "projects");
+    this.projectMasks =
+      Objects.requireNonNull(inProjectMasks, "projectMasks");
+    this.tickets =
+      Objects.requireNonNull(inTickets, "tickets");
+  }
+
+  private static TicketScopes[] emptyTicketScopes()
+  {
+    final var scopes = new TicketScopes[PERMISSIONS.length];
+    Arrays.fill(scopes, NO_TICKETS);
+    return scopes;
+  }
+
+  private static int bit(
+    final IcPermission permission)
+  {
+    return 1 << permission.ordinal();
   }
 
   /**
@@ -71,6 +123,19 @@ public final class IcPermissionSet
     return EMPTY;
   }
 
+  /**
+   * The permissions implicitly held by the reporter of a ticket for that
+   * ticket. These permissions are derived from the reporter of the ticket
+   * and are not stored as grants.
+   *
+   * @return The permissions held by the reporter of a ticket
+   */
+
+  public static Set<IcPermission> reporterPermissions()
+  {
+    return REPORTER_PERMISSIONS;
+  }
+
   /**
    * @param permissions The permissions
    *
@@ -95,12 +160,49 @@ public final class IcPermissionSet
 
   public Stream<IcPermissionScopedType> stream()
   {
+    final var globalList =
+      new ArrayList<IcPermissionScopedType>();
+    for (final var permission : PERMISSIONS) {
+      if ((this.globals & bit(permission)) != 0) {
+        globalList.add(new IcPermissionGlobal(permission));
+      }
+    }
+
+    final var projectList =
+      new ArrayList<IcPermissionProjectwide>();
+    for (int index = 0; index < this.projects.length; ++index) {
+      final var project = new IcProjectID(this.projects[index]);
+      final var mask = this.projectMasks[index];
+      for (final var permission : PERMISSIONS) {
+        if ((mask & bit(permission)) != 0) {
+          projectList.add(new IcPermissionProjectwide(project, permission));
+        }
+      }
+    }
+
+    final var ticketList =
+      new ArrayList<IcPermissionTicketwide>();
+    for (final var permission : PERMISSIONS) {
+      final var scopes = this.tickets[permission.ordinal()];
+      for (int index = 0; index < scopes.projects.length; ++index) {
+        final var project = new IcProjectID(scopes.projects[index]);
+        for (final var ticket : scopes.tickets[index]) {
+          ticketList.add(
+            new IcPermissionTicketwide(
+              new IcTicketID(project, ticket),
+              permission
+            )
+          );
+        }
+      }
+    }
+
     return Stream.concat(
       Stream.concat(
-        this.globals.stream().sorted(),
-        this.projectwides.stream().sorted()
+        globalList.stream(),
+        projectList.stream().sorted()
       ),
-      this.ticketwides.stream().sorted()
+      ticketList.stream().sorted()
     );
   }
 
@@ -119,23 +221,20 @@ public final class IcPermissionSet
     Objects.requireNonNull(object, "object");
     Objects.requireNonNull(permission, "permission");
 
-    if (this.globals.contains(new IcPermissionGlobal(permission))) {
+    if (this.impliesGlobal(permission)) {
       return true;
     }
 
     if (object instanceof IcProjectID project) {
-      return this.projectwides.contains(
-        new IcPermissionProjectwide(project, permission)
-      );
+      return this.impliesProjectwide(project.value(), permission);
     }
 
     if (object instanceof IcTicketID ticket) {
-      if (this.projectwides.contains(
-        new IcPermissionProjectwide(ticket.project(), permission))) {
-        return true;
-      }
-      return this.ticketwides.contains(
-        new IcPermissionTicketwide(ticket, permission));
+      return this.impliesTicketwide(
+        ticket.project().value(),
+        ticket.value(),
+        permission
+      );
     }
 
     throw new IllegalStateException(
@@ -154,24 +253,213 @@ public final class IcPermissionSet
   {
     Objects.requireNonNull(permission, "permission");
 
-    if (this.globals.contains(new IcPermissionGlobal(permission.permission()))) {
+    if (this.impliesGlobal(permission.permission())) {
       return true;
     }
 
     if (permission instanceof IcPermissionProjectwide projectwide) {
-      return this.projectwides.contains(projectwide);
+      return this.impliesProjectwide(
+        projectwide.projectId().value(),
+        projectwide.permission()
+      );
     }
 
     if (permission instanceof IcPermissionTicketwide ticketwide) {
-      if (this.projectwides.contains(
-        new IcPermissionProjectwide(
-          ticketwide.ticketId().project(),
-          ticketwide.permission()))) {
-        return true;
+      final var ticket = ticketwide.ticketId();
+      return this.impliesTicketwide(
+        ticket.project().value(),
+        ticket.value(),
+        ticketwide.permission()
+      );
+    }
+
+    return false;
+  }
+
+  /**
+   * Evaluate the given permissions for each of the given tickets. Tickets are
+   * grouped by project so that global and projectwide permissions, and the
+   * location of each project's ticketwide permissions, are resolved once per
+   * project rather than once per ticket.
+   *
+   * @param objects     The tickets
+   * @param permissions The permissions
+   *
+   * @return A matrix with a row for each ticket, in the given order, and a
+   * column for each permission
+   */
+
+  public IcPermissionMatrix impliesMany(
+    final List<IcTicketID> objects,
+    final Set<IcPermission> permissions)
+  {
+    Objects.requireNonNull(objects, "objects");
+    Objects.requireNonNull(permissions, "permissions");
+
+    final var size = objects.size();
+    final var rows = new int[size];
+    final var columns = permissions.toArray(new IcPermission[0]);
+    final var columnMask = IcPermissionMatrix.maskOf(permissions);
+
+    final var projectIds = new long[size];
+    final var order = new Integer[size];
+    for (int index = 0; index < size; ++index) {
+      projectIds[index] = objects.get(index).project().value();
+      order[index] = Integer.valueOf(index);
+    }
+    Arrays.sort(order, Comparator.comparingLong(i -> projectIds[i.intValue()]));
+
+    final var ticketsForColumn = new long[columns.length][];
+    int start = 0;
+    while (start < size) {
+      final var project = projectIds[order[start].intValue()];
+
+      int end = start + 1;
+      while (end < size && projectIds[order[end].intValue()] == project) {
+        ++end;
+      }
+
+      final var base =
+        (this.globals | this.projectMask(project)) & columnMask;
+
+      this.resolveColumns(project, base, columns, ticketsForColumn);
+
+      for (int r = start; r < end; ++r) {
+        final var row = order[r].intValue();
+        rows[row] = rowMask(
+          objects.get(row).value(),
+          base,
+          columns,
+          ticketsForColumn
+        );
+      }
+      start = end;
+    }
+
+    return IcPermissionMatrix.ofMasks(permissions, rows);
+  }
+
+  private int projectMask(
+    final long project)
+  {
+    final var index = Arrays.binarySearch(this.projects, project);
+    return index >= 0 ? this.projectMasks[index] : 0;
+  }
+
+  /**
+   * For each column that is not already implied by the base mask, locate
+   * the sorted array of tickets in the given project that hold the column's
+   * permission, or {@code null} if there are none.
+   */
+
+  private void resolveColumns(
+    final long project,
+    final int base,
+    final IcPermission[] columns,
+    final long[][] ticketsForColumn)
+  {
+    for (int c = 0; c < columns.length; ++c) {
+      ticketsForColumn[c] = null;
+      if ((base & bit(columns[c])) == 0) {
+        final var scopes = this.tickets[columns[c].ordinal()];
+        final var scopeIndex = Arrays.binarySearch(scopes.projects, project);
+        if (scopeIndex >= 0) {
+          ticketsForColumn[c] = scopes.tickets[scopeIndex];
+        }
+      }
+    }
+  }
+
+  private static int rowMask(
+    final long ticket,
+    final int base,
+    final IcPermission[] columns,
+    final long[][] ticketsForColumn)
+  {
+    int mask = base;
+    for (int c = 0; c < columns.length; ++c) {
+      final var projectTickets = ticketsForColumn[c];
+      if (projectTickets != null
+          && containsTicket(projectTickets, ticket)) {
+        mask |= bit(columns[c]);
       }
-      return this.ticketwides.contains(ticketwide);
     }
+    return mask;
+  }
+
+  private boolean impliesGlobal(
+    final IcPermission permission)
+  {
+    return (this.globals & bit(permission)) != 0;
+  }
+
+  private boolean impliesProjectwide(
+    final long project,
+    final IcPermission permission)
+  {
+    return (this.projectMask(project) & bit(permission)) != 0;
+  }
+
+  private boolean impliesTicketwide(
+    final long project,
+    final long ticket,
+    final IcPermission permission)
+  {
+    if (this.impliesProjectwide(project, permission)) {
+      return true;
+    }
+
+    final var scopes =
+      this.tickets[permission.ordinal()];
+    final var index =
+      Arrays.binarySearch(scopes.projects, project);
+    if (index < 0) {
+      return false;
+    }
+    return containsTicket(scopes.tickets[index], ticket);
+  }
+
+  /**
+   * Search a sorted array of ticket numbers. Ticket numbers are allocated
+   * sequentially within a project, and so the position of a ticket can
+   * usually be estimated from the values at the ends of the range being
+   * searched. Estimates alternate with bisection so that unevenly spread
+   * numbers still take a logarithmic number of steps.
+   */
 
+  private static boolean containsTicket(
+    final long[] tickets,
+    final long ticket)
+  {
+    int low = 0;
+    int high = tickets.length - 1;
+    boolean estimate = true;
+
+    while (low <= high) {
+      final var lowValue = tickets[low];
+      final var highValue = tickets[high];
+      if (ticket < lowValue || ticket > highValue) {
+        return false;
+      }
+
+      int middle = (low + high) >>> 1;
+      if (estimate && highValue > lowValue) {
+        final var fraction =
+          ((double) ticket - (double) lowValue)
+          / ((double) highValue - (double) lowValue);
+        middle = low + (int) (fraction * (high - low));
+      }
+      estimate = !estimate;
+
+      final var value = tickets[middle];
+      if (value < ticket) {
+        low = middle + 1;
+      } else if (value > ticket) {
+        high = middle - 1;
+      } else {
+        return true;
+      }
+    }
     return false;
   }
 
@@ -186,15 +474,20 @@ public final class IcPermissionSet
       return false;
     }
     final IcPermissionSet that = (IcPermissionSet) o;
-    return this.globals.equals(that.globals)
-           && this.projectwides.equals(that.projectwides)
-           && this.ticketwides.equals(that.ticketwides);
+    return this.globals == that.globals
+           && Arrays.equals(this.projects, that.projects)
+           && Arrays.equals(this.projectMasks, that.projectMasks)
+           && Arrays.equals(this.tickets, that.tickets);
   }
 
   @Override
   public int hashCode()
   {
-    return Objects.hash(this.globals, this.projectwides, this.ticketwides);
+    int result = Integer.hashCode(this.globals);
+    result = 31 * result + Arrays.hashCode(this.projects);
+    result = 31 * result + Arrays.hashCode(this.projectMasks);
+    result = 31 * result + Arrays.hashCode(this.tickets);
+    return result;
   }
 
   @Override
@@ -205,6 +498,28 @@ public final class IcPermissionSet
       .toString();
   }
 
+  /**
+   * @param other The other permission set
+   *
+   * @return A permission set containing the permissions of both sets
+   */
+
+  public IcPermissionSet union(
+    final IcPermissionSet other)
+  {
+    Objects.requireNonNull(other, "other");
+
+    if (other.equals(EMPTY)) {
+      return this;
+    }
+    if (this.equals(EMPTY)) {
+      return other;
+    }
+    return this.toBuilder()
+      .addAll(other)
+      .build();
+  }
+
   /**
    * @return This permission set as a builder
    */
@@ -212,28 +527,140 @@ public final class IcPermissionSet
   public Builder toBuilder()
   {
     final var builder = new Builder();
-    this.stream().forEach(builder::add);
+    builder.globals = this.globals;
+
+    for (int index = 0; index < this.projects.length; ++index) {
+      builder.projects.put(
+        Long.valueOf(this.projects[index]),
+        Integer.valueOf(this.projectMasks[index])
+      );
+    }
+
+    for (final var permission : PERMISSIONS) {
+      final var scopes =
+        this.tickets[permission.ordinal()];
+      final var target =
+        builder.tickets[permission.ordinal()];
+
+      for (int index = 0; index < scopes.projects.length; ++index) {
+        final var projectTickets = scopes.tickets[index];
+        target.put(
+          Long.valueOf(scopes.projects[index]),
+          new LongBuffer(
+            Arrays.copyOf(projectTickets, projectTickets.length),
+            projectTickets.length
+          )
+        );
+      }
+    }
     return builder;
   }
 
+  /**
+   * The ticketwide permissions for a single permission. The project array
+   * is sorted, and the ticket array at index {@code i} holds the sorted
+   * ticket numbers for the project at index {@code i}.
+   */
+
+  private record TicketScopes(
+    long[] projects,
+    long[][] tickets)
+  {
+    @Override
+    public boolean equals(
+      final Object o)
+    {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof TicketScopes that)) {
+        return false;
+      }
+      return Arrays.equals(this.projects, that.projects)
+             && Arrays.deepEquals(this.tickets, that.tickets);
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return 31 * Arrays.hashCode(this.projects)
+             + Arrays.deepHashCode(this.tickets);
+    }
+
+    @Override
+    public String toString()
+    {
+      return "[TicketScopes %d]".formatted(this.projects.length);
+    }
+  }
+
+  /**
+   * A growable array of longs.
+   */
+
+  private static final class LongBuffer
+  {
+    private long[] values;
+    private int size;
+
+    LongBuffer(
+      final long[] inValues,
+      final int inSize)
+    {
+      this.values = inValues;
+      this.size = inSize;
+    }
+
+    void add(
+      final long value)
+    {
+      if (this.size == this.values.length) {
+        this.values =
+          Arrays.copyOf(this.values, Math.max(8, this.size * 2));
+      }
+      this.values[this.size] = value;
+      ++this.size;
+    }
+
+    long[] toSortedDistinct()
+    {
+      final var result = Arrays.copyOf(this.values, this.size);
+      Arrays.sort(result);
+
+      int count = 0;
+      for (int index = 0; index < result.length; ++index) {
+        if (count == 0 || result[count - 1] != result[index]) {
+          result[count] = result[index];
+          ++count;
+        }
+      }
+      return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+  }
+
   /**
    * A mutable permission set builder.
    */
 
   public static final class Builder
   {
-    private final HashSet<IcPermissionGlobal> globals;
-    private final HashSet<IcPermissionProjectwide> projectwides;
-    private final HashSet<IcPermissionTicketwide> ticketwides;
+    private final HashMap<Long, Integer> projects;
+    private final HashMap<Long, LongBuffer>[] tickets;
+    private int globals;
 
+    @SuppressWarnings("unchecked")
     private Builder()
     {
       this.globals =
-        new HashSet<>();
-      this.projectwides =
-        new HashSet<>();
-      this.ticketwides =
-        new HashSet<>();
+        0;
+      this.projects =
+        new HashMap<>();
+      this.tickets =
+        new HashMap[PERMISSIONS.length];
+
+      for (int index = 0; index < this.tickets.length; ++index) {
+        this.tickets[index] = new HashMap<>();
+      }
     }
 
     /**
@@ -247,8 +674,8 @@ public final class IcPermissionSet
     public Builder addGlobal(
       final IcPermissionGlobal global)
     {
-      this.globals.add(
-        Objects.requireNonNull(global, "global"));
+      Objects.requireNonNull(global, "global");
+      this.globals |= bit(global.permission());
       return this;
     }
 
@@ -263,8 +690,12 @@ public final class IcPermissionSet
     public Builder addProjectwide(
       final IcPermissionProjectwide projectwide)
     {
-      this.projectwides.add(
-        Objects.requireNonNull(projectwide, "projectwide"));
+      Objects.requireNonNull(projectwide, "projectwide");
+      this.projects.merge(
+        Long.valueOf(projectwide.projectId().value()),
+        Integer.valueOf(bit(projectwide.permission())),
+        (x, y) -> Integer.valueOf(x.intValue() | y.intValue())
+      );
       return this;
     }
 
@@ -279,8 +710,14 @@ public final class IcPermissionSet
     public Builder addTicketwide(
       final IcPermissionTicketwide ticketwide)
     {
-      this.ticketwides.add(
-        Objects.requireNonNull(ticketwide, "ticketwide"));
+      Objects.requireNonNull(ticketwide, "ticketwide");
+
+      final var ticket = ticketwide.ticketId();
+      this.tickets[ticketwide.permission().ordinal()]
+        .computeIfAbsent(
+          Long.valueOf(ticket.project().value()),
+          k -> new LongBuffer(NO_LONGS, 0))
+        .add(ticket.value());
       return this;
     }
 
@@ -311,17 +748,125 @@ public final class IcPermissionSet
       );
     }
 
+    /**
+     * Add the permissions implicitly held by the reporter of the given ticket.
+     *
+     * @param ticket The ticket
+     *
+     * @return this
+     *
+     * @see #reporterPermissions()
+     */
+
+    public Builder addReporter(
+      final IcTicketID ticket)
+    {
+      Objects.requireNonNull(ticket, "ticket");
+
+      for (final var permission : REPORTER_PERMISSIONS) {
+        this.addTicketwide(new IcPermissionTicketwide(ticket, permission));
+      }
+      return this;
+    }
+
+    /**
+     * Add all of the permissions in the given set.
+     *
+     * @param other The permission set
+     *
+     * @return this
+     */
+
+    public Builder addAll(
+      final IcPermissionSet other)
+    {
+      Objects.requireNonNull(other, "other");
+
+      this.globals |= other.globals;
+
+      for (int index = 0; index < other.projects.length; ++index) {
+        this.projects.merge(
+          Long.valueOf(other.projects[index]),
+          Integer.valueOf(other.projectMasks[index]),
+          (x, y) -> Integer.valueOf(x.intValue() | y.intValue())
+        );
+      }
+
+      for (final var permission : PERMISSIONS) {
+        final var scopes =
+          other.tickets[permission.ordinal()];
+        final var target =
+          this.tickets[permission.ordinal()];
+
+        for (int index = 0; index < scopes.projects.length; ++index) {
+          final var buffer =
+            target.computeIfAbsent(
+              Long.valueOf(scopes.projects[index]),
+              k -> new LongBuffer(NO_LONGS, 0));
+          for (final var ticket : scopes.tickets[index]) {
+            buffer.add(ticket);
+          }
+        }
+      }
+      return this;
+    }
+
     /**
      * @return A permission set
      */
 
     public IcPermissionSet build()
     {
+      final var projectIds =
+        sortedKeys(this.projects);
+      final var projectMasks =
+        new int[projectIds.length];
+
+      for (int index = 0; index < projectIds.length; ++index) {
+        projectMasks[index] =
+          this.projects.get(Long.valueOf(projectIds[index])).intValue();
+      }
+
+      final var ticketScopes = new TicketScopes[PERMISSIONS.length];
+      for (int index = 0; index < ticketScopes.length; ++index) {
+        final var byProject = this.tickets[index];
+        if (byProject.isEmpty()) {
+          ticketScopes[index] = NO_TICKETS;
+          continue;
+        }
+
+        final var ticketProjects =
+          sortedKeys(byProject);
+        final var ticketValues =
+          new long[ticketProjects.length][];
+
+        for (int p = 0; p < ticketProjects.length; ++p) {
+          ticketValues[p] =
+            byProject.get(Long.valueOf(ticketProjects[p]))
+              .toSortedDistinct();
+        }
+        ticketScopes[index] = new TicketScopes(ticketProjects, ticketValues);
+      }
+
       return new IcPermissionSet(
-        Set.copyOf(this.globals),
-        Set.copyOf(this.projectwides),
-        Set.copyOf(this.ticketwides)
+        this.globals,
+        projectIds,
+        projectMasks,
+        ticketScopes
       );
     }
+
+    private static long[] sortedKeys(
+      final Map<Long, ?> map)
+    {
+      final var keys = new long[map.size()];
+      int index = 0;
+      for (final var key : map.keySet()) {
+        keys[index] = key.longValue();
+        ++index;
+      }
+      Arrays.sort(keys);
+      return keys;
+    }
   }
 }
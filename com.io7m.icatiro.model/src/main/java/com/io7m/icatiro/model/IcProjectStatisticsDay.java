@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.model;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * The ticket statistics for a single project on a single (UTC) day.
+ *
+ * @param day             The day
+ * @param ticketsCreated  The number of tickets created
+ * @param ticketsUpdated  The number of ticket updates (not including comments)
+ * @param commentsCreated The number of comments created
+ */
+
+public record IcProjectStatisticsDay(
+  LocalDate day,
+  long ticketsCreated,
+  long ticketsUpdated,
+  long commentsCreated)
+{
+  /**
+   * The ticket statistics for a single project on a single (UTC) day.
+   *
+   * @param day             The day
+   * @param ticketsCreated  The number of tickets created
+   * @param ticketsUpdated  The number of ticket updates (not including comments)
+   * @param commentsCreated The number of comments created
+   */
+
+  public IcProjectStatisticsDay
+  {
+    Objects.requireNonNull(day, "day");
+
+    if (ticketsCreated < 0L) {
+      throw new IcValidityException("Tickets created count must be >= 0");
+    }
+    if (ticketsUpdated < 0L) {
+      throw new IcValidityException("Tickets updated count must be >= 0");
+    }
+    if (commentsCreated < 0L) {
+      throw new IcValidityException("Comments created count must be >= 0");
+    }
+  }
+}
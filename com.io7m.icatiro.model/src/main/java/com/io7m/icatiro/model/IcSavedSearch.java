@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.model;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The immutable parameters of a saved search. A saved search is evaluated
+ * against tickets as they are written, and so the results of the search are
+ * maintained incrementally rather than by re-executing the search.
+ *
+ * @param name              The name of the search
+ * @param timeCreatedRange  Only tickets created within this time range are
+ *                          included
+ * @param timeUpdatedRange  Only tickets updated within this time range are
+ *                          included
+ * @param titleSearch       The title search query
+ * @param descriptionSearch The text search query
+ * @param reporter          The reporter, if any
+ */
+
+public record IcSavedSearch(
+  IcSavedSearchName name,
+  IcTimeRange timeCreatedRange,
+  IcTimeRange timeUpdatedRange,
+  Optional<String> titleSearch,
+  Optional<String> descriptionSearch,
+  Optional<UUID> reporter)
+{
+  /**
+   * The immutable parameters of a saved search. A saved search is evaluated
+   * against tickets as they are written, and so the results of the search are
+   * maintained incrementally rather than by re-executing the search.
+   *
+   * @param name              The name of the search
+   * @param timeCreatedRange  Only tickets created within this time range are
+   *                          included
+   * @param timeUpdatedRange  Only tickets updated within this time range are
+   *                          included
+   * @param titleSearch       The title search query
+   * @param descriptionSearch The text search query
+   * @param reporter          The reporter, if any
+   */
+
+  public IcSavedSearch
+  {
+    Objects.requireNonNull(name, "name");
+    Objects.requireNonNull(timeCreatedRange, "timeCreatedRange");
+    Objects.requireNonNull(timeUpdatedRange, "timeUpdatedRange");
+    Objects.requireNonNull(titleSearch, "titleSearch");
+    Objects.requireNonNull(descriptionSearch, "descriptionSearch");
+    Objects.requireNonNull(reporter, "reporter");
+  }
+}
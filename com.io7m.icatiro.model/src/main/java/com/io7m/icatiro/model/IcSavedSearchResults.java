@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A set of changes to the results of a saved search. The entries are those
+ * that changed after the revision requested by the client, in ascending
+ * order of revision. The returned {@code revision} should be passed as the
+ * {@code since} value of the next request in order to receive only those
+ * changes that occur afterwards. A {@code since} value of {@code 0} yields
+ * the complete current results.
+ *
+ * @param name     The name of the search
+ * @param revision The revision of the last returned entry
+ * @param entries  The changed entries
+ */
+
+public record IcSavedSearchResults(
+  IcSavedSearchName name,
+  long revision,
+  List<IcSavedSearchEntry> entries)
+{
+  /**
+   * A set of changes to the results of a saved search.
+   *
+   * @param name     The name of the search
+   * @param revision The revision of the last returned entry
+   * @param entries  The changed entries
+   */
+
+  public IcSavedSearchResults
+  {
+    Objects.requireNonNull(name, "name");
+    Objects.requireNonNull(entries, "entries");
+
+    if (revision < 0L) {
+      throw new IcValidityException(
+        "Saved search revision %d must be non-negative."
+          .formatted(Long.valueOf(revision))
+      );
+    }
+  }
+}
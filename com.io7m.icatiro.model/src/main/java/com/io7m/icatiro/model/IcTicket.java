@@ -30,6 +30,7 @@ import java.util.UUID;
  * @param title        The title
  * @param timeCreated  The creation time
  * @param timeUpdated  The update time
+ * @param version      The version of the ticket, incremented on each update
  * @param reporter     The reporter
  * @param reporterName The reporter name
  * @param description  The description
@@ -41,6 +42,7 @@ public record IcTicket(
   IcTicketTitle title,
   OffsetDateTime timeCreated,
   OffsetDateTime timeUpdated,
+  long version,
   UUID reporter,
   IdName reporterName,
   String description,
@@ -53,6 +55,7 @@ public record IcTicket(
    * @param title        The title
    * @param timeCreated  The creation time
    * @param timeUpdated  The update time
+   * @param version      The version of the ticket, incremented on each update
    * @param reporter     The reporter
    * @param reporterName The reporter name
    * @param description  The description
@@ -69,5 +72,29 @@ public record IcTicket(
     Objects.requireNonNull(reporterName, "reporterName");
     Objects.requireNonNull(description, "description");
     Objects.requireNonNull(comments, "comments");
+
+    if (version < 1L) {
+      throw new IcValidityException(
+        "Ticket version %d must be positive."
+          .formatted(Long.valueOf(version))
+      );
+    }
+  }
+
+  /**
+   * @return The version token that identifies the current state of the ticket
+   */
+
+  public IcTicketVersionToken versionToken()
+  {
+    return IcTicketVersionToken.of(
+      this.version,
+      this.timeUpdated,
+      this.comments.size(),
+      this.comments.stream()
+        .mapToLong(IcTicketComment::commentId)
+        .max()
+        .orElse(0L)
+    );
   }
 }
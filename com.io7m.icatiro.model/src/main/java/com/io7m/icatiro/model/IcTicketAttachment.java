@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.model;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A file attached to a ticket. The content of the attachment is identified
+ * by its hash, and attachments with identical content share storage.
+ *
+ * @param ticket       The ticket
+ * @param attachmentId The attachment ID
+ * @param name         The file name of the attachment
+ * @param contentType  The media type of the attachment
+ * @param size         The size of the attachment in octets
+ * @param hash         The hash of the attachment content
+ * @param owner        The user that uploaded the attachment
+ * @param time         The time the attachment was uploaded
+ */
+
+public record IcTicketAttachment(
+  IcTicketID ticket,
+  long attachmentId,
+  String name,
+  String contentType,
+  long size,
+  IcHash hash,
+  UUID owner,
+  OffsetDateTime time)
+{
+  /**
+   * A file attached to a ticket.
+   *
+   * @param ticket       The ticket
+   * @param attachmentId The attachment ID
+   * @param name         The file name of the attachment
+   * @param contentType  The media type of the attachment
+   * @param size         The size of the attachment in octets
+   * @param hash         The hash of the attachment content
+   * @param owner        The user that uploaded the attachment
+   * @param time         The time the attachment was uploaded
+   */
+
+  public IcTicketAttachment
+  {
+    Objects.requireNonNull(ticket, "ticket");
+    Objects.requireNonNull(name, "name");
+    Objects.requireNonNull(contentType, "contentType");
+    Objects.requireNonNull(hash, "hash");
+    Objects.requireNonNull(owner, "owner");
+    Objects.requireNonNull(time, "time");
+
+    if (size < 0L) {
+      throw new IcValidityException(
+        "Attachment size %d must be non-negative."
+          .formatted(Long.valueOf(size))
+      );
+    }
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.model;
+
+import java.util.Objects;
+
+/**
+ * Information needed to attach a file to a ticket. The content of the file
+ * must already have been stored under the given hash.
+ *
+ * @param ticket      The ticket
+ * @param name        The file name of the attachment
+ * @param contentType The media type of the attachment
+ * @param size        The size of the attachment in octets
+ * @param hash        The hash of the attachment content
+ */
+
+public record IcTicketAttachmentCreation(
+  IcTicketID ticket,
+  String name,
+  String contentType,
+  long size,
+  IcHash hash)
+{
+  /**
+   * Information needed to attach a file to a ticket.
+   *
+   * @param ticket      The ticket
+   * @param name        The file name of the attachment
+   * @param contentType The media type of the attachment
+   * @param size        The size of the attachment in octets
+   * @param hash        The hash of the attachment content
+   */
+
+  public IcTicketAttachmentCreation
+  {
+    Objects.requireNonNull(ticket, "ticket");
+    Objects.requireNonNull(name, "name");
+    Objects.requireNonNull(contentType, "contentType");
+    Objects.requireNonNull(hash, "hash");
+
+    if (size < 0L) {
+      throw new IcValidityException(
+        "Attachment size %d must be non-negative."
+          .formatted(Long.valueOf(size))
+      );
+    }
+  }
+}
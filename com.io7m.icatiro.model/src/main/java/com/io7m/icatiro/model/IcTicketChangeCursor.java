@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.model;
+
+import java.util.Comparator;
+
+/**
+ * A position in the ticket change log. Changes are ordered first by the
+ * transaction that made them, and then by their sequence number within the
+ * log. A cursor is opaque to clients; the cursor returned with a set of
+ * changes should be passed back to the server to receive the changes that
+ * follow.
+ *
+ * @param transaction The transaction component
+ * @param sequence    The sequence component
+ */
+
+public record IcTicketChangeCursor(
+  long transaction,
+  long sequence)
+  implements Comparable<IcTicketChangeCursor>
+{
+  private static final IcTicketChangeCursor START =
+    new IcTicketChangeCursor(0L, 0L);
+
+  /**
+   * A position in the ticket change log.
+   *
+   * @param transaction The transaction component
+   * @param sequence    The sequence component
+   */
+
+  public IcTicketChangeCursor
+  {
+    if (transaction < 0L || sequence < 0L) {
+      throw new IcValidityException(
+        "Change cursor components (%d, %d) must be non-negative."
+          .formatted(Long.valueOf(transaction), Long.valueOf(sequence))
+      );
+    }
+  }
+
+  /**
+   * @return The cursor that precedes all changes in the log
+   */
+
+  public static IcTicketChangeCursor start()
+  {
+    return START;
+  }
+
+  @Override
+  public int compareTo(
+    final IcTicketChangeCursor other)
+  {
+    return Comparator.comparingLong(IcTicketChangeCursor::transaction)
+      .thenComparingLong(IcTicketChangeCursor::sequence)
+      .compare(this, other);
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.model;
+
+/**
+ * The kind of change made to a ticket.
+ */
+
+public enum IcTicketChangeKind
+{
+  /**
+   * A ticket was created.
+   */
+
+  TICKET_CREATED(1),
+
+  /**
+   * A comment was added to a ticket.
+   */
+
+  TICKET_COMMENT_CREATED(2),
+
+  /**
+   * The title or description of a ticket was updated.
+   */
+
+  TICKET_UPDATED(3);
+
+  private final int value;
+
+  IcTicketChangeKind(
+    final int inValue)
+  {
+    this.value = inValue;
+  }
+
+  /**
+   * @param x The integer
+   *
+   * @return The change kind value
+   */
+
+  public static IcTicketChangeKind ofInteger(
+    final int x)
+  {
+    for (final var value : values()) {
+      if (value.value == x) {
+        return value;
+      }
+    }
+
+    throw new IllegalArgumentException(
+      "Unrecognized change kind integer: %d".formatted(x)
+    );
+  }
+
+  /**
+   * @return The integer value of the enumeration
+   */
+
+  public int value()
+  {
+    return this.value;
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.model;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A set of changes from the ticket change log, in log order. The returned
+ * {@code next} cursor should be passed to the next request in order to
+ * receive only those changes that follow. The cursor may advance even if
+ * no changes are returned, as changes to tickets that the user cannot read
+ * are skipped.
+ *
+ * <p>Changes are only delivered once every transaction older than them has
+ * completed, and so a single long-running transaction holds back every
+ * change committed after it began. If committed changes following the
+ * cursor are being held back, {@code stalledSince} holds the time of the
+ * first of them in log order. This allows clients to distinguish a feed that is
+ * stalled from a feed that has no changes, and to measure how far behind
+ * the feed is.</p>
+ *
+ * @param changes      The changes
+ * @param next         The cursor that follows the returned changes
+ * @param stalledSince The time of the first change being held back, if any
+ */
+
+public record IcTicketChanges(
+  List<IcTicketChange> changes,
+  IcTicketChangeCursor next,
+  Optional<OffsetDateTime> stalledSince)
+{
+  /**
+   * A set of changes from the ticket change log.
+   *
+   * @param changes      The changes
+   * @param next         The cursor that follows the returned changes
+   * @param stalledSince The time of the first change being held back, if any
+   */
+
+  public IcTicketChanges
+  {
+    Objects.requireNonNull(changes, "changes");
+    Objects.requireNonNull(next, "next");
+    Objects.requireNonNull(stalledSince, "stalledSince");
+  }
+}
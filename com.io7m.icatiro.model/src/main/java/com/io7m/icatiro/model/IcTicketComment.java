@@ -39,6 +39,7 @@ public record IcTicketComment(
   long commentId,
   OptionalLong commentRepliedTo,
   String text)
+  implements IcTicketExportItemType
 {
   /**
    * A comment on a ticket.
@@ -59,4 +60,10 @@ public record IcTicketComment(
     Objects.requireNonNull(time, "time");
     Objects.requireNonNull(commentRepliedTo, "commentRepliedTo");
   }
+
+  @Override
+  public IcTicketID exportTicketId()
+  {
+    return this.ticket;
+  }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.model;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A ticket produced by a ticket export. The comments of the ticket are
+ * exported separately.
+ *
+ * @param id          The ticket ID
+ * @param title       The title
+ * @param timeCreated The creation time
+ * @param timeUpdated The update time
+ * @param version     The version of the ticket, incremented on each update
+ * @param reporter    The reporter
+ * @param description The description
+ * @param archived    {@code true} if the ticket is archived
+ */
+
+public record IcTicketExported(
+  IcTicketID id,
+  IcTicketTitle title,
+  OffsetDateTime timeCreated,
+  OffsetDateTime timeUpdated,
+  long version,
+  UUID reporter,
+  String description,
+  boolean archived)
+  implements IcTicketExportItemType
+{
+  /**
+   * A ticket produced by a ticket export. The comments of the ticket are
+   * exported separately.
+   *
+   * @param id          The ticket ID
+   * @param title       The title
+   * @param timeCreated The creation time
+   * @param timeUpdated The update time
+   * @param version     The version of the ticket, incremented on each update
+   * @param reporter    The reporter
+   * @param description The description
+   * @param archived    {@code true} if the ticket is archived
+   */
+
+  public IcTicketExported
+  {
+    Objects.requireNonNull(id, "id");
+    Objects.requireNonNull(title, "title");
+    Objects.requireNonNull(timeCreated, "timeCreated");
+    Objects.requireNonNull(timeUpdated, "timeUpdated");
+    Objects.requireNonNull(reporter, "reporter");
+    Objects.requireNonNull(description, "description");
+
+    if (version < 1L) {
+      throw new IcValidityException(
+        "Ticket version %d must be positive."
+          .formatted(Long.valueOf(version))
+      );
+    }
+  }
+
+  @Override
+  public IcTicketID exportTicketId()
+  {
+    return this.id;
+  }
+}
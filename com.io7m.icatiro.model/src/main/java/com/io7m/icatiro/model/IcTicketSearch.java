@@ -33,6 +33,9 @@ import java.util.UUID;
  * @param titleSearch      The title search query
  * @param descriptionSearch       The text search query
  * @param reporter         The reporter, if any
+ * @param includeArchived  {@code true} if archived tickets should be
+ *                         returned
+ * @param projection       The information returned for each ticket
  */
 
 public record IcTicketSearch(
@@ -42,7 +45,9 @@ public record IcTicketSearch(
   int limit,
   Optional<String> titleSearch,
   Optional<String> descriptionSearch,
-  Optional<UUID> reporter)
+  Optional<UUID> reporter,
+  boolean includeArchived,
+  IcTicketSearchProjection projection)
 {
   /**
    * The immutable parameters required to search tickets.
@@ -56,6 +61,9 @@ public record IcTicketSearch(
    * @param titleSearch      The title search query
    * @param descriptionSearch       The text search query
    * @param reporter         The reporter, if any
+   * @param includeArchived  {@code true} if archived tickets should be
+   *                         returned
+   * @param projection       The information returned for each ticket
    */
 
   public IcTicketSearch
@@ -66,5 +74,6 @@ public record IcTicketSearch(
     Objects.requireNonNull(titleSearch, "titleSearch");
     Objects.requireNonNull(descriptionSearch, "textSearch");
     Objects.requireNonNull(reporter, "reporter");
+    Objects.requireNonNull(projection, "projection");
   }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.model;
+
+import java.util.List;
+import java.util.Objects;
+
+import static com.io7m.icatiro.model.IcPermission.TICKET_COMMENT;
+import static com.io7m.icatiro.model.IcPermission.TICKET_WRITE;
+
+/**
+ * A page of ticket search results, along with the permissions held by the
+ * searching user for each ticket in the page. Row {@code i} of the
+ * permission matrix corresponds to item {@code i} of the page.
+ *
+ * @param page        The page of tickets
+ * @param permissions The permissions held for each ticket
+ */
+
+public record IcTicketSearchPage(
+  IcPage<IcTicketSummaryType> page,
+  IcPermissionMatrix permissions)
+{
+  /**
+   * A page of ticket search results.
+   *
+   * @param page        The page of tickets
+   * @param permissions The permissions held for each ticket
+   */
+
+  public IcTicketSearchPage
+  {
+    Objects.requireNonNull(page, "page");
+    Objects.requireNonNull(permissions, "permissions");
+
+    if (permissions.rows() != page.items().size()) {
+      throw new IcValidityException(
+        "Permission matrix rows (%d) must match the page size (%d)."
+          .formatted(
+            Integer.valueOf(permissions.rows()),
+            Integer.valueOf(page.items().size()))
+      );
+    }
+  }
+
+  /**
+   * @return The tickets
+   */
+
+  public List<IcTicketSummaryType> items()
+  {
+    return this.page.items();
+  }
+
+  /**
+   * @return The page index
+   */
+
+  public int pageIndex()
+  {
+    return this.page.pageIndex();
+  }
+
+  /**
+   * @return The total page count
+   */
+
+  public int pageCount()
+  {
+    return this.page.pageCount();
+  }
+
+  /**
+   * @return The offset of the first item in the page
+   */
+
+  public long pageFirstOffset()
+  {
+    return this.page.pageFirstOffset();
+  }
+
+  /**
+   * @param index The index of a ticket in the page
+   *
+   * @return {@code true} if the user can write to the ticket
+   */
+
+  public boolean canWrite(
+    final int index)
+  {
+    return this.permissions.hasColumn(TICKET_WRITE)
+           && this.permissions.implies(index, TICKET_WRITE);
+  }
+
+  /**
+   * @param index The index of a ticket in the page
+   *
+   * @return {@code true} if the user can comment on the ticket
+   */
+
+  public boolean canComment(
+    final int index)
+  {
+    return this.permissions.hasColumn(TICKET_COMMENT)
+           && this.permissions.implies(index, TICKET_COMMENT);
+  }
+}
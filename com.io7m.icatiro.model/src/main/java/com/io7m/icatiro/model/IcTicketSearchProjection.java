@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.model;
+
+/**
+ * The information returned for each ticket that matches a search.
+ */
+
+public enum IcTicketSearchProjection
+{
+  /**
+   * Only the ticket ID is returned.
+   *
+   * @see IcTicketSummaryID
+   */
+
+  ID,
+
+  /**
+   * The ticket ID, title, and creation and update times are returned. All of
+   * these are stored with the ticket itself, and so no project or user
+   * information needs to be retrieved.
+   *
+   * @see IcTicketSummaryTitled
+   */
+
+  ID_AND_TITLE,
+
+  /**
+   * The ticket ID, title, and times are returned, along with the project
+   * title and short name, and the ID and name of the reporter.
+   *
+   * @see IcTicketSummary
+   */
+
+  FULL
+}
@@ -44,6 +44,7 @@ public record IcTicketSummary(
   OffsetDateTime timeUpdated,
   UUID reporter,
   IdName reporterName)
+  implements IcTicketSummaryType
 {
   /**
    * The short summary of a ticket.
@@ -78,4 +79,25 @@ public record IcTicketSummary(
   {
     return "%s-%s".formatted(this.projectShortName, this.ticketId);
   }
+
+  /**
+   * @param projection The projection
+   *
+   * @return This summary, reduced to the information in the given projection
+   */
+
+  public IcTicketSummaryType project(
+    final IcTicketSearchProjection projection)
+  {
+    return switch (projection) {
+      case ID -> new IcTicketSummaryID(this.ticketId);
+      case ID_AND_TITLE -> new IcTicketSummaryTitled(
+        this.ticketId,
+        this.ticketTitle,
+        this.timeCreated,
+        this.timeUpdated
+      );
+      case FULL -> this;
+    };
+  }
 }
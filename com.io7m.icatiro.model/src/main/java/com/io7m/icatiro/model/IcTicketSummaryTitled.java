@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.model;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+
+/**
+ * The summary of a ticket that consists of the information stored with the
+ * ticket itself.
+ *
+ * @param ticketId    The ticket ID
+ * @param ticketTitle The ticket title
+ * @param timeCreated The creation time for the ticket
+ * @param timeUpdated The last updated time for the ticket
+ *
+ * @see IcTicketSearchProjection#ID_AND_TITLE
+ */
+
+public record IcTicketSummaryTitled(
+  IcTicketID ticketId,
+  IcTicketTitle ticketTitle,
+  OffsetDateTime timeCreated,
+  OffsetDateTime timeUpdated)
+  implements IcTicketSummaryType
+{
+  /**
+   * The summary of a ticket that consists of the information stored with
+   * the ticket itself.
+   *
+   * @param ticketId    The ticket ID
+   * @param ticketTitle The ticket title
+   * @param timeCreated The creation time for the ticket
+   * @param timeUpdated The last updated time for the ticket
+   */
+
+  public IcTicketSummaryTitled
+  {
+    Objects.requireNonNull(ticketId, "ticketId");
+    Objects.requireNonNull(ticketTitle, "ticketTitle");
+    Objects.requireNonNull(timeCreated, "timeCreated");
+    Objects.requireNonNull(timeUpdated, "timeUpdated");
+  }
+}
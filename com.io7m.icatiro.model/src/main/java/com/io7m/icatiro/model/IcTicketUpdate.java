@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.model;
+
+import java.util.Objects;
+
+/**
+ * Information needed to update a ticket. The update is only applied if the
+ * current version of the ticket is {@code version}.
+ *
+ * @param ticket      The ticket
+ * @param version     The version of the ticket upon which the update is based
+ * @param title       The new ticket title
+ * @param description The new ticket description
+ */
+
+public record IcTicketUpdate(
+  IcTicketID ticket,
+  long version,
+  IcTicketTitle title,
+  String description)
+{
+  /**
+   * Information needed to update a ticket.
+   *
+   * @param ticket      The ticket
+   * @param version     The version of the ticket upon which the update is based
+   * @param title       The new ticket title
+   * @param description The new ticket description
+   */
+
+  public IcTicketUpdate
+  {
+    Objects.requireNonNull(ticket, "ticket");
+    Objects.requireNonNull(title, "title");
+    Objects.requireNonNull(description, "description");
+
+    if (version < 1L) {
+      throw new IcValidityException(
+        "Ticket version %d must be positive."
+          .formatted(Long.valueOf(version))
+      );
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.model;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import static java.util.Locale.ROOT;
+
+/**
+ * A token that identifies a particular state of a ticket. The token changes
+ * whenever the ticket is updated or a comment is added to the ticket, and
+ * so clients can use the token to determine whether a ticket they already
+ * hold is current.
+ *
+ * @param value The token string
+ */
+
+public record IcTicketVersionToken(String value)
+{
+  /**
+   * The pattern that defines a valid token.
+   */
+
+  public static final Pattern VALID_HEX =
+    Pattern.compile("[A-F0-9]{1,64}");
+
+  /**
+   * A token that identifies a particular state of a ticket.
+   *
+   * @param value The token string
+   */
+
+  public IcTicketVersionToken
+  {
+    Objects.requireNonNull(value, "value");
+
+    if (!VALID_HEX.matcher(value).matches()) {
+      throw new IcValidityException(
+        "Token value %s must match %s".formatted(value, VALID_HEX));
+    }
+  }
+
+  /**
+   * Calculate the token for a ticket. The update time is only considered
+   * to millisecond precision, as this is the precision with which times are
+   * transmitted to clients.
+   *
+   * @param version      The ticket version
+   * @param timeUpdated  The ticket update time
+   * @param commentCount The number of comments on the ticket
+   * @param commentMax   The largest comment ID on the ticket, or 0 if there
+   *                     are no comments
+   *
+   * @return The token
+   */
+
+  public static IcTicketVersionToken of(
+    final long version,
+    final OffsetDateTime timeUpdated,
+    final long commentCount,
+    final long commentMax)
+  {
+    Objects.requireNonNull(timeUpdated, "timeUpdated");
+
+    final var buffer = ByteBuffer.allocate(Long.BYTES * 4);
+    buffer.putLong(version);
+    buffer.putLong(timeUpdated.toInstant().toEpochMilli());
+    buffer.putLong(commentCount);
+    buffer.putLong(commentMax);
+
+    try {
+      final var digest =
+        MessageDigest.getInstance("SHA-256");
+      final var digestData =
+        Arrays.copyOf(digest.digest(buffer.array()), 16);
+
+      return new IcTicketVersionToken(
+        HexFormat.of().formatHex(digestData).toUpperCase(ROOT)
+      );
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return this.value;
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.model;
+
+import java.util.Objects;
+
+/**
+ * The result of watching a ticket for changes.
+ *
+ * @param ticket   The ticket
+ * @param changed  {@code true} if the ticket changed before the watch timed out
+ * @param revision The current revision of the ticket
+ */
+
+public record IcTicketWatchResult(
+  IcTicketID ticket,
+  boolean changed,
+  long revision)
+{
+  /**
+   * The result of watching a ticket for changes.
+   *
+   * @param ticket   The ticket
+   * @param changed  {@code true} if the ticket changed before the watch timed out
+   * @param revision The current revision of the ticket
+   */
+
+  public IcTicketWatchResult
+  {
+    Objects.requireNonNull(ticket, "ticket");
+  }
+}
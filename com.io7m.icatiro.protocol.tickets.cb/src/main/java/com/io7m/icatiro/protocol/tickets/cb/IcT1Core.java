@@ -0,0 +1,329 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.cedarbridge.runtime.api.CBBooleanType;
+import com.io7m.cedarbridge.runtime.api.CBFalse;
+import com.io7m.cedarbridge.runtime.api.CBIntegerUnsigned32;
+import com.io7m.cedarbridge.runtime.api.CBIntegerUnsigned64;
+import com.io7m.cedarbridge.runtime.api.CBIntegerUnsigned8;
+import com.io7m.cedarbridge.runtime.api.CBList;
+import com.io7m.cedarbridge.runtime.api.CBNone;
+import com.io7m.cedarbridge.runtime.api.CBOptionType;
+import com.io7m.cedarbridge.runtime.api.CBSerializableType;
+import com.io7m.cedarbridge.runtime.api.CBSome;
+import com.io7m.cedarbridge.runtime.api.CBString;
+import com.io7m.cedarbridge.runtime.api.CBTrue;
+import com.io7m.icatiro.model.IcPage;
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcTicketColumn;
+import com.io7m.icatiro.model.IcTicketColumnOrdering;
+import com.io7m.icatiro.model.IcTicketID;
+import com.io7m.icatiro.model.IcTimeRange;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static com.io7m.cedarbridge.runtime.api.CBCore.string;
+import static com.io7m.cedarbridge.runtime.api.CBCore.unsigned64;
+import static com.io7m.icatiro.protocol.tickets.cb.Ic1TicketColumn.ByID;
+import static com.io7m.icatiro.protocol.tickets.cb.Ic1TicketColumn.ByTimeCreated;
+import static com.io7m.icatiro.protocol.tickets.cb.Ic1TicketColumn.ByTimeUpdated;
+import static com.io7m.icatiro.protocol.tickets.cb.Ic1TicketColumn.ByTitle;
+
+/**
+ * Conversions of the values shared by the version 1 messages.
+ */
+
+final class IcT1Core
+{
+  /*
+   * Values that carry no data are shared rather than allocated for each
+   * message.
+   */
+
+  private static final CBBooleanType WIRE_TRUE =
+    new CBTrue();
+  private static final CBBooleanType WIRE_FALSE =
+    new CBFalse();
+  private static final CBOptionType<CBIntegerUnsigned64> WIRE_NONE_U64 =
+    new CBNone<>();
+  private static final CBOptionType<CBString> WIRE_NONE_STRING =
+    new CBNone<>();
+  private static final CBOptionType<Ic1UUID> WIRE_NONE_UUID =
+    new CBNone<>();
+
+  private IcT1Core()
+  {
+
+  }
+
+  static CBOptionType<CBIntegerUnsigned64> fromOptionalLong(
+    final OptionalLong x)
+  {
+    if (x.isPresent()) {
+      return new CBSome<>(unsigned64(x.getAsLong()));
+    }
+    return WIRE_NONE_U64;
+  }
+
+  static CBOptionType<CBString> toWireOptionalString(
+    final Optional<String> x)
+  {
+    if (x.isPresent()) {
+      return new CBSome<>(string(x.get()));
+    }
+    return WIRE_NONE_STRING;
+  }
+
+  static CBOptionType<Ic1UUID> toWireOptionalUUID(
+    final Optional<UUID> x)
+  {
+    if (x.isPresent()) {
+      return new CBSome<>(toWireUUID(x.get()));
+    }
+    return WIRE_NONE_UUID;
+  }
+
+  static CBBooleanType toWireBoolean(
+    final boolean x)
+  {
+    return x ? WIRE_TRUE : WIRE_FALSE;
+  }
+
+  static <A, B extends CBSerializableType> CBList<B> toWireList(
+    final Collection<A> items,
+    final Function<A, B> f)
+  {
+    final var results = new ArrayList<B>(items.size());
+    for (final var item : items) {
+      results.add(f.apply(item));
+    }
+    return new CBList<>(results);
+  }
+
+  static <A extends CBSerializableType, B> List<B> fromWireList(
+    final CBList<A> items,
+    final Function<A, B> f)
+  {
+    final var values = items.values();
+    final var size = values.size();
+    final var results = new ArrayList<B>(size);
+    for (int index = 0; index < size; ++index) {
+      results.add(f.apply(values.get(index)));
+    }
+    return Collections.unmodifiableList(results);
+  }
+
+  static <A, B extends CBSerializableType> Ic1Page<B> toWirePage(
+    final IcPage<A> page,
+    final Function<A, B> f)
+  {
+    return new Ic1Page<>(
+      toWireList(page.items(), f),
+      new CBIntegerUnsigned32(Integer.toUnsignedLong(page.pageIndex())),
+      new CBIntegerUnsigned32(Integer.toUnsignedLong(page.pageCount())),
+      new CBIntegerUnsigned64(page.pageFirstOffset())
+    );
+  }
+
+  static Ic1TicketID toWireTicketId(
+    final IcTicketID ticketId)
+  {
+    return new Ic1TicketID(
+      unsigned64(ticketId.project().value()),
+      unsigned64(ticketId.value())
+    );
+  }
+
+  static Ic1UUID toWireUUID(
+    final UUID id)
+  {
+    return new Ic1UUID(
+      unsigned64(id.getMostSignificantBits()),
+      unsigned64(id.getLeastSignificantBits())
+    );
+  }
+
+  static Ic1TicketColumnOrdering toWireTicketColumnOrdering(
+    final IcTicketColumnOrdering o)
+  {
+    return new Ic1TicketColumnOrdering(
+      toWireTicketColumn(o.column()),
+      toWireBoolean(o.ascending())
+    );
+  }
+
+  private static Ic1TicketColumn toWireTicketColumn(
+    final IcTicketColumn column)
+  {
+    return switch (column) {
+      case BY_ID -> new ByID();
+      case BY_TITLE -> new ByTitle();
+      case BY_TIME_CREATED -> new ByTimeCreated();
+      case BY_TIME_UPDATED -> new ByTimeUpdated();
+    };
+  }
+
+  static Ic1TimeRange toWireTimeRange(
+    final IcTimeRange timeRange)
+  {
+    return new Ic1TimeRange(
+      toWireTimestamp(timeRange.timeLower()),
+      toWireTimestamp(timeRange.timeUpper())
+    );
+  }
+
+  static OptionalLong toOptionalLong(
+    final CBOptionType<CBIntegerUnsigned64> x)
+  {
+    if (x instanceof CBSome<CBIntegerUnsigned64> some) {
+      return OptionalLong.of(some.value().value());
+    }
+    return OptionalLong.empty();
+  }
+
+  static UUID fromWireUUID(
+    final Ic1UUID uuid)
+  {
+    return new UUID(
+      uuid.fieldMsb().value(),
+      uuid.fieldLsb().value()
+    );
+  }
+
+  static <A extends CBSerializableType, B> IcPage<B> fromWirePage(
+    final Ic1Page<A> page,
+    final Function<A, B> f)
+  {
+    return new IcPage<>(
+      fromWireList(page.fieldItems(), f),
+      (int) page.fieldPageIndex().value(),
+      (int) page.fieldPageCount().value(),
+      page.fieldPageFirstOffset().value()
+    );
+  }
+
+  static IcTicketID fromWireTicketId(
+    final Ic1TicketID ticketID)
+  {
+    return new IcTicketID(
+      new IcProjectID(ticketID.fieldProject().value()),
+      ticketID.fieldTicket().value()
+    );
+  }
+
+  static IcTimeRange fromWireTimeRange(
+    final Ic1TimeRange range)
+  {
+    return new IcTimeRange(
+      fromWireTimestamp(range.fieldLower()),
+      fromWireTimestamp(range.fieldUpper())
+    );
+  }
+
+  static Ic1TimestampUTC toWireTimestamp(
+    final OffsetDateTime t)
+  {
+    return new Ic1TimestampUTC(
+      new CBIntegerUnsigned32(Integer.toUnsignedLong(t.getYear())),
+      new CBIntegerUnsigned8(t.getMonthValue()),
+      new CBIntegerUnsigned8(t.getDayOfMonth()),
+      new CBIntegerUnsigned8(t.getHour()),
+      new CBIntegerUnsigned8(t.getMinute()),
+      new CBIntegerUnsigned8(t.getSecond()),
+      new CBIntegerUnsigned32(Integer.toUnsignedLong(t.getNano() / 1000))
+    );
+  }
+
+  static OffsetDateTime fromWireTimestamp(
+    final Ic1TimestampUTC t)
+  {
+    return OffsetDateTime.of(
+      (int) (t.fieldYear().value() & 0xffffffffL),
+      t.fieldMonth().value(),
+      t.fieldDay().value(),
+      t.fieldHour().value(),
+      t.fieldMinute().value(),
+      t.fieldSecond().value(),
+      (int) (t.fieldMillisecond().value() * 1000L),
+      ZoneOffset.UTC
+    );
+  }
+
+  static Ic1Date toWireDate(
+    final LocalDate d)
+  {
+    return new Ic1Date(
+      new CBIntegerUnsigned32(Integer.toUnsignedLong(d.getYear())),
+      new CBIntegerUnsigned8(d.getMonthValue()),
+      new CBIntegerUnsigned8(d.getDayOfMonth())
+    );
+  }
+
+  static LocalDate fromWireDate(
+    final Ic1Date d)
+  {
+    return LocalDate.of(
+      (int) (d.fieldYear().value() & 0xffffffffL),
+      d.fieldMonth().value(),
+      d.fieldDay().value()
+    );
+  }
+
+  private static List<IcTicketColumnOrdering> fromWireColumnOrderings(
+    final CBList<Ic1TicketColumnOrdering> c)
+  {
+    return fromWireList(c, IcT1Core::fromWireColumnOrdering);
+  }
+
+  static IcTicketColumnOrdering fromWireColumnOrdering(
+    final Ic1TicketColumnOrdering o)
+  {
+    return new IcTicketColumnOrdering(
+      fromWireTicketColumn(o.fieldColumn()),
+      o.fieldAscending().asBoolean()
+    );
+  }
+
+  private static IcTicketColumn fromWireTicketColumn(
+    final Ic1TicketColumn c)
+  {
+    if (c instanceof ByID) {
+      return IcTicketColumn.BY_ID;
+    } else if (c instanceof ByTimeCreated) {
+      return IcTicketColumn.BY_TIME_CREATED;
+    } else if (c instanceof ByTimeUpdated) {
+      return IcTicketColumn.BY_TIME_UPDATED;
+    } else if (c instanceof ByTitle) {
+      return IcTicketColumn.BY_TITLE;
+    }
+
+    throw new IllegalArgumentException(
+      "Unrecognized user column: %s".formatted(c)
+    );
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.protocol.tickets.IcTResponseError;
+
+import static com.io7m.cedarbridge.runtime.api.CBCore.string;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireUUID;
+
+/**
+ * Conversions of the version 1 error messages.
+ */
+
+final class IcT1Errors
+{
+  private IcT1Errors()
+  {
+
+  }
+
+  /**
+   * Register the converters for errors.
+   *
+   * @param toWire   The table of conversions to the wire
+   * @param fromWire The table of conversions from the wire
+   */
+
+  static void register(
+    final IcTConverterTable<IcTMessageType, ProtocolTicketsv1Type> toWire,
+    final IcTConverterTable<ProtocolTicketsv1Type, IcTMessageType> fromWire)
+  {
+    toWire.add(IcTResponseError.class, IcT1Errors::toWireResponseError);
+
+    fromWire.add(Ic1ResponseError.class, IcT1Errors::fromWireResponseError);
+  }
+
+  private static ProtocolTicketsv1Type toWireResponseError(
+    final IcTResponseError cc)
+  {
+    return new Ic1ResponseError(
+      toWireUUID(cc.requestId()),
+      string(cc.errorCode()),
+      string(cc.message())
+    );
+  }
+
+  private static IcTMessageType fromWireResponseError(
+    final Ic1ResponseError m)
+  {
+    return new IcTResponseError(
+      fromWireUUID(m.fieldRequestId()),
+      m.fieldErrorCode().value(),
+      m.fieldMessage().value()
+    );
+  }
+}
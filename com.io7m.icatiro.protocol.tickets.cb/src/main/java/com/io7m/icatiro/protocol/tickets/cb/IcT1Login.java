@@ -0,0 +1,199 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.cedarbridge.runtime.api.CBList;
+import com.io7m.cedarbridge.runtime.api.CBString;
+import com.io7m.icatiro.model.IcUser;
+import com.io7m.icatiro.protocol.IcProtocolException;
+import com.io7m.icatiro.protocol.tickets.IcTCommandLogin;
+import com.io7m.icatiro.protocol.tickets.IcTCommandLoginCompact;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.protocol.tickets.IcTResponseLogin;
+import com.io7m.icatiro.protocol.tickets.IcTResponseLoginCompact;
+import com.io7m.idstore.model.IdEmail;
+import com.io7m.idstore.model.IdName;
+
+import java.util.List;
+
+import static com.io7m.cedarbridge.runtime.api.CBCore.string;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.PROTOCOL_ERROR;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireList;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireList;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Permissions.fromWirePermissionSet;
+
+/**
+ * Conversions of the version 1 login messages.
+ */
+
+final class IcT1Login
+{
+  private IcT1Login()
+  {
+
+  }
+
+  /**
+   * Register the converters for logging in.
+   *
+   * @param toWire   The table of conversions to the wire
+   * @param fromWire The table of conversions from the wire
+   */
+
+  static void register(
+    final IcTConverterTable<IcTMessageType, ProtocolTicketsv1Type> toWire,
+    final IcTConverterTable<ProtocolTicketsv1Type, IcTMessageType> fromWire)
+  {
+    toWire.add(IcTCommandLogin.class, IcT1Login::toWireCommandLogin);
+    toWire.add(
+      IcTCommandLoginCompact.class,
+      IcT1Login::toWireCommandLoginCompact
+    );
+    toWire.add(IcTResponseLogin.class, IcT1Login::toWireResponseLogin);
+    toWire.add(
+      IcTResponseLoginCompact.class,
+      IcT1Login::toWireResponseLoginCompact
+    );
+
+    fromWire.add(Ic1CommandLogin.class, IcT1Login::fromWireCommandLogin);
+    fromWire.add(
+      Ic1CommandLoginCompact.class,
+      IcT1Login::fromWireCommandLoginCompact
+    );
+    fromWire.add(Ic1ResponseLogin.class, IcT1Login::fromWireResponseLogin);
+    fromWire.add(
+      Ic1ResponseLoginCompact.class,
+      IcT1Login::fromWireResponseLoginCompact
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireResponseLogin(
+    final IcTResponseLogin cc)
+  {
+    return new Ic1ResponseLogin(
+      toWireUUID(cc.requestId()),
+      toWireUser(cc.user())
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireResponseLoginCompact(
+    final IcTResponseLoginCompact cc)
+  {
+    return new Ic1ResponseLoginCompact(
+      toWireUUID(cc.requestId()),
+      toWireUser(cc.user())
+    );
+  }
+
+  private static Ic1User toWireUser(
+    final IcUser user)
+  {
+    return new Ic1User(
+      toWireUUID(user.id()),
+      string(user.name().value()),
+      toWireList(user.emails(), e -> string(e.value())),
+      new CBList<>(
+        user.permissions()
+          .stream()
+          .map(IcT1Permissions::toWirePermissionScoped)
+          .toList()
+      )
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireCommandLogin(
+    final IcTCommandLogin cc)
+  {
+    return new Ic1CommandLogin(
+      string(cc.userName()),
+      string(cc.password())
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireCommandLoginCompact(
+    final IcTCommandLoginCompact cc)
+  {
+    return new Ic1CommandLoginCompact(
+      string(cc.userName()),
+      string(cc.password())
+    );
+  }
+
+  private static IcTMessageType fromWireResponseLogin(
+    final Ic1ResponseLogin m)
+    throws IcProtocolException
+  {
+    return new IcTResponseLogin(
+      fromWireUUID(m.fieldRequestId()),
+      fromWireUser(m.fieldUser())
+    );
+  }
+
+  private static IcTMessageType fromWireResponseLoginCompact(
+    final Ic1ResponseLoginCompact m)
+    throws IcProtocolException
+  {
+    return new IcTResponseLoginCompact(
+      fromWireUUID(m.fieldRequestId()),
+      fromWireUser(m.fieldUser())
+    );
+  }
+
+  private static IcUser fromWireUser(
+    final Ic1User user)
+    throws IcProtocolException
+  {
+    return new IcUser(
+      fromWireUUID(user.fieldId()),
+      new IdName(user.fieldIdName().value()),
+      fromWireEmails(user.fieldEmails()),
+      fromWirePermissionSet(user.fieldPermissions())
+    );
+  }
+
+  private static List<IdEmail> fromWireEmails(
+    final CBList<CBString> fieldEmails)
+    throws IcProtocolException
+  {
+    final var es = fieldEmails.values();
+    if (es.isEmpty()) {
+      throw new IcProtocolException(PROTOCOL_ERROR, "Emails list is empty!");
+    }
+
+    return fromWireList(fieldEmails, e -> new IdEmail(e.value()));
+  }
+
+  private static IcTMessageType fromWireCommandLogin(
+    final Ic1CommandLogin login)
+  {
+    return new IcTCommandLogin(
+      login.fieldUserName().value(),
+      login.fieldPassword().value()
+    );
+  }
+
+  private static IcTMessageType fromWireCommandLoginCompact(
+    final Ic1CommandLoginCompact login)
+  {
+    return new IcTCommandLoginCompact(
+      login.fieldUserName().value(),
+      login.fieldPassword().value()
+    );
+  }
+}
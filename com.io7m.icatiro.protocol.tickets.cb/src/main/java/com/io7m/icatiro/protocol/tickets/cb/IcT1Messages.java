@@ -30,6 +30,8 @@ import com.io7m.jbssio.vanilla.BSSWriters;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -129,13 +131,47 @@ public final class IcT1Messages
     final IcTMessageType message)
     throws IcProtocolException
   {
-    try (var output = new ByteArrayOutputStream()) {
+    final var output = new ByteArrayOutputStream();
+    this.serialize(message, output);
+    return output.toByteArray();
+  }
+
+  @Override
+  public IcTMessageType parse(
+    final InputStream input)
+    throws IcProtocolException
+  {
+    Objects.requireNonNull(input, "input");
+
+    final var context =
+      CBSerializationContextBSSIO.createFromInputStream(this.readers, input);
+
+    try {
+      return this.validator.convertFromWire(
+        (ProtocolTicketsv1Type) this.serializer.deserialize(context)
+      );
+    } catch (final IOException e) {
+      throw new IcProtocolException(IO_ERROR, e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public void serialize(
+    final IcTMessageType message,
+    final OutputStream output)
+    throws IcProtocolException
+  {
+    Objects.requireNonNull(output, "output");
+
+    final var wire = this.validator.convertToWire(message);
+
+    try {
       final var context =
         CBSerializationContextBSSIO.createFromOutputStream(
           this.writers,
           output);
-      this.serializer.serialize(context, this.validator.convertToWire(message));
-      return output.toByteArray();
+      this.serializer.serialize(context, wire);
+      output.flush();
     } catch (final IOException e) {
       throw new IcProtocolException(IO_ERROR, e.getMessage(), e);
     }
@@ -0,0 +1,327 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.cedarbridge.runtime.api.CBIntegerUnsigned32;
+import com.io7m.cedarbridge.runtime.api.CBList;
+import com.io7m.icatiro.model.IcPermission;
+import com.io7m.icatiro.model.IcPermissionGlobal;
+import com.io7m.icatiro.model.IcPermissionMatrix;
+import com.io7m.icatiro.model.IcPermissionProjectwide;
+import com.io7m.icatiro.model.IcPermissionScopedType;
+import com.io7m.icatiro.model.IcPermissionSet;
+import com.io7m.icatiro.model.IcPermissionTicketwide;
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcUserPermission;
+import com.io7m.icatiro.protocol.tickets.IcTCommandPermissionGrant;
+import com.io7m.icatiro.protocol.tickets.IcTCommandPermissionGrantMany;
+import com.io7m.icatiro.protocol.tickets.IcTCommandPermissionRevokeMany;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.protocol.tickets.IcTResponsePermissionGrant;
+import com.io7m.icatiro.protocol.tickets.IcTResponsePermissionGrantMany;
+import com.io7m.icatiro.protocol.tickets.IcTResponsePermissionRevokeMany;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static com.io7m.cedarbridge.runtime.api.CBCore.unsigned64;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireList;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireList;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireUUID;
+
+/**
+ * Conversions of the version 1 messages that carry permissions.
+ */
+
+final class IcT1Permissions
+{
+  private static final Ic1Permission WIRE_TICKET_READ =
+    new Ic1Permission.TicketRead();
+  private static final Ic1Permission WIRE_TICKET_WRITE =
+    new Ic1Permission.TicketWrite();
+  private static final Ic1Permission WIRE_TICKET_CREATE =
+    new Ic1Permission.TicketCreate();
+  private static final Ic1Permission WIRE_TICKET_COMMENT =
+    new Ic1Permission.TicketComment();
+  private static final Ic1Permission WIRE_PROJECT_CREATE =
+    new Ic1Permission.ProjectCreate();
+
+  private static final Map<Class<?>, IcPermission> FROM_WIRE_PERMISSION =
+    Map.ofEntries(
+      Map.entry(Ic1Permission.TicketRead.class, IcPermission.TICKET_READ),
+      Map.entry(Ic1Permission.TicketWrite.class, IcPermission.TICKET_WRITE),
+      Map.entry(Ic1Permission.TicketCreate.class, IcPermission.TICKET_CREATE),
+      Map.entry(Ic1Permission.TicketComment.class, IcPermission.TICKET_COMMENT),
+      Map.entry(Ic1Permission.ProjectCreate.class, IcPermission.PROJECT_CREATE)
+    );
+
+  private IcT1Permissions()
+  {
+
+  }
+
+  /**
+   * Register the converters for permissions.
+   *
+   * @param toWire   The table of conversions to the wire
+   * @param fromWire The table of conversions from the wire
+   */
+
+  static void register(
+    final IcTConverterTable<IcTMessageType, ProtocolTicketsv1Type> toWire,
+    final IcTConverterTable<ProtocolTicketsv1Type, IcTMessageType> fromWire)
+  {
+    toWire.add(
+      IcTCommandPermissionGrant.class,
+      IcT1Permissions::toWireCommandPermissionGrant
+    );
+    toWire.add(IcTCommandPermissionGrantMany.class, cc -> {
+      return new Ic1CommandPermissionGrantMany(
+        toWireUserPermissions(cc.permissions())
+      );
+    });
+    toWire.add(IcTCommandPermissionRevokeMany.class, cc -> {
+      return new Ic1CommandPermissionRevokeMany(
+        toWireUserPermissions(cc.permissions())
+      );
+    });
+    toWire.add(
+      IcTResponsePermissionGrant.class,
+      IcT1Permissions::toWireResponsePermissionGrant
+    );
+    toWire.add(IcTResponsePermissionGrantMany.class, cc -> {
+      return new Ic1ResponsePermissionGrantMany(
+        toWireUUID(cc.requestId())
+      );
+    });
+    toWire.add(IcTResponsePermissionRevokeMany.class, cc -> {
+      return new Ic1ResponsePermissionRevokeMany(
+        toWireUUID(cc.requestId())
+      );
+    });
+
+    fromWire.add(
+      Ic1CommandPermissionGrant.class,
+      IcT1Permissions::fromWireCommandPermissionGrant
+    );
+    fromWire.add(Ic1CommandPermissionGrantMany.class, m -> {
+      return new IcTCommandPermissionGrantMany(
+        fromWireUserPermissions(m.fieldPermissions())
+      );
+    });
+    fromWire.add(Ic1CommandPermissionRevokeMany.class, m -> {
+      return new IcTCommandPermissionRevokeMany(
+        fromWireUserPermissions(m.fieldPermissions())
+      );
+    });
+    fromWire.add(
+      Ic1ResponsePermissionGrant.class,
+      IcT1Permissions::fromWireResponsePermissionGrant
+    );
+    fromWire.add(Ic1ResponsePermissionGrantMany.class, m -> {
+      return new IcTResponsePermissionGrantMany(
+        fromWireUUID(m.fieldRequestId())
+      );
+    });
+    fromWire.add(Ic1ResponsePermissionRevokeMany.class, m -> {
+      return new IcTResponsePermissionRevokeMany(
+        fromWireUUID(m.fieldRequestId())
+      );
+    });
+  }
+
+  private static ProtocolTicketsv1Type toWireResponsePermissionGrant(
+    final IcTResponsePermissionGrant cc)
+  {
+    return new Ic1ResponsePermissionGrant(
+      toWireUUID(cc.requestId())
+    );
+  }
+
+  static Ic1PermissionScoped toWirePermissionScoped(
+    final IcPermissionScopedType scoped)
+  {
+    if (scoped instanceof IcPermissionGlobal global) {
+      return new Ic1PermissionScoped.Global(
+        toWirePermission(global.permission())
+      );
+    }
+
+    if (scoped instanceof IcPermissionProjectwide projectwide) {
+      return new Ic1PermissionScoped.Projectwide(
+        unsigned64(projectwide.projectId().value()),
+        toWirePermission(projectwide.permission())
+      );
+    }
+
+    if (scoped instanceof IcPermissionTicketwide ticketwide) {
+      return new Ic1PermissionScoped.Ticketwide(
+        toWireTicketId(ticketwide.ticketId()),
+        toWirePermission(ticketwide.permission())
+      );
+    }
+
+    throw new IllegalStateException(
+      "Unrecognized scoped permission: %s".formatted(scoped)
+    );
+  }
+
+  static Ic1PermissionMatrix toWirePermissionMatrix(
+    final IcPermissionMatrix matrix)
+  {
+    final var rows = new ArrayList<CBIntegerUnsigned32>(matrix.rows());
+    for (int row = 0; row < matrix.rows(); ++row) {
+      rows.add(new CBIntegerUnsigned32(
+        Integer.toUnsignedLong(matrix.rowMask(row))));
+    }
+
+    return new Ic1PermissionMatrix(
+      toWireList(matrix.columns(), IcT1Permissions::toWirePermission),
+      new CBList<>(rows)
+    );
+  }
+
+  private static Ic1Permission toWirePermission(
+    final IcPermission permission)
+  {
+    return switch (permission) {
+      case TICKET_READ -> WIRE_TICKET_READ;
+      case TICKET_WRITE -> WIRE_TICKET_WRITE;
+      case TICKET_CREATE -> WIRE_TICKET_CREATE;
+      case TICKET_COMMENT -> WIRE_TICKET_COMMENT;
+      case PROJECT_CREATE -> WIRE_PROJECT_CREATE;
+    };
+  }
+
+  private static CBList<Ic1UserPermission> toWireUserPermissions(
+    final List<IcUserPermission> permissions)
+  {
+    return toWireList(permissions, p -> {
+      return new Ic1UserPermission(
+        toWireUUID(p.user()),
+        toWirePermissionScoped(p.permission())
+      );
+    });
+  }
+
+  private static ProtocolTicketsv1Type toWireCommandPermissionGrant(
+    final IcTCommandPermissionGrant cc)
+  {
+    return new Ic1CommandPermissionGrant(
+      toWireUUID(cc.targetUser()),
+      toWirePermissionScoped(cc.permission())
+    );
+  }
+
+  private static IcTMessageType fromWireResponsePermissionGrant(
+    final Ic1ResponsePermissionGrant m)
+  {
+    return new IcTResponsePermissionGrant(fromWireUUID(m.fieldRequestId()));
+  }
+
+  private static List<IcUserPermission> fromWireUserPermissions(
+    final CBList<Ic1UserPermission> permissions)
+  {
+    return fromWireList(permissions, p -> {
+      return new IcUserPermission(
+        fromWireUUID(p.fieldUser()),
+        fromWirePermissionScoped(p.fieldPermission())
+      );
+    });
+  }
+
+  private static IcTMessageType fromWireCommandPermissionGrant(
+    final Ic1CommandPermissionGrant m)
+  {
+    return new IcTCommandPermissionGrant(
+      fromWireUUID(m.fieldTargetUser()),
+      fromWirePermissionScoped(m.fieldPermission())
+    );
+  }
+
+  static IcPermissionSet fromWirePermissionSet(
+    final CBList<Ic1PermissionScoped> permissions)
+  {
+    final var builder = IcPermissionSet.builder();
+    for (final var permission : permissions.values()) {
+      builder.add(fromWirePermissionScoped(permission));
+    }
+    return builder.build();
+  }
+
+  private static IcPermissionScopedType fromWirePermissionScoped(
+    final Ic1PermissionScoped p)
+  {
+    if (p instanceof Ic1PermissionScoped.Global global) {
+      return new IcPermissionGlobal(
+        fromWirePermission(global.fieldPermission())
+      );
+    }
+
+    if (p instanceof Ic1PermissionScoped.Projectwide projectwide) {
+      return new IcPermissionProjectwide(
+        new IcProjectID(projectwide.fieldProject().value()),
+        fromWirePermission(projectwide.fieldPermission())
+      );
+    }
+
+    if (p instanceof Ic1PermissionScoped.Ticketwide ticketwide) {
+      return new IcPermissionTicketwide(
+        fromWireTicketId(ticketwide.fieldTicket()),
+        fromWirePermission(ticketwide.fieldPermission())
+      );
+    }
+
+    throw new IllegalStateException(
+      "Unrecognized scoped permission: %s".formatted(p)
+    );
+  }
+
+  static IcPermissionMatrix fromWirePermissionMatrix(
+    final Ic1PermissionMatrix m)
+  {
+    final var columns = EnumSet.noneOf(IcPermission.class);
+    for (final var column : m.fieldColumns().values()) {
+      columns.add(fromWirePermission(column));
+    }
+
+    final var wireRows = m.fieldRows().values();
+    final var rows = new int[wireRows.size()];
+    for (int row = 0; row < rows.length; ++row) {
+      rows[row] = (int) wireRows.get(row).value();
+    }
+    return IcPermissionMatrix.ofMasks(columns, rows);
+  }
+
+  private static IcPermission fromWirePermission(
+    final Ic1Permission p)
+  {
+    final var permission = FROM_WIRE_PERMISSION.get(p.getClass());
+    if (permission != null) {
+      return permission;
+    }
+
+    throw new IllegalStateException(
+      "Unrecognized permission: %s".formatted(p)
+    );
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.icatiro.model.IcProject;
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcProjectShortName;
+import com.io7m.icatiro.model.IcProjectStatistics;
+import com.io7m.icatiro.model.IcProjectStatisticsDay;
+import com.io7m.icatiro.model.IcProjectTitle;
+import com.io7m.icatiro.protocol.tickets.IcTCommandProjectCreate;
+import com.io7m.icatiro.protocol.tickets.IcTCommandProjectStatistics;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.protocol.tickets.IcTResponseProjectCreate;
+import com.io7m.icatiro.protocol.tickets.IcTResponseProjectStatistics;
+
+import static com.io7m.cedarbridge.runtime.api.CBCore.string;
+import static com.io7m.cedarbridge.runtime.api.CBCore.unsigned64;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireDate;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireList;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireTimeRange;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireDate;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireList;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireTimeRange;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireUUID;
+
+/**
+ * Conversions of the version 1 messages that carry projects.
+ */
+
+final class IcT1Projects
+{
+  private IcT1Projects()
+  {
+
+  }
+
+  /**
+   * Register the converters for projects.
+   *
+   * @param toWire   The table of conversions to the wire
+   * @param fromWire The table of conversions from the wire
+   */
+
+  static void register(
+    final IcTConverterTable<IcTMessageType, ProtocolTicketsv1Type> toWire,
+    final IcTConverterTable<ProtocolTicketsv1Type, IcTMessageType> fromWire)
+  {
+    toWire.add(
+      IcTCommandProjectCreate.class,
+      IcT1Projects::toWireCommandProjectCreate
+    );
+    toWire.add(
+      IcTCommandProjectStatistics.class,
+      IcT1Projects::toWireCommandProjectStatistics
+    );
+    toWire.add(
+      IcTResponseProjectCreate.class,
+      IcT1Projects::toWireResponseProjectCreate
+    );
+    toWire.add(
+      IcTResponseProjectStatistics.class,
+      IcT1Projects::toWireResponseProjectStatistics
+    );
+
+    fromWire.add(
+      Ic1CommandProjectCreate.class,
+      IcT1Projects::fromWireCommandProjectCreate
+    );
+    fromWire.add(
+      Ic1CommandProjectStatistics.class,
+      IcT1Projects::fromWireCommandProjectStatistics
+    );
+    fromWire.add(
+      Ic1ResponseProjectCreate.class,
+      IcT1Projects::fromWireResponseProjectCreate
+    );
+    fromWire.add(
+      Ic1ResponseProjectStatistics.class,
+      IcT1Projects::fromWireResponseProjectStatistics
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireResponseProjectStatistics(
+    final IcTResponseProjectStatistics cc)
+  {
+    return new Ic1ResponseProjectStatistics(
+      toWireUUID(cc.requestId()),
+      toWireProjectStatistics(cc.statistics())
+    );
+  }
+
+  private static Ic1ProjectStatistics toWireProjectStatistics(
+    final IcProjectStatistics statistics)
+  {
+    return new Ic1ProjectStatistics(
+      unsigned64(statistics.project().value()),
+      toWireList(statistics.days(), IcT1Projects::toWireProjectStatisticsDay)
+    );
+  }
+
+  private static Ic1ProjectStatisticsDay toWireProjectStatisticsDay(
+    final IcProjectStatisticsDay day)
+  {
+    return new Ic1ProjectStatisticsDay(
+      toWireDate(day.day()),
+      unsigned64(day.ticketsCreated()),
+      unsigned64(day.ticketsUpdated()),
+      unsigned64(day.commentsCreated())
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireResponseProjectCreate(
+    final IcTResponseProjectCreate cc)
+  {
+    return new Ic1ResponseProjectCreate(
+      toWireUUID(cc.requestId()),
+      toWireProject(cc.project())
+    );
+  }
+
+  private static Ic1Project toWireProject(
+    final IcProject project)
+  {
+    return new Ic1Project(
+      unsigned64(project.id().value()),
+      string(project.shortName().value()),
+      string(project.title().value())
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireCommandProjectStatistics(
+    final IcTCommandProjectStatistics cc)
+  {
+    return new Ic1CommandProjectStatistics(
+      unsigned64(cc.project().value()),
+      toWireTimeRange(cc.timeRange())
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireCommandProjectCreate(
+    final IcTCommandProjectCreate cc)
+  {
+    return new Ic1CommandProjectCreate(
+      string(cc.shortName().value()),
+      string(cc.title().value())
+    );
+  }
+
+  private static IcTMessageType fromWireCommandProjectStatistics(
+    final Ic1CommandProjectStatistics m)
+  {
+    return new IcTCommandProjectStatistics(
+      new IcProjectID(m.fieldProject().value()),
+      fromWireTimeRange(m.fieldTimeRange())
+    );
+  }
+
+  private static IcTMessageType fromWireResponseProjectStatistics(
+    final Ic1ResponseProjectStatistics m)
+  {
+    return new IcTResponseProjectStatistics(
+      fromWireUUID(m.fieldRequestId()),
+      fromWireProjectStatistics(m.fieldStatistics())
+    );
+  }
+
+  private static IcProjectStatistics fromWireProjectStatistics(
+    final Ic1ProjectStatistics s)
+  {
+    return new IcProjectStatistics(
+      new IcProjectID(s.fieldProject().value()),
+      fromWireList(s.fieldDays(), IcT1Projects::fromWireProjectStatisticsDay)
+    );
+  }
+
+  private static IcProjectStatisticsDay fromWireProjectStatisticsDay(
+    final Ic1ProjectStatisticsDay d)
+  {
+    return new IcProjectStatisticsDay(
+      fromWireDate(d.fieldDay()),
+      d.fieldTicketsCreated().value(),
+      d.fieldTicketsUpdated().value(),
+      d.fieldCommentsCreated().value()
+    );
+  }
+
+  private static IcTMessageType fromWireResponseProjectCreate(
+    final Ic1ResponseProjectCreate m)
+  {
+    return new IcTResponseProjectCreate(
+      fromWireUUID(m.fieldRequestId()),
+      fromWireProject(m.fieldProject())
+    );
+  }
+
+  static IcProject fromWireProject(
+    final Ic1Project p)
+  {
+    return new IcProject(
+      new IcProjectID(p.fieldId().value()),
+      new IcProjectTitle(p.fieldTitle().value()),
+      new IcProjectShortName(p.fieldShortName().value())
+    );
+  }
+
+  private static IcTMessageType fromWireCommandProjectCreate(
+    final Ic1CommandProjectCreate m)
+  {
+    return new IcTCommandProjectCreate(
+      new IcProjectShortName(m.fieldShortName().value()),
+      new IcProjectTitle(m.fieldTitle().value())
+    );
+  }
+}
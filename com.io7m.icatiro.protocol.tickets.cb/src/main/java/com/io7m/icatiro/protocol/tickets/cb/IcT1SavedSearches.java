@@ -0,0 +1,283 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.cedarbridge.runtime.api.CBString;
+import com.io7m.icatiro.model.IcSavedSearch;
+import com.io7m.icatiro.model.IcSavedSearchEntry;
+import com.io7m.icatiro.model.IcSavedSearchName;
+import com.io7m.icatiro.model.IcSavedSearchResults;
+import com.io7m.icatiro.protocol.tickets.IcTCommandSavedSearchCreate;
+import com.io7m.icatiro.protocol.tickets.IcTCommandSavedSearchDelete;
+import com.io7m.icatiro.protocol.tickets.IcTCommandSavedSearchResults;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.protocol.tickets.IcTResponseSavedSearchCreate;
+import com.io7m.icatiro.protocol.tickets.IcTResponseSavedSearchDelete;
+import com.io7m.icatiro.protocol.tickets.IcTResponseSavedSearchResults;
+
+import static com.io7m.cedarbridge.runtime.api.CBCore.string;
+import static com.io7m.cedarbridge.runtime.api.CBCore.unsigned16;
+import static com.io7m.cedarbridge.runtime.api.CBCore.unsigned64;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireList;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireTimeRange;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireBoolean;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireList;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireOptionalString;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireOptionalUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireTimeRange;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireUUID;
+
+/**
+ * Conversions of the version 1 messages that carry saved searches.
+ */
+
+final class IcT1SavedSearches
+{
+  private IcT1SavedSearches()
+  {
+
+  }
+
+  /**
+   * Register the converters for saved searches.
+   *
+   * @param toWire   The table of conversions to the wire
+   * @param fromWire The table of conversions from the wire
+   */
+
+  static void register(
+    final IcTConverterTable<IcTMessageType, ProtocolTicketsv1Type> toWire,
+    final IcTConverterTable<ProtocolTicketsv1Type, IcTMessageType> fromWire)
+  {
+    toWire.add(
+      IcTCommandSavedSearchCreate.class,
+      IcT1SavedSearches::toWireCommandSavedSearchCreate
+    );
+    toWire.add(
+      IcTCommandSavedSearchDelete.class,
+      IcT1SavedSearches::toWireCommandSavedSearchDelete
+    );
+    toWire.add(
+      IcTCommandSavedSearchResults.class,
+      IcT1SavedSearches::toWireCommandSavedSearchResults
+    );
+    toWire.add(
+      IcTResponseSavedSearchCreate.class,
+      IcT1SavedSearches::toWireResponseSavedSearchCreate
+    );
+    toWire.add(
+      IcTResponseSavedSearchDelete.class,
+      IcT1SavedSearches::toWireResponseSavedSearchDelete
+    );
+    toWire.add(
+      IcTResponseSavedSearchResults.class,
+      IcT1SavedSearches::toWireResponseSavedSearchResults
+    );
+
+    fromWire.add(
+      Ic1CommandSavedSearchCreate.class,
+      IcT1SavedSearches::fromWireCommandSavedSearchCreate
+    );
+    fromWire.add(
+      Ic1CommandSavedSearchDelete.class,
+      IcT1SavedSearches::fromWireCommandSavedSearchDelete
+    );
+    fromWire.add(
+      Ic1CommandSavedSearchResults.class,
+      IcT1SavedSearches::fromWireCommandSavedSearchResults
+    );
+    fromWire.add(
+      Ic1ResponseSavedSearchCreate.class,
+      IcT1SavedSearches::fromWireResponseSavedSearchCreate
+    );
+    fromWire.add(
+      Ic1ResponseSavedSearchDelete.class,
+      IcT1SavedSearches::fromWireResponseSavedSearchDelete
+    );
+    fromWire.add(
+      Ic1ResponseSavedSearchResults.class,
+      IcT1SavedSearches::fromWireResponseSavedSearchResults
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireResponseSavedSearchCreate(
+    final IcTResponseSavedSearchCreate cc)
+  {
+    return new Ic1ResponseSavedSearchCreate(
+      toWireUUID(cc.requestId()),
+      toWireSavedSearch(cc.search())
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireResponseSavedSearchDelete(
+    final IcTResponseSavedSearchDelete cc)
+  {
+    return new Ic1ResponseSavedSearchDelete(
+      toWireUUID(cc.requestId())
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireResponseSavedSearchResults(
+    final IcTResponseSavedSearchResults cc)
+  {
+    return new Ic1ResponseSavedSearchResults(
+      toWireUUID(cc.requestId()),
+      toWireSavedSearchResults(cc.results())
+    );
+  }
+
+  private static Ic1SavedSearchResults toWireSavedSearchResults(
+    final IcSavedSearchResults results)
+  {
+    return new Ic1SavedSearchResults(
+      string(results.name().value()),
+      unsigned64(results.revision()),
+      toWireList(results.entries(), IcT1SavedSearches::toWireSavedSearchEntry)
+    );
+  }
+
+  private static Ic1SavedSearchEntry toWireSavedSearchEntry(
+    final IcSavedSearchEntry entry)
+  {
+    return new Ic1SavedSearchEntry(
+      toWireTicketId(entry.ticket()),
+      toWireBoolean(entry.removed())
+    );
+  }
+
+  private static Ic1SavedSearch toWireSavedSearch(
+    final IcSavedSearch s)
+  {
+    return new Ic1SavedSearch(
+      string(s.name().value()),
+      toWireTimeRange(s.timeCreatedRange()),
+      toWireTimeRange(s.timeUpdatedRange()),
+      toWireOptionalString(s.titleSearch()),
+      toWireOptionalString(s.descriptionSearch()),
+      toWireOptionalUUID(s.reporter())
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireCommandSavedSearchCreate(
+    final IcTCommandSavedSearchCreate cc)
+  {
+    return new Ic1CommandSavedSearchCreate(toWireSavedSearch(cc.search()));
+  }
+
+  private static ProtocolTicketsv1Type toWireCommandSavedSearchDelete(
+    final IcTCommandSavedSearchDelete cc)
+  {
+    return new Ic1CommandSavedSearchDelete(string(cc.name().value()));
+  }
+
+  private static ProtocolTicketsv1Type toWireCommandSavedSearchResults(
+    final IcTCommandSavedSearchResults cc)
+  {
+    return new Ic1CommandSavedSearchResults(
+      string(cc.name().value()),
+      unsigned64(cc.since()),
+      unsigned16(cc.limit())
+    );
+  }
+
+  private static IcTMessageType fromWireCommandSavedSearchCreate(
+    final Ic1CommandSavedSearchCreate m)
+  {
+    return new IcTCommandSavedSearchCreate(
+      fromWireSavedSearch(m.fieldSearch())
+    );
+  }
+
+  private static IcTMessageType fromWireCommandSavedSearchDelete(
+    final Ic1CommandSavedSearchDelete m)
+  {
+    return new IcTCommandSavedSearchDelete(
+      new IcSavedSearchName(m.fieldName().value())
+    );
+  }
+
+  private static IcTMessageType fromWireCommandSavedSearchResults(
+    final Ic1CommandSavedSearchResults m)
+  {
+    return new IcTCommandSavedSearchResults(
+      new IcSavedSearchName(m.fieldName().value()),
+      m.fieldSince().value(),
+      m.fieldLimit().value()
+    );
+  }
+
+  private static IcTMessageType fromWireResponseSavedSearchCreate(
+    final Ic1ResponseSavedSearchCreate m)
+  {
+    return new IcTResponseSavedSearchCreate(
+      fromWireUUID(m.fieldRequestId()),
+      fromWireSavedSearch(m.fieldSearch())
+    );
+  }
+
+  private static IcTMessageType fromWireResponseSavedSearchDelete(
+    final Ic1ResponseSavedSearchDelete m)
+  {
+    return new IcTResponseSavedSearchDelete(
+      fromWireUUID(m.fieldRequestId())
+    );
+  }
+
+  private static IcTMessageType fromWireResponseSavedSearchResults(
+    final Ic1ResponseSavedSearchResults m)
+  {
+    return new IcTResponseSavedSearchResults(
+      fromWireUUID(m.fieldRequestId()),
+      fromWireSavedSearchResults(m.fieldResults())
+    );
+  }
+
+  private static IcSavedSearchResults fromWireSavedSearchResults(
+    final Ic1SavedSearchResults r)
+  {
+    return new IcSavedSearchResults(
+      new IcSavedSearchName(r.fieldName().value()),
+      r.fieldRevision().value(),
+      fromWireList(r.fieldEntries(), IcT1SavedSearches::fromWireSavedSearchEntry)
+    );
+  }
+
+  private static IcSavedSearchEntry fromWireSavedSearchEntry(
+    final Ic1SavedSearchEntry e)
+  {
+    return new IcSavedSearchEntry(
+      fromWireTicketId(e.fieldTicket()),
+      e.fieldRemoved().asBoolean()
+    );
+  }
+
+  private static IcSavedSearch fromWireSavedSearch(
+    final Ic1SavedSearch s)
+  {
+    return new IcSavedSearch(
+      new IcSavedSearchName(s.fieldName().value()),
+      fromWireTimeRange(s.fieldTimeCreatedRange()),
+      fromWireTimeRange(s.fieldTimeUpdatedRange()),
+      s.fieldTitleSearch().asOptional().map(CBString::value),
+      s.fieldDescriptionSearch().asOptional().map(CBString::value),
+      s.fieldReporter().asOptional().map(IcT1Core::fromWireUUID)
+    );
+  }
+}
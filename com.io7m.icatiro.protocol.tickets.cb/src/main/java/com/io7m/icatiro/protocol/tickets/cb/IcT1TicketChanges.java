@@ -0,0 +1,289 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.cedarbridge.runtime.api.CBOptionType;
+import com.io7m.icatiro.model.IcTicketChange;
+import com.io7m.icatiro.model.IcTicketChangeCursor;
+import com.io7m.icatiro.model.IcTicketChangeKind;
+import com.io7m.icatiro.model.IcTicketChanges;
+import com.io7m.icatiro.model.IcTicketWatchResult;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketChangesSince;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketWatch;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketChangesSince;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketWatch;
+
+import java.time.Duration;
+
+import static com.io7m.cedarbridge.runtime.api.CBCore.unsigned16;
+import static com.io7m.cedarbridge.runtime.api.CBCore.unsigned32;
+import static com.io7m.cedarbridge.runtime.api.CBCore.unsigned64;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromOptionalLong;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireList;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireTimestamp;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toOptionalLong;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireBoolean;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireList;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireTimestamp;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireUUID;
+
+/**
+ * Conversions of the version 1 messages that carry ticket changes.
+ */
+
+final class IcT1TicketChanges
+{
+  private static final Ic1TicketChangeKind WIRE_TICKET_CREATED =
+    new Ic1TicketChangeKind.TicketCreated();
+  private static final Ic1TicketChangeKind WIRE_TICKET_COMMENT_CREATED =
+    new Ic1TicketChangeKind.TicketCommentCreated();
+  private static final Ic1TicketChangeKind WIRE_TICKET_UPDATED =
+    new Ic1TicketChangeKind.TicketUpdated();
+
+  private IcT1TicketChanges()
+  {
+
+  }
+
+  /**
+   * Register the converters for ticket changes.
+   *
+   * @param toWire   The table of conversions to the wire
+   * @param fromWire The table of conversions from the wire
+   */
+
+  static void register(
+    final IcTConverterTable<IcTMessageType, ProtocolTicketsv1Type> toWire,
+    final IcTConverterTable<ProtocolTicketsv1Type, IcTMessageType> fromWire)
+  {
+    toWire.add(
+      IcTCommandTicketChangesSince.class,
+      IcT1TicketChanges::toWireCommandTicketChangesSince
+    );
+    toWire.add(
+      IcTCommandTicketWatch.class,
+      IcT1TicketChanges::toWireCommandTicketWatch
+    );
+    toWire.add(
+      IcTResponseTicketChangesSince.class,
+      IcT1TicketChanges::toWireResponseTicketChangesSince
+    );
+    toWire.add(
+      IcTResponseTicketWatch.class,
+      IcT1TicketChanges::toWireResponseTicketWatch
+    );
+
+    fromWire.add(
+      Ic1CommandTicketChangesSince.class,
+      IcT1TicketChanges::fromWireCommandTicketChangesSince
+    );
+    fromWire.add(
+      Ic1CommandTicketWatch.class,
+      IcT1TicketChanges::fromWireCommandTicketWatch
+    );
+    fromWire.add(
+      Ic1ResponseTicketChangesSince.class,
+      IcT1TicketChanges::fromWireResponseTicketChangesSince
+    );
+    fromWire.add(
+      Ic1ResponseTicketWatch.class,
+      IcT1TicketChanges::fromWireResponseTicketWatch
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireResponseTicketWatch(
+    final IcTResponseTicketWatch cc)
+  {
+    final var result = cc.result();
+    return new Ic1ResponseTicketWatch(
+      toWireUUID(cc.requestId()),
+      new Ic1TicketWatchResult(
+        toWireTicketId(result.ticket()),
+        toWireBoolean(result.changed()),
+        unsigned64(result.revision())
+      )
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireResponseTicketChangesSince(
+    final IcTResponseTicketChangesSince cc)
+  {
+    return new Ic1ResponseTicketChangesSince(
+      toWireUUID(cc.requestId()),
+      toWireTicketChanges(cc.changes())
+    );
+  }
+
+  private static Ic1TicketChanges toWireTicketChanges(
+    final IcTicketChanges changes)
+  {
+    return new Ic1TicketChanges(
+      toWireList(changes.changes(), IcT1TicketChanges::toWireTicketChange),
+      toWireTicketChangeCursor(changes.next()),
+      CBOptionType.fromOptional(
+        changes.stalledSince().map(IcT1Core::toWireTimestamp))
+    );
+  }
+
+  private static Ic1TicketChange toWireTicketChange(
+    final IcTicketChange change)
+  {
+    return new Ic1TicketChange(
+      toWireTicketId(change.ticket()),
+      toWireTicketChangeKind(change.kind()),
+      fromOptionalLong(change.comment()),
+      toWireTimestamp(change.time())
+    );
+  }
+
+  static Ic1TicketChangeKind toWireTicketChangeKind(
+    final IcTicketChangeKind kind)
+  {
+    return switch (kind) {
+      case TICKET_CREATED -> WIRE_TICKET_CREATED;
+      case TICKET_COMMENT_CREATED -> WIRE_TICKET_COMMENT_CREATED;
+      case TICKET_UPDATED -> WIRE_TICKET_UPDATED;
+    };
+  }
+
+  static Ic1TicketChangeCursor toWireTicketChangeCursor(
+    final IcTicketChangeCursor cursor)
+  {
+    return new Ic1TicketChangeCursor(
+      unsigned64(cursor.transaction()),
+      unsigned64(cursor.sequence())
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireCommandTicketWatch(
+    final IcTCommandTicketWatch cc)
+  {
+    final var timeout =
+      Math.min(Math.max(0L, cc.timeout().toMillis()), 0xffff_ffffL);
+
+    return new Ic1CommandTicketWatch(
+      toWireTicketId(cc.ticket()),
+      unsigned64(cc.revision()),
+      unsigned32(timeout)
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireCommandTicketChangesSince(
+    final IcTCommandTicketChangesSince cc)
+  {
+    return new Ic1CommandTicketChangesSince(
+      toWireTicketChangeCursor(cc.cursor()),
+      unsigned16(cc.limit())
+    );
+  }
+
+  private static IcTMessageType fromWireCommandTicketWatch(
+    final Ic1CommandTicketWatch m)
+  {
+    return new IcTCommandTicketWatch(
+      fromWireTicketId(m.fieldTicket()),
+      m.fieldRevision().value(),
+      Duration.ofMillis(m.fieldTimeout().value())
+    );
+  }
+
+  private static IcTMessageType fromWireResponseTicketWatch(
+    final Ic1ResponseTicketWatch m)
+  {
+    final var r = m.fieldResult();
+    return new IcTResponseTicketWatch(
+      fromWireUUID(m.fieldRequestId()),
+      new IcTicketWatchResult(
+        fromWireTicketId(r.fieldTicket()),
+        r.fieldChanged().asBoolean(),
+        r.fieldRevision().value()
+      )
+    );
+  }
+
+  private static IcTMessageType fromWireCommandTicketChangesSince(
+    final Ic1CommandTicketChangesSince m)
+  {
+    return new IcTCommandTicketChangesSince(
+      fromWireTicketChangeCursor(m.fieldCursor()),
+      m.fieldLimit().value()
+    );
+  }
+
+  private static IcTMessageType fromWireResponseTicketChangesSince(
+    final Ic1ResponseTicketChangesSince m)
+  {
+    return new IcTResponseTicketChangesSince(
+      fromWireUUID(m.fieldRequestId()),
+      fromWireTicketChanges(m.fieldChanges())
+    );
+  }
+
+  private static IcTicketChanges fromWireTicketChanges(
+    final Ic1TicketChanges c)
+  {
+    return new IcTicketChanges(
+      fromWireList(c.fieldChanges(), IcT1TicketChanges::fromWireTicketChange),
+      fromWireTicketChangeCursor(c.fieldNext()),
+      c.fieldStalledSince()
+        .asOptional()
+        .map(IcT1Core::fromWireTimestamp)
+    );
+  }
+
+  private static IcTicketChange fromWireTicketChange(
+    final Ic1TicketChange c)
+  {
+    return new IcTicketChange(
+      fromWireTicketId(c.fieldTicket()),
+      fromWireTicketChangeKind(c.fieldKind()),
+      toOptionalLong(c.fieldComment()),
+      fromWireTimestamp(c.fieldTime())
+    );
+  }
+
+  static IcTicketChangeKind fromWireTicketChangeKind(
+    final Ic1TicketChangeKind k)
+  {
+    if (k instanceof Ic1TicketChangeKind.TicketCreated) {
+      return IcTicketChangeKind.TICKET_CREATED;
+    }
+    if (k instanceof Ic1TicketChangeKind.TicketCommentCreated) {
+      return IcTicketChangeKind.TICKET_COMMENT_CREATED;
+    }
+    if (k instanceof Ic1TicketChangeKind.TicketUpdated) {
+      return IcTicketChangeKind.TICKET_UPDATED;
+    }
+
+    throw new IllegalStateException(
+      "Unrecognized change kind: %s".formatted(k)
+    );
+  }
+
+  static IcTicketChangeCursor fromWireTicketChangeCursor(
+    final Ic1TicketChangeCursor c)
+  {
+    return new IcTicketChangeCursor(
+      c.fieldTransaction().value(),
+      c.fieldSequence().value()
+    );
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.icatiro.model.IcTicketComment;
+import com.io7m.icatiro.model.IcTicketCommentCreation;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketCommentCreate;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketCommentCreate;
+
+import static com.io7m.cedarbridge.runtime.api.CBCore.string;
+import static com.io7m.cedarbridge.runtime.api.CBCore.unsigned64;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromOptionalLong;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireTimestamp;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toOptionalLong;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireTimestamp;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireUUID;
+
+/**
+ * Conversions of the version 1 messages that carry ticket comments.
+ */
+
+final class IcT1TicketComments
+{
+  private IcT1TicketComments()
+  {
+
+  }
+
+  /**
+   * Register the converters for ticket comments.
+   *
+   * @param toWire   The table of conversions to the wire
+   * @param fromWire The table of conversions from the wire
+   */
+
+  static void register(
+    final IcTConverterTable<IcTMessageType, ProtocolTicketsv1Type> toWire,
+    final IcTConverterTable<ProtocolTicketsv1Type, IcTMessageType> fromWire)
+  {
+    toWire.add(
+      IcTCommandTicketCommentCreate.class,
+      IcT1TicketComments::toWireCommandTicketCommentCreate
+    );
+    toWire.add(
+      IcTResponseTicketCommentCreate.class,
+      IcT1TicketComments::toWireResponseTicketCommentCreate
+    );
+
+    fromWire.add(
+      Ic1CommandTicketCommentCreate.class,
+      IcT1TicketComments::fromWireCommandTicketCommentCreate
+    );
+    fromWire.add(
+      Ic1ResponseTicketCommentCreate.class,
+      IcT1TicketComments::fromWireResponseTicketCommentCreate
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireResponseTicketCommentCreate(
+    final IcTResponseTicketCommentCreate cc)
+  {
+    return new Ic1ResponseTicketCommentCreate(
+      toWireUUID(cc.requestId()),
+      toWireTicketComment(cc.comment())
+    );
+  }
+
+  static Ic1TicketComment toWireTicketComment(
+    final IcTicketComment comment)
+  {
+    return new Ic1TicketComment(
+      toWireTicketId(comment.ticket()),
+      toWireTimestamp(comment.time()),
+      toWireUUID(comment.owner()),
+      unsigned64(comment.commentId()),
+      fromOptionalLong(comment.commentRepliedTo()),
+      string(comment.text())
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireCommandTicketCommentCreate(
+    final IcTCommandTicketCommentCreate cc)
+  {
+    final var creation = cc.creation();
+    return new Ic1CommandTicketCommentCreate(
+      toWireTicketId(creation.ticket()),
+      fromOptionalLong(creation.commentRepliedTo()),
+      string(creation.text())
+    );
+  }
+
+  private static IcTMessageType fromWireResponseTicketCommentCreate(
+    final Ic1ResponseTicketCommentCreate m)
+  {
+    return new IcTResponseTicketCommentCreate(
+      fromWireUUID(m.fieldRequestId()),
+      fromWireTicketComment(m.fieldComment())
+    );
+  }
+
+  static IcTicketComment fromWireTicketComment(
+    final Ic1TicketComment c)
+  {
+    return new IcTicketComment(
+      fromWireTicketId(c.fieldTicket()),
+      fromWireTimestamp(c.fieldTime()),
+      fromWireUUID(c.fieldOwner()),
+      c.fieldId().value(),
+      toOptionalLong(c.fieldInReplyTo()),
+      c.fieldText().value()
+    );
+  }
+
+  private static IcTMessageType fromWireCommandTicketCommentCreate(
+    final Ic1CommandTicketCommentCreate m)
+  {
+    return new IcTCommandTicketCommentCreate(
+      new IcTicketCommentCreation(
+        fromWireTicketId(m.fieldTicket()),
+        toOptionalLong(m.fieldInReplyTo()),
+        m.fieldText().value()
+      )
+    );
+  }
+}
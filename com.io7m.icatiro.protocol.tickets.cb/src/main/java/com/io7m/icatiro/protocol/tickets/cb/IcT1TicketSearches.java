@@ -0,0 +1,308 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.cedarbridge.runtime.api.CBString;
+import com.io7m.icatiro.model.IcProjectShortName;
+import com.io7m.icatiro.model.IcProjectTitle;
+import com.io7m.icatiro.model.IcTicketSearch;
+import com.io7m.icatiro.model.IcTicketSearchProjection;
+import com.io7m.icatiro.model.IcTicketSummary;
+import com.io7m.icatiro.model.IcTicketSummaryType;
+import com.io7m.icatiro.model.IcTicketTitle;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketSearchBegin;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketSearchNext;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketSearchPrevious;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketSearchBegin;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketSearchNext;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketSearchPrevious;
+import com.io7m.idstore.model.IdName;
+
+import static com.io7m.cedarbridge.runtime.api.CBCore.string;
+import static com.io7m.cedarbridge.runtime.api.CBCore.unsigned16;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireColumnOrdering;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWirePage;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireTimeRange;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireTimestamp;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireBoolean;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireOptionalString;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireOptionalUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWirePage;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireTicketColumnOrdering;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireTimeRange;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireTimestamp;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Permissions.fromWirePermissionMatrix;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Permissions.toWirePermissionMatrix;
+
+/**
+ * Conversions of the version 1 messages that search tickets.
+ */
+
+final class IcT1TicketSearches
+{
+  private IcT1TicketSearches()
+  {
+
+  }
+
+  /**
+   * Register the converters for ticket searches.
+   *
+   * @param toWire   The table of conversions to the wire
+   * @param fromWire The table of conversions from the wire
+   */
+
+  static void register(
+    final IcTConverterTable<IcTMessageType, ProtocolTicketsv1Type> toWire,
+    final IcTConverterTable<ProtocolTicketsv1Type, IcTMessageType> fromWire)
+  {
+    toWire.add(
+      IcTCommandTicketSearchBegin.class,
+      IcT1TicketSearches::toWireCommandTicketSearchBegin
+    );
+    toWire.add(
+      IcTCommandTicketSearchNext.class,
+      IcT1TicketSearches::toWireCommandTicketSearchNext
+    );
+    toWire.add(
+      IcTCommandTicketSearchPrevious.class,
+      IcT1TicketSearches::toWireCommandTicketSearchPrevious
+    );
+    toWire.add(
+      IcTResponseTicketSearchBegin.class,
+      IcT1TicketSearches::toWireResponseTicketSearchBegin
+    );
+    toWire.add(
+      IcTResponseTicketSearchNext.class,
+      IcT1TicketSearches::toWireResponseTicketSearchNext
+    );
+    toWire.add(
+      IcTResponseTicketSearchPrevious.class,
+      IcT1TicketSearches::toWireResponseTicketSearchPrevious
+    );
+
+    fromWire.add(
+      Ic1CommandTicketSearchBegin.class,
+      IcT1TicketSearches::fromWireCommandTicketSearchBegin
+    );
+    fromWire.add(
+      Ic1CommandTicketSearchNext.class,
+      IcT1TicketSearches::fromWireCommandTicketSearchNext
+    );
+    fromWire.add(
+      Ic1CommandTicketSearchPrevious.class,
+      IcT1TicketSearches::fromWireCommandTicketSearchPrevious
+    );
+    fromWire.add(
+      Ic1ResponseTicketSearchBegin.class,
+      IcT1TicketSearches::fromWireResponseTicketSearchBegin
+    );
+    fromWire.add(
+      Ic1ResponseTicketSearchNext.class,
+      IcT1TicketSearches::fromWireResponseTicketSearchNext
+    );
+    fromWire.add(
+      Ic1ResponseTicketSearchPrevious.class,
+      IcT1TicketSearches::fromWireResponseTicketSearchPrevious
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireResponseTicketSearchBegin(
+    final IcTResponseTicketSearchBegin cc)
+  {
+    return new Ic1ResponseTicketSearchBegin(
+      toWireUUID(cc.requestId()),
+      toWirePage(cc.tickets(), IcT1TicketSearches::toWireTicketSummaryFull),
+      toWirePermissionMatrix(cc.permissions())
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireResponseTicketSearchNext(
+    final IcTResponseTicketSearchNext cc)
+  {
+    return new Ic1ResponseTicketSearchNext(
+      toWireUUID(cc.requestId()),
+      toWirePage(cc.tickets(), IcT1TicketSearches::toWireTicketSummaryFull),
+      toWirePermissionMatrix(cc.permissions())
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireResponseTicketSearchPrevious(
+    final IcTResponseTicketSearchPrevious cc)
+  {
+    return new Ic1ResponseTicketSearchPrevious(
+      toWireUUID(cc.requestId()),
+      toWirePage(cc.tickets(), IcT1TicketSearches::toWireTicketSummaryFull),
+      toWirePermissionMatrix(cc.permissions())
+    );
+  }
+
+  private static Ic1TicketSummary toWireTicketSummaryFull(
+    final IcTicketSummaryType summary)
+  {
+    if (summary instanceof IcTicketSummary full) {
+      return toWireTicketSummary(full);
+    }
+    throw new IllegalArgumentException(
+      "Ticket summary %s cannot be expressed in this protocol version."
+        .formatted(summary)
+    );
+  }
+
+  static Ic1TicketSummary toWireTicketSummary(
+    final IcTicketSummary summary)
+  {
+    return new Ic1TicketSummary(
+      string(summary.projectTitle().value()),
+      string(summary.projectShortName().value()),
+      toWireTicketId(summary.ticketId()),
+      string(summary.ticketTitle().value()),
+      toWireTimestamp(summary.timeCreated()),
+      toWireTimestamp(summary.timeUpdated()),
+      toWireUUID(summary.reporter()),
+      string(summary.reporterName().value())
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireCommandTicketSearchNext(
+    final IcTCommandTicketSearchNext cc)
+  {
+    return new Ic1CommandTicketSearchNext();
+  }
+
+  private static ProtocolTicketsv1Type toWireCommandTicketSearchPrevious(
+    final IcTCommandTicketSearchPrevious cc)
+  {
+    return new Ic1CommandTicketSearchPrevious();
+  }
+
+  private static ProtocolTicketsv1Type toWireCommandTicketSearchBegin(
+    final IcTCommandTicketSearchBegin cc)
+  {
+    return new Ic1CommandTicketSearchBegin(
+      toWireTicketSearch(cc.search())
+    );
+  }
+
+  private static Ic1TicketSearchParameters toWireTicketSearch(
+    final IcTicketSearch p)
+  {
+    if (p.projection() != IcTicketSearchProjection.FULL) {
+      throw new IllegalArgumentException(
+        "Search projection %s cannot be expressed in this protocol version."
+          .formatted(p.projection())
+      );
+    }
+
+    return new Ic1TicketSearchParameters(
+      toWireTimeRange(p.timeCreatedRange()),
+      toWireTimeRange(p.timeUpdatedRange()),
+      toWireTicketColumnOrdering(p.ordering()),
+      unsigned16(p.limit()),
+      toWireOptionalString(p.titleSearch()),
+      toWireOptionalString(p.descriptionSearch()),
+      toWireOptionalUUID(p.reporter()),
+      toWireBoolean(p.includeArchived())
+    );
+  }
+
+  static IcTicketSummary fromWireTicketSummary(
+    final Ic1TicketSummary m)
+  {
+    return new IcTicketSummary(
+      new IcProjectTitle(m.fieldProjectTitle().value()),
+      new IcProjectShortName(m.fieldProjectShortName().value()),
+      fromWireTicketId(m.fieldTicketId()),
+      new IcTicketTitle(m.fieldTicketTitle().value()),
+      fromWireTimestamp(m.fieldTimeCreated()),
+      fromWireTimestamp(m.fieldTimeUpdated()),
+      fromWireUUID(m.fieldReporter()),
+      new IdName(m.fieldReporterName().value())
+    );
+  }
+
+  private static IcTMessageType fromWireResponseTicketSearchNext(
+    final Ic1ResponseTicketSearchNext m)
+  {
+    return new IcTResponseTicketSearchNext(
+      fromWireUUID(m.fieldRequestId()),
+      fromWirePage(m.fieldPage(), IcT1TicketSearches::fromWireTicketSummary),
+      fromWirePermissionMatrix(m.fieldPermissions())
+    );
+  }
+
+  private static IcTMessageType fromWireResponseTicketSearchPrevious(
+    final Ic1ResponseTicketSearchPrevious m)
+  {
+    return new IcTResponseTicketSearchPrevious(
+      fromWireUUID(m.fieldRequestId()),
+      fromWirePage(m.fieldPage(), IcT1TicketSearches::fromWireTicketSummary),
+      fromWirePermissionMatrix(m.fieldPermissions())
+    );
+  }
+
+  private static IcTMessageType fromWireResponseTicketSearchBegin(
+    final Ic1ResponseTicketSearchBegin m)
+  {
+    return new IcTResponseTicketSearchBegin(
+      fromWireUUID(m.fieldRequestId()),
+      fromWirePage(m.fieldPage(), IcT1TicketSearches::fromWireTicketSummary),
+      fromWirePermissionMatrix(m.fieldPermissions())
+    );
+  }
+
+  private static IcTMessageType fromWireCommandTicketSearchNext(
+    final Ic1CommandTicketSearchNext m)
+  {
+    return new IcTCommandTicketSearchNext();
+  }
+
+  private static IcTMessageType fromWireCommandTicketSearchPrevious(
+    final Ic1CommandTicketSearchPrevious m)
+  {
+    return new IcTCommandTicketSearchPrevious();
+  }
+
+  private static IcTMessageType fromWireCommandTicketSearchBegin(
+    final Ic1CommandTicketSearchBegin m)
+  {
+    return new IcTCommandTicketSearchBegin(
+      fromWireTicketSearch(m.fieldParameters())
+    );
+  }
+
+  private static IcTicketSearch fromWireTicketSearch(
+    final Ic1TicketSearchParameters p)
+  {
+    return new IcTicketSearch(
+      fromWireTimeRange(p.fieldTimeCreatedRange()),
+      fromWireTimeRange(p.fieldTimeUpdatedRange()),
+      fromWireColumnOrdering(p.fieldOrdering()),
+      p.fieldLimit().value(),
+      p.fieldTitleSearch().asOptional().map(CBString::value),
+      p.fieldDescriptionSearch().asOptional().map(CBString::value),
+      p.fieldReporter().asOptional().map(IcT1Core::fromWireUUID),
+      p.fieldIncludeArchived().asBoolean(),
+      IcTicketSearchProjection.FULL
+    );
+  }
+}
@@ -0,0 +1,362 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcTicket;
+import com.io7m.icatiro.model.IcTicketCreation;
+import com.io7m.icatiro.model.IcTicketGetResultForbidden;
+import com.io7m.icatiro.model.IcTicketGetResultFound;
+import com.io7m.icatiro.model.IcTicketGetResultNotFound;
+import com.io7m.icatiro.model.IcTicketGetResultType;
+import com.io7m.icatiro.model.IcTicketTitle;
+import com.io7m.icatiro.model.IcTicketUpdate;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketCreate;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketGet;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketGetMany;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketUpdate;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketCreate;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketGet;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketGetMany;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketUpdate;
+import com.io7m.idstore.model.IdName;
+
+import static com.io7m.cedarbridge.runtime.api.CBCore.string;
+import static com.io7m.cedarbridge.runtime.api.CBCore.unsigned64;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireList;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireTimestamp;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireList;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireTimestamp;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1TicketSearches.fromWireTicketSummary;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1TicketSearches.toWireTicketSummary;
+
+/**
+ * Conversions of the version 1 messages that carry tickets.
+ */
+
+final class IcT1Tickets
+{
+  private IcT1Tickets()
+  {
+
+  }
+
+  /**
+   * Register the converters for tickets.
+   *
+   * @param toWire   The table of conversions to the wire
+   * @param fromWire The table of conversions from the wire
+   */
+
+  static void register(
+    final IcTConverterTable<IcTMessageType, ProtocolTicketsv1Type> toWire,
+    final IcTConverterTable<ProtocolTicketsv1Type, IcTMessageType> fromWire)
+  {
+    toWire.add(
+      IcTCommandTicketCreate.class,
+      IcT1Tickets::toWireCommandTicketCreate
+    );
+    toWire.add(
+      IcTCommandTicketUpdate.class,
+      IcT1Tickets::toWireCommandTicketUpdate
+    );
+    toWire.add(IcTCommandTicketGet.class, IcT1Tickets::toWireCommandTicketGet);
+    toWire.add(
+      IcTCommandTicketGetMany.class,
+      IcT1Tickets::toWireCommandTicketGetMany
+    );
+    toWire.add(
+      IcTResponseTicketCreate.class,
+      IcT1Tickets::toWireResponseTicketCreate
+    );
+    toWire.add(
+      IcTResponseTicketUpdate.class,
+      IcT1Tickets::toWireResponseTicketUpdate
+    );
+    toWire.add(
+      IcTResponseTicketGet.class,
+      IcT1Tickets::toWireResponseTicketGet
+    );
+    toWire.add(
+      IcTResponseTicketGetMany.class,
+      IcT1Tickets::toWireResponseTicketGetMany
+    );
+
+    fromWire.add(
+      Ic1CommandTicketCreate.class,
+      IcT1Tickets::fromWireCommandTicketCreate
+    );
+    fromWire.add(
+      Ic1CommandTicketUpdate.class,
+      IcT1Tickets::fromWireCommandTicketUpdate
+    );
+    fromWire.add(
+      Ic1CommandTicketGet.class,
+      IcT1Tickets::fromWireCommandTicketGet
+    );
+    fromWire.add(
+      Ic1CommandTicketGetMany.class,
+      IcT1Tickets::fromWireCommandTicketGetMany
+    );
+    fromWire.add(
+      Ic1ResponseTicketCreate.class,
+      IcT1Tickets::fromWireResponseTicketCreate
+    );
+    fromWire.add(
+      Ic1ResponseTicketUpdate.class,
+      IcT1Tickets::fromWireResponseTicketUpdate
+    );
+    fromWire.add(
+      Ic1ResponseTicketGet.class,
+      IcT1Tickets::fromWireResponseTicketGet
+    );
+    fromWire.add(
+      Ic1ResponseTicketGetMany.class,
+      IcT1Tickets::fromWireResponseTicketGetMany
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireResponseTicketGet(
+    final IcTResponseTicketGet cc)
+  {
+    return new Ic1ResponseTicketGet(
+      toWireUUID(cc.requestId()),
+      toWireTicket(cc.ticket())
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireResponseTicketGetMany(
+    final IcTResponseTicketGetMany cc)
+  {
+    return new Ic1ResponseTicketGetMany(
+      toWireUUID(cc.requestId()),
+      toWireList(cc.results(), IcT1Tickets::toWireTicketGetResult)
+    );
+  }
+
+  private static Ic1TicketGetResult toWireTicketGetResult(
+    final IcTicketGetResultType result)
+  {
+    if (result instanceof IcTicketGetResultFound found) {
+      return new Ic1TicketGetResult.Found(toWireTicket(found.ticket()));
+    }
+
+    if (result instanceof IcTicketGetResultNotFound notFound) {
+      return new Ic1TicketGetResult.NotFound(toWireTicketId(notFound.id()));
+    }
+
+    if (result instanceof IcTicketGetResultForbidden forbidden) {
+      return new Ic1TicketGetResult.Forbidden(toWireTicketId(forbidden.id()));
+    }
+
+    throw new IllegalStateException(
+      "Unrecognized ticket result: %s".formatted(result)
+    );
+  }
+
+  private static Ic1Ticket toWireTicket(
+    final IcTicket ticket)
+  {
+    return new Ic1Ticket(
+      toWireTicketId(ticket.id()),
+      string(ticket.title().value()),
+      toWireTimestamp(ticket.timeCreated()),
+      toWireTimestamp(ticket.timeUpdated()),
+      unsigned64(ticket.version()),
+      toWireUUID(ticket.reporter()),
+      string(ticket.reporterName().value()),
+      string(ticket.description()),
+      toWireList(ticket.comments(), IcT1TicketComments::toWireTicketComment)
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireResponseTicketCreate(
+    final IcTResponseTicketCreate cc)
+  {
+    return new Ic1ResponseTicketCreate(
+      toWireUUID(cc.requestId()),
+      toWireTicketSummary(cc.ticket())
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireResponseTicketUpdate(
+    final IcTResponseTicketUpdate cc)
+  {
+    return new Ic1ResponseTicketUpdate(
+      toWireUUID(cc.requestId()),
+      toWireTicket(cc.ticket())
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireCommandTicketGet(
+    final IcTCommandTicketGet cc)
+  {
+    return new Ic1CommandTicketGet(toWireTicketId(cc.id()));
+  }
+
+  private static ProtocolTicketsv1Type toWireCommandTicketGetMany(
+    final IcTCommandTicketGetMany cc)
+  {
+    return new Ic1CommandTicketGetMany(
+      toWireList(cc.ids(), IcT1Core::toWireTicketId)
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireCommandTicketCreate(
+    final IcTCommandTicketCreate cc)
+  {
+    return new Ic1CommandTicketCreate(
+      unsigned64(cc.creation().project().value()),
+      string(cc.creation().title().value()),
+      string(cc.creation().description())
+    );
+  }
+
+  private static ProtocolTicketsv1Type toWireCommandTicketUpdate(
+    final IcTCommandTicketUpdate cc)
+  {
+    return new Ic1CommandTicketUpdate(
+      toWireTicketId(cc.update().ticket()),
+      unsigned64(cc.update().version()),
+      string(cc.update().title().value()),
+      string(cc.update().description())
+    );
+  }
+
+  private static IcTMessageType fromWireResponseTicketGet(
+    final Ic1ResponseTicketGet m)
+  {
+    return new IcTResponseTicketGet(
+      fromWireUUID(m.fieldRequestId()),
+      fromWireTicket(m.fieldTicket())
+    );
+  }
+
+  private static IcTMessageType fromWireResponseTicketGetMany(
+    final Ic1ResponseTicketGetMany m)
+  {
+    return new IcTResponseTicketGetMany(
+      fromWireUUID(m.fieldRequestId()),
+      fromWireList(m.fieldResults(), IcT1Tickets::fromWireTicketGetResult)
+    );
+  }
+
+  private static IcTicketGetResultType fromWireTicketGetResult(
+    final Ic1TicketGetResult r)
+  {
+    if (r instanceof Ic1TicketGetResult.Found found) {
+      return new IcTicketGetResultFound(fromWireTicket(found.fieldTicket()));
+    }
+
+    if (r instanceof Ic1TicketGetResult.NotFound notFound) {
+      return new IcTicketGetResultNotFound(
+        fromWireTicketId(notFound.fieldTicket()));
+    }
+
+    if (r instanceof Ic1TicketGetResult.Forbidden forbidden) {
+      return new IcTicketGetResultForbidden(
+        fromWireTicketId(forbidden.fieldTicket()));
+    }
+
+    throw new IllegalStateException(
+      "Unrecognized ticket result: %s".formatted(r)
+    );
+  }
+
+  private static IcTicket fromWireTicket(
+    final Ic1Ticket ticket)
+  {
+    return new IcTicket(
+      fromWireTicketId(ticket.fieldTicket()),
+      new IcTicketTitle(ticket.fieldTitle().value()),
+      fromWireTimestamp(ticket.fieldTimeCreated()),
+      fromWireTimestamp(ticket.fieldTimeUpdated()),
+      ticket.fieldVersion().value(),
+      fromWireUUID(ticket.fieldReporter()),
+      new IdName(ticket.fieldReporterName().value()),
+      ticket.fieldDescription().value(),
+      fromWireList(
+        ticket.fieldComments(),
+        IcT1TicketComments::fromWireTicketComment
+      )
+    );
+  }
+
+  private static IcTMessageType fromWireCommandTicketGetMany(
+    final Ic1CommandTicketGetMany m)
+  {
+    return new IcTCommandTicketGetMany(
+      fromWireList(m.fieldTickets(), IcT1Core::fromWireTicketId)
+    );
+  }
+
+  private static IcTMessageType fromWireCommandTicketGet(
+    final Ic1CommandTicketGet m)
+  {
+    return new IcTCommandTicketGet(
+      fromWireTicketId(m.fieldTicket())
+    );
+  }
+
+  private static IcTMessageType fromWireResponseTicketCreate(
+    final Ic1ResponseTicketCreate m)
+  {
+    return new IcTResponseTicketCreate(
+      fromWireUUID(m.fieldRequestId()),
+      fromWireTicketSummary(m.fieldTicket())
+    );
+  }
+
+  private static IcTMessageType fromWireCommandTicketCreate(
+    final Ic1CommandTicketCreate m)
+  {
+    return new IcTCommandTicketCreate(
+      new IcTicketCreation(
+        new IcProjectID(m.fieldProject().value()),
+        new IcTicketTitle(m.fieldTitle().value()),
+        m.fieldDescription().value()
+      )
+    );
+  }
+
+  private static IcTMessageType fromWireResponseTicketUpdate(
+    final Ic1ResponseTicketUpdate m)
+  {
+    return new IcTResponseTicketUpdate(
+      fromWireUUID(m.fieldRequestId()),
+      fromWireTicket(m.fieldTicket())
+    );
+  }
+
+  private static IcTMessageType fromWireCommandTicketUpdate(
+    final Ic1CommandTicketUpdate m)
+  {
+    return new IcTCommandTicketUpdate(
+      new IcTicketUpdate(
+        fromWireTicketId(m.fieldTicket()),
+        m.fieldVersion().value(),
+        new IcTicketTitle(m.fieldTitle().value()),
+        m.fieldDescription().value()
+      )
+    );
+  }
+}
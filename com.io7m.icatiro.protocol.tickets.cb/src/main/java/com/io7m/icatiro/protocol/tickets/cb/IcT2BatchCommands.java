@@ -0,0 +1,186 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.icatiro.protocol.IcProtocolException;
+import com.io7m.icatiro.protocol.tickets.IcTBatchMode;
+
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.PROTOCOL_ERROR;
+
+/**
+ * The wrapping of commands included in version 2 batches. A batch can only
+ * contain the commands for which the protocol declares a wrapper.
+ */
+
+final class IcT2BatchCommands
+{
+  private IcT2BatchCommands()
+  {
+
+  }
+
+  static Ic2BatchMode toWireBatchMode(
+    final IcTBatchMode mode)
+  {
+    return switch (mode) {
+      case ATOMIC -> new Ic2BatchMode.Atomic();
+      case PER_COMMAND -> new Ic2BatchMode.PerCommand();
+    };
+  }
+
+  static Ic2BatchCommand toWireBatchCommand(
+    final ProtocolTicketsv2Type command)
+    throws IcProtocolException
+  {
+    if (command instanceof Ic1CommandPermissionGrant x) {
+      return new Ic2BatchCommand.PermissionGrant(x);
+    }
+    if (command instanceof Ic1CommandPermissionGrantMany x) {
+      return new Ic2BatchCommand.PermissionGrantMany(x);
+    }
+    if (command instanceof Ic1CommandPermissionRevokeMany x) {
+      return new Ic2BatchCommand.PermissionRevokeMany(x);
+    }
+    if (command instanceof Ic1CommandProjectCreate x) {
+      return new Ic2BatchCommand.ProjectCreate(x);
+    }
+    if (command instanceof Ic1CommandProjectStatistics x) {
+      return new Ic2BatchCommand.ProjectStatistics(x);
+    }
+    if (command instanceof Ic2CommandSavedSearchCreate x) {
+      return new Ic2BatchCommand.SavedSearchCreate(x);
+    }
+    if (command instanceof Ic1CommandSavedSearchDelete x) {
+      return new Ic2BatchCommand.SavedSearchDelete(x);
+    }
+    if (command instanceof Ic1CommandSavedSearchResults x) {
+      return new Ic2BatchCommand.SavedSearchResults(x);
+    }
+    if (command instanceof Ic1CommandTicketChangesSince x) {
+      return new Ic2BatchCommand.TicketChangesSince(x);
+    }
+    if (command instanceof Ic1CommandTicketCommentCreate x) {
+      return new Ic2BatchCommand.TicketCommentCreate(x);
+    }
+    if (command instanceof Ic1CommandTicketCreate x) {
+      return new Ic2BatchCommand.TicketCreate(x);
+    }
+    if (command instanceof Ic1CommandTicketGet x) {
+      return new Ic2BatchCommand.TicketGet(x);
+    }
+    if (command instanceof Ic2CommandTicketGetIfChanged x) {
+      return new Ic2BatchCommand.TicketGetIfChanged(x);
+    }
+    if (command instanceof Ic1CommandTicketGetMany x) {
+      return new Ic2BatchCommand.TicketGetMany(x);
+    }
+    if (command instanceof Ic2CommandTicketSearchBegin x) {
+      return new Ic2BatchCommand.TicketSearchBegin(x);
+    }
+    if (command instanceof Ic1CommandTicketSearchNext x) {
+      return new Ic2BatchCommand.TicketSearchNext(x);
+    }
+    if (command instanceof Ic1CommandTicketSearchPrevious x) {
+      return new Ic2BatchCommand.TicketSearchPrevious(x);
+    }
+    if (command instanceof Ic1CommandTicketUpdate x) {
+      return new Ic2BatchCommand.TicketUpdate(x);
+    }
+
+    throw new IcProtocolException(
+      PROTOCOL_ERROR,
+      "Unbatchable command: %s".formatted(command)
+    );
+  }
+
+  static IcTBatchMode fromWireBatchMode(
+    final Ic2BatchMode mode)
+  {
+    if (mode instanceof Ic2BatchMode.Atomic) {
+      return IcTBatchMode.ATOMIC;
+    }
+    if (mode instanceof Ic2BatchMode.PerCommand) {
+      return IcTBatchMode.PER_COMMAND;
+    }
+    throw new IllegalStateException(
+      "Unrecognized batch mode: %s".formatted(mode)
+    );
+  }
+
+  static ProtocolTicketsv2Type fromWireBatchCommand(
+    final Ic2BatchCommand command)
+  {
+    if (command instanceof Ic2BatchCommand.PermissionGrant x) {
+      return x.fieldCommand();
+    }
+    if (command instanceof Ic2BatchCommand.PermissionGrantMany x) {
+      return x.fieldCommand();
+    }
+    if (command instanceof Ic2BatchCommand.PermissionRevokeMany x) {
+      return x.fieldCommand();
+    }
+    if (command instanceof Ic2BatchCommand.ProjectCreate x) {
+      return x.fieldCommand();
+    }
+    if (command instanceof Ic2BatchCommand.ProjectStatistics x) {
+      return x.fieldCommand();
+    }
+    if (command instanceof Ic2BatchCommand.SavedSearchCreate x) {
+      return x.fieldCommand();
+    }
+    if (command instanceof Ic2BatchCommand.SavedSearchDelete x) {
+      return x.fieldCommand();
+    }
+    if (command instanceof Ic2BatchCommand.SavedSearchResults x) {
+      return x.fieldCommand();
+    }
+    if (command instanceof Ic2BatchCommand.TicketChangesSince x) {
+      return x.fieldCommand();
+    }
+    if (command instanceof Ic2BatchCommand.TicketCommentCreate x) {
+      return x.fieldCommand();
+    }
+    if (command instanceof Ic2BatchCommand.TicketCreate x) {
+      return x.fieldCommand();
+    }
+    if (command instanceof Ic2BatchCommand.TicketGet x) {
+      return x.fieldCommand();
+    }
+    if (command instanceof Ic2BatchCommand.TicketGetIfChanged x) {
+      return x.fieldCommand();
+    }
+    if (command instanceof Ic2BatchCommand.TicketGetMany x) {
+      return x.fieldCommand();
+    }
+    if (command instanceof Ic2BatchCommand.TicketSearchBegin x) {
+      return x.fieldCommand();
+    }
+    if (command instanceof Ic2BatchCommand.TicketSearchNext x) {
+      return x.fieldCommand();
+    }
+    if (command instanceof Ic2BatchCommand.TicketSearchPrevious x) {
+      return x.fieldCommand();
+    }
+    if (command instanceof Ic2BatchCommand.TicketUpdate x) {
+      return x.fieldCommand();
+    }
+
+    throw new IllegalStateException(
+      "Unrecognized batch command: %s".formatted(command)
+    );
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.icatiro.protocol.IcProtocolException;
+
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.PROTOCOL_ERROR;
+
+/**
+ * The wrapping of responses included in version 2 batches.
+ */
+
+final class IcT2BatchResponses
+{
+  private IcT2BatchResponses()
+  {
+
+  }
+
+  static Ic2BatchResponse toWireBatchResponse(
+    final ProtocolTicketsv2Type response)
+    throws IcProtocolException
+  {
+    if (response instanceof Ic1ResponseError x) {
+      return new Ic2BatchResponse.Error(x);
+    }
+    if (response instanceof Ic1ResponsePermissionGrant x) {
+      return new Ic2BatchResponse.PermissionGrant(x);
+    }
+    if (response instanceof Ic1ResponsePermissionGrantMany x) {
+      return new Ic2BatchResponse.PermissionGrantMany(x);
+    }
+    if (response instanceof Ic1ResponsePermissionRevokeMany x) {
+      return new Ic2BatchResponse.PermissionRevokeMany(x);
+    }
+    if (response instanceof Ic1ResponseProjectCreate x) {
+      return new Ic2BatchResponse.ProjectCreate(x);
+    }
+    if (response instanceof Ic1ResponseProjectStatistics x) {
+      return new Ic2BatchResponse.ProjectStatistics(x);
+    }
+    if (response instanceof Ic2ResponseSavedSearchCreate x) {
+      return new Ic2BatchResponse.SavedSearchCreate(x);
+    }
+    if (response instanceof Ic1ResponseSavedSearchDelete x) {
+      return new Ic2BatchResponse.SavedSearchDelete(x);
+    }
+    if (response instanceof Ic1ResponseSavedSearchResults x) {
+      return new Ic2BatchResponse.SavedSearchResults(x);
+    }
+    if (response instanceof Ic2ResponseTicketChangesSince x) {
+      return new Ic2BatchResponse.TicketChangesSince(x);
+    }
+    if (response instanceof Ic2ResponseTicketCommentCreate x) {
+      return new Ic2BatchResponse.TicketCommentCreate(x);
+    }
+    if (response instanceof Ic2ResponseTicketCreate x) {
+      return new Ic2BatchResponse.TicketCreate(x);
+    }
+    if (response instanceof Ic2ResponseTicketGet x) {
+      return new Ic2BatchResponse.TicketGet(x);
+    }
+    if (response instanceof Ic2ResponseTicketGetIfChanged x) {
+      return new Ic2BatchResponse.TicketGetIfChanged(x);
+    }
+    if (response instanceof Ic2ResponseTicketGetMany x) {
+      return new Ic2BatchResponse.TicketGetMany(x);
+    }
+    if (response instanceof Ic2ResponseTicketSearchBegin x) {
+      return new Ic2BatchResponse.TicketSearchBegin(x);
+    }
+    if (response instanceof Ic2ResponseTicketSearchNext x) {
+      return new Ic2BatchResponse.TicketSearchNext(x);
+    }
+    if (response instanceof Ic2ResponseTicketSearchPrevious x) {
+      return new Ic2BatchResponse.TicketSearchPrevious(x);
+    }
+    if (response instanceof Ic2ResponseTicketUpdate x) {
+      return new Ic2BatchResponse.TicketUpdate(x);
+    }
+
+    throw new IcProtocolException(
+      PROTOCOL_ERROR,
+      "Unbatchable response: %s".formatted(response)
+    );
+  }
+
+  static ProtocolTicketsv2Type fromWireBatchResponse(
+    final Ic2BatchResponse response)
+  {
+    if (response instanceof Ic2BatchResponse.Error x) {
+      return x.fieldResponse();
+    }
+    if (response instanceof Ic2BatchResponse.PermissionGrant x) {
+      return x.fieldResponse();
+    }
+    if (response instanceof Ic2BatchResponse.PermissionGrantMany x) {
+      return x.fieldResponse();
+    }
+    if (response instanceof Ic2BatchResponse.PermissionRevokeMany x) {
+      return x.fieldResponse();
+    }
+    if (response instanceof Ic2BatchResponse.ProjectCreate x) {
+      return x.fieldResponse();
+    }
+    if (response instanceof Ic2BatchResponse.ProjectStatistics x) {
+      return x.fieldResponse();
+    }
+    if (response instanceof Ic2BatchResponse.SavedSearchCreate x) {
+      return x.fieldResponse();
+    }
+    if (response instanceof Ic2BatchResponse.SavedSearchDelete x) {
+      return x.fieldResponse();
+    }
+    if (response instanceof Ic2BatchResponse.SavedSearchResults x) {
+      return x.fieldResponse();
+    }
+    if (response instanceof Ic2BatchResponse.TicketChangesSince x) {
+      return x.fieldResponse();
+    }
+    if (response instanceof Ic2BatchResponse.TicketCommentCreate x) {
+      return x.fieldResponse();
+    }
+    if (response instanceof Ic2BatchResponse.TicketCreate x) {
+      return x.fieldResponse();
+    }
+    if (response instanceof Ic2BatchResponse.TicketGet x) {
+      return x.fieldResponse();
+    }
+    if (response instanceof Ic2BatchResponse.TicketGetIfChanged x) {
+      return x.fieldResponse();
+    }
+    if (response instanceof Ic2BatchResponse.TicketGetMany x) {
+      return x.fieldResponse();
+    }
+    if (response instanceof Ic2BatchResponse.TicketSearchBegin x) {
+      return x.fieldResponse();
+    }
+    if (response instanceof Ic2BatchResponse.TicketSearchNext x) {
+      return x.fieldResponse();
+    }
+    if (response instanceof Ic2BatchResponse.TicketSearchPrevious x) {
+      return x.fieldResponse();
+    }
+    if (response instanceof Ic2BatchResponse.TicketUpdate x) {
+      return x.fieldResponse();
+    }
+
+    throw new IllegalStateException(
+      "Unrecognized batch response: %s".formatted(response)
+    );
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.cedarbridge.runtime.api.CBIntegerSigned64;
+import com.io7m.icatiro.model.IcTimeRange;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static com.io7m.cedarbridge.runtime.api.CBCore.signed64;
+
+/**
+ * Conversions of the values shared by the version 2 messages.
+ */
+
+final class IcT2Core
+{
+  private IcT2Core()
+  {
+
+  }
+
+  static Ic2TimeRange toWireTimeRange(
+    final IcTimeRange timeRange)
+  {
+    return new Ic2TimeRange(
+      toWireTime(timeRange.timeLower()),
+      toWireTime(timeRange.timeUpper())
+    );
+  }
+
+  /**
+   * Convert a time to milliseconds since the epoch. Times are stored with
+   * microsecond precision, and so the time is truncated to the millisecond.
+   * The server compensates for the truncation by rounding the bounds of the
+   * time ranges that it receives outwards to whole milliseconds.
+   *
+   * @param t The time
+   *
+   * @return The wire time
+   */
+
+  static CBIntegerSigned64 toWireTime(
+    final OffsetDateTime t)
+  {
+    return signed64(t.toInstant().toEpochMilli());
+  }
+
+  static IcTimeRange fromWireTimeRange(
+    final Ic2TimeRange range)
+  {
+    return new IcTimeRange(
+      fromWireTime(range.fieldLower()),
+      fromWireTime(range.fieldUpper())
+    );
+  }
+
+  static OffsetDateTime fromWireTime(
+    final CBIntegerSigned64 t)
+  {
+    return OffsetDateTime.ofInstant(
+      Instant.ofEpochMilli(t.value()),
+      ZoneOffset.UTC
+    );
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.cedarbridge.runtime.api.CBProtocolMessageVersionedSerializerType;
+import com.io7m.cedarbridge.runtime.bssio.CBSerializationContextBSSIO;
+import com.io7m.icatiro.protocol.IcProtocolException;
+import com.io7m.icatiro.protocol.IcProtocolMessagesType;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.services.api.IcServiceType;
+import com.io7m.jbssio.api.BSSReaderProviderType;
+import com.io7m.jbssio.api.BSSWriterProviderType;
+import com.io7m.jbssio.vanilla.BSSReaders;
+import com.io7m.jbssio.vanilla.BSSWriters;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.UUID;
+
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.IO_ERROR;
+
+/**
+ * The protocol messages for Tickets v2 Cedarbridge.
+ */
+
+public final class IcT2Messages
+  implements IcProtocolMessagesType<IcTMessageType>, IcServiceType
+{
+  private static final ProtocolTickets PROTOCOL = new ProtocolTickets();
+
+  private final BSSReaderProviderType readers;
+  private final BSSWriterProviderType writers;
+  private final IcT2Validation validator;
+  private final CBProtocolMessageVersionedSerializerType<ProtocolTicketsType> serializer;
+
+  /**
+   * The protocol messages for Tickets v2 Cedarbridge.
+   *
+   * @param inReaders The readers
+   * @param inWriters The writers
+   */
+
+  public IcT2Messages(
+    final BSSReaderProviderType inReaders,
+    final BSSWriterProviderType inWriters)
+  {
+    this.readers =
+      Objects.requireNonNull(inReaders, "readers");
+    this.writers =
+      Objects.requireNonNull(inWriters, "writers");
+
+    this.validator = new IcT2Validation();
+    this.serializer =
+      PROTOCOL.serializerForProtocolVersion(2L)
+        .orElseThrow(() -> {
+          return new IllegalStateException("No support for version 2");
+        });
+  }
+
+  /**
+   * The protocol messages for Tickets v2 Cedarbridge.
+   */
+
+  public IcT2Messages()
+  {
+    this(new BSSReaders(), new BSSWriters());
+  }
+
+  /**
+   * @return The content type, which is shared with version 1 of the protocol
+   */
+
+  public static String contentType()
+  {
+    return IcT1Messages.contentType();
+  }
+
+  /**
+   * @return The protocol identifier
+   */
+
+  public static UUID protocolId()
+  {
+    return PROTOCOL.protocolId();
+  }
+
+  @Override
+  public IcTMessageType parse(
+    final byte[] data)
+    throws IcProtocolException
+  {
+    final var context =
+      CBSerializationContextBSSIO.createFromByteArray(this.readers, data);
+
+    try {
+      return this.validator.convertFromWire(
+        (ProtocolTicketsv2Type) this.serializer.deserialize(context)
+      );
+    } catch (final IOException e) {
+      throw new IcProtocolException(IO_ERROR, e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public byte[] serialize(
+    final IcTMessageType message)
+    throws IcProtocolException
+  {
+    final var output = new ByteArrayOutputStream();
+    this.serialize(message, output);
+    return output.toByteArray();
+  }
+
+  @Override
+  public IcTMessageType parse(
+    final InputStream input)
+    throws IcProtocolException
+  {
+    Objects.requireNonNull(input, "input");
+
+    final var context =
+      CBSerializationContextBSSIO.createFromInputStream(this.readers, input);
+
+    try {
+      return this.validator.convertFromWire(
+        (ProtocolTicketsv2Type) this.serializer.deserialize(context)
+      );
+    } catch (final IOException e) {
+      throw new IcProtocolException(IO_ERROR, e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public void serialize(
+    final IcTMessageType message,
+    final OutputStream output)
+    throws IcProtocolException
+  {
+    Objects.requireNonNull(output, "output");
+
+    final var wire = this.validator.convertToWire(message);
+
+    try {
+      final var context =
+        CBSerializationContextBSSIO.createFromOutputStream(
+          this.writers,
+          output);
+      this.serializer.serialize(context, wire);
+      output.flush();
+    } catch (final IOException e) {
+      throw new IcProtocolException(IO_ERROR, e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public String description()
+  {
+    return "Tickets v2 Cedarbridge message service.";
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[IcT2Messages 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
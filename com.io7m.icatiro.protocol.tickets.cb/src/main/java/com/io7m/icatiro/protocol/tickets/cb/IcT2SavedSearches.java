@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.cedarbridge.runtime.api.CBCore;
+import com.io7m.cedarbridge.runtime.api.CBString;
+import com.io7m.icatiro.model.IcSavedSearch;
+import com.io7m.icatiro.model.IcSavedSearchName;
+
+import static com.io7m.cedarbridge.runtime.api.CBCore.string;
+import static com.io7m.cedarbridge.runtime.api.CBOptionType.fromOptional;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2Core.fromWireTimeRange;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2Core.toWireTimeRange;
+
+/**
+ * Conversions of the version 2 saved search messages.
+ */
+
+final class IcT2SavedSearches
+{
+  private IcT2SavedSearches()
+  {
+
+  }
+
+  static Ic2SavedSearch toWireSavedSearch(
+    final IcSavedSearch s)
+  {
+    return new Ic2SavedSearch(
+      string(s.name().value()),
+      toWireTimeRange(s.timeCreatedRange()),
+      toWireTimeRange(s.timeUpdatedRange()),
+      fromOptional(s.titleSearch().map(CBCore::string)),
+      fromOptional(s.descriptionSearch().map(CBCore::string)),
+      fromOptional(s.reporter().map(IcT1Core::toWireUUID))
+    );
+  }
+
+  static IcSavedSearch fromWireSavedSearch(
+    final Ic2SavedSearch s)
+  {
+    return new IcSavedSearch(
+      new IcSavedSearchName(s.fieldName().value()),
+      fromWireTimeRange(s.fieldTimeCreatedRange()),
+      fromWireTimeRange(s.fieldTimeUpdatedRange()),
+      s.fieldTitleSearch().asOptional().map(CBString::value),
+      s.fieldDescriptionSearch().asOptional().map(CBString::value),
+      s.fieldReporter().asOptional().map(IcT1Core::fromWireUUID)
+    );
+  }
+}
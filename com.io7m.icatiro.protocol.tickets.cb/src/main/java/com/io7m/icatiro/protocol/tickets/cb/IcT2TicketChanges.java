@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.cedarbridge.runtime.api.CBList;
+import com.io7m.icatiro.model.IcTicketChange;
+import com.io7m.icatiro.model.IcTicketChanges;
+
+import static com.io7m.cedarbridge.runtime.api.CBOptionType.fromOptional;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromOptionalLong;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toOptionalLong;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1TicketChanges.fromWireTicketChangeCursor;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1TicketChanges.fromWireTicketChangeKind;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1TicketChanges.toWireTicketChangeCursor;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1TicketChanges.toWireTicketChangeKind;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2Core.fromWireTime;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2Core.toWireTime;
+
+/**
+ * Conversions of the version 2 ticket change feed messages.
+ */
+
+final class IcT2TicketChanges
+{
+  private IcT2TicketChanges()
+  {
+
+  }
+
+  static Ic2TicketChanges toWireTicketChanges(
+    final IcTicketChanges changes)
+  {
+    return new Ic2TicketChanges(
+      new CBList<>(
+        changes.changes()
+          .stream()
+          .map(IcT2TicketChanges::toWireTicketChange)
+          .toList()
+      ),
+      toWireTicketChangeCursor(changes.next()),
+      fromOptional(changes.stalledSince().map(IcT2Core::toWireTime))
+    );
+  }
+
+  private static Ic2TicketChange toWireTicketChange(
+    final IcTicketChange change)
+  {
+    return new Ic2TicketChange(
+      toWireTicketId(change.ticket()),
+      toWireTicketChangeKind(change.kind()),
+      fromOptionalLong(change.comment()),
+      toWireTime(change.time())
+    );
+  }
+
+  static IcTicketChanges fromWireTicketChanges(
+    final Ic2TicketChanges c)
+  {
+    return new IcTicketChanges(
+      c.fieldChanges()
+        .values()
+        .stream()
+        .map(IcT2TicketChanges::fromWireTicketChange)
+        .toList(),
+      fromWireTicketChangeCursor(c.fieldNext()),
+      c.fieldStalledSince().asOptional().map(IcT2Core::fromWireTime)
+    );
+  }
+
+  private static IcTicketChange fromWireTicketChange(
+    final Ic2TicketChange c)
+  {
+    return new IcTicketChange(
+      fromWireTicketId(c.fieldTicket()),
+      fromWireTicketChangeKind(c.fieldKind()),
+      toOptionalLong(c.fieldComment()),
+      fromWireTime(c.fieldTime())
+    );
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.cedarbridge.runtime.api.CBCore;
+import com.io7m.cedarbridge.runtime.api.CBString;
+import com.io7m.icatiro.model.IcTicketSearch;
+import com.io7m.icatiro.model.IcTicketSearchProjection;
+
+import static com.io7m.cedarbridge.runtime.api.CBBooleanType.fromBoolean;
+import static com.io7m.cedarbridge.runtime.api.CBCore.string;
+import static com.io7m.cedarbridge.runtime.api.CBCore.unsigned16;
+import static com.io7m.cedarbridge.runtime.api.CBOptionType.fromOptional;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireColumnOrdering;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireTicketColumnOrdering;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2Core.fromWireTimeRange;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2Core.toWireTimeRange;
+
+/**
+ * Conversions of the version 2 ticket search messages.
+ */
+
+final class IcT2TicketSearches
+{
+  private IcT2TicketSearches()
+  {
+
+  }
+
+  private static Ic2TicketSearchProjection toWireTicketSearchProjection(
+    final IcTicketSearchProjection projection)
+  {
+    return switch (projection) {
+      case ID -> new Ic2TicketSearchProjection.Id();
+      case ID_AND_TITLE -> new Ic2TicketSearchProjection.IdAndTitle();
+      case FULL -> new Ic2TicketSearchProjection.Full();
+    };
+  }
+
+  static Ic2TicketSearchParameters toWireTicketSearch(
+    final IcTicketSearch p)
+  {
+    return new Ic2TicketSearchParameters(
+      toWireTimeRange(p.timeCreatedRange()),
+      toWireTimeRange(p.timeUpdatedRange()),
+      toWireTicketColumnOrdering(p.ordering()),
+      unsigned16(p.limit()),
+      fromOptional(p.titleSearch().map(CBCore::string)),
+      fromOptional(p.descriptionSearch().map(CBCore::string)),
+      fromOptional(p.reporter().map(IcT1Core::toWireUUID)),
+      fromBoolean(p.includeArchived()),
+      toWireTicketSearchProjection(p.projection())
+    );
+  }
+
+  private static IcTicketSearchProjection fromWireTicketSearchProjection(
+    final Ic2TicketSearchProjection projection)
+  {
+    if (projection instanceof Ic2TicketSearchProjection.Id) {
+      return IcTicketSearchProjection.ID;
+    }
+    if (projection instanceof Ic2TicketSearchProjection.IdAndTitle) {
+      return IcTicketSearchProjection.ID_AND_TITLE;
+    }
+    if (projection instanceof Ic2TicketSearchProjection.Full) {
+      return IcTicketSearchProjection.FULL;
+    }
+    throw new IllegalStateException(
+      "Unrecognized search projection: %s".formatted(projection)
+    );
+  }
+
+  static IcTicketSearch fromWireTicketSearch(
+    final Ic2TicketSearchParameters p)
+  {
+    return new IcTicketSearch(
+      fromWireTimeRange(p.fieldTimeCreatedRange()),
+      fromWireTimeRange(p.fieldTimeUpdatedRange()),
+      fromWireColumnOrdering(p.fieldOrdering()),
+      p.fieldLimit().value(),
+      p.fieldTitleSearch().asOptional().map(CBString::value),
+      p.fieldDescriptionSearch().asOptional().map(CBString::value),
+      p.fieldReporter().asOptional().map(IcT1Core::fromWireUUID),
+      p.fieldIncludeArchived().asBoolean(),
+      fromWireTicketSearchProjection(p.fieldProjection())
+    );
+  }
+}
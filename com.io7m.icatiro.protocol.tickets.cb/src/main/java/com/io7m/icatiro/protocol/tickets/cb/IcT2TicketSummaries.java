@@ -0,0 +1,293 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.cedarbridge.runtime.api.CBIntegerUnsigned32;
+import com.io7m.cedarbridge.runtime.api.CBList;
+import com.io7m.icatiro.model.IcPage;
+import com.io7m.icatiro.model.IcTicketID;
+import com.io7m.icatiro.model.IcTicketSummary;
+import com.io7m.icatiro.model.IcTicketSummaryID;
+import com.io7m.icatiro.model.IcTicketSummaryTitled;
+import com.io7m.icatiro.model.IcTicketSummaryType;
+import com.io7m.icatiro.model.IcTicketTitle;
+import com.io7m.idstore.model.IdName;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static com.io7m.cedarbridge.runtime.api.CBCore.string;
+import static com.io7m.cedarbridge.runtime.api.CBCore.unsigned32;
+import static com.io7m.cedarbridge.runtime.api.CBCore.unsigned64;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Projects.fromWireProject;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2Core.fromWireTime;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2Core.toWireTime;
+
+/**
+ * Conversions of the pages of ticket summaries in version 2 messages.
+ */
+
+final class IcT2TicketSummaries
+{
+  private IcT2TicketSummaries()
+  {
+
+  }
+
+  static Ic2TicketSummaryPage toWireTicketSummaryPage(
+    final IcPage<IcTicketSummaryType> page)
+  {
+    return new Ic2TicketSummaryPage(
+      toWireTicketSummaryList(page.items()),
+      unsigned32(Integer.toUnsignedLong(page.pageIndex())),
+      unsigned32(Integer.toUnsignedLong(page.pageCount())),
+      unsigned64(page.pageFirstOffset())
+    );
+  }
+
+  private static Ic2TicketSummaryList toWireTicketSummaryList(
+    final List<IcTicketSummaryType> summaries)
+  {
+    /*
+     * The items of a page are all produced by the same search projection,
+     * and so are all of the same kind. An empty page is written as a list
+     * of full summaries.
+     */
+
+    if (summaries.isEmpty()) {
+      return new Ic2TicketSummaryList.Full(toWireTicketSummaries(List.of()));
+    }
+
+    final var kind = summaries.get(0).getClass();
+    for (final var summary : summaries) {
+      if (summary.getClass() != kind) {
+        throw new IllegalArgumentException(
+          "Ticket summaries must all be of the same kind (%s, %s)"
+            .formatted(kind.getSimpleName(), summary.getClass().getSimpleName())
+        );
+      }
+    }
+
+    if (kind == IcTicketSummaryID.class) {
+      return new Ic2TicketSummaryList.Id(
+        new CBList<>(
+          summaries.stream()
+            .map(s -> toWireTicketId(s.ticketId()))
+            .toList()
+        )
+      );
+    }
+
+    if (kind == IcTicketSummaryTitled.class) {
+      return new Ic2TicketSummaryList.IdAndTitle(
+        new CBList<>(
+          summaries.stream()
+            .map(IcTicketSummaryTitled.class::cast)
+            .map(IcT2TicketSummaries::toWireTicketSummaryTitled)
+            .toList()
+        )
+      );
+    }
+
+    return new Ic2TicketSummaryList.Full(
+      toWireTicketSummaries(
+        summaries.stream()
+          .map(IcTicketSummary.class::cast)
+          .toList()
+      )
+    );
+  }
+
+  private static Ic2TicketSummaryTitled toWireTicketSummaryTitled(
+    final IcTicketSummaryTitled summary)
+  {
+    return new Ic2TicketSummaryTitled(
+      toWireTicketId(summary.ticketId()),
+      string(summary.ticketTitle().value()),
+      toWireTime(summary.timeCreated()),
+      toWireTime(summary.timeUpdated())
+    );
+  }
+
+  static Ic2TicketSummaries toWireTicketSummaries(
+    final List<IcTicketSummary> summaries)
+  {
+    /*
+     * Each distinct project and user is written once, and the summaries
+     * refer to them by index. Projects and users are compared by value, so
+     * summaries that disagree about the name of a project or user still
+     * round-trip exactly.
+     */
+
+    final var projects =
+      new ArrayList<Ic1Project>();
+    final var projectIndices =
+      new HashMap<Ic1Project, CBIntegerUnsigned32>();
+    final var users =
+      new ArrayList<Ic2UserName>();
+    final var userIndices =
+      new HashMap<Ic2UserName, CBIntegerUnsigned32>();
+    final var items =
+      new ArrayList<Ic2TicketSummary>(summaries.size());
+
+    for (final var summary : summaries) {
+      final var project =
+        new Ic1Project(
+          unsigned64(summary.ticketId().project().value()),
+          string(summary.projectShortName().value()),
+          string(summary.projectTitle().value())
+        );
+      final var user =
+        new Ic2UserName(
+          toWireUUID(summary.reporter()),
+          string(summary.reporterName().value())
+        );
+
+      final var projectIndex =
+        projectIndices.computeIfAbsent(project, p -> {
+          projects.add(p);
+          return unsigned32(projects.size() - 1);
+        });
+      final var userIndex =
+        userIndices.computeIfAbsent(user, u -> {
+          users.add(u);
+          return unsigned32(users.size() - 1);
+        });
+
+      items.add(
+        new Ic2TicketSummary(
+          projectIndex,
+          unsigned64(summary.ticketId().value()),
+          string(summary.ticketTitle().value()),
+          toWireTime(summary.timeCreated()),
+          toWireTime(summary.timeUpdated()),
+          userIndex
+        )
+      );
+    }
+
+    return new Ic2TicketSummaries(
+      new CBList<>(projects),
+      new CBList<>(users),
+      new CBList<>(items)
+    );
+  }
+
+  static IcPage<IcTicketSummaryType> fromWireTicketSummaryPage(
+    final Ic2TicketSummaryPage page)
+  {
+    return new IcPage<>(
+      fromWireTicketSummaryList(page.fieldSummaries()),
+      (int) page.fieldPageIndex().value(),
+      (int) page.fieldPageCount().value(),
+      page.fieldPageFirstOffset().value()
+    );
+  }
+
+  private static List<IcTicketSummaryType> fromWireTicketSummaryList(
+    final Ic2TicketSummaryList list)
+  {
+    if (list instanceof Ic2TicketSummaryList.Full full) {
+      return List.copyOf(fromWireTicketSummaries(full.fieldSummaries()));
+    }
+    if (list instanceof Ic2TicketSummaryList.IdAndTitle titled) {
+      return titled.fieldItems()
+        .values()
+        .stream()
+        .map(IcT2TicketSummaries::fromWireTicketSummaryTitled)
+        .toList();
+    }
+    if (list instanceof Ic2TicketSummaryList.Id ids) {
+      return ids.fieldItems()
+        .values()
+        .stream()
+        .<IcTicketSummaryType>map(i -> new IcTicketSummaryID(fromWireTicketId(i)))
+        .toList();
+    }
+    throw new IllegalStateException(
+      "Unrecognized ticket summary list: %s".formatted(list)
+    );
+  }
+
+  private static IcTicketSummaryType fromWireTicketSummaryTitled(
+    final Ic2TicketSummaryTitled summary)
+  {
+    return new IcTicketSummaryTitled(
+      fromWireTicketId(summary.fieldTicket()),
+      new IcTicketTitle(summary.fieldTicketTitle().value()),
+      fromWireTime(summary.fieldTimeCreated()),
+      fromWireTime(summary.fieldTimeUpdated())
+    );
+  }
+
+  static List<IcTicketSummary> fromWireTicketSummaries(
+    final Ic2TicketSummaries summaries)
+  {
+    final var projects =
+      summaries.fieldProjects().values();
+    final var users =
+      summaries.fieldUsers().values();
+    final var items =
+      summaries.fieldItems().values();
+
+    final var results = new ArrayList<IcTicketSummary>(items.size());
+    for (final var item : items) {
+      final var project =
+        fromWireProject(
+          lookup(projects, item.fieldProject(), "project"));
+      final var user =
+        lookup(users, item.fieldReporter(), "user");
+
+      results.add(
+        new IcTicketSummary(
+          project.title(),
+          project.shortName(),
+          new IcTicketID(project.id(), item.fieldTicket().value()),
+          new IcTicketTitle(item.fieldTicketTitle().value()),
+          fromWireTime(item.fieldTimeCreated()),
+          fromWireTime(item.fieldTimeUpdated()),
+          fromWireUUID(user.fieldId()),
+          new IdName(user.fieldName().value())
+        )
+      );
+    }
+    return List.copyOf(results);
+  }
+
+  private static <T> T lookup(
+    final List<T> values,
+    final CBIntegerUnsigned32 index,
+    final String name)
+  {
+    final var i = index.value();
+    if (i >= values.size()) {
+      throw new IllegalArgumentException(
+        "Ticket summary refers to nonexistent %s %s (there are %d)"
+          .formatted(
+            name,
+            Long.toUnsignedString(i),
+            Integer.valueOf(values.size()))
+      );
+    }
+    return values.get((int) i);
+  }
+}
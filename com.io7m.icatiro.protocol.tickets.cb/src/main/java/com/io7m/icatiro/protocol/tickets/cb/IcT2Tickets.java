@@ -0,0 +1,159 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.cedarbridge.runtime.api.CBList;
+import com.io7m.icatiro.model.IcTicket;
+import com.io7m.icatiro.model.IcTicketComment;
+import com.io7m.icatiro.model.IcTicketGetResultForbidden;
+import com.io7m.icatiro.model.IcTicketGetResultFound;
+import com.io7m.icatiro.model.IcTicketGetResultNotFound;
+import com.io7m.icatiro.model.IcTicketGetResultType;
+import com.io7m.icatiro.model.IcTicketTitle;
+import com.io7m.idstore.model.IdName;
+
+import static com.io7m.cedarbridge.runtime.api.CBCore.string;
+import static com.io7m.cedarbridge.runtime.api.CBCore.unsigned64;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromOptionalLong;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toOptionalLong;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2Core.fromWireTime;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2Core.toWireTime;
+
+/**
+ * Conversions of the version 2 messages that carry tickets.
+ */
+
+final class IcT2Tickets
+{
+  private IcT2Tickets()
+  {
+
+  }
+
+  static Ic2Ticket toWireTicket(
+    final IcTicket ticket)
+  {
+    return new Ic2Ticket(
+      toWireTicketId(ticket.id()),
+      string(ticket.title().value()),
+      toWireTime(ticket.timeCreated()),
+      toWireTime(ticket.timeUpdated()),
+      unsigned64(ticket.version()),
+      toWireUUID(ticket.reporter()),
+      string(ticket.reporterName().value()),
+      string(ticket.description()),
+      new CBList<>(
+        ticket.comments()
+          .stream()
+          .map(IcT2Tickets::toWireTicketComment)
+          .toList()
+      )
+    );
+  }
+
+  static Ic2TicketComment toWireTicketComment(
+    final IcTicketComment comment)
+  {
+    return new Ic2TicketComment(
+      toWireTicketId(comment.ticket()),
+      toWireTime(comment.time()),
+      toWireUUID(comment.owner()),
+      unsigned64(comment.commentId()),
+      fromOptionalLong(comment.commentRepliedTo()),
+      string(comment.text())
+    );
+  }
+
+  static Ic2TicketGetResult toWireTicketGetResult(
+    final IcTicketGetResultType result)
+  {
+    if (result instanceof IcTicketGetResultFound found) {
+      return new Ic2TicketGetResult.Found(toWireTicket(found.ticket()));
+    }
+
+    if (result instanceof IcTicketGetResultNotFound notFound) {
+      return new Ic2TicketGetResult.NotFound(toWireTicketId(notFound.id()));
+    }
+
+    if (result instanceof IcTicketGetResultForbidden forbidden) {
+      return new Ic2TicketGetResult.Forbidden(toWireTicketId(forbidden.id()));
+    }
+
+    throw new IllegalStateException(
+      "Unrecognized ticket result: %s".formatted(result)
+    );
+  }
+
+  static IcTicket fromWireTicket(
+    final Ic2Ticket ticket)
+  {
+    return new IcTicket(
+      fromWireTicketId(ticket.fieldTicket()),
+      new IcTicketTitle(ticket.fieldTitle().value()),
+      fromWireTime(ticket.fieldTimeCreated()),
+      fromWireTime(ticket.fieldTimeUpdated()),
+      ticket.fieldVersion().value(),
+      fromWireUUID(ticket.fieldReporter()),
+      new IdName(ticket.fieldReporterName().value()),
+      ticket.fieldDescription().value(),
+      ticket.fieldComments()
+        .values()
+        .stream()
+        .map(IcT2Tickets::fromWireTicketComment)
+        .toList()
+    );
+  }
+
+  static IcTicketComment fromWireTicketComment(
+    final Ic2TicketComment c)
+  {
+    return new IcTicketComment(
+      fromWireTicketId(c.fieldTicket()),
+      fromWireTime(c.fieldTime()),
+      fromWireUUID(c.fieldOwner()),
+      c.fieldId().value(),
+      toOptionalLong(c.fieldInReplyTo()),
+      c.fieldText().value()
+    );
+  }
+
+  static IcTicketGetResultType fromWireTicketGetResult(
+    final Ic2TicketGetResult r)
+  {
+    if (r instanceof Ic2TicketGetResult.Found found) {
+      return new IcTicketGetResultFound(fromWireTicket(found.fieldTicket()));
+    }
+
+    if (r instanceof Ic2TicketGetResult.NotFound notFound) {
+      return new IcTicketGetResultNotFound(
+        fromWireTicketId(notFound.fieldTicket()));
+    }
+
+    if (r instanceof Ic2TicketGetResult.Forbidden forbidden) {
+      return new IcTicketGetResultForbidden(
+        fromWireTicketId(forbidden.fieldTicket()));
+    }
+
+    throw new IllegalStateException(
+      "Unrecognized ticket result: %s".formatted(r)
+    );
+  }
+}
@@ -0,0 +1,417 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import com.io7m.cedarbridge.runtime.api.CBList;
+import com.io7m.icatiro.model.IcTicketVersionToken;
+import com.io7m.icatiro.protocol.IcProtocolException;
+import com.io7m.icatiro.protocol.IcProtocolMessageValidatorType;
+import com.io7m.icatiro.protocol.tickets.IcTCommandBatch;
+import com.io7m.icatiro.protocol.tickets.IcTCommandSavedSearchCreate;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketGetIfChanged;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketSearchBegin;
+import com.io7m.icatiro.protocol.tickets.IcTCommandType;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.protocol.tickets.IcTResponseBatch;
+import com.io7m.icatiro.protocol.tickets.IcTResponseSavedSearchCreate;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketChangesSince;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketCommentCreate;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketCreate;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketGet;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketGetIfChanged;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketGetMany;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketSearchBegin;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketSearchNext;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketSearchPrevious;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketUpdate;
+import com.io7m.icatiro.protocol.tickets.IcTResponseType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.io7m.cedarbridge.runtime.api.CBCore.string;
+import static com.io7m.cedarbridge.runtime.api.CBOptionType.fromOptional;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.PROTOCOL_ERROR;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.fromWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireTicketId;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Core.toWireUUID;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Permissions.fromWirePermissionMatrix;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT1Permissions.toWirePermissionMatrix;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2BatchCommands.fromWireBatchCommand;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2BatchCommands.fromWireBatchMode;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2BatchCommands.toWireBatchCommand;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2BatchCommands.toWireBatchMode;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2BatchResponses.fromWireBatchResponse;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2BatchResponses.toWireBatchResponse;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2SavedSearches.fromWireSavedSearch;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2SavedSearches.toWireSavedSearch;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2TicketChanges.fromWireTicketChanges;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2TicketChanges.toWireTicketChanges;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2TicketSearches.fromWireTicketSearch;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2TicketSearches.toWireTicketSearch;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2TicketSummaries.fromWireTicketSummaries;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2TicketSummaries.fromWireTicketSummaryPage;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2TicketSummaries.toWireTicketSummaries;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2TicketSummaries.toWireTicketSummaryPage;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2Tickets.fromWireTicket;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2Tickets.fromWireTicketComment;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2Tickets.toWireTicket;
+import static com.io7m.icatiro.protocol.tickets.cb.IcT2Tickets.toWireTicketComment;
+
+/**
+ * Functions to translate between the core command set and the Tickets
+ * Cedarbridge encoding command set, version 2.
+ *
+ * Version 2 replaces the messages that contain timestamps or ticket
+ * summaries. All other messages are shared with version 1, and are
+ * translated by {@link IcT1Validation}.
+ */
+
+public final class IcT2Validation
+  implements IcProtocolMessageValidatorType<IcTMessageType, ProtocolTicketsv2Type>
+{
+  private final IcT1Validation v1;
+
+  /**
+   * Functions to translate between the core command set and the Tickets
+   * Cedarbridge encoding command set, version 2.
+   */
+
+  public IcT2Validation()
+  {
+    this.v1 = new IcT1Validation();
+  }
+
+  @Override
+  public ProtocolTicketsv2Type convertToWire(
+    final IcTMessageType message)
+    throws IcProtocolException
+  {
+    final ProtocolTicketsv2Type result;
+    try {
+      if (message instanceof IcTCommandBatch c) {
+        return this.toWireCommandBatch(c);
+      }
+      if (message instanceof IcTResponseBatch r) {
+        return this.toWireResponseBatch(r);
+      }
+      result = toWire(message);
+    } catch (final Exception e) {
+      throw new IcProtocolException(PROTOCOL_ERROR, e.getMessage());
+    }
+
+    if (result != null) {
+      return result;
+    }
+
+    /*
+     * Every version 1 message that was not replaced in version 2 is
+     * also a version 2 message.
+     */
+
+    return (ProtocolTicketsv2Type) this.v1.convertToWire(message);
+  }
+
+  private Ic2CommandBatch toWireCommandBatch(
+    final IcTCommandBatch c)
+    throws IcProtocolException
+  {
+    final var commands =
+      new ArrayList<Ic2BatchCommand>(c.commands().size());
+    for (final var command : c.commands()) {
+      commands.add(toWireBatchCommand(this.convertToWire(command)));
+    }
+    return new Ic2CommandBatch(
+      new CBList<>(commands),
+      toWireBatchMode(c.mode())
+    );
+  }
+
+  private Ic2ResponseBatch toWireResponseBatch(
+    final IcTResponseBatch r)
+    throws IcProtocolException
+  {
+    final var responses =
+      new ArrayList<Ic2BatchResponse>(r.responses().size());
+    for (final var response : r.responses()) {
+      responses.add(toWireBatchResponse(this.convertToWire(response)));
+    }
+    return new Ic2ResponseBatch(
+      toWireUUID(r.requestId()),
+      new CBList<>(responses)
+    );
+  }
+
+  private static ProtocolTicketsv2Type toWire(
+    final IcTMessageType message)
+  {
+    if (message instanceof IcTCommandTicketSearchBegin c) {
+      return new Ic2CommandTicketSearchBegin(
+        toWireTicketSearch(c.search())
+      );
+    }
+    if (message instanceof IcTCommandSavedSearchCreate c) {
+      return new Ic2CommandSavedSearchCreate(
+        toWireSavedSearch(c.search())
+      );
+    }
+    if (message instanceof IcTResponseTicketSearchBegin r) {
+      return new Ic2ResponseTicketSearchBegin(
+        toWireUUID(r.requestId()),
+        toWireTicketSummaryPage(r.tickets()),
+        toWirePermissionMatrix(r.permissions())
+      );
+    }
+    if (message instanceof IcTResponseTicketSearchNext r) {
+      return new Ic2ResponseTicketSearchNext(
+        toWireUUID(r.requestId()),
+        toWireTicketSummaryPage(r.tickets()),
+        toWirePermissionMatrix(r.permissions())
+      );
+    }
+    if (message instanceof IcTResponseTicketSearchPrevious r) {
+      return new Ic2ResponseTicketSearchPrevious(
+        toWireUUID(r.requestId()),
+        toWireTicketSummaryPage(r.tickets()),
+        toWirePermissionMatrix(r.permissions())
+      );
+    }
+    if (message instanceof IcTResponseTicketCreate r) {
+      return new Ic2ResponseTicketCreate(
+        toWireUUID(r.requestId()),
+        toWireTicketSummaries(List.of(r.ticket()))
+      );
+    }
+    if (message instanceof IcTResponseTicketUpdate r) {
+      return new Ic2ResponseTicketUpdate(
+        toWireUUID(r.requestId()),
+        toWireTicket(r.ticket())
+      );
+    }
+    if (message instanceof IcTResponseTicketGet r) {
+      return new Ic2ResponseTicketGet(
+        toWireUUID(r.requestId()),
+        toWireTicket(r.ticket())
+      );
+    }
+    if (message instanceof IcTCommandTicketGetIfChanged c) {
+      return new Ic2CommandTicketGetIfChanged(
+        toWireTicketId(c.id()),
+        string(c.token().value())
+      );
+    }
+    if (message instanceof IcTResponseTicketGetIfChanged r) {
+      return new Ic2ResponseTicketGetIfChanged(
+        toWireUUID(r.requestId()),
+        fromOptional(r.ticket().map(IcT2Tickets::toWireTicket))
+      );
+    }
+    if (message instanceof IcTResponseTicketGetMany r) {
+      return new Ic2ResponseTicketGetMany(
+        toWireUUID(r.requestId()),
+        new CBList<>(
+          r.results()
+            .stream()
+            .map(IcT2Tickets::toWireTicketGetResult)
+            .toList()
+        )
+      );
+    }
+    if (message instanceof IcTResponseTicketCommentCreate r) {
+      return new Ic2ResponseTicketCommentCreate(
+        toWireUUID(r.requestId()),
+        toWireTicketComment(r.comment())
+      );
+    }
+    if (message instanceof IcTResponseSavedSearchCreate r) {
+      return new Ic2ResponseSavedSearchCreate(
+        toWireUUID(r.requestId()),
+        toWireSavedSearch(r.search())
+      );
+    }
+    if (message instanceof IcTResponseTicketChangesSince r) {
+      return new Ic2ResponseTicketChangesSince(
+        toWireUUID(r.requestId()),
+        toWireTicketChanges(r.changes())
+      );
+    }
+    return null;
+  }
+
+  @Override
+  public IcTMessageType convertFromWire(
+    final ProtocolTicketsv2Type message)
+    throws IcProtocolException
+  {
+    final IcTMessageType result;
+    try {
+      if (message instanceof Ic2CommandBatch m) {
+        return this.fromWireCommandBatch(m);
+      }
+      if (message instanceof Ic2ResponseBatch m) {
+        return this.fromWireResponseBatch(m);
+      }
+      result = fromWire(message);
+    } catch (final Exception e) {
+      throw new IcProtocolException(PROTOCOL_ERROR, e.getMessage(), e);
+    }
+
+    if (result != null) {
+      return result;
+    }
+
+    if (message instanceof ProtocolTicketsv1Type m) {
+      return this.v1.convertFromWire(m);
+    }
+
+    throw new IcProtocolException(
+      PROTOCOL_ERROR,
+      "Unrecognized message: %s".formatted(message)
+    );
+  }
+
+  private IcTCommandBatch fromWireCommandBatch(
+    final Ic2CommandBatch m)
+    throws IcProtocolException
+  {
+    final var commands =
+      new ArrayList<IcTCommandType<?>>(m.fieldCommands().values().size());
+    for (final var command : m.fieldCommands().values()) {
+      commands.add(
+        (IcTCommandType<?>) this.convertFromWire(fromWireBatchCommand(command))
+      );
+    }
+    return new IcTCommandBatch(commands, fromWireBatchMode(m.fieldMode()));
+  }
+
+  private IcTResponseBatch fromWireResponseBatch(
+    final Ic2ResponseBatch m)
+    throws IcProtocolException
+  {
+    final var responses =
+      new ArrayList<IcTResponseType>(m.fieldResponses().values().size());
+    for (final var response : m.fieldResponses().values()) {
+      responses.add(
+        (IcTResponseType) this.convertFromWire(fromWireBatchResponse(response))
+      );
+    }
+    return new IcTResponseBatch(fromWireUUID(m.fieldRequestId()), responses);
+  }
+
+  private static IcTMessageType fromWire(
+    final ProtocolTicketsv2Type message)
+  {
+    if (message instanceof Ic2CommandTicketSearchBegin m) {
+      return new IcTCommandTicketSearchBegin(
+        fromWireTicketSearch(m.fieldParameters())
+      );
+    }
+    if (message instanceof Ic2CommandSavedSearchCreate m) {
+      return new IcTCommandSavedSearchCreate(
+        fromWireSavedSearch(m.fieldSearch())
+      );
+    }
+    if (message instanceof Ic2ResponseTicketSearchBegin m) {
+      return new IcTResponseTicketSearchBegin(
+        fromWireUUID(m.fieldRequestId()),
+        fromWireTicketSummaryPage(m.fieldPage()),
+        fromWirePermissionMatrix(m.fieldPermissions())
+      );
+    }
+    if (message instanceof Ic2ResponseTicketSearchNext m) {
+      return new IcTResponseTicketSearchNext(
+        fromWireUUID(m.fieldRequestId()),
+        fromWireTicketSummaryPage(m.fieldPage()),
+        fromWirePermissionMatrix(m.fieldPermissions())
+      );
+    }
+    if (message instanceof Ic2ResponseTicketSearchPrevious m) {
+      return new IcTResponseTicketSearchPrevious(
+        fromWireUUID(m.fieldRequestId()),
+        fromWireTicketSummaryPage(m.fieldPage()),
+        fromWirePermissionMatrix(m.fieldPermissions())
+      );
+    }
+    if (message instanceof Ic2ResponseTicketCreate m) {
+      final var summaries = fromWireTicketSummaries(m.fieldTicket());
+      if (summaries.size() != 1) {
+        throw new IllegalArgumentException(
+          "Expected exactly one ticket summary, but received %d"
+            .formatted(Integer.valueOf(summaries.size()))
+        );
+      }
+      return new IcTResponseTicketCreate(
+        fromWireUUID(m.fieldRequestId()),
+        summaries.get(0)
+      );
+    }
+    if (message instanceof Ic2ResponseTicketUpdate m) {
+      return new IcTResponseTicketUpdate(
+        fromWireUUID(m.fieldRequestId()),
+        fromWireTicket(m.fieldTicket())
+      );
+    }
+    if (message instanceof Ic2ResponseTicketGet m) {
+      return new IcTResponseTicketGet(
+        fromWireUUID(m.fieldRequestId()),
+        fromWireTicket(m.fieldTicket())
+      );
+    }
+    if (message instanceof Ic2CommandTicketGetIfChanged m) {
+      return new IcTCommandTicketGetIfChanged(
+        fromWireTicketId(m.fieldTicket()),
+        new IcTicketVersionToken(m.fieldToken().value())
+      );
+    }
+    if (message instanceof Ic2ResponseTicketGetIfChanged m) {
+      return new IcTResponseTicketGetIfChanged(
+        fromWireUUID(m.fieldRequestId()),
+        m.fieldTicket().asOptional().map(IcT2Tickets::fromWireTicket)
+      );
+    }
+    if (message instanceof Ic2ResponseTicketGetMany m) {
+      return new IcTResponseTicketGetMany(
+        fromWireUUID(m.fieldRequestId()),
+        m.fieldResults()
+          .values()
+          .stream()
+          .map(IcT2Tickets::fromWireTicketGetResult)
+          .toList()
+      );
+    }
+    if (message instanceof Ic2ResponseTicketCommentCreate m) {
+      return new IcTResponseTicketCommentCreate(
+        fromWireUUID(m.fieldRequestId()),
+        fromWireTicketComment(m.fieldComment())
+      );
+    }
+    if (message instanceof Ic2ResponseSavedSearchCreate m) {
+      return new IcTResponseSavedSearchCreate(
+        fromWireUUID(m.fieldRequestId()),
+        fromWireSavedSearch(m.fieldSearch())
+      );
+    }
+    if (message instanceof Ic2ResponseTicketChangesSince m) {
+      return new IcTResponseTicketChangesSince(
+        fromWireUUID(m.fieldRequestId()),
+        fromWireTicketChanges(m.fieldChanges())
+      );
+    }
+    return null;
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.protocol.tickets.cb;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A table of conversions keyed by the exact class of the values that they
+ * convert. Every message type on either side of a translation is a record,
+ * and so messages are dispatched to their converters with a single lookup
+ * rather than a chain of type tests.
+ *
+ * @param <A> The source type
+ * @param <B> The target type
+ */
+
+final class IcTConverterTable<A, B>
+{
+  private final Map<Class<?>, IcTConverterType<A, B>> converters;
+
+  /**
+   * A table of conversions keyed by the exact class of the values that they
+   * convert.
+   */
+
+  IcTConverterTable()
+  {
+    this.converters = new HashMap<>();
+  }
+
+  /**
+   * Add a converter for values of exactly the given class.
+   *
+   * @param clazz     The class
+   * @param converter The converter
+   * @param <C>       The type of values
+   */
+
+  <C extends A> void add(
+    final Class<C> clazz,
+    final IcTConverterType<C, ? extends B> converter)
+  {
+    Objects.requireNonNull(clazz, "clazz");
+    Objects.requireNonNull(converter, "converter");
+
+    final var existing =
+      this.converters.put(clazz, v -> converter.convert(clazz.cast(v)));
+
+    if (existing != null) {
+      throw new IllegalStateException(
+        "A converter is already registered for %s".formatted(clazz)
+      );
+    }
+  }
+
+  /**
+   * Find the converter for values of exactly the given class.
+   *
+   * @param clazz The class
+   *
+   * @return The converter, or {@code null} if there is none
+   */
+
+  IcTConverterType<A, B> find(
+    final Class<?> clazz)
+  {
+    return this.converters.get(clazz);
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets;
+
+/**
+ * The manner in which the commands in a batch are committed.
+ *
+ * @see IcTCommandBatch
+ */
+
+public enum IcTBatchMode
+{
+  /**
+   * All of the commands in the batch are executed in a single transaction.
+   * Execution stops at the first command that fails, and the transaction
+   * is rolled back; the list of responses then ends with the error, and
+   * none of the commands in the batch have any effect. Otherwise, the
+   * transaction is committed once all of the commands have executed.
+   */
+
+  ATOMIC,
+
+  /**
+   * Each command in the batch is executed in its own transaction, and the
+   * transaction is committed as soon as the command completes. A command
+   * that fails does not affect the commands that were executed before it,
+   * and execution continues with the next command.
+   */
+
+  PER_COMMAND
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A request to execute a sequence of commands, in order, as part of a single
+ * HTTP request. Batches cannot contain logins, ticket watches, or other
+ * batches.
+ *
+ * @param commands The commands
+ * @param mode     The manner in which the commands are committed
+ */
+
+public record IcTCommandBatch(
+  List<IcTCommandType<?>> commands,
+  IcTBatchMode mode)
+  implements IcTCommandType<IcTResponseBatch>
+{
+  /**
+   * A request to execute a sequence of commands.
+   *
+   * @param commands The commands
+   * @param mode     The manner in which the commands are committed
+   */
+
+  public IcTCommandBatch
+  {
+    Objects.requireNonNull(commands, "commands");
+    Objects.requireNonNull(mode, "mode");
+
+    for (final var command : commands) {
+      if (!isBatchable(command)) {
+        throw new IllegalArgumentException(
+          "Commands of type %s cannot be batched."
+            .formatted(command.getClass().getSimpleName())
+        );
+      }
+    }
+  }
+
+  /**
+   * @param command The command
+   *
+   * @return {@code true} if the given command may appear in a batch
+   */
+
+  public static boolean isBatchable(
+    final IcTCommandType<?> command)
+  {
+    return !(command instanceof IcTCommandBatch
+             || command instanceof IcTCommandLogin
+             || command instanceof IcTCommandLoginCompact
+             || command instanceof IcTCommandTicketWatch);
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.protocol.tickets;
+
+import com.io7m.icatiro.model.IcTicketID;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * A request to wait until a ticket changes. The request completes immediately
+ * if the revision of the ticket is not equal to the given revision, and
+ * otherwise completes when the ticket next changes, or when the timeout
+ * elapses.
+ *
+ * @param ticket   The ticket
+ * @param revision The revision of the ticket last seen by the client
+ * @param timeout  The maximum time to wait
+ */
+
+public record IcTCommandTicketWatch(
+  IcTicketID ticket,
+  long revision,
+  Duration timeout)
+  implements IcTCommandType<IcTResponseTicketWatch>
+{
+  /**
+   * A request to wait until a ticket changes.
+   *
+   * @param ticket   The ticket
+   * @param revision The revision of the ticket last seen by the client
+   * @param timeout  The maximum time to wait
+   */
+
+  public IcTCommandTicketWatch
+  {
+    Objects.requireNonNull(ticket, "ticket");
+    Objects.requireNonNull(timeout, "timeout");
+  }
+}
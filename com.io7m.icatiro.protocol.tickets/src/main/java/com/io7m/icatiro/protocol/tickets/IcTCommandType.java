@@ -24,15 +24,28 @@ package com.io7m.icatiro.protocol.tickets;
 
 public sealed interface IcTCommandType<R extends IcTResponseType>
   extends IcTMessageType
-  permits IcTCommandLogin,
+  permits IcTCommandBatch,
+  IcTCommandLogin,
+  IcTCommandLoginCompact,
   IcTCommandPermissionGrant,
+  IcTCommandPermissionGrantMany,
+  IcTCommandPermissionRevokeMany,
   IcTCommandProjectCreate,
+  IcTCommandProjectStatistics,
+  IcTCommandSavedSearchCreate,
+  IcTCommandSavedSearchDelete,
+  IcTCommandSavedSearchResults,
+  IcTCommandTicketChangesSince,
   IcTCommandTicketCommentCreate,
   IcTCommandTicketCreate,
   IcTCommandTicketGet,
+  IcTCommandTicketGetIfChanged,
+  IcTCommandTicketGetMany,
   IcTCommandTicketSearchBegin,
   IcTCommandTicketSearchNext,
-  IcTCommandTicketSearchPrevious
+  IcTCommandTicketSearchPrevious,
+  IcTCommandTicketUpdate,
+  IcTCommandTicketWatch
 {
 
 }
@@ -17,7 +17,8 @@
 package com.io7m.icatiro.protocol.tickets;
 
 import com.io7m.icatiro.model.IcPage;
-import com.io7m.icatiro.model.IcTicketSummary;
+import com.io7m.icatiro.model.IcPermissionMatrix;
+import com.io7m.icatiro.model.IcTicketSummaryType;
 
 import java.util.Objects;
 import java.util.UUID;
@@ -25,25 +26,29 @@ import java.util.UUID;
 /**
  * A response to {@link IcTCommandTicketSearchPrevious}.
  *
- * @param requestId The request ID
- * @param tickets   The tickets
+ * @param requestId   The request ID
+ * @param tickets     The tickets
+ * @param permissions The permissions held for each ticket in the page
  */
 
 public record IcTResponseTicketSearchPrevious(
   UUID requestId,
-  IcPage<IcTicketSummary> tickets)
+  IcPage<IcTicketSummaryType> tickets,
+  IcPermissionMatrix permissions)
   implements IcTResponseType
 {
   /**
    * A response to {@link IcTCommandTicketSearchPrevious}.
    *
-   * @param requestId The request ID
-   * @param tickets   The tickets
+   * @param requestId   The request ID
+   * @param tickets     The tickets
+   * @param permissions The permissions held for each ticket in the page
    */
 
   public IcTResponseTicketSearchPrevious
   {
     Objects.requireNonNull(requestId, "requestId");
     Objects.requireNonNull(tickets, "tickets");
+    Objects.requireNonNull(permissions, "permissions");
   }
 }
@@ -25,16 +25,29 @@ import java.util.UUID;
 
 public sealed interface IcTResponseType
   extends IcTMessageType
-  permits IcTResponseError,
+  permits IcTResponseBatch,
+  IcTResponseError,
   IcTResponseLogin,
+  IcTResponseLoginCompact,
   IcTResponsePermissionGrant,
+  IcTResponsePermissionGrantMany,
+  IcTResponsePermissionRevokeMany,
   IcTResponseProjectCreate,
+  IcTResponseProjectStatistics,
+  IcTResponseSavedSearchCreate,
+  IcTResponseSavedSearchDelete,
+  IcTResponseSavedSearchResults,
+  IcTResponseTicketChangesSince,
   IcTResponseTicketCommentCreate,
   IcTResponseTicketCreate,
   IcTResponseTicketGet,
+  IcTResponseTicketGetIfChanged,
+  IcTResponseTicketGetMany,
   IcTResponseTicketSearchBegin,
   IcTResponseTicketSearchNext,
-  IcTResponseTicketSearchPrevious
+  IcTResponseTicketSearchPrevious,
+  IcTResponseTicketUpdate,
+  IcTResponseTicketWatch
 {
   /**
    * @return The server-assigned request ID
@@ -18,6 +18,9 @@ package com.io7m.icatiro.protocol;
 
 import com.io7m.icatiro.services.api.IcServiceType;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+
 /**
  * The interface exposed by protocol message handlers.
  *
@@ -52,4 +55,34 @@ public interface IcProtocolMessagesType<T extends IcProtocolMessageType>
 
   byte[] serialize(T message)
     throws IcProtocolException;
+
+  /**
+   * Parse a message from the given stream. Only the bytes that make up the
+   * message are consumed, and the stream is not closed.
+   *
+   * @param input The input stream
+   *
+   * @return A parsed message
+   *
+   * @throws IcProtocolException If parsing fails
+   */
+
+  T parse(InputStream input)
+    throws IcProtocolException;
+
+  /**
+   * Serialize the given message to the given stream. The stream is flushed,
+   * but is not closed. The message is validated before anything is written
+   * to the stream.
+   *
+   * @param message The message
+   * @param output  The output stream
+   *
+   * @throws IcProtocolException If serialization fails
+   */
+
+  void serialize(
+    T message,
+    OutputStream output)
+    throws IcProtocolException;
 }
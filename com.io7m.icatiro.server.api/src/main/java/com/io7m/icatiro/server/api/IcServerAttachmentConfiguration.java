@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.server.api;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Configuration for ticket attachments.
+ *
+ * @param directory The directory in which attachment content is stored
+ * @param sizeLimit The maximum size of an attachment in octets
+ */
+
+@JsonDeserialize
+@JsonSerialize
+public record IcServerAttachmentConfiguration(
+  @JsonProperty(value = "Directory", required = true)
+  Path directory,
+  @JsonProperty(value = "SizeLimit", required = true)
+  long sizeLimit)
+  implements IcServerJSONConfigurationElementType
+{
+  /**
+   * Configuration for ticket attachments.
+   *
+   * @param directory The directory in which attachment content is stored
+   * @param sizeLimit The maximum size of an attachment in octets
+   */
+
+  public IcServerAttachmentConfiguration
+  {
+    Objects.requireNonNull(directory, "directory");
+
+    if (sizeLimit <= 0L) {
+      throw new IllegalArgumentException(
+        "Attachment size limit %d must be positive."
+          .formatted(Long.valueOf(sizeLimit))
+      );
+    }
+  }
+}
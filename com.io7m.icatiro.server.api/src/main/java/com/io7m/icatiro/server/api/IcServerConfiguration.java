@@ -41,6 +41,7 @@ import java.util.Optional;
  * @param openTelemetry         The OpenTelemetry configuration
  * @param rateLimit             The rate limiting configuration
  * @param idstore               The idstore configuration
+ * @param attachments           The attachment configuration
  */
 
 public record IcServerConfiguration(
@@ -55,7 +56,8 @@ public record IcServerConfiguration(
   IcServerHistoryConfiguration history,
   IcServerRateLimitConfiguration rateLimit,
   Optional<IcServerOpenTelemetryConfiguration> openTelemetry,
-  IcServerIdstoreConfiguration idstore)
+  IcServerIdstoreConfiguration idstore,
+  IcServerAttachmentConfiguration attachments)
 {
   /**
    * The configuration for a server.
@@ -73,6 +75,7 @@ public record IcServerConfiguration(
    * @param openTelemetry         The OpenTelemetry configuration
    * @param rateLimit             The rate limiting configuration
    * @param idstore               The idstore configuration
+   * @param attachments           The attachment configuration
    */
 
   public IcServerConfiguration
@@ -89,6 +92,7 @@ public record IcServerConfiguration(
     Objects.requireNonNull(openTelemetry, "openTelemetry");
     Objects.requireNonNull(rateLimit, "rateLimit");
     Objects.requireNonNull(idstore, "idstore");
+    Objects.requireNonNull(attachments, "attachments");
   }
 
   /**
@@ -36,6 +36,7 @@ import java.util.Optional;
  * @param openTelemetry         The OpenTelemetry configuration
  * @param rateLimit             The rate limiting configuration
  * @param idstore               The idstore configuration
+ * @param attachments           The attachment configuration
  */
 
 @JsonDeserialize
@@ -57,7 +58,9 @@ public record IcServerConfigurationFile(
   @JsonProperty(value = "OpenTelemetry")
   Optional<IcServerOpenTelemetryConfiguration> openTelemetry,
   @JsonProperty(value = "Idstore", required = true)
-  IcServerIdstoreConfiguration idstore)
+  IcServerIdstoreConfiguration idstore,
+  @JsonProperty(value = "Attachments", required = true)
+  IcServerAttachmentConfiguration attachments)
   implements IcServerJSONConfigurationElementType
 {
   /**
@@ -71,6 +74,7 @@ public record IcServerConfigurationFile(
    * @param openTelemetry         The OpenTelemetry configuration
    * @param rateLimit             The rate limiting configuration
    * @param idstore               The idstore configuration
+   * @param attachments           The attachment configuration
    */
 
   @JsonCreator
@@ -84,5 +88,6 @@ public record IcServerConfigurationFile(
     Objects.requireNonNull(rateLimit, "rateLimit");
     Objects.requireNonNull(openTelemetry, "openTelemetry");
     Objects.requireNonNull(idstore, "idstore");
+    Objects.requireNonNull(attachments, "attachments");
   }
 }
@@ -128,7 +128,8 @@ public final class IcServerConfigurations
       file.historyConfiguration(),
       file.rateLimit(),
       file.openTelemetry(),
-      file.idstore()
+      file.idstore(),
+      file.attachments()
     );
   }
 
@@ -28,7 +28,8 @@ import static com.fasterxml.jackson.annotation.JsonProperty.Access.READ_ONLY;
 
 @JsonPropertyOrder({"%Schema"})
 public sealed interface IcServerJSONConfigurationElementType
-  permits IcServerConfigurationFile,
+  permits IcServerAttachmentConfiguration,
+  IcServerConfigurationFile,
   IcServerDatabaseConfiguration,
   IcServerHTTPConfiguration,
   IcServerHTTPServiceConfiguration,
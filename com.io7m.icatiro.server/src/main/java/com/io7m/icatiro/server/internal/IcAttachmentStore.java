@@ -0,0 +1,264 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.server.internal;
+
+import com.io7m.icatiro.model.IcHash;
+import com.io7m.icatiro.server.api.IcServerAttachmentConfiguration;
+import com.io7m.icatiro.services.api.IcServiceType;
+import org.eclipse.jetty.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.HTTP_SIZE_LIMIT;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A content-addressed store of attachment content. Content is named by its
+ * SHA-256 hash, and so storing the same content twice stores it once.
+ *
+ * <p>Content is written to a temporary file in the store while it is hashed,
+ * and is then atomically renamed to its final name. A file is therefore only
+ * ever visible under its final name once it is complete, and a concurrent
+ * upload of the same content simply replaces the file with an identical
+ * copy.</p>
+ *
+ * <p>Content is stored before the metadata of the attachment is inserted
+ * into the database, so that a slow upload does not hold a transaction
+ * open. If the insertion then fails, the content remains in the store with
+ * no attachment referring to it, and the failure is logged with the hash of
+ * the content. Such content is harmless (a later upload of the same content
+ * will simply refer to it), but it is not currently removed automatically;
+ * it can be found by comparing the files in the store against the hashes
+ * in the {@code ticket_attachments} table.</p>
+ */
+
+public final class IcAttachmentStore implements IcServiceType
+{
+  private static final String ALGORITHM = "SHA-256";
+  private static final int BUFFER_SIZE = 65536;
+
+  private final IcServerStrings strings;
+  private final Path contentDirectory;
+  private final Path temporaryDirectory;
+  private final long sizeLimit;
+
+  private IcAttachmentStore(
+    final IcServerStrings inStrings,
+    final Path inContentDirectory,
+    final Path inTemporaryDirectory,
+    final long inSizeLimit)
+  {
+    this.strings =
+      Objects.requireNonNull(inStrings, "strings");
+    this.contentDirectory =
+      Objects.requireNonNull(inContentDirectory, "contentDirectory");
+    this.temporaryDirectory =
+      Objects.requireNonNull(inTemporaryDirectory, "temporaryDirectory");
+    this.sizeLimit =
+      inSizeLimit;
+  }
+
+  /**
+   * Open an attachment store, creating the directories of the store if
+   * necessary.
+   *
+   * @param strings       Server string resources
+   * @param configuration The attachment configuration
+   *
+   * @return An attachment store
+   *
+   * @throws IOException On errors
+   */
+
+  public static IcAttachmentStore create(
+    final IcServerStrings strings,
+    final IcServerAttachmentConfiguration configuration)
+    throws IOException
+  {
+    Objects.requireNonNull(strings, "strings");
+    Objects.requireNonNull(configuration, "configuration");
+
+    final var directory =
+      configuration.directory().toAbsolutePath();
+    final var contentDirectory =
+      Files.createDirectories(directory.resolve("sha256"));
+    final var temporaryDirectory =
+      Files.createDirectories(directory.resolve("tmp"));
+
+    return new IcAttachmentStore(
+      strings,
+      contentDirectory,
+      temporaryDirectory,
+      configuration.sizeLimit()
+    );
+  }
+
+  /**
+   * @return The maximum size of an attachment in octets
+   */
+
+  public long sizeLimit()
+  {
+    return this.sizeLimit;
+  }
+
+  /**
+   * Store the content of the given stream.
+   *
+   * @param input The content
+   *
+   * @return The hash and size of the stored content
+   *
+   * @throws IOException                On errors
+   * @throws IcHTTPErrorStatusException If the content exceeds the size limit
+   */
+
+  public IcAttachmentContent store(
+    final InputStream input)
+    throws IOException, IcHTTPErrorStatusException
+  {
+    Objects.requireNonNull(input, "input");
+
+    final var digest = createDigest();
+    final var temporary =
+      Files.createTempFile(this.temporaryDirectory, "upload", ".tmp");
+
+    try {
+      long size = 0L;
+      try (var channel = FileChannel.open(temporary, WRITE)) {
+        final var buffer = new byte[BUFFER_SIZE];
+        while (true) {
+          final var count = input.read(buffer);
+          if (count == -1) {
+            break;
+          }
+
+          size += count;
+          if (size > this.sizeLimit) {
+            throw new IcHTTPErrorStatusException(
+              HttpStatus.PAYLOAD_TOO_LARGE_413,
+              HTTP_SIZE_LIMIT,
+              this.strings.format(
+                "requestTooLarge",
+                Long.toUnsignedString(size))
+            );
+          }
+
+          digest.update(buffer, 0, count);
+          final var data = ByteBuffer.wrap(buffer, 0, count);
+          while (data.hasRemaining()) {
+            channel.write(data);
+          }
+        }
+        channel.force(true);
+      }
+
+      final var hash =
+        new IcHash(
+          ALGORITHM,
+          HexFormat.of().withUpperCase().formatHex(digest.digest())
+        );
+
+      final var target = this.pathOf(hash);
+      if (!Files.isRegularFile(target)) {
+        Files.createDirectories(target.getParent());
+        Files.move(temporary, target, ATOMIC_MOVE);
+      }
+      return new IcAttachmentContent(hash, size);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * Open the content with the given hash for reading.
+   *
+   * @param hash The hash
+   *
+   * @return A channel positioned at the start of the content, if the content
+   * exists
+   *
+   * @throws IOException On errors
+   */
+
+  public Optional<FileChannel> open(
+    final IcHash hash)
+    throws IOException
+  {
+    Objects.requireNonNull(hash, "hash");
+
+    if (!Objects.equals(hash.algorithm(), ALGORITHM)) {
+      return Optional.empty();
+    }
+
+    try {
+      return Optional.of(FileChannel.open(this.pathOf(hash), READ));
+    } catch (final NoSuchFileException e) {
+      return Optional.empty();
+    }
+  }
+
+  /*
+   * Content is spread over 256 directories named by the first two hex digits
+   * of the hash, so that no single directory grows too large.
+   */
+
+  private Path pathOf(
+    final IcHash hash)
+  {
+    final var text = hash.hash();
+    return this.contentDirectory
+      .resolve(text.substring(0, 2))
+      .resolve(text);
+  }
+
+  private static MessageDigest createDigest()
+  {
+    try {
+      return MessageDigest.getInstance(ALGORITHM);
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public String description()
+  {
+    return "Attachment content store.";
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[IcAttachmentStore 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
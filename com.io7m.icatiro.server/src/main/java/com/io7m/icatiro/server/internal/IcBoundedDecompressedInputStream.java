@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.server.internal;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.ZipException;
+
+/**
+ * A stream of decompressed data that fails as soon as more than a given
+ * number of bytes have been produced, without buffering the data.
+ */
+
+final class IcBoundedDecompressedInputStream extends FilterInputStream
+{
+  private final long maximum;
+  private final Supplier<IcHTTPErrorStatusException> onTooLarge;
+  private final Function<ZipException, IcHTTPErrorStatusException> onInvalid;
+  private long produced;
+
+  /**
+   * A stream of decompressed data that fails as soon as more than a given
+   * number of bytes have been produced.
+   *
+   * @param inDecompressed The decompressing stream
+   * @param inMaximum      The maximum number of decompressed bytes
+   * @param inOnTooLarge   The error raised if the maximum is exceeded
+   * @param inOnInvalid    The error raised if the compressed data is invalid
+   */
+
+  IcBoundedDecompressedInputStream(
+    final InputStream inDecompressed,
+    final long inMaximum,
+    final Supplier<IcHTTPErrorStatusException> inOnTooLarge,
+    final Function<ZipException, IcHTTPErrorStatusException> inOnInvalid)
+  {
+    super(Objects.requireNonNull(inDecompressed, "decompressed"));
+    this.maximum = inMaximum;
+    this.onTooLarge = Objects.requireNonNull(inOnTooLarge, "onTooLarge");
+    this.onInvalid = Objects.requireNonNull(inOnInvalid, "onInvalid");
+  }
+
+  @Override
+  public int read()
+    throws IOException
+  {
+    final int b;
+    try {
+      b = this.in.read();
+    } catch (final ZipException e) {
+      throw this.invalid(e);
+    }
+    if (b != -1) {
+      this.count(1L);
+    }
+    return b;
+  }
+
+  @Override
+  public int read(
+    final byte[] buffer,
+    final int offset,
+    final int length)
+    throws IOException
+  {
+    final int r;
+    try {
+      r = this.in.read(buffer, offset, length);
+    } catch (final ZipException e) {
+      throw this.invalid(e);
+    }
+    if (r > 0) {
+      this.count(r);
+    }
+    return r;
+  }
+
+  @Override
+  public long skip(
+    final long n)
+    throws IOException
+  {
+    final long r;
+    try {
+      r = this.in.skip(n);
+    } catch (final ZipException e) {
+      throw this.invalid(e);
+    }
+    if (r > 0L) {
+      this.count(r);
+    }
+    return r;
+  }
+
+  @Override
+  public boolean markSupported()
+  {
+    return false;
+  }
+
+  private IcRequestBodyException invalid(
+    final ZipException e)
+  {
+    return new IcRequestBodyException(this.onInvalid.apply(e));
+  }
+
+  private void count(
+    final long n)
+    throws IcRequestBodyException
+  {
+    this.produced += n;
+    if (this.produced > this.maximum) {
+      throw new IcRequestBodyException(this.onTooLarge.get());
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.server.internal;
+
+import com.io7m.icatiro.model.IcPermissionScopedType;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The permissions of a user were changed.
+ *
+ * @param user    The user
+ * @param granted The permissions granted to the user
+ * @param revoked The permissions revoked from the user
+ */
+
+public record IcPermissionChangeEvent(
+  UUID user,
+  List<IcPermissionScopedType> granted,
+  List<IcPermissionScopedType> revoked)
+{
+  /**
+   * The permissions of a user were changed.
+   *
+   * @param user    The user
+   * @param granted The permissions granted to the user
+   * @param revoked The permissions revoked from the user
+   */
+
+  public IcPermissionChangeEvent
+  {
+    Objects.requireNonNull(user, "user");
+    granted = List.copyOf(granted);
+    revoked = List.copyOf(revoked);
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.server.internal;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * An exception raised while reading a request body, such as the body
+ * expanding beyond the size limit during decompression. The exception is
+ * an {@link IOException} so that it can pass through the message parsers,
+ * and carries the HTTP error that should be returned to the client.
+ */
+
+public final class IcRequestBodyException extends IOException
+{
+  private final IcHTTPErrorStatusException error;
+
+  /**
+   * Construct an exception.
+   *
+   * @param inError The HTTP error that should be returned to the client
+   */
+
+  public IcRequestBodyException(
+    final IcHTTPErrorStatusException inError)
+  {
+    super(
+      Objects.requireNonNull(inError, "error").getMessage(),
+      inError
+    );
+    this.error = inError;
+  }
+
+  /**
+   * @return The HTTP error that should be returned to the client
+   */
+
+  public IcHTTPErrorStatusException error()
+  {
+    return this.error;
+  }
+}
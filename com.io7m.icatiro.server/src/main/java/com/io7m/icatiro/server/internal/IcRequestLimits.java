@@ -22,11 +22,17 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.apache.commons.io.input.BoundedInputStream;
 import org.eclipse.jetty.http.HttpStatus;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
 
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.HTTP_ERROR;
 import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.HTTP_SIZE_LIMIT;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.PROTOCOL_ERROR;
 
 /**
  * Methods to handle request size limits.
@@ -88,6 +94,116 @@ public final class IcRequestLimits implements IcServiceType
     );
   }
 
+  /**
+   * Bound the given servlet request to the given maximum size, decompressing
+   * the request body if the client specified a supported Content-Encoding.
+   * The maximum applies both to the size of the body as transmitted and to
+   * the size of the body after decompression, so a small compressed body
+   * cannot expand into an arbitrarily large one. A compressed body is
+   * decompressed as it is read, and the returned stream raises an
+   * {@link IcRequestBodyException} if it exceeds the maximum or is corrupt.
+   *
+   * @param request The request
+   * @param maximum The maximum size
+   *
+   * @return A bounded input stream
+   *
+   * @throws IOException                On errors
+   * @throws IcHTTPErrorStatusException On errors
+   */
+
+  public InputStream boundedMaximumInputDecoded(
+    final HttpServletRequest request,
+    final int maximum)
+    throws IOException, IcHTTPErrorStatusException
+  {
+    final var input =
+      this.boundedMaximumInput(request, maximum);
+    final var encoding =
+      request.getHeader("Content-Encoding");
+
+    if (encoding == null || "identity".equalsIgnoreCase(encoding)) {
+      return input;
+    }
+
+    if (!"gzip".equalsIgnoreCase(encoding)) {
+      input.close();
+      throw new IcHTTPErrorStatusException(
+        HttpStatus.UNSUPPORTED_MEDIA_TYPE_415,
+        HTTP_ERROR,
+        this.strings.format("requestEncodingUnsupported", encoding)
+      );
+    }
+
+    /*
+     * The body is decompressed as it is parsed. The decompressed stream
+     * fails with an IcRequestBodyException as soon as it produces more than
+     * the maximum, or if the compressed data turns out to be corrupt; the
+     * exception passes through the message parsers and can be recovered
+     * with requestBodyError().
+     */
+
+    final GZIPInputStream gzip;
+    try {
+      gzip = new GZIPInputStream(input);
+    } catch (final ZipException | EOFException e) {
+      input.close();
+      throw this.errorEncodingInvalid(encoding, e);
+    }
+
+    return new IcBoundedDecompressedInputStream(
+      gzip,
+      Integer.toUnsignedLong(maximum),
+      () -> this.errorTooLargeDecompressed(maximum),
+      e -> this.errorEncodingInvalid(encoding, e)
+    );
+  }
+
+  /**
+   * Find the HTTP error raised by a request body returned from
+   * {@link #boundedMaximumInputDecoded(HttpServletRequest, int)}, if the
+   * given exception was caused by one.
+   *
+   * @param e The exception
+   *
+   * @return The HTTP error, if any
+   */
+
+  public static Optional<IcHTTPErrorStatusException> requestBodyError(
+    final Throwable e)
+  {
+    for (var c = e; c != null; c = c.getCause()) {
+      if (c instanceof IcRequestBodyException body) {
+        return Optional.of(body.error());
+      }
+    }
+    return Optional.empty();
+  }
+
+  private IcHTTPErrorStatusException errorEncodingInvalid(
+    final String encoding,
+    final IOException e)
+  {
+    return new IcHTTPErrorStatusException(
+      HttpStatus.BAD_REQUEST_400,
+      PROTOCOL_ERROR,
+      this.strings.format("requestEncodingInvalid", encoding),
+      e
+    );
+  }
+
+  private IcHTTPErrorStatusException errorTooLargeDecompressed(
+    final int maximum)
+  {
+    return new IcHTTPErrorStatusException(
+      HttpStatus.PAYLOAD_TOO_LARGE_413,
+      HTTP_SIZE_LIMIT,
+      this.strings.format(
+        "requestTooLargeDecompressed",
+        Integer.toUnsignedString(maximum))
+    );
+  }
+
   @Override
   public String description()
   {
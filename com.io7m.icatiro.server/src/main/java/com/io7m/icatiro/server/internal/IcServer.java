@@ -21,15 +21,17 @@ import com.io7m.icatiro.database.api.IcDatabaseType;
 import com.io7m.icatiro.database.api.IcDatabaseUsersQueriesType;
 import com.io7m.icatiro.error_codes.IcErrorCode;
 import com.io7m.icatiro.protocol.tickets.cb.IcT1Messages;
+import com.io7m.icatiro.protocol.tickets.cb.IcT2Messages;
 import com.io7m.icatiro.server.api.IcServerConfiguration;
 import com.io7m.icatiro.server.api.IcServerException;
 import com.io7m.icatiro.server.api.IcServerType;
 import com.io7m.icatiro.server.internal.common.IcCommonCSSServlet;
 import com.io7m.icatiro.server.internal.common.IcCommonLogoServlet;
 import com.io7m.icatiro.server.internal.freemarker.IcFMTemplateService;
+import com.io7m.icatiro.server.internal.tickets_v1.IcT1AttachmentServlet;
 import com.io7m.icatiro.server.internal.tickets_v1.IcT1CommandServlet;
+import com.io7m.icatiro.server.internal.tickets_v1.IcT1ExportServlet;
 import com.io7m.icatiro.server.internal.tickets_v1.IcT1Login;
-import com.io7m.icatiro.server.internal.tickets_v1.IcT1Sends;
 import com.io7m.icatiro.server.internal.tickets_v1.IcT1Versions;
 import com.io7m.icatiro.server.internal.views.IcViewLogin;
 import com.io7m.icatiro.server.internal.views.IcViewLogout;
@@ -180,8 +182,13 @@ public final class IcServer implements IcServerType
     services.register(IcServerTelemetryService.class, this.telemetry);
     services.register(IcDatabaseType.class, inDatabase);
 
-    final var userSessions = new IcUserSessionService(this.telemetry);
+    final var userSessions =
+      new IcUserSessionService(this.telemetry, inDatabase);
     services.register(IcUserSessionService.class, userSessions);
+    services.register(
+      IcTicketWatchService.class,
+      new IcTicketWatchService(this.telemetry)
+    );
 
     final var idClients =
       IcIdentityClients.create(
@@ -204,12 +211,14 @@ public final class IcServer implements IcServerType
     services.register(IcServerBrandingService.class, branding);
 
     services.register(IcRequestLimits.class, new IcRequestLimits(strings));
+
+    final var attachments =
+      IcAttachmentStore.create(strings, this.configuration.attachments());
+    services.register(IcAttachmentStore.class, attachments);
+
     services.register(IcVerdantMessages.class, new IcVerdantMessages());
     services.register(IcT1Messages.class, new IcT1Messages());
-    services.register(
-      IcT1Sends.class,
-      new IcT1Sends(services.requireService(IcT1Messages.class))
-    );
+    services.register(IcT2Messages.class, new IcT2Messages());
     return services;
   }
 
@@ -355,14 +364,69 @@ public final class IcServer implements IcServerType
       servletHolders.create(IcT1Versions.class, IcT1Versions::new),
       "/"
     );
+
+    final var messagesV1 =
+      services.requireService(IcT1Messages.class);
+    final var messagesV2 =
+      services.requireService(IcT2Messages.class);
+
     servlets.addServlet(
-      servletHolders.create(IcT1Login.class, IcT1Login::new),
+      servletHolders.create(
+        IcT1Login.class,
+        s -> new IcT1Login(s, messagesV1)),
       "/tickets/1/0/login"
     );
+    final var commandServletV1 =
+      servletHolders.create(
+        IcT1CommandServlet.class,
+        s -> new IcT1CommandServlet(s, messagesV1));
+    commandServletV1.setAsyncSupported(true);
+
     servlets.addServlet(
-      servletHolders.create(IcT1CommandServlet.class, IcT1CommandServlet::new),
+      commandServletV1,
       "/tickets/1/0/command"
     );
+    servlets.addServlet(
+      servletHolders.create(
+        IcT1ExportServlet.class,
+        s -> new IcT1ExportServlet(s, messagesV1)),
+      "/tickets/1/0/export"
+    );
+    servlets.addServlet(
+      servletHolders.create(
+        IcT1AttachmentServlet.class,
+        s -> new IcT1AttachmentServlet(s, messagesV1)),
+      "/tickets/1/0/attachment"
+    );
+
+    servlets.addServlet(
+      servletHolders.create(
+        IcT1Login.class,
+        s -> new IcT1Login(s, messagesV2)),
+      "/tickets/2/0/login"
+    );
+    final var commandServletV2 =
+      servletHolders.create(
+        IcT1CommandServlet.class,
+        s -> new IcT1CommandServlet(s, messagesV2));
+    commandServletV2.setAsyncSupported(true);
+
+    servlets.addServlet(
+      commandServletV2,
+      "/tickets/2/0/command"
+    );
+    servlets.addServlet(
+      servletHolders.create(
+        IcT1ExportServlet.class,
+        s -> new IcT1ExportServlet(s, messagesV2)),
+      "/tickets/2/0/export"
+    );
+    servlets.addServlet(
+      servletHolders.create(
+        IcT1AttachmentServlet.class,
+        s -> new IcT1AttachmentServlet(s, messagesV2)),
+      "/tickets/2/0/attachment"
+    );
 
     servlets.addEventListener(
       services.requireService(IcUserSessionService.class)
@@ -391,6 +455,17 @@ public final class IcServer implements IcServerType
      */
 
     final var gzip = new GzipHandler();
+    gzip.addIncludedMethods("POST");
+
+    /*
+     * Attachment content is sent directly from the file store, and
+     * compressing it would defeat byte ranges.
+     */
+
+    gzip.addExcludedPaths(
+      "/tickets/1/0/attachment",
+      "/tickets/2/0/attachment"
+    );
     gzip.setHandler(sessionHandler);
 
     /*
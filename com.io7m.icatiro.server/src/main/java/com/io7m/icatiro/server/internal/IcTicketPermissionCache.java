@@ -0,0 +1,342 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.server.internal;
+
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.model.IcPermission;
+import com.io7m.icatiro.model.IcPermissionSet;
+import com.io7m.icatiro.model.IcTicketID;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A bounded cache of the ticketwide permissions held by the user of a
+ * session. Entries are evicted in least-recently-used order. The absence of
+ * any permission for a ticket is cached as well as its presence.
+ *
+ * <p>Permissions are loaded without holding the cache lock. Before a load
+ * begins, a placeholder is stored for each ticket being loaded, and the
+ * loaded permissions are only stored if the placeholder is still present
+ * when the load completes. Invalidating a ticket removes the placeholder,
+ * and so a load that raced with an invalidation cannot store the stale
+ * permissions that it read.</p>
+ */
+
+public final class IcTicketPermissionCache
+{
+  /**
+   * The default maximum number of tickets held in the cache.
+   */
+
+  public static final int DEFAULT_CAPACITY = 1024;
+
+  private static final Set<IcPermission> ALL_PERMISSIONS =
+    Collections.unmodifiableSet(EnumSet.allOf(IcPermission.class));
+
+  private final int capacity;
+  private final LinkedHashMap<IcTicketID, Slot> masks;
+
+  /**
+   * A bounded cache of ticketwide permissions.
+   *
+   * @param inCapacity The maximum number of tickets held in the cache
+   */
+
+  public IcTicketPermissionCache(
+    final int inCapacity)
+  {
+    if (inCapacity <= 0) {
+      throw new IllegalArgumentException(
+        "Capacity must be positive: %d".formatted(inCapacity)
+      );
+    }
+
+    this.capacity = inCapacity;
+    this.masks = new LinkedHashMap<>(16, 0.75f, true)
+    {
+      @Override
+      protected boolean removeEldestEntry(
+        final Map.Entry<IcTicketID, Slot> eldest)
+      {
+        return this.size() > IcTicketPermissionCache.this.capacity;
+      }
+    };
+  }
+
+  /**
+   * A function that loads the ticketwide permissions for a set of tickets.
+   */
+
+  @FunctionalInterface
+  public interface LoaderType
+  {
+    /**
+     * Load the ticketwide permissions for the given tickets.
+     *
+     * @param tickets The tickets
+     *
+     * @return The permissions
+     *
+     * @throws IcDatabaseException On errors
+     */
+
+    IcPermissionSet load(Collection<IcTicketID> tickets)
+      throws IcDatabaseException;
+  }
+
+  private static int bit(
+    final IcPermission permission)
+  {
+    return 1 << permission.ordinal();
+  }
+
+  /**
+   * Determine if the user holds the given ticketwide permission, loading the
+   * permissions for the ticket if they are not cached.
+   *
+   * @param ticket     The ticket
+   * @param permission The permission
+   * @param loader     The permission loader
+   *
+   * @return {@code true} if the user holds the permission
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  public boolean implies(
+    final IcTicketID ticket,
+    final IcPermission permission,
+    final LoaderType loader)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(ticket, "ticket");
+    Objects.requireNonNull(permission, "permission");
+    Objects.requireNonNull(loader, "loader");
+
+    final Slot placeholder;
+    synchronized (this.masks) {
+      final var existing = this.masks.get(ticket);
+      if (existing != null && existing.loaded) {
+        return (existing.mask & bit(permission)) != 0;
+      }
+      placeholder = Slot.placeholder();
+      this.masks.put(ticket, placeholder);
+    }
+
+    final var mask =
+      maskOf(loader.load(List.of(ticket)), ticket);
+
+    synchronized (this.masks) {
+      this.storeIfCurrent(ticket, placeholder, mask);
+    }
+    return (mask & bit(permission)) != 0;
+  }
+
+  private static int maskOf(
+    final IcPermissionSet permissions,
+    final IcTicketID ticket)
+  {
+    return permissions.impliesMany(List.of(ticket), ALL_PERMISSIONS)
+      .rowMask(0);
+  }
+
+  /**
+   * Store the loaded mask for the ticket, but only if the placeholder that
+   * was stored before the load began is still present. If the ticket was
+   * invalidated (or evicted) in the meantime, the loaded mask may be stale.
+   * Must be called with the lock held.
+   */
+
+  private void storeIfCurrent(
+    final IcTicketID ticket,
+    final Slot placeholder,
+    final int mask)
+  {
+    if (this.masks.get(ticket) == placeholder) {
+      this.masks.put(ticket, Slot.loaded(mask));
+    }
+  }
+
+  /**
+   * Load the permissions for any of the given tickets that are not already
+   * cached, using a single call to the loader.
+   *
+   * @param tickets The tickets
+   * @param loader  The permission loader
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  public void load(
+    final Collection<IcTicketID> tickets,
+    final LoaderType loader)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(tickets, "tickets");
+    Objects.requireNonNull(loader, "loader");
+
+    this.masks(List.copyOf(tickets), loader);
+  }
+
+  /**
+   * Retrieve the ticketwide permissions held for each of the given tickets,
+   * loading the permissions for any tickets that are not already cached using
+   * a single call to the loader. Bit {@code n} of each returned mask is set
+   * if the permission with ordinal {@code n} is held.
+   *
+   * @param tickets The tickets
+   * @param loader  The permission loader
+   *
+   * @return The permission masks, in the order of the given tickets
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  public int[] masks(
+    final List<IcTicketID> tickets,
+    final LoaderType loader)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(tickets, "tickets");
+    Objects.requireNonNull(loader, "loader");
+
+    final var result = new int[tickets.size()];
+    final var missing = new ArrayList<IcTicketID>();
+    final var missingRows = new ArrayList<Integer>();
+    final var placeholders = new ArrayList<Slot>();
+
+    synchronized (this.masks) {
+      for (int row = 0; row < result.length; ++row) {
+        final var ticket = tickets.get(row);
+        final var slot = this.masks.get(ticket);
+        if (slot != null && slot.loaded) {
+          result[row] = slot.mask;
+        } else {
+          final var placeholder = Slot.placeholder();
+          this.masks.put(ticket, placeholder);
+          missing.add(ticket);
+          missingRows.add(Integer.valueOf(row));
+          placeholders.add(placeholder);
+        }
+      }
+    }
+
+    if (missing.isEmpty()) {
+      return result;
+    }
+
+    /*
+     * The loader is called without holding the lock, as it will typically
+     * query the database.
+     */
+
+    final var loaded =
+      loader.load(missing).impliesMany(missing, ALL_PERMISSIONS);
+
+    synchronized (this.masks) {
+      for (int index = 0; index < missing.size(); ++index) {
+        final var mask = loaded.rowMask(index);
+        result[missingRows.get(index).intValue()] = mask;
+        this.storeIfCurrent(missing.get(index), placeholders.get(index), mask);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Discard any cached permissions for the given ticket.
+   *
+   * @param ticket The ticket
+   */
+
+  public void invalidate(
+    final IcTicketID ticket)
+  {
+    Objects.requireNonNull(ticket, "ticket");
+
+    synchronized (this.masks) {
+      this.masks.remove(ticket);
+    }
+  }
+
+  /**
+   * Discard all cached permissions.
+   */
+
+  public void clear()
+  {
+    synchronized (this.masks) {
+      this.masks.clear();
+    }
+  }
+
+  /**
+   * @return The number of tickets currently cached
+   */
+
+  public int size()
+  {
+    synchronized (this.masks) {
+      var count = 0;
+      for (final var slot : this.masks.values()) {
+        if (slot.loaded) {
+          ++count;
+        }
+      }
+      return count;
+    }
+  }
+
+  /**
+   * A cache slot. A slot is either a loaded permission mask, or a
+   * placeholder for a load that is in progress. Placeholders are compared by
+   * identity.
+   */
+
+  private static final class Slot
+  {
+    private final boolean loaded;
+    private final int mask;
+
+    private Slot(
+      final boolean inLoaded,
+      final int inMask)
+    {
+      this.loaded = inLoaded;
+      this.mask = inMask;
+    }
+
+    static Slot placeholder()
+    {
+      return new Slot(false, 0);
+    }
+
+    static Slot loaded(
+      final int mask)
+    {
+      return new Slot(true, mask);
+    }
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.server.internal;
+
+import com.io7m.icatiro.model.IcTicketID;
+import com.io7m.icatiro.services.api.IcServiceType;
+import io.opentelemetry.api.metrics.ObservableLongGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An in-process service that notifies watchers when tickets change. The
+ * service is notified after the transactions that write tickets have
+ * committed, and so a watcher that is notified is guaranteed to observe
+ * the change when it next reads the ticket.
+ */
+
+public final class IcTicketWatchService implements IcServiceType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(IcTicketWatchService.class);
+
+  /**
+   * The maximum time for which a watch may wait. This is kept below the
+   * idle timeout of the HTTP connector so that parked requests are not
+   * closed by the server.
+   */
+
+  public static final Duration MAXIMUM_TIMEOUT =
+    Duration.ofSeconds(20L);
+
+  private final ConcurrentHashMap<IcTicketID, Set<Watch>> watches;
+  private final AtomicLong watchCount;
+  private final ObservableLongGauge watchesGauge;
+
+  /**
+   * An in-process service that notifies watchers when tickets change.
+   *
+   * @param inTelemetry The telemetry service
+   */
+
+  public IcTicketWatchService(
+    final IcServerTelemetryService inTelemetry)
+  {
+    this.watches = new ConcurrentHashMap<>();
+    this.watchCount = new AtomicLong();
+
+    final var meter =
+      inTelemetry.openTelemetry()
+        .meterBuilder(IcTicketWatchService.class.getCanonicalName())
+        .build();
+
+    this.watchesGauge =
+      meter.gaugeBuilder("icatiro.activeTicketWatches")
+        .setDescription("Active ticket watches.")
+        .ofLongs()
+        .buildWithCallback(m -> {
+          m.record(this.watchCount.get());
+        });
+  }
+
+  /**
+   * Clamp the given timeout to the range accepted by the service.
+   *
+   * @param timeout The requested timeout
+   *
+   * @return The timeout to use
+   */
+
+  public static Duration clampTimeout(
+    final Duration timeout)
+  {
+    Objects.requireNonNull(timeout, "timeout");
+
+    if (timeout.isNegative()) {
+      return Duration.ZERO;
+    }
+    if (timeout.compareTo(MAXIMUM_TIMEOUT) > 0) {
+      return MAXIMUM_TIMEOUT;
+    }
+    return timeout;
+  }
+
+  /**
+   * Watch the given ticket. The given function is evaluated at most once,
+   * on the thread that reports the change, and so must not block.
+   *
+   * @param ticket    The ticket
+   * @param onChanged The function evaluated when the ticket changes
+   *
+   * @return A watch that can be closed to stop watching the ticket
+   */
+
+  public WatchType watch(
+    final IcTicketID ticket,
+    final Runnable onChanged)
+  {
+    Objects.requireNonNull(ticket, "ticket");
+    Objects.requireNonNull(onChanged, "onChanged");
+
+    /*
+     * The watch is added atomically with respect to the removal of the set
+     * of watches in ticketChanged(), so that a watch cannot be added to a
+     * set that has already been notified.
+     */
+
+    final var watch = new Watch(ticket, onChanged);
+    this.watchCount.incrementAndGet();
+    this.watches.compute(ticket, (k, existing) -> {
+      final Set<Watch> current;
+      if (existing == null) {
+        current = ConcurrentHashMap.newKeySet();
+      } else {
+        current = existing;
+      }
+      current.add(watch);
+      return current;
+    });
+    return watch;
+  }
+
+  /**
+   * Indicate that the given ticket has changed, notifying and removing all
+   * current watches of the ticket.
+   *
+   * @param ticket The ticket
+   */
+
+  public void ticketChanged(
+    final IcTicketID ticket)
+  {
+    Objects.requireNonNull(ticket, "ticket");
+
+    final var existing = this.watches.remove(ticket);
+    if (existing == null) {
+      return;
+    }
+
+    for (final var watch : existing) {
+      if (watch.remove()) {
+        try {
+          watch.onChanged.run();
+        } catch (final Exception e) {
+          LOG.error("[{}] watch notification failed: ", ticket, e);
+        }
+      }
+    }
+  }
+
+  @Override
+  public String description()
+  {
+    return "Ticket watch service.";
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[IcTicketWatchService 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+
+  /**
+   * A watch of a ticket.
+   */
+
+  public interface WatchType extends AutoCloseable
+  {
+    /**
+     * Stop watching the ticket. Closing a watch that has already been
+     * notified has no effect.
+     */
+
+    @Override
+    void close();
+  }
+
+  private final class Watch implements WatchType
+  {
+    private final IcTicketID ticket;
+    private final Runnable onChanged;
+    private boolean removed;
+
+    Watch(
+      final IcTicketID inTicket,
+      final Runnable inOnChanged)
+    {
+      this.ticket = inTicket;
+      this.onChanged = inOnChanged;
+    }
+
+    private synchronized boolean remove()
+    {
+      if (this.removed) {
+        return false;
+      }
+      this.removed = true;
+      IcTicketWatchService.this.watchCount.decrementAndGet();
+      return true;
+    }
+
+    @Override
+    public void close()
+    {
+      if (this.remove()) {
+        IcTicketWatchService.this.watches.computeIfPresent(
+          this.ticket,
+          (k, existing) -> {
+            existing.remove(this);
+            return existing.isEmpty() ? null : existing;
+          });
+      }
+    }
+  }
+}
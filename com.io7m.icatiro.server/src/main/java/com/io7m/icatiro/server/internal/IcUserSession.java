@@ -17,6 +17,8 @@
 package com.io7m.icatiro.server.internal;
 
 import com.io7m.icatiro.database.api.IcDatabaseTicketSearchType;
+import com.io7m.icatiro.model.IcPermissionSet;
+import com.io7m.icatiro.model.IcPermissionTicketwide;
 import com.io7m.icatiro.model.IcUser;
 import com.io7m.idstore.user_client.api.IdUClientType;
 import com.io7m.jaffirm.core.Preconditions;
@@ -24,6 +26,7 @@ import jakarta.servlet.http.HttpSession;
 
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * A controller for a single user session.
@@ -34,11 +37,14 @@ public final class IcUserSession
 {
   private final HttpSession httpSession;
   private final IdUClientType idClient;
-  private final IcUser user;
+  private volatile IcUser user;
+  private final IcTicketPermissionCache ticketPermissions;
   private Optional<IcDatabaseTicketSearchType> tickets;
 
   /**
-   * A controller for a single user session.
+   * A controller for a single user session. The given user is expected to
+   * hold only global and projectwide permissions; ticketwide permissions
+   * are loaded on demand into a bounded cache.
    *
    * @param inUser        The user
    * @param inHttpSession The HTTP session
@@ -58,6 +64,17 @@ public final class IcUserSession
       Objects.requireNonNull(inIdClient, "inIdClient");
     this.tickets =
       Optional.empty();
+    this.ticketPermissions =
+      new IcTicketPermissionCache(IcTicketPermissionCache.DEFAULT_CAPACITY);
+  }
+
+  /**
+   * @return The cache of ticketwide permissions held by the user
+   */
+
+  public IcTicketPermissionCache ticketPermissions()
+  {
+    return this.ticketPermissions;
   }
 
   /**
@@ -104,12 +121,89 @@ public final class IcUserSession
    * @param inUser The user
    */
 
-  public void setUser(
+  public synchronized void setUser(
     final IcUser inUser)
   {
+    Objects.requireNonNull(inUser, "inUser");
+
     Preconditions.checkPreconditionV(
       Objects.equals(this.user.id(), inUser.id()),
       "Session user ID must match."
     );
+    this.user = inUser;
+  }
+
+  /**
+   * Apply a change to the permissions of the session user. Global and
+   * projectwide permissions are added to a new copy of the user that then
+   * replaces the current one, so concurrent readers observe either the old
+   * or the new permissions. Cached ticketwide permissions for any affected
+   * tickets are discarded and will be reloaded on demand.
+   *
+   * <p>Revoking a permission from the user does not necessarily mean that
+   * the user no longer holds it, as it may also be granted to a group of
+   * which the user is a member. If the change revokes any permissions, the
+   * global and projectwide permissions of the user are therefore replaced
+   * with the given {@code permissions} loaded from the database. If these
+   * could not be loaded, the revoked permissions are removed instead, and
+   * the session under-approximates the permissions of the user until the
+   * user next logs in.</p>
+   *
+   * @param event       The change
+   * @param permissions The permissions of the user loaded after the change
+   */
+
+  public synchronized void permissionsChanged(
+    final IcPermissionChangeEvent event,
+    final Optional<IcPermissionSet> permissions)
+  {
+    Objects.requireNonNull(event, "event");
+    Objects.requireNonNull(permissions, "permissions");
+
+    Preconditions.checkPreconditionV(
+      Objects.equals(this.user.id(), event.user()),
+      "Session user ID must match."
+    );
+
+    IcPermissionSet.Builder builder = null;
+    for (final var permission : event.granted()) {
+      if (permission instanceof IcPermissionTicketwide ticketwide) {
+        this.ticketPermissions.invalidate(ticketwide.ticketId());
+        continue;
+      }
+      if (builder == null) {
+        builder = this.user.permissions().toBuilder();
+      }
+      builder.add(permission);
+    }
+
+    if (builder != null) {
+      this.user = this.user.withPermissions(builder.build());
+    }
+
+    if (event.revoked().isEmpty()) {
+      return;
+    }
+
+    final var revoked = Set.copyOf(event.revoked());
+    for (final var permission : revoked) {
+      if (permission instanceof IcPermissionTicketwide ticketwide) {
+        this.ticketPermissions.invalidate(ticketwide.ticketId());
+      }
+    }
+
+    if (permissions.isPresent()) {
+      this.user = this.user.withPermissions(permissions.get());
+      return;
+    }
+
+    this.user = this.user.withPermissions(
+      IcPermissionSet.of(
+        this.user.permissions()
+          .stream()
+          .filter(p -> !revoked.contains(p))
+          .toList()
+      )
+    );
   }
 }
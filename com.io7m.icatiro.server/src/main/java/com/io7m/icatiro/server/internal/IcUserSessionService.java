@@ -16,6 +16,10 @@
 
 package com.io7m.icatiro.server.internal;
 
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.api.IcDatabaseType;
+import com.io7m.icatiro.database.api.IcDatabaseUsersQueriesType;
+import com.io7m.icatiro.model.IcPermissionSet;
 import com.io7m.icatiro.model.IcUser;
 import com.io7m.icatiro.services.api.IcServiceType;
 import com.io7m.idstore.user_client.api.IdUClientType;
@@ -28,9 +32,12 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
+import static com.io7m.icatiro.database.api.IcDatabaseRole.ICATIRO;
+
 /**
  * A service to create and manage user sessions.
  */
@@ -41,19 +48,26 @@ public final class IcUserSessionService
   private static final Logger LOG =
     LoggerFactory.getLogger(IcUserSessionService.class);
 
+  private final IcDatabaseType database;
   private final ConcurrentHashMap<String, IcUserSession> sessions;
+  private final ConcurrentHashMap<UUID, Set<IcUserSession>> sessionsByUser;
   private final ObservableLongGauge sessionsGauge;
 
   /**
    * A service to create and manage user sessions.
    *
    * @param inTelemetry The telemetry service
+   * @param inDatabase  The database
    */
 
   public IcUserSessionService(
-    final IcServerTelemetryService inTelemetry)
+    final IcServerTelemetryService inTelemetry,
+    final IcDatabaseType inDatabase)
   {
+    this.database =
+      Objects.requireNonNull(inDatabase, "inDatabase");
     this.sessions = new ConcurrentHashMap<>();
+    this.sessionsByUser = new ConcurrentHashMap<>();
 
     final var meter =
       inTelemetry.openTelemetry()
@@ -99,10 +113,77 @@ public final class IcUserSessionService
     final var userSession =
       new IcUserSession(user, httpSession, idClient);
 
-    this.sessions.put(id, userSession);
+    final var existing = this.sessions.put(id, userSession);
+    this.sessionsByUser.compute(user.id(), (k, userSessions) -> {
+      final Set<IcUserSession> s =
+        userSessions == null ? ConcurrentHashMap.newKeySet() : userSessions;
+      if (existing != null) {
+        s.remove(existing);
+      }
+      s.add(userSession);
+      return s;
+    });
     return userSession;
   }
 
+  /**
+   * Apply a change to the permissions of a user to all active sessions of
+   * that user. This must only be called after the change has been committed
+   * to the database.
+   *
+   * <p>If the change revokes any permissions, the user's global and
+   * projectwide permissions are reloaded from the database, as the user may
+   * still hold a revoked permission through a group.</p>
+   *
+   * <p>Changes are only published for the permissions granted to, and
+   * revoked from, users by commands. Groups are managed only in the
+   * database, and changes to groups are not published to sessions.</p>
+   *
+   * @param event The change
+   */
+
+  public void permissionsChanged(
+    final IcPermissionChangeEvent event)
+  {
+    Objects.requireNonNull(event, "event");
+
+    final var userSessions = this.sessionsByUser.get(event.user());
+    if (userSessions == null) {
+      return;
+    }
+
+    final Optional<IcPermissionSet> permissions;
+    if (event.revoked().isEmpty()) {
+      permissions = Optional.empty();
+    } else {
+      permissions = this.permissionsLoad(event.user());
+    }
+
+    for (final var session : userSessions) {
+      session.permissionsChanged(event, permissions);
+    }
+  }
+
+  private Optional<IcPermissionSet> permissionsLoad(
+    final UUID userId)
+  {
+    try (var connection = this.database.openConnection(ICATIRO)) {
+      try (var transaction = connection.openTransaction()) {
+        final var users =
+          transaction.queries(IcDatabaseUsersQueriesType.class);
+
+        return Optional.of(
+          users.userGetWithoutTicketPermissions(userId)
+            .map(IcUser::permissions)
+            .orElse(IcPermissionSet.empty())
+        );
+      }
+    } catch (final IcDatabaseException e) {
+      LOG.error("[{}] could not reload permissions: ", userId, e);
+      return Optional.empty();
+    }
+  }
+
   @Override
   public void sessionCreated(
     final HttpSessionEvent se)
@@ -142,6 +223,15 @@ public final class IcUserSessionService
     final var session =
       this.sessions.remove(id);
 
+    if (session == null) {
+      return;
+    }
+
+    this.sessionsByUser.computeIfPresent(userId, (k, userSessions) -> {
+      userSessions.remove(session);
+      return userSessions.isEmpty() ? null : userSessions;
+    });
+
     try {
       session.close();
     } catch (final Exception e) {
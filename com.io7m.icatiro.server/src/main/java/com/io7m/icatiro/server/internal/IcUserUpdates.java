@@ -44,7 +44,7 @@ public final class IcUserUpdates
    * @param database The database
    * @param user     The user
    *
-   * @return The merged user
+   * @return The merged user, holding only global and projectwide permissions
    *
    * @throws IcDatabaseException On errors
    */
@@ -65,7 +65,7 @@ public final class IcUserUpdates
    * @param connection The database connection
    * @param user       The user
    *
-   * @return The merged user
+   * @return The merged user, holding only global and projectwide permissions
    *
    * @throws IcDatabaseException On errors
    */
@@ -88,7 +88,7 @@ public final class IcUserUpdates
    * @param transaction The database transaction
    * @param user        The user
    *
-   * @return The merged user
+   * @return The merged user, holding only global and projectwide permissions
    *
    * @throws IcDatabaseException On errors
    */
@@ -100,30 +100,24 @@ public final class IcUserUpdates
   {
     final var users =
       transaction.queries(IcDatabaseUsersQueriesType.class);
-    final var existingOpt =
-      users.userGet(user.id());
+    /*
+     * Only the user's global and projectwide permissions are loaded;
+     * ticketwide permissions are loaded on demand by the user session.
+     */
 
-    if (existingOpt.isPresent()) {
-      final var existing = existingOpt.get();
-      final var merged =
-        new IcUser(
-          user.id(),
-          user.name(),
-          user.emails(),
-          existing.permissions()
-        );
-      users.userPut(merged);
-      return merged;
-    }
+    final var permissions =
+      users.userGetWithoutTicketPermissions(user.id())
+        .map(IcUser::permissions)
+        .orElse(IcPermissionSet.empty());
 
     final var merged =
       new IcUser(
         user.id(),
         user.name(),
         user.emails(),
-        IcPermissionSet.empty()
+        permissions
       );
-    users.userPut(merged);
+    users.userIdentityPut(merged);
     return merged;
   }
 }
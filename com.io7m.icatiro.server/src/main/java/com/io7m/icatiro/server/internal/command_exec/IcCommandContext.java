@@ -19,9 +19,15 @@ package com.io7m.icatiro.server.internal.command_exec;
 
 import com.io7m.icatiro.database.api.IcDatabaseException;
 import com.io7m.icatiro.database.api.IcDatabaseTransactionType;
+import com.io7m.icatiro.database.api.IcDatabaseUsersQueriesType;
 import com.io7m.icatiro.error_codes.IcErrorCode;
 import com.io7m.icatiro.model.IcAccessControlledType;
 import com.io7m.icatiro.model.IcPermission;
+import com.io7m.icatiro.model.IcPermissionMatrix;
+import com.io7m.icatiro.model.IcPermissionScopedType;
+import com.io7m.icatiro.model.IcPermissionSet;
+import com.io7m.icatiro.model.IcPermissionTicketwide;
+import com.io7m.icatiro.model.IcTicketID;
 import com.io7m.icatiro.model.IcValidityException;
 import com.io7m.icatiro.protocol.IcProtocolException;
 import com.io7m.icatiro.protocol.IcProtocolMessageType;
@@ -35,7 +41,11 @@ import com.io7m.idstore.model.IdEmail;
 import io.opentelemetry.api.trace.Tracer;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.HTTP_PARAMETER_INVALID;
@@ -318,6 +328,147 @@ public abstract class IcCommandContext<E extends IcProtocolMessageType>
     );
   }
 
+  /**
+   * Determine if the current user has the required permission.
+   *
+   * @param object     The object
+   * @param permission The permission
+   *
+   * @return {@code true} if the user has the permission
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  public boolean permissionAllowed(
+    final IcAccessControlledType object,
+    final IcPermission permission)
+    throws IcDatabaseException
+  {
+    final var session = this.userSession();
+    if (session.user().permissions().implies(object, permission)) {
+      return true;
+    }
+
+    /*
+     * Ticketwide permissions are not held in the session, and are looked
+     * up (and cached) on demand.
+     */
+
+    if (object instanceof IcTicketID ticket) {
+      return session.ticketPermissions()
+        .implies(ticket, permission, this::ticketPermissionsLoad);
+    }
+    return false;
+  }
+
+  /**
+   * Determine if the current user has the given scoped permission.
+   *
+   * @param permission The permission
+   *
+   * @return {@code true} if the user has the permission
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  public boolean permissionAllowedScoped(
+    final IcPermissionScopedType permission)
+    throws IcDatabaseException
+  {
+    if (permission instanceof IcPermissionTicketwide ticketwide) {
+      return this.permissionAllowed(
+        ticketwide.ticketId(),
+        ticketwide.permission()
+      );
+    }
+    return this.userSession()
+      .user()
+      .permissions()
+      .impliesScoped(permission);
+  }
+
+  /**
+   * Load the ticketwide permissions of the current user for the given
+   * tickets in a single query, so that subsequent permission checks for those
+   * tickets do not query the database individually.
+   *
+   * @param tickets The tickets
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  public void permissionPreload(
+    final Collection<IcTicketID> tickets)
+    throws IcDatabaseException
+  {
+    this.userSession()
+      .ticketPermissions()
+      .load(tickets, this::ticketPermissionsLoad);
+  }
+
+  /**
+   * Determine which of the given permissions the current user has for each
+   * of the given tickets. Permissions held in the session are evaluated for
+   * all tickets at once, and the ticketwide permissions for any tickets that
+   * are not fully covered by those are loaded in a single query.
+   *
+   * @param tickets     The tickets
+   * @param permissions The permissions
+   *
+   * @return A matrix with a row for each ticket and a column for each
+   * permission
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  public IcPermissionMatrix permissionMatrix(
+    final List<IcTicketID> tickets,
+    final Set<IcPermission> permissions)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(tickets, "tickets");
+    Objects.requireNonNull(permissions, "permissions");
+
+    final var session =
+      this.userSession();
+    final var held =
+      session.user().permissions().impliesMany(tickets, permissions);
+
+    final var pending = new ArrayList<IcTicketID>();
+    for (int row = 0; row < held.rows(); ++row) {
+      if (!held.impliesAll(row)) {
+        pending.add(tickets.get(row));
+      }
+    }
+
+    if (pending.isEmpty()) {
+      return held;
+    }
+
+    final var ticketwide =
+      session.ticketPermissions()
+        .masks(pending, this::ticketPermissionsLoad);
+
+    final var rows = new int[held.rows()];
+    int next = 0;
+    for (int row = 0; row < rows.length; ++row) {
+      rows[row] = held.rowMask(row);
+      if (!held.impliesAll(row)) {
+        rows[row] |= ticketwide[next];
+        ++next;
+      }
+    }
+    return IcPermissionMatrix.ofMasks(permissions, rows);
+  }
+
+  private IcPermissionSet ticketPermissionsLoad(
+    final Collection<IcTicketID> tickets)
+    throws IcDatabaseException
+  {
+    return this.transaction.queries(IcDatabaseUsersQueriesType.class)
+      .userTicketPermissions(this.userSession().user().id(), tickets);
+  }
+
   /**
    * Check that the current user has the required permission.
    *
@@ -325,15 +476,15 @@ public abstract class IcCommandContext<E extends IcProtocolMessageType>
    * @param permission The permission
    *
    * @throws IcSecurityException If the check failed
+   * @throws IcDatabaseException On errors
    */
 
   public void permissionCheck(
     final IcAccessControlledType object,
     final IcPermission permission)
-    throws IcSecurityException
+    throws IcSecurityException, IcDatabaseException
   {
-    final var user = this.userSession().user();
-    if (!user.permissions().implies(object, permission)) {
+    if (!this.permissionAllowed(object, permission)) {
       throw new IcSecurityException(
         this.strings.format(
           "errorPermissionsRequired",
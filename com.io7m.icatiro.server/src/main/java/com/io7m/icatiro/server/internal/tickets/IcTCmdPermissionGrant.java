@@ -19,14 +19,16 @@ package com.io7m.icatiro.server.internal.tickets;
 
 import com.io7m.icatiro.database.api.IcDatabaseException;
 import com.io7m.icatiro.database.api.IcDatabaseUsersQueriesType;
-import com.io7m.icatiro.model.IcUser;
 import com.io7m.icatiro.model.IcValidityException;
 import com.io7m.icatiro.protocol.tickets.IcTCommandPermissionGrant;
 import com.io7m.icatiro.protocol.tickets.IcTResponsePermissionGrant;
 import com.io7m.icatiro.protocol.tickets.IcTResponseType;
 import com.io7m.icatiro.server.internal.command_exec.IcCommandExecutionFailure;
 
+import java.util.List;
+
 import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.OPERATION_NOT_PERMITTED;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.USER_NONEXISTENT;
 
 /**
  * {@code IcTCommandPermissionGrant}
@@ -50,17 +52,12 @@ public final class IcTCmdPermissionGrant
     final IcTCommandPermissionGrant command)
     throws IcValidityException, IcDatabaseException, IcCommandExecutionFailure
   {
-    final var session =
-      context.userSession();
     final var users =
       context.transaction()
         .queries(IcDatabaseUsersQueriesType.class);
 
-    final var sourceUser =
-      session.user();
-
     final var permission = command.permission();
-    if (!sourceUser.permissions().impliesScoped(permission)) {
+    if (!context.permissionAllowedScoped(permission)) {
       throw context.failFormatted(
         403,
         OPERATION_NOT_PERMITTED,
@@ -69,21 +66,22 @@ public final class IcTCmdPermissionGrant
       );
     }
 
-    final var targetUser =
-      users.userGetRequire(command.targetUser());
+    /*
+     * The target user's ticketwide permissions are not needed in order to
+     * add a permission, and can be numerous.
+     */
 
-    final var newPermissions =
-      targetUser.permissions()
-        .toBuilder()
-        .add(permission)
-        .build();
+    final var targetUser =
+      users.userGetWithoutTicketPermissions(command.targetUser())
+        .orElseThrow(() -> {
+          return new IcDatabaseException(
+            "User does not exist",
+            USER_NONEXISTENT
+          );
+        });
 
-    users.userPut(new IcUser(
-      targetUser.id(),
-      targetUser.name(),
-      targetUser.emails(),
-      newPermissions
-    ));
+    users.userPermissionsAdd(targetUser.id(), List.of(permission));
+    context.permissionsGranted(targetUser.id(), List.of(permission));
 
     return new IcTResponsePermissionGrant(context.requestId());
   }
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.server.internal.tickets;
+
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.api.IcDatabaseUsersQueriesType;
+import com.io7m.icatiro.model.IcPermissionScopedType;
+import com.io7m.icatiro.model.IcValidityException;
+import com.io7m.icatiro.protocol.tickets.IcTCommandPermissionGrantMany;
+import com.io7m.icatiro.protocol.tickets.IcTResponsePermissionGrantMany;
+import com.io7m.icatiro.protocol.tickets.IcTResponseType;
+import com.io7m.icatiro.server.internal.command_exec.IcCommandExecutionFailure;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.OPERATION_NOT_PERMITTED;
+
+/**
+ * {@code IcTCommandPermissionGrantMany}
+ */
+
+public final class IcTCmdPermissionGrantMany
+  extends IcTCmdAbstract<IcTCommandPermissionGrantMany>
+{
+  /**
+   * {@code IcTCommandPermissionGrantMany}
+   */
+
+  public IcTCmdPermissionGrantMany()
+  {
+
+  }
+
+  @Override
+  protected IcTResponseType executeActual(
+    final IcTCommandContext context,
+    final IcTCommandPermissionGrantMany command)
+    throws IcValidityException, IcDatabaseException, IcCommandExecutionFailure
+  {
+    final var users =
+      context.transaction()
+        .queries(IcDatabaseUsersQueriesType.class);
+
+    /*
+     * The caller must hold each permission that it grants. The check is
+     * made once for each distinct permission rather than once for each
+     * user, and all of the permissions are then added with a single
+     * statement.
+     */
+
+    final var permissions = command.permissions();
+    final var scopes = new LinkedHashSet<IcPermissionScopedType>();
+    final var byUser = new LinkedHashMap<UUID, List<IcPermissionScopedType>>();
+    for (final var p : permissions) {
+      scopes.add(p.permission());
+      byUser.computeIfAbsent(p.user(), k -> new ArrayList<>())
+        .add(p.permission());
+    }
+
+    for (final var permission : scopes) {
+      if (!context.permissionAllowedScoped(permission)) {
+        throw context.failFormatted(
+          403,
+          OPERATION_NOT_PERMITTED,
+          "errorPermissionGrant",
+          permission
+        );
+      }
+    }
+
+    users.usersPermissionsAdd(permissions);
+
+    for (final var entry : byUser.entrySet()) {
+      context.permissionsGranted(entry.getKey(), entry.getValue());
+    }
+
+    return new IcTResponsePermissionGrantMany(context.requestId());
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.server.internal.tickets;
+
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.api.IcDatabaseProjectsQueriesType;
+import com.io7m.icatiro.model.IcValidityException;
+import com.io7m.icatiro.protocol.tickets.IcTCommandProjectStatistics;
+import com.io7m.icatiro.protocol.tickets.IcTResponseProjectStatistics;
+import com.io7m.icatiro.protocol.tickets.IcTResponseType;
+import com.io7m.icatiro.server.internal.IcSecurityException;
+
+import static com.io7m.icatiro.model.IcPermission.TICKET_READ;
+
+/**
+ * {@code IcTCommandProjectStatistics}
+ */
+
+public final class IcTCmdProjectStatistics
+  extends IcTCmdAbstract<IcTCommandProjectStatistics>
+{
+  /**
+   * {@code IcTCommandProjectStatistics}
+   */
+
+  public IcTCmdProjectStatistics()
+  {
+
+  }
+
+  @Override
+  protected IcTResponseType executeActual(
+    final IcTCommandContext context,
+    final IcTCommandProjectStatistics command)
+    throws IcValidityException, IcDatabaseException, IcSecurityException
+  {
+    final var transaction =
+      context.transaction();
+    final var projects =
+      transaction.queries(IcDatabaseProjectsQueriesType.class);
+
+    final var projectId = command.project();
+    context.permissionCheck(projectId, TICKET_READ);
+
+    final var statistics =
+      projects.projectStatistics(projectId, command.timeRange());
+
+    return new IcTResponseProjectStatistics(context.requestId(), statistics);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.server.internal.tickets;
+
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.api.IcDatabaseSavedSearchesQueriesType;
+import com.io7m.icatiro.model.IcValidityException;
+import com.io7m.icatiro.protocol.tickets.IcTCommandSavedSearchResults;
+import com.io7m.icatiro.protocol.tickets.IcTResponseSavedSearchResults;
+import com.io7m.icatiro.protocol.tickets.IcTResponseType;
+
+/**
+ * {@code IcTCommandSavedSearchResults}
+ */
+
+public final class IcTCmdSavedSearchResults
+  extends IcTCmdAbstract<IcTCommandSavedSearchResults>
+{
+  /**
+   * The maximum number of entries returned by a single request. Clients
+   * requesting more receive this many, and request the remainder using the
+   * returned revision.
+   */
+
+  public static final int MAXIMUM_LIMIT = 1000;
+
+  /**
+   * {@code IcTCommandSavedSearchResults}
+   */
+
+  public IcTCmdSavedSearchResults()
+  {
+
+  }
+
+  /**
+   * Clamp the given limit to the range accepted by the server.
+   *
+   * @param limit The requested limit
+   *
+   * @return The limit to use
+   */
+
+  public static int clampLimit(
+    final int limit)
+  {
+    if (limit < 1) {
+      return 1;
+    }
+    return Math.min(limit, MAXIMUM_LIMIT);
+  }
+
+  @Override
+  protected IcTResponseType executeActual(
+    final IcTCommandContext context,
+    final IcTCommandSavedSearchResults command)
+    throws IcValidityException, IcDatabaseException
+  {
+    final var session =
+      context.userSession();
+    final var transaction =
+      context.transaction();
+    final var searches =
+      transaction.queries(IcDatabaseSavedSearchesQueriesType.class);
+
+    transaction.userIdSet(session.user().id());
+
+    final var results =
+      searches.savedSearchResults(
+        command.name(),
+        command.since(),
+        clampLimit(command.limit())
+      );
+
+    return new IcTResponseSavedSearchResults(context.requestId(), results);
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.server.internal.tickets;
+
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.api.IcDatabaseTicketsQueriesType;
+import com.io7m.icatiro.model.IcValidityException;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketChangesSince;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketChangesSince;
+import com.io7m.icatiro.protocol.tickets.IcTResponseType;
+
+/**
+ * {@code IcTCommandTicketChangesSince}
+ */
+
+public final class IcTCmdTicketChangesSince
+  extends IcTCmdAbstract<IcTCommandTicketChangesSince>
+{
+  /**
+   * {@code IcTCommandTicketChangesSince}
+   */
+
+  public IcTCmdTicketChangesSince()
+  {
+
+  }
+
+  @Override
+  protected IcTResponseType executeActual(
+    final IcTCommandContext context,
+    final IcTCommandTicketChangesSince command)
+    throws IcValidityException, IcDatabaseException
+  {
+    final var session =
+      context.userSession();
+    final var transaction =
+      context.transaction();
+    final var tickets =
+      transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+    transaction.userIdSet(session.user().id());
+
+    final var changes =
+      tickets.ticketChangesSince(command.cursor(), command.limit());
+
+    return new IcTResponseTicketChangesSince(context.requestId(), changes);
+  }
+}
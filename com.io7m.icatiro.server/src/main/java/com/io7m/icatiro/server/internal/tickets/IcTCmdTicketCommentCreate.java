@@ -61,6 +61,8 @@ public final class IcTCmdTicketCommentCreate
     final var comment =
       tickets.ticketCommentCreate(command.creation());
 
+    context.ticketChanged(comment.ticket());
+
     return new IcTResponseTicketCommentCreate(context.requestId(), comment);
   }
 }
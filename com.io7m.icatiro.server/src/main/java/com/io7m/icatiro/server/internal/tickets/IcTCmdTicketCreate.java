@@ -18,7 +18,8 @@ package com.io7m.icatiro.server.internal.tickets;
 
 import com.io7m.icatiro.database.api.IcDatabaseException;
 import com.io7m.icatiro.database.api.IcDatabaseTicketsQueriesType;
-import com.io7m.icatiro.database.api.IcDatabaseUsersQueriesType;
+import com.io7m.icatiro.model.IcPermissionScopedType;
+import com.io7m.icatiro.model.IcPermissionSet;
 import com.io7m.icatiro.model.IcPermissionTicketwide;
 import com.io7m.icatiro.model.IcValidityException;
 import com.io7m.icatiro.protocol.tickets.IcTCommandTicketCreate;
@@ -26,10 +27,9 @@ import com.io7m.icatiro.protocol.tickets.IcTResponseTicketCreate;
 import com.io7m.icatiro.protocol.tickets.IcTResponseType;
 import com.io7m.icatiro.server.internal.IcSecurityException;
 
-import static com.io7m.icatiro.model.IcPermission.TICKET_COMMENT;
+import java.util.List;
+
 import static com.io7m.icatiro.model.IcPermission.TICKET_CREATE;
-import static com.io7m.icatiro.model.IcPermission.TICKET_READ;
-import static com.io7m.icatiro.model.IcPermission.TICKET_WRITE;
 
 /**
  * {@code IcTCommandTicketCreate}
@@ -57,8 +57,6 @@ public final class IcTCmdTicketCreate
       context.transaction();
     final var tickets =
       transaction.queries(IcDatabaseTicketsQueriesType.class);
-    final var users =
-      transaction.queries(IcDatabaseUsersQueriesType.class);
 
     final var session = context.userSession();
     final var user = session.user();
@@ -77,26 +75,20 @@ public final class IcTCmdTicketCreate
 
     /*
      * The user might not have permission to read/write tickets in the project,
-     * but they should have read/write permission to tickets they have created.
+     * but they implicitly have read/write permission to tickets they have
+     * created. Nothing is stored, but the user's sessions are told about the
+     * new permissions.
      */
 
-    final var ticketRead =
-      new IcPermissionTicketwide(ticket.ticketId(), TICKET_READ);
-    final var ticketWrite =
-      new IcPermissionTicketwide(ticket.ticketId(), TICKET_WRITE);
-    final var ticketComment =
-      new IcPermissionTicketwide(ticket.ticketId(), TICKET_COMMENT);
-
-    final var newPermissions =
-      user.permissions().toBuilder()
-        .add(ticketRead)
-        .add(ticketWrite)
-        .add(ticketComment)
-        .build();
-
-    final var newUser = user.withPermissions(newPermissions);
-    users.userPut(newUser);
-    session.setUser(newUser);
+    final List<IcPermissionScopedType> granted =
+      IcPermissionSet.reporterPermissions()
+        .stream()
+        .map(p -> new IcPermissionTicketwide(ticket.ticketId(), p))
+        .map(IcPermissionScopedType.class::cast)
+        .toList();
+
+    context.permissionsGranted(user.id(), granted);
+    context.ticketChanged(ticket.ticketId());
 
     return new IcTResponseTicketCreate(context.requestId(), ticket);
   }
@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.server.internal.tickets;
+
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.api.IcDatabaseTicketsQueriesType;
+import com.io7m.icatiro.model.IcTicketGetResultForbidden;
+import com.io7m.icatiro.model.IcTicketGetResultFound;
+import com.io7m.icatiro.model.IcTicketGetResultNotFound;
+import com.io7m.icatiro.model.IcTicketGetResultType;
+import com.io7m.icatiro.model.IcTicketID;
+import com.io7m.icatiro.model.IcValidityException;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketGetMany;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketGetMany;
+import com.io7m.icatiro.protocol.tickets.IcTResponseType;
+import com.io7m.icatiro.server.internal.IcSecurityException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import static com.io7m.icatiro.model.IcPermission.TICKET_READ;
+
+/**
+ * {@code IcTCommandTicketGetMany}
+ */
+
+public final class IcTCmdTicketGetMany
+  extends IcTCmdAbstract<IcTCommandTicketGetMany>
+{
+  /**
+   * {@code IcTCommandTicketGetMany}
+   */
+
+  public IcTCmdTicketGetMany()
+  {
+
+  }
+
+  @Override
+  protected IcTResponseType executeActual(
+    final IcTCommandContext context,
+    final IcTCommandTicketGetMany command)
+    throws IcValidityException, IcDatabaseException, IcSecurityException
+  {
+    final var transaction =
+      context.transaction();
+    final var tickets =
+      transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+    /*
+     * Permissions are checked against the session's permissions for every
+     * ticket, and only the tickets the user may read are fetched from the
+     * database. Any ticketwide permissions that are not already cached in
+     * the session are loaded with a single query beforehand.
+     */
+
+    final var ids = command.ids();
+    context.permissionPreload(ids);
+
+    final var readable = new HashSet<IcTicketID>(ids.size());
+    for (final var id : ids) {
+      if (context.permissionAllowed(id, TICKET_READ)) {
+        readable.add(id);
+      }
+    }
+
+    final var found =
+      tickets.ticketGetMany(readable);
+
+    final var results =
+      new ArrayList<IcTicketGetResultType>(ids.size());
+    for (final var id : ids) {
+      if (!readable.contains(id)) {
+        results.add(new IcTicketGetResultForbidden(id));
+        continue;
+      }
+
+      final var ticket = found.get(id);
+      if (ticket == null) {
+        results.add(new IcTicketGetResultNotFound(id));
+      } else {
+        results.add(new IcTicketGetResultFound(ticket));
+      }
+    }
+
+    return new IcTResponseTicketGetMany(context.requestId(), results);
+  }
+}
@@ -57,13 +57,19 @@ public final class IcTCmdTicketSearchBegin
     transaction.userIdSet(session.user().id());
 
     final var search =
-      ticketQueries.ticketSearch(command.search());
+      ticketQueries.ticketSearch(
+        IcTTimeRanges.roundOutwards(command.search())
+      );
 
     session.setTicketParameters(search);
 
     final var page =
       search.pageCurrent(ticketQueries);
 
-    return new IcTResponseTicketSearchBegin(context.requestId(), page);
+    return new IcTResponseTicketSearchBegin(
+      context.requestId(),
+      page,
+      context.searchPermissions(page)
+    );
   }
 }
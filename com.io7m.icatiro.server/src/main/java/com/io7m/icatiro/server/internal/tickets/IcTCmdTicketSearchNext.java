@@ -72,6 +72,10 @@ public final class IcTCmdTicketSearchNext
     final var page =
       ticketSearch.pageNext(ticketQueries);
 
-    return new IcTResponseTicketSearchNext(context.requestId(), page);
+    return new IcTResponseTicketSearchNext(
+      context.requestId(),
+      page,
+      context.searchPermissions(page)
+    );
   }
 }
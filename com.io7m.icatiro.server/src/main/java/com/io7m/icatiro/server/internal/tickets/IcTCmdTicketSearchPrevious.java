@@ -72,6 +72,10 @@ public final class IcTCmdTicketSearchPrevious
     final var page =
       ticketSearch.pagePrevious(ticketQueries);
 
-    return new IcTResponseTicketSearchPrevious(context.requestId(), page);
+    return new IcTResponseTicketSearchPrevious(
+      context.requestId(),
+      page,
+      context.searchPermissions(page)
+    );
   }
 }
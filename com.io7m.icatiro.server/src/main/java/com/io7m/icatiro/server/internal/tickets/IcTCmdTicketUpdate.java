@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.server.internal.tickets;
+
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.api.IcDatabaseTicketsQueriesType;
+import com.io7m.icatiro.model.IcValidityException;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketUpdate;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketUpdate;
+import com.io7m.icatiro.protocol.tickets.IcTResponseType;
+import com.io7m.icatiro.server.internal.IcSecurityException;
+import com.io7m.icatiro.server.internal.command_exec.IcCommandExecutionFailure;
+
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.TICKET_UPDATE_CONFLICT;
+import static com.io7m.icatiro.model.IcPermission.TICKET_WRITE;
+
+/**
+ * {@code IcTCmdTicketUpdate}
+ */
+
+public final class IcTCmdTicketUpdate
+  extends IcTCmdAbstract<IcTCommandTicketUpdate>
+{
+  /**
+   * {@code IcTCmdTicketUpdate}
+   */
+
+  public IcTCmdTicketUpdate()
+  {
+
+  }
+
+  @Override
+  protected IcTResponseType executeActual(
+    final IcTCommandContext context,
+    final IcTCommandTicketUpdate command)
+    throws IcValidityException, IcDatabaseException, IcSecurityException,
+    IcCommandExecutionFailure
+  {
+    final var transaction =
+      context.transaction();
+    final var tickets =
+      transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+    final var user = context.userSession().user();
+    transaction.userIdSet(user.id());
+
+    final var update = command.update();
+    context.permissionCheck(update.ticket(), TICKET_WRITE);
+
+    /*
+     * A conflicting update is reported as a conflict rather than as a
+     * server error, so that clients can fetch the ticket and retry.
+     */
+
+    final IcTResponseTicketUpdate response;
+    try {
+      response = new IcTResponseTicketUpdate(
+        context.requestId(),
+        tickets.ticketUpdate(update)
+      );
+    } catch (final IcDatabaseException e) {
+      if (TICKET_UPDATE_CONFLICT.equals(e.errorCode())) {
+        throw context.fail(409, e.errorCode(), e.getMessage());
+      }
+      throw e;
+    }
+
+    context.ticketChanged(update.ticket());
+    return response;
+  }
+}
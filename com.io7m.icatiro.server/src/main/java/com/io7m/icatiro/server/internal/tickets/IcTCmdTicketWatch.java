@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.server.internal.tickets;
+
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.api.IcDatabaseTicketsQueriesType;
+import com.io7m.icatiro.model.IcTicketWatchResult;
+import com.io7m.icatiro.model.IcValidityException;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketWatch;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketWatch;
+import com.io7m.icatiro.protocol.tickets.IcTResponseType;
+import com.io7m.icatiro.server.internal.IcSecurityException;
+
+import static com.io7m.icatiro.model.IcPermission.TICKET_READ;
+
+/**
+ * {@code IcTCommandTicketWatch}
+ */
+
+public final class IcTCmdTicketWatch
+  extends IcTCmdAbstract<IcTCommandTicketWatch>
+{
+  /**
+   * {@code IcTCommandTicketWatch}
+   */
+
+  public IcTCmdTicketWatch()
+  {
+
+  }
+
+  @Override
+  protected IcTResponseType executeActual(
+    final IcTCommandContext context,
+    final IcTCommandTicketWatch command)
+    throws IcValidityException, IcDatabaseException, IcSecurityException
+  {
+    final var transaction =
+      context.transaction();
+    final var tickets =
+      transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+    final var ticketId = command.ticket();
+    context.permissionCheck(ticketId, TICKET_READ);
+
+    /*
+     * The command only compares the current revision of the ticket against
+     * the revision seen by the client. Waiting for the ticket to change is
+     * handled by the servlet, which parks the request without holding a
+     * database connection.
+     */
+
+    final var revision = tickets.ticketRevision(ticketId);
+    return new IcTResponseTicketWatch(
+      context.requestId(),
+      new IcTicketWatchResult(
+        ticketId,
+        revision != command.revision(),
+        revision
+      )
+    );
+  }
+}
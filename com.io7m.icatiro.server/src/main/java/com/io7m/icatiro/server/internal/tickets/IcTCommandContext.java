@@ -17,10 +17,18 @@
 
 package com.io7m.icatiro.server.internal.tickets;
 
+import com.io7m.icatiro.database.api.IcDatabaseException;
 import com.io7m.icatiro.database.api.IcDatabaseTransactionType;
 import com.io7m.icatiro.error_codes.IcErrorCode;
+import com.io7m.icatiro.model.IcPage;
+import com.io7m.icatiro.model.IcPermission;
+import com.io7m.icatiro.model.IcPermissionMatrix;
+import com.io7m.icatiro.model.IcPermissionScopedType;
+import com.io7m.icatiro.model.IcTicketID;
+import com.io7m.icatiro.model.IcTicketSummaryType;
 import com.io7m.icatiro.protocol.tickets.IcTResponseError;
 import com.io7m.icatiro.protocol.tickets.IcTResponseType;
+import com.io7m.icatiro.server.internal.IcPermissionChangeEvent;
 import com.io7m.icatiro.server.internal.IcServerClock;
 import com.io7m.icatiro.server.internal.IcServerStrings;
 import com.io7m.icatiro.server.internal.IcUserSession;
@@ -28,8 +36,17 @@ import com.io7m.icatiro.server.internal.command_exec.IcCommandContext;
 import com.io7m.icatiro.services.api.IcServiceDirectoryType;
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
+import static com.io7m.icatiro.model.IcPermission.TICKET_COMMENT;
+import static com.io7m.icatiro.model.IcPermission.TICKET_WRITE;
 import static com.io7m.icatiro.server.internal.IcRequests.requestUserAgent;
 import static com.io7m.icatiro.server.internal.IcServerRequestDecoration.requestIdFor;
 
@@ -40,6 +57,12 @@ import static com.io7m.icatiro.server.internal.IcServerRequestDecoration.request
 public final class IcTCommandContext
   extends IcCommandContext<IcTResponseType>
 {
+  private static final Set<IcPermission> SEARCH_PERMISSIONS =
+    Collections.unmodifiableSet(EnumSet.of(TICKET_WRITE, TICKET_COMMENT));
+
+  private final Set<IcTicketID> ticketsChanged;
+  private final List<IcPermissionChangeEvent> permissionsChanged;
+
   /**
    * The context for execution of a command (or set of commands in a
    * transaction).
@@ -74,6 +97,103 @@ public final class IcTCommandContext
       remoteHost,
       remoteUserAgent
     );
+
+    this.ticketsChanged = new LinkedHashSet<>();
+    this.permissionsChanged = new ArrayList<>();
+  }
+
+  /**
+   * Indicate that permissions were granted to the given user by the
+   * command. Active sessions of the user are updated if the transaction is
+   * committed.
+   *
+   * @param user        The user
+   * @param permissions The permissions granted
+   */
+
+  public void permissionsGranted(
+    final UUID user,
+    final List<IcPermissionScopedType> permissions)
+  {
+    this.permissionsChanged.add(
+      new IcPermissionChangeEvent(user, permissions, List.of())
+    );
+  }
+
+  /**
+   * Indicate that permissions were revoked from the given user by the
+   * command. Active sessions of the user are updated if the transaction is
+   * committed.
+   *
+   * @param user        The user
+   * @param permissions The permissions revoked
+   */
+
+  public void permissionsRevoked(
+    final UUID user,
+    final List<IcPermissionScopedType> permissions)
+  {
+    this.permissionsChanged.add(
+      new IcPermissionChangeEvent(user, List.of(), permissions)
+    );
+  }
+
+  /**
+   * @return The permission changes made by the command
+   */
+
+  public List<IcPermissionChangeEvent> permissionsChanged()
+  {
+    return Collections.unmodifiableList(this.permissionsChanged);
+  }
+
+  /**
+   * Indicate that the given ticket was changed by the command. Watchers of
+   * the ticket are notified if the transaction is committed.
+   *
+   * @param ticket The ticket
+   */
+
+  public void ticketChanged(
+    final IcTicketID ticket)
+  {
+    this.ticketsChanged.add(Objects.requireNonNull(ticket, "ticket"));
+  }
+
+  /**
+   * @return The tickets changed by the command
+   */
+
+  public Set<IcTicketID> ticketsChanged()
+  {
+    return Collections.unmodifiableSet(this.ticketsChanged);
+  }
+
+  /**
+   * Determine the permissions that the current user has for each ticket in
+   * the given page of search results. The permissions are those that a client
+   * needs in order to decide which operations to offer for each ticket.
+   *
+   * @param page The page of search results
+   *
+   * @return A matrix with a row for each ticket in the page
+   *
+   * @throws IcDatabaseException On errors
+   */
+
+  public IcPermissionMatrix searchPermissions(
+    final IcPage<IcTicketSummaryType> page)
+    throws IcDatabaseException
+  {
+    Objects.requireNonNull(page, "page");
+
+    return this.permissionMatrix(
+      page.items()
+        .stream()
+        .map(IcTicketSummaryType::ticketId)
+        .toList(),
+      SEARCH_PERMISSIONS
+    );
   }
 
   /**
@@ -18,19 +18,32 @@ package com.io7m.icatiro.server.internal.tickets;
 
 import com.io7m.icatiro.protocol.tickets.IcTCommandLogin;
 import com.io7m.icatiro.protocol.tickets.IcTCommandPermissionGrant;
+import com.io7m.icatiro.protocol.tickets.IcTCommandPermissionGrantMany;
+import com.io7m.icatiro.protocol.tickets.IcTCommandPermissionRevokeMany;
 import com.io7m.icatiro.protocol.tickets.IcTCommandProjectCreate;
+import com.io7m.icatiro.protocol.tickets.IcTCommandProjectStatistics;
+import com.io7m.icatiro.protocol.tickets.IcTCommandSavedSearchCreate;
+import com.io7m.icatiro.protocol.tickets.IcTCommandSavedSearchDelete;
+import com.io7m.icatiro.protocol.tickets.IcTCommandSavedSearchResults;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketChangesSince;
 import com.io7m.icatiro.protocol.tickets.IcTCommandTicketCommentCreate;
 import com.io7m.icatiro.protocol.tickets.IcTCommandTicketCreate;
 import com.io7m.icatiro.protocol.tickets.IcTCommandTicketGet;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketGetIfChanged;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketGetMany;
 import com.io7m.icatiro.protocol.tickets.IcTCommandTicketSearchBegin;
 import com.io7m.icatiro.protocol.tickets.IcTCommandTicketSearchNext;
 import com.io7m.icatiro.protocol.tickets.IcTCommandTicketSearchPrevious;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketUpdate;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketWatch;
 import com.io7m.icatiro.protocol.tickets.IcTCommandType;
 import com.io7m.icatiro.protocol.tickets.IcTResponseType;
 import com.io7m.icatiro.server.internal.command_exec.IcCommandExecutionFailure;
 import com.io7m.icatiro.server.internal.command_exec.IcCommandExecutorType;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * A command executor for Tickets commands.
@@ -42,6 +55,9 @@ public final class IcTCommandExecutor
   IcTCommandType<? extends IcTResponseType>,
   IcTResponseType>
 {
+  private static final Map<Class<?>, ExecutorType> EXECUTORS =
+    createExecutors();
+
   /**
    * A command executor for Tickets commands.
    */
@@ -51,42 +67,62 @@ public final class IcTCommandExecutor
 
   }
 
+  /**
+   * The executors are stateless, and so a single instance of each is shared
+   * between all commands. Commands are dispatched by their class rather than
+   * by a chain of type tests.
+   */
+
+  private static Map<Class<?>, ExecutorType> createExecutors()
+  {
+    final var m = new HashMap<Class<?>, ExecutorType>();
+    register(m, IcTCommandLogin.class, new IcTCmdLogin());
+    register(m, IcTCommandTicketSearchBegin.class, new IcTCmdTicketSearchBegin());
+    register(m, IcTCommandTicketSearchNext.class, new IcTCmdTicketSearchNext());
+    register(m, IcTCommandTicketSearchPrevious.class, new IcTCmdTicketSearchPrevious());
+    register(m, IcTCommandProjectCreate.class, new IcTCmdProjectCreate());
+    register(m, IcTCommandTicketCreate.class, new IcTCmdTicketCreate());
+    register(m, IcTCommandPermissionGrant.class, new IcTCmdPermissionGrant());
+    register(m, IcTCommandPermissionGrantMany.class, new IcTCmdPermissionGrantMany());
+    register(m, IcTCommandPermissionRevokeMany.class, new IcTCmdPermissionRevokeMany());
+    register(m, IcTCommandTicketCommentCreate.class, new IcTCmdTicketCommentCreate());
+    register(m, IcTCommandTicketUpdate.class, new IcTCmdTicketUpdate());
+    register(m, IcTCommandTicketGet.class, new IcTCmdTicketGet());
+    register(m, IcTCommandTicketGetIfChanged.class, new IcTCmdTicketGetIfChanged());
+    register(m, IcTCommandTicketGetMany.class, new IcTCmdTicketGetMany());
+    register(m, IcTCommandTicketChangesSince.class, new IcTCmdTicketChangesSince());
+    register(m, IcTCommandTicketWatch.class, new IcTCmdTicketWatch());
+    register(m, IcTCommandProjectStatistics.class, new IcTCmdProjectStatistics());
+    register(m, IcTCommandSavedSearchCreate.class, new IcTCmdSavedSearchCreate());
+    register(m, IcTCommandSavedSearchDelete.class, new IcTCmdSavedSearchDelete());
+    register(m, IcTCommandSavedSearchResults.class, new IcTCmdSavedSearchResults());
+    return Map.copyOf(m);
+  }
+
+  private static <M extends IcTCommandType<? extends IcTResponseType>> void register(
+    final Map<Class<?>, ExecutorType> m,
+    final Class<M> clazz,
+    final IcCommandExecutorType<IcTCommandContext, M, IcTResponseType> executor)
+  {
+    m.put(clazz, (context, command) -> {
+      return executor.execute(context, clazz.cast(command));
+    });
+  }
+
   private static IcTResponseType executeCommand(
     final IcTCommandContext context,
     final IcTCommandType<? extends IcTResponseType> command)
     throws IcCommandExecutionFailure, IOException, InterruptedException
   {
-    if (command instanceof IcTCommandLogin c) {
-      return new IcTCmdLogin().execute(context, c);
-    }
-    if (command instanceof IcTCommandTicketSearchBegin c) {
-      return new IcTCmdTicketSearchBegin().execute(context, c);
-    }
-    if (command instanceof IcTCommandTicketSearchNext c) {
-      return new IcTCmdTicketSearchNext().execute(context, c);
+    final var executor = EXECUTORS.get(command.getClass());
+    if (executor == null) {
+      throw new IllegalStateException(
+        "Unrecognized command: %s".formatted(command.getClass()));
     }
-    if (command instanceof IcTCommandTicketSearchPrevious c) {
-      return new IcTCmdTicketSearchPrevious().execute(context, c);
-    }
-    if (command instanceof IcTCommandProjectCreate c) {
-      return new IcTCmdProjectCreate().execute(context, c);
-    }
-    if (command instanceof IcTCommandTicketCreate c) {
-      return new IcTCmdTicketCreate().execute(context, c);
-    }
-    if (command instanceof IcTCommandPermissionGrant c) {
-      return new IcTCmdPermissionGrant().execute(context, c);
-    }
-    if (command instanceof IcTCommandTicketCommentCreate c) {
-      return new IcTCmdTicketCommentCreate().execute(context, c);
-    }
-    if (command instanceof IcTCommandTicketGet c) {
-      return new IcTCmdTicketGet().execute(context, c);
-    }
-
-    throw new IllegalStateException();
+    return executor.execute(context, command);
   }
 
+
   @Override
   public IcTResponseType execute(
     final IcTCommandContext context,
@@ -107,4 +143,13 @@ public final class IcTCommandExecutor
       span.end();
     }
   }
+
+  private interface ExecutorType
+    extends IcCommandExecutorType<
+    IcTCommandContext,
+    IcTCommandType<? extends IcTResponseType>,
+    IcTResponseType>
+  {
+
+  }
 }
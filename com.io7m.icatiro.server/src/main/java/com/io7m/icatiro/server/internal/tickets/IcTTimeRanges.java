@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.server.internal.tickets;
+
+import com.io7m.icatiro.model.IcSavedSearch;
+import com.io7m.icatiro.model.IcTicketSearch;
+import com.io7m.icatiro.model.IcTimeRange;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+
+import static java.time.temporal.ChronoUnit.MILLIS;
+
+/**
+ * Functions to adjust the time ranges received from clients.
+ *
+ * <p>Both versions of the protocol carry times with millisecond precision,
+ * whereas the database stores times with microsecond precision. A time that
+ * a client received from the server, and then sends back as the bound of a
+ * range, may therefore be up to 999 microseconds earlier than the time that
+ * is stored. The lower bound of each range is truncated to the millisecond,
+ * and the upper bound is extended to the end of its millisecond, so that
+ * such a range contains the stored time.</p>
+ */
+
+final class IcTTimeRanges
+{
+  /*
+   * The offset in nanoseconds of the last microsecond of a millisecond. The
+   * database rounds times to the microsecond, and so any larger offset
+   * would reach into the next millisecond.
+   */
+
+  private static final long LAST_MICROSECOND_OF_MILLISECOND = 999_000L;
+
+  private IcTTimeRanges()
+  {
+
+  }
+
+  /**
+   * Round the bounds of the given range outwards to whole milliseconds.
+   *
+   * @param range The range
+   *
+   * @return The rounded range
+   */
+
+  static IcTimeRange roundOutwards(
+    final IcTimeRange range)
+  {
+    Objects.requireNonNull(range, "range");
+
+    return new IcTimeRange(
+      range.timeLower().truncatedTo(MILLIS),
+      endOfMillisecond(range.timeUpper())
+    );
+  }
+
+  private static OffsetDateTime endOfMillisecond(
+    final OffsetDateTime time)
+  {
+    return time.truncatedTo(MILLIS)
+      .plusNanos(LAST_MICROSECOND_OF_MILLISECOND);
+  }
+
+  /**
+   * Round the time ranges of the given search outwards to whole milliseconds.
+   *
+   * @param search The search
+   *
+   * @return The search with rounded time ranges
+   */
+
+  static IcTicketSearch roundOutwards(
+    final IcTicketSearch search)
+  {
+    Objects.requireNonNull(search, "search");
+
+    return new IcTicketSearch(
+      roundOutwards(search.timeCreatedRange()),
+      roundOutwards(search.timeUpdatedRange()),
+      search.ordering(),
+      search.limit(),
+      search.titleSearch(),
+      search.descriptionSearch(),
+      search.reporter(),
+      search.includeArchived(),
+      search.projection()
+    );
+  }
+
+  /**
+   * Round the time ranges of the given saved search outwards to whole
+   * milliseconds.
+   *
+   * @param search The saved search
+   *
+   * @return The saved search with rounded time ranges
+   */
+
+  static IcSavedSearch roundOutwards(
+    final IcSavedSearch search)
+  {
+    Objects.requireNonNull(search, "search");
+
+    return new IcSavedSearch(
+      search.name(),
+      roundOutwards(search.timeCreatedRange()),
+      roundOutwards(search.timeUpdatedRange()),
+      search.titleSearch(),
+      search.descriptionSearch(),
+      search.reporter()
+    );
+  }
+}
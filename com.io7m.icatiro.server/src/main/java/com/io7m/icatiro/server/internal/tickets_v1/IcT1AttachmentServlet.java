@@ -0,0 +1,546 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.server.internal.tickets_v1;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.api.IcDatabaseTicketsQueriesType;
+import com.io7m.icatiro.database.api.IcDatabaseTransactionType;
+import com.io7m.icatiro.database.api.IcDatabaseType;
+import com.io7m.icatiro.database.api.IcDatabaseUsersQueriesType;
+import com.io7m.icatiro.model.IcPermission;
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcTicketAttachment;
+import com.io7m.icatiro.model.IcTicketAttachmentCreation;
+import com.io7m.icatiro.model.IcTicketID;
+import com.io7m.icatiro.protocol.IcProtocolMessagesType;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.server.internal.IcAttachmentStore;
+import com.io7m.icatiro.server.internal.IcHTTPErrorStatusException;
+import com.io7m.icatiro.services.api.IcServiceDirectoryType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.eclipse.jetty.server.HttpOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.io7m.icatiro.database.api.IcDatabaseRole.ICATIRO;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.HTTP_METHOD_ERROR;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.HTTP_PARAMETER_INVALID;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.HTTP_PARAMETER_NONEXISTENT;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.HTTP_RANGE_INVALID;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.HTTP_SIZE_LIMIT;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.OPERATION_NOT_PERMITTED;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.TICKET_ATTACHMENT_NONEXISTENT;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.TICKET_NONEXISTENT;
+import static com.io7m.icatiro.model.IcPermission.TICKET_COMMENT;
+import static com.io7m.icatiro.model.IcPermission.TICKET_READ;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static org.eclipse.jetty.http.HttpStatus.BAD_REQUEST_400;
+import static org.eclipse.jetty.http.HttpStatus.FORBIDDEN_403;
+import static org.eclipse.jetty.http.HttpStatus.METHOD_NOT_ALLOWED_405;
+import static org.eclipse.jetty.http.HttpStatus.NOT_FOUND_404;
+import static org.eclipse.jetty.http.HttpStatus.PAYLOAD_TOO_LARGE_413;
+import static org.eclipse.jetty.http.HttpStatus.RANGE_NOT_SATISFIABLE_416;
+
+/**
+ * A servlet that uploads, lists, and downloads the attachments of tickets.
+ *
+ * <ul>
+ *   <li>{@code POST ?project=P&ticket=T&name=N} stores the request body as
+ *   a new attachment of ticket T, using the request Content-Type as the
+ *   media type of the attachment.</li>
+ *   <li>{@code GET ?project=P&ticket=T} lists the attachments of ticket T as
+ *   newline-delimited JSON.</li>
+ *   <li>{@code GET ?project=P&ticket=T&attachment=A} downloads attachment A,
+ *   honouring a single-range {@code Range} header.</li>
+ * </ul>
+ *
+ * <p>Uploads require the {@link IcPermission#TICKET_COMMENT} permission on
+ * the ticket, and listings and downloads require the
+ * {@link IcPermission#TICKET_READ} permission.</p>
+ */
+
+public final class IcT1AttachmentServlet extends IcT1AuthenticatedServlet
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(IcT1AttachmentServlet.class);
+
+  /**
+   * The content type of attachment listings.
+   */
+
+  public static final String LIST_CONTENT_TYPE = "application/x-ndjson";
+
+  private static final String DEFAULT_CONTENT_TYPE =
+    "application/octet-stream";
+  private static final int NAME_LENGTH_MAXIMUM = 256;
+
+  private final IcDatabaseType database;
+  private final IcAttachmentStore store;
+  private final JsonFactory json;
+
+  /**
+   * A servlet that uploads, lists, and downloads ticket attachments.
+   *
+   * @param inServices The service directory
+   * @param inMessages The message codec for the protocol version
+   */
+
+  public IcT1AttachmentServlet(
+    final IcServiceDirectoryType inServices,
+    final IcProtocolMessagesType<IcTMessageType> inMessages)
+  {
+    super(inServices, inMessages);
+
+    this.database =
+      inServices.requireService(IcDatabaseType.class);
+    this.store =
+      inServices.requireService(IcAttachmentStore.class);
+    this.json =
+      new JsonFactory();
+  }
+
+  @Override
+  protected Logger logger()
+  {
+    return LOG;
+  }
+
+  @Override
+  protected void serviceAuthenticated(
+    final HttpServletRequest request,
+    final HttpServletResponse servletResponse,
+    final HttpSession session)
+    throws Exception
+  {
+    final var ticket =
+      new IcTicketID(
+        new IcProjectID(this.unsignedParameter(request, "project")),
+        this.unsignedParameter(request, "ticket")
+      );
+
+    switch (request.getMethod()) {
+      case "POST" -> this.upload(request, servletResponse, ticket);
+      case "GET" -> {
+        if (request.getParameter("attachment") == null) {
+          this.list(servletResponse, ticket);
+        } else {
+          this.download(
+            request,
+            servletResponse,
+            ticket,
+            this.unsignedParameter(request, "attachment")
+          );
+        }
+      }
+      default -> throw new IcHTTPErrorStatusException(
+        METHOD_NOT_ALLOWED_405,
+        HTTP_METHOD_ERROR,
+        this.strings().format("methodNotAllowed")
+      );
+    }
+  }
+
+  private void upload(
+    final HttpServletRequest request,
+    final HttpServletResponse servletResponse,
+    final IcTicketID ticket)
+    throws Exception
+  {
+    final var name = request.getParameter("name");
+    if (name == null) {
+      throw new IcHTTPErrorStatusException(
+        BAD_REQUEST_400,
+        HTTP_PARAMETER_NONEXISTENT,
+        this.strings().format("missingParameter", "name")
+      );
+    }
+    if (name.isBlank() || name.length() > NAME_LENGTH_MAXIMUM) {
+      throw new IcHTTPErrorStatusException(
+        BAD_REQUEST_400,
+        HTTP_PARAMETER_INVALID,
+        this.strings().format("invalidParameter", "name")
+      );
+    }
+
+    final var specifiedLength = request.getContentLengthLong();
+    if (specifiedLength > this.store.sizeLimit()) {
+      throw new IcHTTPErrorStatusException(
+        PAYLOAD_TOO_LARGE_413,
+        HTTP_SIZE_LIMIT,
+        this.strings().format(
+          "requestTooLarge",
+          Long.toUnsignedString(specifiedLength))
+      );
+    }
+
+    var contentType = request.getContentType();
+    if (contentType == null || contentType.isBlank()) {
+      contentType = DEFAULT_CONTENT_TYPE;
+    }
+
+    /*
+     * The permission is checked before the body is read, but the body is
+     * stored outside of any database transaction so that a slow upload
+     * does not hold a transaction open.
+     */
+
+    this.withTransaction(t -> {
+      this.permissionCheck(t, ticket, TICKET_COMMENT);
+      return null;
+    });
+
+    final var content =
+      this.store.store(request.getInputStream());
+    final var creation =
+      new IcTicketAttachmentCreation(
+        ticket,
+        name,
+        contentType,
+        content.size(),
+        content.hash()
+      );
+
+    /*
+     * If the metadata cannot be inserted (for example, because the ticket
+     * was deleted during the upload), the stored content is left in the
+     * store without any attachment referring to it. The content cannot
+     * safely be deleted here: content is shared between attachments with
+     * the same hash, and another upload of the same content may be about
+     * to refer to it. See IcAttachmentStore.
+     */
+
+    final IcTicketAttachment attachment;
+    try {
+      attachment = this.withTransaction(t -> {
+        t.userIdSet(this.userSession().user().id());
+        final var created =
+          t.queries(IcDatabaseTicketsQueriesType.class)
+            .ticketAttachmentCreate(creation);
+        t.commit();
+        return created;
+      });
+    } catch (final IcDatabaseException | IcHTTPErrorStatusException e) {
+      LOG.warn(
+        "content {} is unreferenced after a failed upload to ticket {}",
+        content.hash(),
+        ticket
+      );
+      throw e;
+    }
+
+    servletResponse.setStatus(201);
+    servletResponse.setContentType(LIST_CONTENT_TYPE);
+    try (var output =
+           this.json.createGenerator(servletResponse.getOutputStream())) {
+      writeAttachment(output, attachment);
+      output.writeRaw('\n');
+    }
+  }
+
+  private void list(
+    final HttpServletResponse servletResponse,
+    final IcTicketID ticket)
+    throws Exception
+  {
+    final List<IcTicketAttachment> attachments =
+      this.withTransaction(t -> {
+        this.permissionCheck(t, ticket, TICKET_READ);
+        return t.queries(IcDatabaseTicketsQueriesType.class)
+          .ticketAttachmentList(ticket);
+      });
+
+    servletResponse.setStatus(200);
+    servletResponse.setContentType(LIST_CONTENT_TYPE);
+
+    try (var output =
+           this.json.createGenerator(servletResponse.getOutputStream())) {
+      output.setRootValueSeparator(null);
+      for (final var attachment : attachments) {
+        writeAttachment(output, attachment);
+        output.writeRaw('\n');
+      }
+    }
+  }
+
+  private void download(
+    final HttpServletRequest request,
+    final HttpServletResponse servletResponse,
+    final IcTicketID ticket,
+    final long attachmentId)
+    throws Exception
+  {
+    final var attachment =
+      this.withTransaction(t -> {
+        this.permissionCheck(t, ticket, TICKET_READ);
+        return t.queries(IcDatabaseTicketsQueriesType.class)
+          .ticketAttachmentGet(ticket, attachmentId)
+          .orElseThrow(this::attachmentNotFound);
+      });
+
+    final var channelOpt = this.store.open(attachment.hash());
+    if (channelOpt.isEmpty()) {
+      LOG.error(
+        "content {} of attachment {} of ticket {} is missing",
+        attachment.hash(),
+        Long.toUnsignedString(attachmentId),
+        ticket
+      );
+      throw this.attachmentNotFound();
+    }
+
+    try (var channel = channelOpt.get()) {
+      final var size = channel.size();
+      final var etag = "\"%s\"".formatted(attachment.hash().hash());
+
+      servletResponse.setHeader("Accept-Ranges", "bytes");
+      servletResponse.setHeader("ETag", etag);
+
+      /*
+       * Attachments are content-addressed, and so the content for a given
+       * entity tag never changes. A range is only honoured if the client
+       * either has no copy of the content, or has a copy with the same tag.
+       */
+
+      final var ifRange = request.getHeader("If-Range");
+      final var rangeOpt =
+        ifRange == null || Objects.equals(ifRange, etag)
+          ? IcT1ByteRange.parse(request.getHeader("Range"), size)
+          : Optional.<IcT1ByteRange>empty();
+
+      long start = 0L;
+      long length = size;
+      if (rangeOpt.isPresent()) {
+        final var range = rangeOpt.get();
+        if (!range.isSatisfiable()) {
+          servletResponse.setHeader(
+            "Content-Range",
+            "bytes */%s".formatted(Long.toUnsignedString(size))
+          );
+          throw new IcHTTPErrorStatusException(
+            RANGE_NOT_SATISFIABLE_416,
+            HTTP_RANGE_INVALID,
+            this.strings().format(
+              "rangeNotSatisfiable",
+              Long.toUnsignedString(size))
+          );
+        }
+
+        start = range.start();
+        length = range.length();
+        servletResponse.setStatus(206);
+        servletResponse.setHeader(
+          "Content-Range",
+          "bytes %s-%s/%s".formatted(
+            Long.toUnsignedString(start),
+            Long.toUnsignedString(start + length - 1L),
+            Long.toUnsignedString(size)
+          )
+        );
+      } else {
+        servletResponse.setStatus(200);
+      }
+
+      servletResponse.setContentType(attachment.contentType());
+      servletResponse.setHeader(
+        "Content-Disposition",
+        IcT1ContentDisposition.attachment(attachment.name())
+      );
+      servletResponse.setContentLengthLong(length);
+
+      final var output = servletResponse.getOutputStream();
+      if (output instanceof final HttpOutput httpOutput
+          && length <= Integer.MAX_VALUE) {
+        httpOutput.sendContent(channel.map(READ_ONLY, start, length));
+      } else {
+        transfer(channel, start, length, Channels.newChannel(output));
+      }
+    }
+  }
+
+  /**
+   * Transfer the given range of the file to the output using
+   * {@link FileChannel#transferTo(long, long, WritableByteChannel)}.
+   *
+   * <p>This is only used when the response is not written directly by Jetty
+   * (such as when the response has been wrapped), or when the range is too
+   * large to be mapped into memory. The output is a stream adapted to a
+   * channel, and so {@code transferTo} cannot use {@code sendfile} here:
+   * the content is copied through a buffer on the heap. Downloads otherwise
+   * map the range of the file into memory and hand the mapped buffer to
+   * {@link HttpOutput#sendContent(ByteBuffer)}, so that Jetty writes the
+   * page cache to the socket without copying the content through the heap.
+   * Neither path is a true {@code sendfile}, as Jetty 11 does not expose
+   * one to servlets.</p>
+   */
+
+  private static void transfer(
+    final FileChannel channel,
+    final long start,
+    final long length,
+    final WritableByteChannel output)
+    throws IOException
+  {
+    var position = start;
+    var remaining = length;
+    while (remaining > 0L) {
+      final var sent = channel.transferTo(position, remaining, output);
+      if (sent <= 0L) {
+        throw new IOException(
+          "Attachment content ended %s octets early."
+            .formatted(Long.toUnsignedString(remaining))
+        );
+      }
+      position += sent;
+      remaining -= sent;
+    }
+  }
+
+  /**
+   * Check that the current user holds the given permission on the given
+   * ticket. Permissions held in the session are checked first, and the
+   * ticketwide permissions of the user are loaded and cached on demand, in
+   * the same manner as permission checks for commands.
+   */
+
+  private void permissionCheck(
+    final IcDatabaseTransactionType transaction,
+    final IcTicketID ticket,
+    final IcPermission permission)
+    throws IcDatabaseException, IcHTTPErrorStatusException
+  {
+    final var session = this.userSession();
+    final var user = session.user();
+    if (user.permissions().implies(ticket, permission)) {
+      return;
+    }
+
+    final var allowed =
+      session.ticketPermissions()
+        .implies(ticket, permission, tickets -> {
+          return transaction.queries(IcDatabaseUsersQueriesType.class)
+            .userTicketPermissions(user.id(), tickets);
+        });
+
+    if (!allowed) {
+      throw new IcHTTPErrorStatusException(
+        FORBIDDEN_403,
+        OPERATION_NOT_PERMITTED,
+        this.strings().format(
+          "errorPermissionsRequired",
+          permission,
+          ticket.objectType(),
+          ticket
+        )
+      );
+    }
+  }
+
+  private <T> T withTransaction(
+    final TransactionFunctionType<T> f)
+    throws IcDatabaseException, IcHTTPErrorStatusException
+  {
+    try (var connection = this.database.openConnection(ICATIRO)) {
+      try (var transaction = connection.openTransaction()) {
+        return f.execute(transaction);
+      }
+    } catch (final IcDatabaseException e) {
+      if (Objects.equals(e.errorCode(), TICKET_NONEXISTENT)) {
+        throw new IcHTTPErrorStatusException(
+          NOT_FOUND_404,
+          TICKET_NONEXISTENT,
+          e.getMessage(),
+          e
+        );
+      }
+      throw e;
+    }
+  }
+
+  @FunctionalInterface
+  private interface TransactionFunctionType<T>
+  {
+    T execute(IcDatabaseTransactionType transaction)
+      throws IcDatabaseException, IcHTTPErrorStatusException;
+  }
+
+  private IcHTTPErrorStatusException attachmentNotFound()
+  {
+    return new IcHTTPErrorStatusException(
+      NOT_FOUND_404,
+      TICKET_ATTACHMENT_NONEXISTENT,
+      this.strings().format("notFound")
+    );
+  }
+
+  private long unsignedParameter(
+    final HttpServletRequest request,
+    final String name)
+    throws IcHTTPErrorStatusException
+  {
+    final var text = request.getParameter(name);
+    if (text == null) {
+      throw new IcHTTPErrorStatusException(
+        BAD_REQUEST_400,
+        HTTP_PARAMETER_NONEXISTENT,
+        this.strings().format("missingParameter", name)
+      );
+    }
+
+    try {
+      return Long.parseUnsignedLong(text);
+    } catch (final NumberFormatException e) {
+      throw new IcHTTPErrorStatusException(
+        BAD_REQUEST_400,
+        HTTP_PARAMETER_INVALID,
+        this.strings().format("invalidParameter", name),
+        e
+      );
+    }
+  }
+
+  private static void writeAttachment(
+    final JsonGenerator output,
+    final IcTicketAttachment attachment)
+    throws IOException
+  {
+    output.writeStartObject();
+    output.writeNumberField("project", attachment.ticket().project().value());
+    output.writeNumberField("ticket", attachment.ticket().value());
+    output.writeNumberField("id", attachment.attachmentId());
+    output.writeStringField("name", attachment.name());
+    output.writeStringField("contentType", attachment.contentType());
+    output.writeNumberField("size", attachment.size());
+    output.writeStringField("hash", attachment.hash().toString());
+    output.writeStringField("owner", attachment.owner().toString());
+    output.writeStringField("time", attachment.time().toString());
+    output.writeEndObject();
+  }
+}
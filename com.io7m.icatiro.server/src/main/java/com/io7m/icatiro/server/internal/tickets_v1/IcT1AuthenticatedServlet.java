@@ -18,7 +18,8 @@ package com.io7m.icatiro.server.internal.tickets_v1;
 
 import com.io7m.icatiro.database.api.IcDatabaseException;
 import com.io7m.icatiro.database.api.IcDatabaseType;
-import com.io7m.icatiro.protocol.tickets.cb.IcT1Messages;
+import com.io7m.icatiro.protocol.IcProtocolMessagesType;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
 import com.io7m.icatiro.server.internal.IcHTTPErrorStatusException;
 import com.io7m.icatiro.server.internal.IcServerClock;
 import com.io7m.icatiro.server.internal.IcServerStrings;
@@ -55,7 +56,7 @@ public abstract class IcT1AuthenticatedServlet
   private final IcT1Sends sends;
   private final IcServerClock clock;
   private final IcServerStrings strings;
-  private final IcT1Messages messages;
+  private final IcProtocolMessagesType<IcTMessageType> messages;
   private final IcDatabaseType database;
   private final IcUserSessionService userSessions;
   private IcUserSession userSession;
@@ -64,22 +65,24 @@ public abstract class IcT1AuthenticatedServlet
    * A servlet that checks that a user is authenticated before delegating
    * execution to a subclass.
    *
-   * @param services The service directory
+   * @param services   The service directory
+   * @param inMessages The message codec for the protocol version
    */
 
   protected IcT1AuthenticatedServlet(
-    final IcServiceDirectoryType services)
+    final IcServiceDirectoryType services,
+    final IcProtocolMessagesType<IcTMessageType> inMessages)
   {
     super(Objects.requireNonNull(services, "services"));
 
     this.messages =
-      services.requireService(IcT1Messages.class);
+      Objects.requireNonNull(inMessages, "messages");
     this.strings =
       services.requireService(IcServerStrings.class);
     this.clock =
       services.requireService(IcServerClock.class);
     this.sends =
-      services.requireService(IcT1Sends.class);
+      new IcT1Sends(this.messages);
     this.database =
       services.requireService(IcDatabaseType.class);
     this.userSessions =
@@ -106,7 +109,7 @@ public abstract class IcT1AuthenticatedServlet
     return this.strings;
   }
 
-  protected final IcT1Messages messages()
+  protected final IcProtocolMessagesType<IcTMessageType> messages()
   {
     return this.messages;
   }
@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.server.internal.tickets_v1;
+
+import java.util.Optional;
+
+/**
+ * A single range of octets requested with an HTTP {@code Range} header
+ * (RFC 9110, section 14). A range of length zero indicates that the request
+ * specified a range that cannot be satisfied for the content.
+ *
+ * @param start  The offset of the first octet
+ * @param length The number of octets
+ */
+
+public record IcT1ByteRange(
+  long start,
+  long length)
+{
+  private static final String UNIT = "bytes=";
+
+  /**
+   * @return {@code true} if the range can be satisfied
+   */
+
+  public boolean isSatisfiable()
+  {
+    return this.length > 0L;
+  }
+
+  /**
+   * Parse a {@code Range} header for content of the given size. Headers that
+   * are malformed, that use units other than bytes, or that specify more
+   * than one range are ignored, and the whole content is served, as the
+   * specification permits.
+   *
+   * @param header The header value, if any
+   * @param size   The size of the content
+   *
+   * @return The requested range, if any
+   */
+
+  public static Optional<IcT1ByteRange> parse(
+    final String header,
+    final long size)
+  {
+    if (header == null || !header.startsWith(UNIT)) {
+      return Optional.empty();
+    }
+
+    final var spec = header.substring(UNIT.length()).trim();
+    final var dash = spec.indexOf('-');
+    if (dash == -1 || spec.indexOf(',') != -1) {
+      return Optional.empty();
+    }
+
+    final var firstText = spec.substring(0, dash).trim();
+    final var lastText = spec.substring(dash + 1).trim();
+
+    try {
+      if (firstText.isEmpty()) {
+        return parseSuffix(lastText, size);
+      }
+      if (lastText.isEmpty()) {
+        return parseOpen(firstText, size);
+      }
+      return parseClosed(firstText, lastText, size);
+    } catch (final NumberFormatException e) {
+      return Optional.empty();
+    }
+  }
+
+  /*
+   * A suffix range such as "-500" requests the last 500 octets.
+   */
+
+  private static Optional<IcT1ByteRange> parseSuffix(
+    final String suffixText,
+    final long size)
+  {
+    final var suffix = Long.parseLong(suffixText);
+    if (suffix < 0L) {
+      return Optional.empty();
+    }
+    if (suffix == 0L || size == 0L) {
+      return Optional.of(unsatisfiable(size));
+    }
+    final var start = Math.max(0L, size - suffix);
+    return Optional.of(new IcT1ByteRange(start, size - start));
+  }
+
+  /*
+   * An open range such as "500-" requests every octet from the 500th.
+   */
+
+  private static Optional<IcT1ByteRange> parseOpen(
+    final String firstText,
+    final long size)
+  {
+    final var first = Long.parseLong(firstText);
+    if (first < 0L) {
+      return Optional.empty();
+    }
+    return Optional.of(bounded(first, size - 1L, size));
+  }
+
+  /*
+   * A closed range such as "500-999" requests the octets between the two
+   * offsets inclusive, with the last offset clamped to the content.
+   */
+
+  private static Optional<IcT1ByteRange> parseClosed(
+    final String firstText,
+    final String lastText,
+    final long size)
+  {
+    final var first = Long.parseLong(firstText);
+    final var last = Long.parseLong(lastText);
+    if (first < 0L || last < first) {
+      return Optional.empty();
+    }
+    return Optional.of(bounded(first, Math.min(last, size - 1L), size));
+  }
+
+  private static IcT1ByteRange bounded(
+    final long first,
+    final long last,
+    final long size)
+  {
+    if (first >= size) {
+      return unsatisfiable(size);
+    }
+    return new IcT1ByteRange(first, (last - first) + 1L);
+  }
+
+  private static IcT1ByteRange unsatisfiable(
+    final long size)
+  {
+    return new IcT1ByteRange(size, 0L);
+  }
+}
@@ -16,21 +16,34 @@
 
 package com.io7m.icatiro.server.internal.tickets_v1;
 
+import com.io7m.icatiro.database.api.IcDatabaseConnectionType;
 import com.io7m.icatiro.database.api.IcDatabaseException;
 import com.io7m.icatiro.database.api.IcDatabaseTransactionType;
 import com.io7m.icatiro.database.api.IcDatabaseType;
+import com.io7m.icatiro.model.IcTicketWatchResult;
 import com.io7m.icatiro.protocol.IcProtocolException;
+import com.io7m.icatiro.protocol.IcProtocolMessagesType;
+import com.io7m.icatiro.protocol.tickets.IcTCommandBatch;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketWatch;
 import com.io7m.icatiro.protocol.tickets.IcTCommandType;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.protocol.tickets.IcTResponseBatch;
 import com.io7m.icatiro.protocol.tickets.IcTResponseError;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketWatch;
 import com.io7m.icatiro.protocol.tickets.IcTResponseType;
-import com.io7m.icatiro.protocol.tickets.cb.IcT1Messages;
 import com.io7m.icatiro.server.internal.IcHTTPErrorStatusException;
 import com.io7m.icatiro.server.internal.IcRequestLimits;
+import com.io7m.icatiro.server.internal.IcTicketWatchService;
+import com.io7m.icatiro.server.internal.IcUserSession;
+import com.io7m.icatiro.server.internal.IcUserSessionService;
 import com.io7m.icatiro.server.internal.command_exec.IcCommandExecutionFailure;
 import com.io7m.icatiro.server.internal.tickets.IcTCommandContext;
 import com.io7m.icatiro.server.internal.tickets.IcTCommandExecutor;
 import com.io7m.icatiro.services.api.IcServiceDirectoryType;
 import io.opentelemetry.api.trace.Span;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
@@ -38,15 +51,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.io7m.icatiro.database.api.IcDatabaseRole.ICATIRO;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.IO_ERROR;
 import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.PROTOCOL_ERROR;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.SQL_ERROR;
 import static com.io7m.icatiro.server.internal.IcServerRequestDecoration.requestIdFor;
 import static org.eclipse.jetty.http.HttpStatus.BAD_REQUEST_400;
+import static org.eclipse.jetty.http.HttpStatus.INTERNAL_SERVER_ERROR_500;
 
 /**
- * A servlet for executing a single command.
+ * A servlet for executing a single command, or a batch of commands.
  */
 
 public final class IcT1CommandServlet extends IcT1AuthenticatedServlet
@@ -56,20 +75,24 @@ public final class IcT1CommandServlet extends IcT1AuthenticatedServlet
 
   private final IcDatabaseType database;
   private final IcRequestLimits limits;
-  private final IcT1Messages messages;
+  private final IcProtocolMessagesType<IcTMessageType> messages;
   private final IcTCommandExecutor executor;
   private final IcServiceDirectoryType services;
+  private final IcTicketWatchService watches;
+  private final IcUserSessionService sessions;
 
   /**
    * A servlet for executing a single command.
    *
    * @param inServices The service directory
+   * @param inMessages The message codec for the protocol version
    */
 
   public IcT1CommandServlet(
-    final IcServiceDirectoryType inServices)
+    final IcServiceDirectoryType inServices,
+    final IcProtocolMessagesType<IcTMessageType> inMessages)
   {
-    super(inServices);
+    super(inServices, inMessages);
 
     this.services =
       Objects.requireNonNull(inServices, "inServices");
@@ -78,7 +101,11 @@ public final class IcT1CommandServlet extends IcT1AuthenticatedServlet
     this.limits =
       inServices.requireService(IcRequestLimits.class);
     this.messages =
-      inServices.requireService(IcT1Messages.class);
+      Objects.requireNonNull(inMessages, "messages");
+    this.watches =
+      inServices.requireService(IcTicketWatchService.class);
+    this.sessions =
+      inServices.requireService(IcUserSessionService.class);
     this.executor =
       new IcTCommandExecutor();
   }
@@ -99,14 +126,25 @@ public final class IcT1CommandServlet extends IcT1AuthenticatedServlet
     final var requestId =
       requestIdFor(request);
 
-    try (var input = this.limits.boundedMaximumInput(request, 1048576)) {
-      final var data = input.readAllBytes();
-      final var message = this.messages.parse(data);
+    try (var input = this.limits.boundedMaximumInputDecoded(request, 1048576)) {
+      final var message = this.messages.parse(input);
+      if (message instanceof IcTCommandTicketWatch command) {
+        this.executeWatch(request, servletResponse, command);
+        return;
+      }
+      if (message instanceof IcTCommandBatch command) {
+        this.executeBatch(request, servletResponse, command);
+        return;
+      }
       if (message instanceof IcTCommandType<?> command) {
         this.executeCommand(request, servletResponse, command);
         return;
       }
     } catch (final IcProtocolException e) {
+      final var bodyError = IcRequestLimits.requestBodyError(e);
+      if (bodyError.isPresent()) {
+        throw bodyError.get();
+      }
       throw new IcHTTPErrorStatusException(
         BAD_REQUEST_400,
         PROTOCOL_ERROR,
@@ -165,6 +203,7 @@ public final class IcT1CommandServlet extends IcT1AuthenticatedServlet
         Span.current().setAttribute("icatiro.errorCode", error.errorCode());
       } else {
         transaction.commit();
+        this.notifyCommitted(context);
       }
     } catch (final IcCommandExecutionFailure e) {
       Span.current().setAttribute("icatiro.errorCode", e.errorCode().id());
@@ -178,4 +217,343 @@ public final class IcT1CommandServlet extends IcT1AuthenticatedServlet
         ));
     }
   }
+
+  /*
+   * The commands in a batch are executed in order on a single database
+   * connection. The responses are collected and sent together once all of
+   * the commands have executed, and so the response to a batch always has
+   * status 200; the status of each command is implied by its response.
+   */
+
+  private void executeBatch(
+    final HttpServletRequest request,
+    final HttpServletResponse servletResponse,
+    final IcTCommandBatch batch)
+    throws IcDatabaseException, IOException, InterruptedException
+  {
+    final var responses =
+      new ArrayList<IcTResponseType>(batch.commands().size());
+
+    try (var connection = this.database.openConnection(ICATIRO)) {
+      switch (batch.mode()) {
+        case ATOMIC -> {
+          this.executeBatchAtomic(request, batch, connection, responses);
+        }
+        case PER_COMMAND -> {
+          this.executeBatchPerCommand(request, batch, connection, responses);
+        }
+      }
+    }
+
+    this.sends()
+      .send(
+        servletResponse,
+        200,
+        new IcTResponseBatch(requestIdFor(request), responses)
+      );
+  }
+
+  private void executeBatchAtomic(
+    final HttpServletRequest request,
+    final IcTCommandBatch batch,
+    final IcDatabaseConnectionType connection,
+    final List<IcTResponseType> responses)
+    throws IcDatabaseException, IOException, InterruptedException
+  {
+    final var contexts =
+      new ArrayList<IcTCommandContext>(batch.commands().size());
+
+    try (var transaction = connection.openTransaction()) {
+      for (final var command : batch.commands()) {
+        final var context =
+          IcTCommandContext.create(
+            this.services,
+            transaction,
+            request,
+            this.userSession()
+          );
+
+        final var response = this.executeBatched(context, command);
+        responses.add(response);
+        if (response instanceof IcTResponseError) {
+          transaction.rollback();
+          return;
+        }
+        contexts.add(context);
+      }
+      transaction.commit();
+    }
+
+    contexts.forEach(this::notifyCommitted);
+  }
+
+  private void executeBatchPerCommand(
+    final HttpServletRequest request,
+    final IcTCommandBatch batch,
+    final IcDatabaseConnectionType connection,
+    final List<IcTResponseType> responses)
+    throws IcDatabaseException, IOException, InterruptedException
+  {
+    for (final var command : batch.commands()) {
+      try (var transaction = connection.openTransaction()) {
+        final var context =
+          IcTCommandContext.create(
+            this.services,
+            transaction,
+            request,
+            this.userSession()
+          );
+
+        final var response = this.executeBatched(context, command);
+        responses.add(response);
+        if (!(response instanceof IcTResponseError)) {
+          transaction.commit();
+          this.notifyCommitted(context);
+        }
+      }
+    }
+  }
+
+  private IcTResponseType executeBatched(
+    final IcTCommandContext context,
+    final IcTCommandType<?> command)
+    throws IOException, InterruptedException
+  {
+    try {
+      final IcTResponseType result = this.executor.execute(context, command);
+      if (result instanceof IcTResponseError error) {
+        Span.current().setAttribute("icatiro.errorCode", error.errorCode());
+      }
+      return result;
+    } catch (final IcCommandExecutionFailure e) {
+      Span.current().setAttribute("icatiro.errorCode", e.errorCode().id());
+      return new IcTResponseError(
+        e.requestId(),
+        e.errorCode().id(),
+        e.getMessage()
+      );
+    }
+  }
+
+  private void notifyCommitted(
+    final IcTCommandContext context)
+  {
+    context.permissionsChanged().forEach(this.sessions::permissionsChanged);
+    context.ticketsChanged().forEach(this.watches::ticketChanged);
+  }
+
+  private void executeWatch(
+    final HttpServletRequest request,
+    final HttpServletResponse servletResponse,
+    final IcTCommandTicketWatch command)
+    throws IOException
+  {
+    final var userSession =
+      this.userSession();
+    final var timeout =
+      IcTicketWatchService.clampTimeout(command.timeout());
+
+    if (timeout.isZero()) {
+      final var outcome = this.watchCheck(request, userSession, command);
+      this.sends().send(servletResponse, outcome.statusCode, outcome.response);
+      return;
+    }
+
+    /*
+     * The request is parked, and the watch registered, before the revision
+     * of the ticket is checked. A change committed at any point after the
+     * check therefore wakes the request. While parked, the request holds
+     * neither a thread nor a database connection.
+     */
+
+    final var async =
+      request.startAsync(request, servletResponse);
+    async.setTimeout(timeout.toMillis());
+
+    final var parked =
+      new ParkedWatch(async, request, userSession, command);
+    async.addListener(parked);
+    parked.watch =
+      this.watches.watch(command.ticket(), parked::onTicketChanged);
+
+    final var outcome = this.watchCheck(request, userSession, command);
+    if (outcome.response instanceof IcTResponseTicketWatch watchResponse) {
+      if (!watchResponse.result().changed()) {
+        return;
+      }
+    }
+    parked.complete(outcome);
+  }
+
+  private WatchOutcome watchCheck(
+    final HttpServletRequest request,
+    final IcUserSession userSession,
+    final IcTCommandTicketWatch command)
+  {
+    final var requestId = requestIdFor(request);
+
+    try (var connection = this.database.openConnection(ICATIRO)) {
+      try (var transaction = connection.openTransaction()) {
+        final var context =
+          IcTCommandContext.create(
+            this.services,
+            transaction,
+            request,
+            userSession
+          );
+        return new WatchOutcome(200, this.executor.execute(context, command));
+      }
+    } catch (final IcCommandExecutionFailure e) {
+      return new WatchOutcome(
+        e.httpStatusCode(),
+        new IcTResponseError(requestId, e.errorCode().id(), e.getMessage())
+      );
+    } catch (final IcDatabaseException e) {
+      return new WatchOutcome(
+        INTERNAL_SERVER_ERROR_500,
+        new IcTResponseError(requestId, SQL_ERROR.id(), e.getMessage())
+      );
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return new WatchOutcome(
+        INTERNAL_SERVER_ERROR_500,
+        new IcTResponseError(requestId, IO_ERROR.id(), e.getMessage())
+      );
+    } catch (final IOException e) {
+      return new WatchOutcome(
+        INTERNAL_SERVER_ERROR_500,
+        new IcTResponseError(requestId, IO_ERROR.id(), e.getMessage())
+      );
+    }
+  }
+
+  private record WatchOutcome(
+    int statusCode,
+    IcTResponseType response)
+  {
+
+  }
+
+  private final class ParkedWatch implements AsyncListener
+  {
+    private final AsyncContext async;
+    private final HttpServletRequest request;
+    private final IcUserSession userSession;
+    private final IcTCommandTicketWatch command;
+    private final AtomicBoolean done;
+    private volatile IcTicketWatchService.WatchType watch;
+
+    ParkedWatch(
+      final AsyncContext inAsync,
+      final HttpServletRequest inRequest,
+      final IcUserSession inUserSession,
+      final IcTCommandTicketWatch inCommand)
+    {
+      this.async = inAsync;
+      this.request = inRequest;
+      this.userSession = inUserSession;
+      this.command = inCommand;
+      this.done = new AtomicBoolean(false);
+    }
+
+    /*
+     * Called on the thread that committed the change. The revision is
+     * checked again on a container thread so that the committing request
+     * is not delayed.
+     */
+
+    void onTicketChanged()
+    {
+      if (this.done.get()) {
+        return;
+      }
+
+      try {
+        this.async.start(() -> {
+          this.complete(
+            IcT1CommandServlet.this.watchCheck(
+              this.request,
+              this.userSession,
+              this.command
+            )
+          );
+        });
+      } catch (final IllegalStateException e) {
+        // The request has already completed or timed out.
+      }
+    }
+
+    void complete(
+      final WatchOutcome outcome)
+    {
+      if (!this.done.compareAndSet(false, true)) {
+        return;
+      }
+
+      this.closeWatch();
+
+      try {
+        IcT1CommandServlet.this.sends()
+          .send(
+            (HttpServletResponse) this.async.getResponse(),
+            outcome.statusCode,
+            outcome.response
+          );
+      } catch (final IOException e) {
+        LOG.debug("watch: ", e);
+      } finally {
+        this.async.complete();
+      }
+    }
+
+    private void closeWatch()
+    {
+      final var w = this.watch;
+      if (w != null) {
+        w.close();
+      }
+    }
+
+    @Override
+    public void onComplete(
+      final AsyncEvent event)
+    {
+      this.closeWatch();
+    }
+
+    @Override
+    public void onTimeout(
+      final AsyncEvent event)
+    {
+      this.complete(
+        new WatchOutcome(
+          200,
+          new IcTResponseTicketWatch(
+            requestIdFor(this.request),
+            new IcTicketWatchResult(
+              this.command.ticket(),
+              false,
+              this.command.revision()
+            )
+          )
+        )
+      );
+    }
+
+    @Override
+    public void onError(
+      final AsyncEvent event)
+    {
+      this.done.set(true);
+      this.closeWatch();
+      this.async.complete();
+    }
+
+    @Override
+    public void onStartAsync(
+      final AsyncEvent event)
+    {
+
+    }
+  }
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.server.internal.tickets_v1;
+
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Functions to produce {@code Content-Disposition} headers.
+ */
+
+public final class IcT1ContentDisposition
+{
+  private static final char[] HEX =
+    "0123456789ABCDEF".toCharArray();
+
+  /*
+   * The attr-char set of RFC 8187, section 3.2.1. All other octets are
+   * percent-encoded.
+   */
+
+  private static final String ATTR_CHARS =
+    "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!#$&+-.^_`|~";
+
+  private IcT1ContentDisposition()
+  {
+
+  }
+
+  /**
+   * Produce a {@code Content-Disposition} header value that presents the
+   * content as an attachment with the given file name. The name is encoded
+   * as an RFC 8187 extended value, so that names containing spaces and
+   * non-ASCII characters arrive at the client unchanged.
+   *
+   * @param name The file name
+   *
+   * @return The header value
+   */
+
+  public static String attachment(
+    final String name)
+  {
+    Objects.requireNonNull(name, "name");
+    return "attachment; filename*=UTF-8''%s".formatted(encode(name));
+  }
+
+  private static String encode(
+    final String text)
+  {
+    final var bytes = text.getBytes(UTF_8);
+    final var result = new StringBuilder(bytes.length * 3);
+    for (final var b : bytes) {
+      final var c = b & 0xff;
+      if (ATTR_CHARS.indexOf(c) != -1) {
+        result.append((char) c);
+      } else {
+        result.append('%');
+        result.append(HEX[c >>> 4]);
+        result.append(HEX[c & 0xf]);
+      }
+    }
+    return result.toString();
+  }
+}
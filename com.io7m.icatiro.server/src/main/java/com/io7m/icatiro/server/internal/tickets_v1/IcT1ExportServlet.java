@@ -0,0 +1,238 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.server.internal.tickets_v1;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.api.IcDatabaseTicketsQueriesType;
+import com.io7m.icatiro.database.api.IcDatabaseType;
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcTicketComment;
+import com.io7m.icatiro.model.IcTicketExported;
+import com.io7m.icatiro.protocol.IcProtocolMessagesType;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.server.internal.IcHTTPErrorStatusException;
+import com.io7m.icatiro.services.api.IcServiceDirectoryType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import static com.io7m.icatiro.database.api.IcDatabaseRole.ICATIRO;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.HTTP_METHOD_ERROR;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.HTTP_PARAMETER_INVALID;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.HTTP_PARAMETER_NONEXISTENT;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.OPERATION_NOT_PERMITTED;
+import static com.io7m.icatiro.model.IcPermission.TICKET_READ;
+import static org.eclipse.jetty.http.HttpStatus.BAD_REQUEST_400;
+import static org.eclipse.jetty.http.HttpStatus.FORBIDDEN_403;
+import static org.eclipse.jetty.http.HttpStatus.METHOD_NOT_ALLOWED_405;
+
+/**
+ * A servlet that streams every ticket and comment of a project as
+ * newline-delimited JSON. Errors that occur before the export begins are
+ * reported as protocol error messages; errors that occur during the export
+ * abort the response.
+ */
+
+public final class IcT1ExportServlet extends IcT1AuthenticatedServlet
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(IcT1ExportServlet.class);
+
+  /**
+   * The number of rows fetched from the database at once.
+   */
+
+  private static final int FETCH_SIZE = 1000;
+
+  /**
+   * The content type of exports.
+   */
+
+  public static final String CONTENT_TYPE = "application/x-ndjson";
+
+  private final IcDatabaseType database;
+  private final JsonFactory json;
+
+  /**
+   * A servlet that streams every ticket and comment of a project.
+   *
+   * @param inServices The service directory
+   * @param inMessages The message codec for the protocol version
+   */
+
+  public IcT1ExportServlet(
+    final IcServiceDirectoryType inServices,
+    final IcProtocolMessagesType<IcTMessageType> inMessages)
+  {
+    super(inServices, inMessages);
+
+    this.database =
+      inServices.requireService(IcDatabaseType.class);
+    this.json =
+      new JsonFactory();
+  }
+
+  @Override
+  protected Logger logger()
+  {
+    return LOG;
+  }
+
+  @Override
+  protected void serviceAuthenticated(
+    final HttpServletRequest request,
+    final HttpServletResponse servletResponse,
+    final HttpSession session)
+    throws Exception
+  {
+    if (!Objects.equals(request.getMethod(), "GET")) {
+      throw new IcHTTPErrorStatusException(
+        METHOD_NOT_ALLOWED_405,
+        HTTP_METHOD_ERROR,
+        this.strings().format("methodNotAllowed")
+      );
+    }
+
+    final var project = this.projectParameter(request);
+    if (!this.userSession()
+      .user()
+      .permissions()
+      .implies(project, TICKET_READ)) {
+      throw new IcHTTPErrorStatusException(
+        FORBIDDEN_403,
+        OPERATION_NOT_PERMITTED,
+        this.strings().format(
+          "errorPermissionsRequired",
+          TICKET_READ,
+          project.objectType(),
+          project
+        )
+      );
+    }
+
+    try (var connection = this.database.openConnection(ICATIRO)) {
+      try (var transaction = connection.openTransactionReadOnly()) {
+        final var tickets =
+          transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+        try (var export = tickets.ticketExport(project, FETCH_SIZE)) {
+          servletResponse.setStatus(200);
+          servletResponse.setContentType(CONTENT_TYPE);
+
+          try (var output =
+                 this.json.createGenerator(servletResponse.getOutputStream())) {
+            output.setRootValueSeparator(null);
+
+            while (true) {
+              final var itemOpt = export.next();
+              if (itemOpt.isEmpty()) {
+                break;
+              }
+              switch (itemOpt.get()) {
+                case final IcTicketExported t -> writeTicket(output, t);
+                case final IcTicketComment c -> writeComment(output, c);
+              }
+              output.writeRaw('\n');
+            }
+          }
+        } catch (final IcDatabaseException e) {
+          if (servletResponse.isCommitted()) {
+            LOG.debug("export failed: ", e);
+            throw new IOException(e);
+          }
+          throw e;
+        }
+      }
+    }
+  }
+
+  private IcProjectID projectParameter(
+    final HttpServletRequest request)
+    throws IcHTTPErrorStatusException
+  {
+    final var text = request.getParameter("project");
+    if (text == null) {
+      throw new IcHTTPErrorStatusException(
+        BAD_REQUEST_400,
+        HTTP_PARAMETER_NONEXISTENT,
+        this.strings().format("missingParameter", "project")
+      );
+    }
+
+    try {
+      return new IcProjectID(Long.parseUnsignedLong(text));
+    } catch (final NumberFormatException e) {
+      throw new IcHTTPErrorStatusException(
+        BAD_REQUEST_400,
+        HTTP_PARAMETER_INVALID,
+        this.strings().format("invalidParameter", "project"),
+        e
+      );
+    }
+  }
+
+  private static void writeTicket(
+    final JsonGenerator output,
+    final IcTicketExported ticket)
+    throws IOException
+  {
+    output.writeStartObject();
+    output.writeStringField("type", "ticket");
+    output.writeNumberField("project", ticket.id().project().value());
+    output.writeNumberField("id", ticket.id().value());
+    output.writeStringField("title", ticket.title().value());
+    output.writeStringField("description", ticket.description());
+    output.writeStringField("reporter", ticket.reporter().toString());
+    output.writeStringField("timeCreated", ticket.timeCreated().toString());
+    output.writeStringField("timeUpdated", ticket.timeUpdated().toString());
+    output.writeNumberField("version", ticket.version());
+    output.writeBooleanField("archived", ticket.archived());
+    output.writeEndObject();
+  }
+
+  private static void writeComment(
+    final JsonGenerator output,
+    final IcTicketComment comment)
+    throws IOException
+  {
+    output.writeStartObject();
+    output.writeStringField("type", "comment");
+    output.writeNumberField("project", comment.ticket().project().value());
+    output.writeNumberField("ticket", comment.ticket().value());
+    output.writeNumberField("id", comment.commentId());
+
+    final var repliedTo = comment.commentRepliedTo();
+    if (repliedTo.isPresent()) {
+      output.writeNumberField("repliedTo", repliedTo.getAsLong());
+    } else {
+      output.writeNullField("repliedTo");
+    }
+
+    output.writeStringField("owner", comment.owner().toString());
+    output.writeStringField("time", comment.time().toString());
+    output.writeStringField("text", comment.text());
+    output.writeEndObject();
+  }
+}
@@ -19,13 +19,19 @@ package com.io7m.icatiro.server.internal.tickets_v1;
 
 import com.io7m.icatiro.database.api.IcDatabaseException;
 import com.io7m.icatiro.database.api.IcDatabaseType;
+import com.io7m.icatiro.database.api.IcDatabaseUsersQueriesType;
 import com.io7m.icatiro.error_codes.IcErrorCode;
 import com.io7m.icatiro.error_codes.IcStandardErrorCodes;
 import com.io7m.icatiro.model.IcPermissionSet;
 import com.io7m.icatiro.model.IcUser;
 import com.io7m.icatiro.protocol.IcProtocolException;
+import com.io7m.icatiro.protocol.IcProtocolMessagesType;
 import com.io7m.icatiro.protocol.tickets.IcTCommandLogin;
+import com.io7m.icatiro.protocol.tickets.IcTCommandLoginCompact;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
 import com.io7m.icatiro.protocol.tickets.IcTResponseLogin;
+import com.io7m.icatiro.protocol.tickets.IcTResponseLoginCompact;
+import com.io7m.icatiro.protocol.tickets.IcTResponseType;
 import com.io7m.icatiro.protocol.tickets.cb.IcT1Messages;
 import com.io7m.icatiro.server.internal.IcHTTPErrorStatusException;
 import com.io7m.icatiro.server.internal.IcIdentityClients;
@@ -44,6 +50,7 @@ import java.io.IOException;
 import java.util.Map;
 import java.util.Objects;
 
+import static com.io7m.icatiro.database.api.IcDatabaseRole.ICATIRO;
 import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.HTTP_METHOD_ERROR;
 import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.PROTOCOL_ERROR;
 import static com.io7m.icatiro.server.internal.IcServerRequestDecoration.requestIdFor;
@@ -57,7 +64,7 @@ import static org.eclipse.jetty.http.HttpStatus.METHOD_NOT_ALLOWED_405;
 
 public final class IcT1Login extends IcCommonInstrumentedServlet
 {
-  private final IcT1Messages messages;
+  private final IcProtocolMessagesType<IcTMessageType> messages;
   private final IcServerStrings strings;
   private final IcT1Sends errors;
   private final IcRequestLimits limits;
@@ -69,21 +76,23 @@ public final class IcT1Login extends IcCommonInstrumentedServlet
    * A servlet that handles user logins.
    *
    * @param inServices The service directory
+   * @param inMessages The message codec for the protocol version
    */
 
   public IcT1Login(
-    final IcServiceDirectoryType inServices)
+    final IcServiceDirectoryType inServices,
+    final IcProtocolMessagesType<IcTMessageType> inMessages)
   {
     super(Objects.requireNonNull(inServices, "services"));
 
     this.messages =
-      inServices.requireService(IcT1Messages.class);
+      Objects.requireNonNull(inMessages, "messages");
     this.idClients =
       inServices.requireService(IcIdentityClients.class);
     this.strings =
       inServices.requireService(IcServerStrings.class);
     this.errors =
-      inServices.requireService(IcT1Sends.class);
+      new IcT1Sends(this.messages);
     this.limits =
       inServices.requireService(IcRequestLimits.class);
     this.sessions =
@@ -116,8 +125,8 @@ public final class IcT1Login extends IcCommonInstrumentedServlet
 
         final var user =
           client.login(
-            login.userName(),
-            login.password(),
+            login.userName,
+            login.password,
             this.idClients.baseURI(),
             Map.ofEntries(
               Map.entry(
@@ -139,7 +148,27 @@ public final class IcT1Login extends IcCommonInstrumentedServlet
         final var httpSession = request.getSession(true);
         this.sessions.create(icUser, httpSession, client);
         httpSession.setAttribute("UserID", user.id());
-        this.sendLoginResponse(request, response, icUser);
+
+        /*
+         * The session holds only the user's global and projectwide
+         * permissions. The original login response carries all of the
+         * user's permissions, and so these must be loaded separately.
+         */
+
+        if (login.compact) {
+          this.sendLoginResponse(
+            response,
+            new IcTResponseLoginCompact(requestIdFor(request), icUser)
+          );
+        } else {
+          this.sendLoginResponse(
+            response,
+            new IcTResponseLogin(
+              requestIdFor(request),
+              this.userWithAllPermissions(icUser)
+            )
+          );
+        }
 
       } catch (final IcHTTPErrorStatusException e) {
         this.errors.sendError(
@@ -177,38 +206,54 @@ public final class IcT1Login extends IcCommonInstrumentedServlet
     }
   }
 
+  private IcUser userWithAllPermissions(
+    final IcUser user)
+    throws IcDatabaseException
+  {
+    try (var connection = this.database.openConnection(ICATIRO)) {
+      try (var transaction = connection.openTransaction()) {
+        return transaction.queries(IcDatabaseUsersQueriesType.class)
+          .userGetRequire(user.id());
+      }
+    }
+  }
+
   private void sendLoginResponse(
-    final HttpServletRequest request,
     final HttpServletResponse response,
-    final IcUser user)
+    final IcTResponseType message)
     throws IOException
   {
     response.setStatus(200);
     response.setContentType(IcT1Messages.contentType());
 
     try {
-      final var data =
-        this.messages.serialize(
-          new IcTResponseLogin(requestIdFor(request), user)
-        );
-      response.setContentLength(data.length);
-      try (var output = response.getOutputStream()) {
-        output.write(data);
-      }
+      final var output = response.getOutputStream();
+      this.messages.serialize(message, output);
+      output.close();
     } catch (final IcProtocolException e) {
       throw new IOException(e);
     }
   }
 
-  private IcTCommandLogin readLoginCommand(
+  private record LoginRequest(
+    String userName,
+    String password,
+    boolean compact)
+  {
+
+  }
+
+  private LoginRequest readLoginCommand(
     final HttpServletRequest request)
     throws IcHTTPErrorStatusException, IOException
   {
     try (var input = this.limits.boundedMaximumInput(request, 1024)) {
-      final var data = input.readAllBytes();
-      final var message = this.messages.parse(data);
+      final var message = this.messages.parse(input);
       if (message instanceof IcTCommandLogin login) {
-        return login;
+        return new LoginRequest(login.userName(), login.password(), false);
+      }
+      if (message instanceof IcTCommandLoginCompact login) {
+        return new LoginRequest(login.userName(), login.password(), true);
       }
     } catch (final IcProtocolException e) {
       throw new IcHTTPErrorStatusException(
@@ -19,10 +19,10 @@ package com.io7m.icatiro.server.internal.tickets_v1;
 
 import com.io7m.icatiro.error_codes.IcErrorCode;
 import com.io7m.icatiro.protocol.IcProtocolException;
+import com.io7m.icatiro.protocol.IcProtocolMessagesType;
 import com.io7m.icatiro.protocol.tickets.IcTMessageType;
 import com.io7m.icatiro.protocol.tickets.IcTResponseError;
 import com.io7m.icatiro.protocol.tickets.cb.IcT1Messages;
-import com.io7m.icatiro.services.api.IcServiceType;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
@@ -33,9 +33,9 @@ import java.util.UUID;
  * Convenient functions to send messages.
  */
 
-public final class IcT1Sends implements IcServiceType
+public final class IcT1Sends
 {
-  private final IcT1Messages messages;
+  private final IcProtocolMessagesType<IcTMessageType> messages;
 
   /**
    * Convenient functions to send messages.
@@ -44,7 +44,7 @@ public final class IcT1Sends implements IcServiceType
    */
 
   public IcT1Sends(
-    final IcT1Messages inMessages)
+    final IcProtocolMessagesType<IcTMessageType> inMessages)
   {
     this.messages = Objects.requireNonNull(inMessages, "messages");
   }
@@ -95,23 +95,21 @@ public final class IcT1Sends implements IcServiceType
     response.setStatus(statusCode);
     response.setContentType(IcT1Messages.contentType());
 
+    /*
+     * The message is serialized directly to the response. The stream is
+     * only closed on success so that a message that fails validation leaves
+     * the response uncommitted.
+     */
+
     try {
-      final var data = this.messages.serialize(message);
-      response.setContentLength(data.length);
-      try (var output = response.getOutputStream()) {
-        output.write(data);
-      }
+      final var output = response.getOutputStream();
+      this.messages.serialize(message, output);
+      output.close();
     } catch (final IcProtocolException e) {
       throw new IOException(e);
     }
   }
 
-  @Override
-  public String description()
-  {
-    return "Tickets message sending service.";
-  }
-
   @Override
   public String toString()
   {
@@ -17,6 +17,7 @@
 package com.io7m.icatiro.server.internal.tickets_v1;
 
 import com.io7m.icatiro.protocol.tickets.cb.IcT1Messages;
+import com.io7m.icatiro.protocol.tickets.cb.IcT2Messages;
 import com.io7m.icatiro.server.internal.IcVerdantMessages;
 import com.io7m.icatiro.services.api.IcServiceDirectoryType;
 import com.io7m.verdant.core.VProtocolException;
@@ -65,6 +66,14 @@ public final class IcT1Versions extends HttpServlet
         "/tickets/1/0/"
       )
     );
+    supported.add(
+      new VProtocolSupported(
+        IcT2Messages.protocolId(),
+        2L,
+        0L,
+        "/tickets/2/0/"
+      )
+    );
     return new VProtocols(List.copyOf(supported));
   }
 
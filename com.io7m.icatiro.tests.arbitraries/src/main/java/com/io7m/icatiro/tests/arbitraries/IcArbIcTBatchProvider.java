@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.tests.arbitraries;
+
+import com.io7m.icatiro.protocol.tickets.IcTBatchMode;
+import com.io7m.icatiro.protocol.tickets.IcTCommandBatch;
+import com.io7m.icatiro.protocol.tickets.IcTCommandType;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.protocol.tickets.IcTResponseBatch;
+import com.io7m.icatiro.protocol.tickets.IcTResponseLogin;
+import com.io7m.icatiro.protocol.tickets.IcTResponseLoginCompact;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketWatch;
+import com.io7m.icatiro.protocol.tickets.IcTResponseType;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.providers.TypeUsage;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A provider of command batch values.
+ */
+
+public final class IcArbIcTBatchProvider extends IcArbAbstractProvider
+{
+  /**
+   * A provider of command batch values.
+   */
+
+  public IcArbIcTBatchProvider()
+  {
+
+  }
+
+  @Override
+  public boolean canProvideFor(
+    final TypeUsage targetType)
+  {
+    return targetType.isOfType(IcTCommandBatch.class)
+           || targetType.isOfType(IcTResponseBatch.class);
+  }
+
+  @Override
+  public Set<Arbitrary<?>> provideFor(
+    final TypeUsage targetType,
+    final SubtypeProvider subtypeProvider)
+  {
+    if (targetType.isOfType(IcTCommandBatch.class)) {
+      return Set.of(commandBatch());
+    }
+    return Set.of(responseBatch());
+  }
+
+  private static Arbitrary<IcTCommandBatch> commandBatch()
+  {
+    final Arbitrary<IcTCommandType<?>> commands =
+      Arbitraries.defaultFor(IcTMessageType.class)
+        .filter(m -> m instanceof IcTCommandType<?> c
+                     && IcTCommandBatch.isBatchable(c))
+        .map(m -> (IcTCommandType<?>) m);
+
+    final Arbitrary<List<IcTCommandType<?>>> lists =
+      commands.list().ofMaxSize(8);
+
+    return Combinators.combine(
+      lists,
+      Arbitraries.of(IcTBatchMode.class)
+    ).as(IcTCommandBatch::new);
+  }
+
+  private static Arbitrary<IcTResponseBatch> responseBatch()
+  {
+    final Arbitrary<IcTResponseType> responses =
+      Arbitraries.defaultFor(IcTMessageType.class)
+        .filter(m -> m instanceof IcTResponseType r && isBatchable(r))
+        .map(m -> (IcTResponseType) m);
+
+    return Combinators.combine(
+      Arbitraries.defaultFor(UUID.class),
+      responses.list().ofMaxSize(8)
+    ).as(IcTResponseBatch::new);
+  }
+
+  private static boolean isBatchable(
+    final IcTResponseType response)
+  {
+    return !(response instanceof IcTResponseLogin
+             || response instanceof IcTResponseLoginCompact
+             || response instanceof IcTResponseTicketWatch);
+  }
+}
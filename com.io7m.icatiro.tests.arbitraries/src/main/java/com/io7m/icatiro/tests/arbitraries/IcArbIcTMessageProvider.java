@@ -18,43 +18,80 @@ package com.io7m.icatiro.tests.arbitraries;
 
 import com.io7m.icatiro.model.IcHash;
 import com.io7m.icatiro.model.IcPage;
+import com.io7m.icatiro.model.IcPermissionMatrix;
 import com.io7m.icatiro.model.IcPermissionScopedType;
 import com.io7m.icatiro.model.IcProject;
+import com.io7m.icatiro.model.IcProjectID;
 import com.io7m.icatiro.model.IcProjectShortName;
+import com.io7m.icatiro.model.IcProjectStatistics;
 import com.io7m.icatiro.model.IcProjectTitle;
+import com.io7m.icatiro.model.IcSavedSearch;
+import com.io7m.icatiro.model.IcSavedSearchName;
+import com.io7m.icatiro.model.IcSavedSearchResults;
 import com.io7m.icatiro.model.IcTicket;
+import com.io7m.icatiro.model.IcTicketChangeCursor;
+import com.io7m.icatiro.model.IcTicketChanges;
 import com.io7m.icatiro.model.IcTicketComment;
 import com.io7m.icatiro.model.IcTicketCommentCreation;
 import com.io7m.icatiro.model.IcTicketCreation;
+import com.io7m.icatiro.model.IcTicketGetResultType;
 import com.io7m.icatiro.model.IcTicketID;
 import com.io7m.icatiro.model.IcTicketSearch;
 import com.io7m.icatiro.model.IcTicketSummary;
+import com.io7m.icatiro.model.IcTicketUpdate;
+import com.io7m.icatiro.model.IcTicketWatchResult;
+import com.io7m.icatiro.model.IcTimeRange;
 import com.io7m.icatiro.model.IcUser;
+import com.io7m.icatiro.model.IcUserPermission;
 import com.io7m.icatiro.protocol.tickets.IcTCommandLogin;
+import com.io7m.icatiro.protocol.tickets.IcTCommandLoginCompact;
 import com.io7m.icatiro.protocol.tickets.IcTCommandPermissionGrant;
+import com.io7m.icatiro.protocol.tickets.IcTCommandPermissionGrantMany;
+import com.io7m.icatiro.protocol.tickets.IcTCommandPermissionRevokeMany;
 import com.io7m.icatiro.protocol.tickets.IcTCommandProjectCreate;
+import com.io7m.icatiro.protocol.tickets.IcTCommandProjectStatistics;
+import com.io7m.icatiro.protocol.tickets.IcTCommandSavedSearchCreate;
+import com.io7m.icatiro.protocol.tickets.IcTCommandSavedSearchDelete;
+import com.io7m.icatiro.protocol.tickets.IcTCommandSavedSearchResults;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketChangesSince;
 import com.io7m.icatiro.protocol.tickets.IcTCommandTicketCommentCreate;
 import com.io7m.icatiro.protocol.tickets.IcTCommandTicketCreate;
 import com.io7m.icatiro.protocol.tickets.IcTCommandTicketGet;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketGetMany;
 import com.io7m.icatiro.protocol.tickets.IcTCommandTicketSearchBegin;
 import com.io7m.icatiro.protocol.tickets.IcTCommandTicketSearchNext;
 import com.io7m.icatiro.protocol.tickets.IcTCommandTicketSearchPrevious;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketUpdate;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketWatch;
 import com.io7m.icatiro.protocol.tickets.IcTMessageType;
 import com.io7m.icatiro.protocol.tickets.IcTResponseError;
 import com.io7m.icatiro.protocol.tickets.IcTResponseLogin;
+import com.io7m.icatiro.protocol.tickets.IcTResponseLoginCompact;
 import com.io7m.icatiro.protocol.tickets.IcTResponsePermissionGrant;
+import com.io7m.icatiro.protocol.tickets.IcTResponsePermissionGrantMany;
+import com.io7m.icatiro.protocol.tickets.IcTResponsePermissionRevokeMany;
 import com.io7m.icatiro.protocol.tickets.IcTResponseProjectCreate;
+import com.io7m.icatiro.protocol.tickets.IcTResponseProjectStatistics;
+import com.io7m.icatiro.protocol.tickets.IcTResponseSavedSearchCreate;
+import com.io7m.icatiro.protocol.tickets.IcTResponseSavedSearchDelete;
+import com.io7m.icatiro.protocol.tickets.IcTResponseSavedSearchResults;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketChangesSince;
 import com.io7m.icatiro.protocol.tickets.IcTResponseTicketCommentCreate;
 import com.io7m.icatiro.protocol.tickets.IcTResponseTicketCreate;
 import com.io7m.icatiro.protocol.tickets.IcTResponseTicketGet;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketGetMany;
 import com.io7m.icatiro.protocol.tickets.IcTResponseTicketSearchBegin;
 import com.io7m.icatiro.protocol.tickets.IcTResponseTicketSearchNext;
 import com.io7m.icatiro.protocol.tickets.IcTResponseTicketSearchPrevious;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketUpdate;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketWatch;
 import net.jqwik.api.Arbitraries;
 import net.jqwik.api.Arbitrary;
 import net.jqwik.api.Combinators;
 import net.jqwik.api.providers.TypeUsage;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Set;
@@ -89,27 +126,108 @@ public final class IcArbIcTMessageProvider extends IcArbAbstractProvider
   {
     return Set.of(
       commandLogin(),
+      commandLoginCompact(),
       commandPermissionGrant(),
+      commandPermissionGrantMany(),
+      commandPermissionRevokeMany(),
       commandProjectCreate(),
+      commandProjectStatistics(),
+      commandSavedSearchCreate(),
+      commandSavedSearchDelete(),
+      commandSavedSearchResults(),
+      commandTicketChangesSince(),
       commandTicketCommentCreate(),
       commandTicketCreate(),
       commandTicketGet(),
+      commandTicketGetMany(),
       commandTicketSearchBegin(),
       commandTicketSearchNext(),
       commandTicketSearchPrevious(),
+      commandTicketUpdate(),
+      commandTicketWatch(),
       responseError(),
       responseLogin(),
+      responseLoginCompact(),
       responsePermissionGrant(),
+      responsePermissionGrantMany(),
+      responsePermissionRevokeMany(),
       responseProjectCreate(),
+      responseProjectStatistics(),
+      responseSavedSearchCreate(),
+      responseSavedSearchDelete(),
+      responseSavedSearchResults(),
+      responseTicketChangesSince(),
       responseTicketCommentCreate(),
       responseTicketCreate(),
       responseTicketGet(),
+      responseTicketGetMany(),
       responseTicketSearchBegin(),
       responseTicketSearchNext(),
-      responseTicketSearchPrevious()
+      responseTicketSearchPrevious(),
+      responseTicketUpdate(),
+      responseTicketWatch()
     );
   }
 
+  private static Arbitrary<IcTCommandProjectStatistics> commandProjectStatistics()
+  {
+    return Combinators.combine(
+      Arbitraries.defaultFor(IcProjectID.class),
+      Arbitraries.defaultFor(IcTimeRange.class)
+    ).as(IcTCommandProjectStatistics::new);
+  }
+
+  private static Arbitrary<IcTResponseProjectStatistics> responseProjectStatistics()
+  {
+    return Combinators.combine(
+      Arbitraries.defaultFor(UUID.class),
+      Arbitraries.defaultFor(IcProjectStatistics.class)
+    ).as(IcTResponseProjectStatistics::new);
+  }
+
+  private static Arbitrary<IcTCommandSavedSearchCreate> commandSavedSearchCreate()
+  {
+    return Arbitraries.defaultFor(IcSavedSearch.class)
+      .map(IcTCommandSavedSearchCreate::new);
+  }
+
+  private static Arbitrary<IcTCommandSavedSearchDelete> commandSavedSearchDelete()
+  {
+    return Arbitraries.defaultFor(IcSavedSearchName.class)
+      .map(IcTCommandSavedSearchDelete::new);
+  }
+
+  private static Arbitrary<IcTCommandSavedSearchResults> commandSavedSearchResults()
+  {
+    return Combinators.combine(
+      Arbitraries.defaultFor(IcSavedSearchName.class),
+      Arbitraries.longs().greaterOrEqual(0L),
+      Arbitraries.integers().between(1, 1000)
+    ).as(IcTCommandSavedSearchResults::new);
+  }
+
+  private static Arbitrary<IcTResponseSavedSearchCreate> responseSavedSearchCreate()
+  {
+    return Combinators.combine(
+      Arbitraries.defaultFor(UUID.class),
+      Arbitraries.defaultFor(IcSavedSearch.class)
+    ).as(IcTResponseSavedSearchCreate::new);
+  }
+
+  private static Arbitrary<IcTResponseSavedSearchDelete> responseSavedSearchDelete()
+  {
+    return Arbitraries.defaultFor(UUID.class)
+      .map(IcTResponseSavedSearchDelete::new);
+  }
+
+  private static Arbitrary<IcTResponseSavedSearchResults> responseSavedSearchResults()
+  {
+    return Combinators.combine(
+      Arbitraries.defaultFor(UUID.class),
+      Arbitraries.defaultFor(IcSavedSearchResults.class)
+    ).as(IcTResponseSavedSearchResults::new);
+  }
+
   private static Arbitrary<IcTResponseTicketGet> responseTicketGet()
   {
     final var u =
@@ -127,6 +245,58 @@ public final class IcArbIcTMessageProvider extends IcArbAbstractProvider
     return t.map(IcTCommandTicketGet::new);
   }
 
+  private static Arbitrary<IcTCommandTicketChangesSince> commandTicketChangesSince()
+  {
+    return Combinators.combine(
+      Arbitraries.defaultFor(IcTicketChangeCursor.class),
+      Arbitraries.integers().between(1, 1000)
+    ).as(IcTCommandTicketChangesSince::new);
+  }
+
+  private static Arbitrary<IcTResponseTicketChangesSince> responseTicketChangesSince()
+  {
+    return Combinators.combine(
+      Arbitraries.defaultFor(UUID.class),
+      Arbitraries.defaultFor(IcTicketChanges.class)
+    ).as(IcTResponseTicketChangesSince::new);
+  }
+
+  private static Arbitrary<IcTCommandTicketWatch> commandTicketWatch()
+  {
+    return Combinators.combine(
+      Arbitraries.defaultFor(IcTicketID.class),
+      Arbitraries.longs().greaterOrEqual(0L),
+      Arbitraries.longs().between(0L, 60_000L).map(Duration::ofMillis)
+    ).as(IcTCommandTicketWatch::new);
+  }
+
+  private static Arbitrary<IcTResponseTicketWatch> responseTicketWatch()
+  {
+    return Combinators.combine(
+      Arbitraries.defaultFor(UUID.class),
+      Arbitraries.defaultFor(IcTicketWatchResult.class)
+    ).as(IcTResponseTicketWatch::new);
+  }
+
+  private static Arbitrary<IcTResponseTicketGetMany> responseTicketGetMany()
+  {
+    final var u =
+      Arbitraries.defaultFor(UUID.class);
+    final var r =
+      Arbitraries.defaultFor(IcTicketGetResultType.class)
+        .list();
+    return Combinators.combine(u, r)
+      .as(IcTResponseTicketGetMany::new);
+  }
+
+  private static Arbitrary<IcTCommandTicketGetMany> commandTicketGetMany()
+  {
+    final var t =
+      Arbitraries.defaultFor(IcTicketID.class)
+        .list();
+    return t.map(IcTCommandTicketGetMany::new);
+  }
+
   private static Arbitrary<IcTCommandTicketCommentCreate> commandTicketCommentCreate()
   {
     final var t =
@@ -174,6 +344,32 @@ public final class IcArbIcTMessageProvider extends IcArbAbstractProvider
     ).as(IcTCommandPermissionGrant::new);
   }
 
+  private static Arbitrary<IcTResponsePermissionGrantMany> responsePermissionGrantMany()
+  {
+    return Arbitraries.defaultFor(UUID.class)
+      .map(IcTResponsePermissionGrantMany::new);
+  }
+
+  private static Arbitrary<IcTCommandPermissionGrantMany> commandPermissionGrantMany()
+  {
+    return Arbitraries.defaultFor(IcUserPermission.class)
+      .list()
+      .map(IcTCommandPermissionGrantMany::new);
+  }
+
+  private static Arbitrary<IcTResponsePermissionRevokeMany> responsePermissionRevokeMany()
+  {
+    return Arbitraries.defaultFor(UUID.class)
+      .map(IcTResponsePermissionRevokeMany::new);
+  }
+
+  private static Arbitrary<IcTCommandPermissionRevokeMany> commandPermissionRevokeMany()
+  {
+    return Arbitraries.defaultFor(IcUserPermission.class)
+      .list()
+      .map(IcTCommandPermissionRevokeMany::new);
+  }
+
   private static Arbitrary<IcTResponseProjectCreate> responseProjectCreate()
   {
     return Combinators.combine(
@@ -206,6 +402,20 @@ public final class IcArbIcTMessageProvider extends IcArbAbstractProvider
       .map(IcTCommandTicketCreate::new);
   }
 
+  private static Arbitrary<IcTCommandTicketUpdate> commandTicketUpdate()
+  {
+    return Arbitraries.defaultFor(IcTicketUpdate.class)
+      .map(IcTCommandTicketUpdate::new);
+  }
+
+  private static Arbitrary<IcTResponseTicketUpdate> responseTicketUpdate()
+  {
+    return Combinators.combine(
+      Arbitraries.defaultFor(UUID.class),
+      Arbitraries.defaultFor(IcTicket.class)
+    ).as(IcTResponseTicketUpdate::new);
+  }
+
   private static Arbitrary<IcTCommandTicketSearchPrevious> commandTicketSearchPrevious()
   {
     return Arbitraries.of(new IcTCommandTicketSearchPrevious());
@@ -239,12 +449,20 @@ public final class IcArbIcTMessageProvider extends IcArbAbstractProvider
         .list();
     final var a2 =
       Arbitraries.integers();
+    final var a3 =
+      Arbitraries.defaultFor(IcPermissionMatrix.class);
 
-    return Combinators.combine(a0, a1, a2)
-      .as((id, summaries, n) -> {
+    return Combinators.combine(a0, a1, a2, a3)
+      .as((id, summaries, n, permissions) -> {
         return new IcTResponseTicketSearchPrevious(
           id,
-          new IcPage<>(summaries, n.intValue(), n.intValue(), n.longValue())
+          new IcPage<>(
+            List.copyOf(summaries),
+            n.intValue(),
+            n.intValue(),
+            n.longValue()
+          ),
+          permissions
         );
       });
   }
@@ -258,12 +476,20 @@ public final class IcArbIcTMessageProvider extends IcArbAbstractProvider
         .list();
     final var a2 =
       Arbitraries.integers();
+    final var a3 =
+      Arbitraries.defaultFor(IcPermissionMatrix.class);
 
-    return Combinators.combine(a0, a1, a2)
-      .as((id, summaries, n) -> {
+    return Combinators.combine(a0, a1, a2, a3)
+      .as((id, summaries, n, permissions) -> {
         return new IcTResponseTicketSearchNext(
           id,
-          new IcPage<>(summaries, n.intValue(), n.intValue(), n.longValue())
+          new IcPage<>(
+            List.copyOf(summaries),
+            n.intValue(),
+            n.intValue(),
+            n.longValue()
+          ),
+          permissions
         );
       });
   }
@@ -277,12 +503,20 @@ public final class IcArbIcTMessageProvider extends IcArbAbstractProvider
         .list();
     final var a2 =
       Arbitraries.integers();
+    final var a3 =
+      Arbitraries.defaultFor(IcPermissionMatrix.class);
 
-    return Combinators.combine(a0, a1, a2)
-      .as((id, summaries, n) -> {
+    return Combinators.combine(a0, a1, a2, a3)
+      .as((id, summaries, n, permissions) -> {
         return new IcTResponseTicketSearchBegin(
           id,
-          new IcPage<>(summaries, n.intValue(), n.intValue(), n.longValue())
+          new IcPage<>(
+            List.copyOf(summaries),
+            n.intValue(),
+            n.intValue(),
+            n.longValue()
+          ),
+          permissions
         );
       });
   }
@@ -295,6 +529,22 @@ public final class IcArbIcTMessageProvider extends IcArbAbstractProvider
     ).as(IcTResponseLogin::new);
   }
 
+  private static Arbitrary<IcTCommandLoginCompact> commandLoginCompact()
+  {
+    return Combinators.combine(
+      Arbitraries.strings(),
+      Arbitraries.strings()
+    ).as(IcTCommandLoginCompact::new);
+  }
+
+  private static Arbitrary<IcTResponseLoginCompact> responseLoginCompact()
+  {
+    return Combinators.combine(
+      Arbitraries.defaultFor(UUID.class),
+      Arbitraries.defaultFor(IcUser.class)
+    ).as(IcTResponseLoginCompact::new);
+  }
+
   private static Arbitrary<IcTResponseError> responseError()
   {
     return Combinators.combine(
@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.tests.arbitraries;
+
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcProjectStatistics;
+import com.io7m.icatiro.model.IcProjectStatisticsDay;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.providers.TypeUsage;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * A provider of {@link IcProjectStatistics} values.
+ */
+
+public final class IcArbProjectStatisticsProvider extends IcArbAbstractProvider
+{
+  /**
+   * A provider of values.
+   */
+
+  public IcArbProjectStatisticsProvider()
+  {
+
+  }
+
+  @Override
+  public boolean canProvideFor(
+    final TypeUsage targetType)
+  {
+    return targetType.isOfType(IcProjectStatistics.class);
+  }
+
+  @Override
+  public Set<Arbitrary<?>> provideFor(
+    final TypeUsage targetType,
+    final SubtypeProvider subtypeProvider)
+  {
+    final var d =
+      Arbitraries.integers()
+        .between(0, 100_000)
+        .map(x -> LocalDate.of(2000, 1, 1).plusDays(x.longValue()));
+    final var c =
+      Arbitraries.longs()
+        .greaterOrEqual(0L);
+
+    final var days =
+      Combinators.combine(d, c, c, c)
+        .as(IcProjectStatisticsDay::new)
+        .list();
+
+    final var p =
+      Arbitraries.defaultFor(IcProjectID.class);
+
+    return Set.of(
+      Combinators.combine(p, days).as(IcProjectStatistics::new)
+    );
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.tests.arbitraries;
+
+import com.io7m.icatiro.model.IcSavedSearchName;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.providers.TypeUsage;
+
+import java.util.Set;
+
+/**
+ * A provider of {@link IcSavedSearchName} values.
+ */
+
+public final class IcArbSavedSearchNameProvider extends IcArbAbstractProvider
+{
+  /**
+   * A provider of values.
+   */
+
+  public IcArbSavedSearchNameProvider()
+  {
+
+  }
+
+  @Override
+  public boolean canProvideFor(
+    final TypeUsage targetType)
+  {
+    return targetType.isOfType(IcSavedSearchName.class);
+  }
+
+  @Override
+  public Set<Arbitrary<?>> provideFor(
+    final TypeUsage targetType,
+    final SubtypeProvider subtypeProvider)
+  {
+    final var s0 =
+      Arbitraries.strings()
+        .withChars("abcdefghijklmnopqrstuvwxyz")
+        .ofMinLength(1)
+        .ofMaxLength(1);
+    final var s1 =
+      Arbitraries.strings()
+        .withChars("abcdefghijklmnopqrstuvwxyz0123456789_-")
+        .ofMinLength(0)
+        .ofMaxLength(63);
+
+    return Set.of(
+      Combinators.combine(s0, s1)
+        .as((x, y) -> new IcSavedSearchName(x + y))
+    );
+  }
+}
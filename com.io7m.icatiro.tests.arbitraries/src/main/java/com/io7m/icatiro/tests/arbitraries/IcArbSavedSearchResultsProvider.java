@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.tests.arbitraries;
+
+import com.io7m.icatiro.model.IcSavedSearchEntry;
+import com.io7m.icatiro.model.IcSavedSearchName;
+import com.io7m.icatiro.model.IcSavedSearchResults;
+import com.io7m.icatiro.model.IcTicketID;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.providers.TypeUsage;
+
+import java.util.Set;
+
+/**
+ * A provider of {@link IcSavedSearchResults} values.
+ */
+
+public final class IcArbSavedSearchResultsProvider extends IcArbAbstractProvider
+{
+  /**
+   * A provider of values.
+   */
+
+  public IcArbSavedSearchResultsProvider()
+  {
+
+  }
+
+  @Override
+  public boolean canProvideFor(
+    final TypeUsage targetType)
+  {
+    return targetType.isOfType(IcSavedSearchResults.class);
+  }
+
+  @Override
+  public Set<Arbitrary<?>> provideFor(
+    final TypeUsage targetType,
+    final SubtypeProvider subtypeProvider)
+  {
+    final var n =
+      Arbitraries.defaultFor(IcSavedSearchName.class);
+    final var r =
+      Arbitraries.longs()
+        .greaterOrEqual(0L);
+
+    final var entries =
+      Combinators.combine(
+        Arbitraries.defaultFor(IcTicketID.class),
+        Arbitraries.of(Boolean.TRUE, Boolean.FALSE)
+      ).as(IcSavedSearchEntry::new).list();
+
+    return Set.of(
+      Combinators.combine(n, r, entries).as(IcSavedSearchResults::new)
+    );
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.tests.arbitraries;
+
+import com.io7m.icatiro.model.IcTicketChange;
+import com.io7m.icatiro.model.IcTicketChangeCursor;
+import com.io7m.icatiro.model.IcTicketChangeKind;
+import com.io7m.icatiro.model.IcTicketChanges;
+import com.io7m.icatiro.model.IcTicketID;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.providers.TypeUsage;
+
+import java.time.OffsetDateTime;
+import java.util.Set;
+
+/**
+ * A provider of {@link IcTicketChanges} values.
+ */
+
+public final class IcArbTicketChangesProvider extends IcArbAbstractProvider
+{
+  /**
+   * A provider of values.
+   */
+
+  public IcArbTicketChangesProvider()
+  {
+
+  }
+
+  @Override
+  public boolean canProvideFor(
+    final TypeUsage targetType)
+  {
+    return targetType.isOfType(IcTicketChanges.class);
+  }
+
+  @Override
+  public Set<Arbitrary<?>> provideFor(
+    final TypeUsage targetType,
+    final SubtypeProvider subtypeProvider)
+  {
+    final var changes =
+      Combinators.combine(
+        Arbitraries.defaultFor(IcTicketID.class),
+        Arbitraries.defaultFor(IcTicketChangeKind.class),
+        Arbitraries.longs()
+          .optional()
+          .map(IcArbIcTMessageProvider::toOptionalLong),
+        Arbitraries.defaultFor(OffsetDateTime.class)
+      ).as(IcTicketChange::new).list();
+
+    final var next =
+      Arbitraries.defaultFor(IcTicketChangeCursor.class);
+    final var stalledSince =
+      Arbitraries.defaultFor(OffsetDateTime.class).optional();
+
+    return Set.of(
+      Combinators.combine(changes, next, stalledSince)
+        .as(IcTicketChanges::new)
+    );
+  }
+}
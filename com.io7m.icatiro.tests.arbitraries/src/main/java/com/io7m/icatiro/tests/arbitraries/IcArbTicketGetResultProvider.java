@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.tests.arbitraries;
+
+import com.io7m.icatiro.model.IcTicket;
+import com.io7m.icatiro.model.IcTicketGetResultForbidden;
+import com.io7m.icatiro.model.IcTicketGetResultFound;
+import com.io7m.icatiro.model.IcTicketGetResultNotFound;
+import com.io7m.icatiro.model.IcTicketGetResultType;
+import com.io7m.icatiro.model.IcTicketID;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.providers.TypeUsage;
+
+import java.util.Set;
+
+/**
+ * A provider of ticket retrieval result values.
+ */
+
+public final class IcArbTicketGetResultProvider extends IcArbAbstractProvider
+{
+  /**
+   * A provider of ticket retrieval result values.
+   */
+
+  public IcArbTicketGetResultProvider()
+  {
+
+  }
+
+  @Override
+  public boolean canProvideFor(
+    final TypeUsage targetType)
+  {
+    return targetType.isOfType(IcTicketGetResultType.class);
+  }
+
+  @Override
+  public Set<Arbitrary<?>> provideFor(
+    final TypeUsage targetType,
+    final SubtypeProvider subtypeProvider)
+  {
+    return Set.of(
+      resultsFound(),
+      resultsNotFound(),
+      resultsForbidden()
+    );
+  }
+
+  private static Arbitrary<IcTicketGetResultType> resultsFound()
+  {
+    return Arbitraries.defaultFor(IcTicket.class)
+      .map(IcTicketGetResultFound::new);
+  }
+
+  private static Arbitrary<IcTicketGetResultType> resultsNotFound()
+  {
+    return Arbitraries.defaultFor(IcTicketID.class)
+      .map(IcTicketGetResultNotFound::new);
+  }
+
+  private static Arbitrary<IcTicketGetResultType> resultsForbidden()
+  {
+    return Arbitraries.defaultFor(IcTicketID.class)
+      .map(IcTicketGetResultForbidden::new);
+  }
+}
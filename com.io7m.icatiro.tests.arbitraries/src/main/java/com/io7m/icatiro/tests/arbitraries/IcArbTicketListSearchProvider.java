@@ -18,6 +18,7 @@ package com.io7m.icatiro.tests.arbitraries;
 
 import com.io7m.icatiro.model.IcTicketColumnOrdering;
 import com.io7m.icatiro.model.IcTicketSearch;
+import com.io7m.icatiro.model.IcTicketSearchProjection;
 import com.io7m.icatiro.model.IcTimeRange;
 import net.jqwik.api.Arbitraries;
 import net.jqwik.api.Arbitrary;
@@ -70,10 +71,12 @@ public final class IcArbTicketListSearchProvider extends IcArbAbstractProvider
     final var u0 =
       Arbitraries.defaultFor(UUID.class)
         .optional();
+    final var b0 =
+      Arbitraries.of(Boolean.TRUE, Boolean.FALSE);
 
     final var a =
-      Combinators.combine(t, t, o, i, s0, s1, u0)
-        .as((t0, t1, uo, in, ss0, ss1, uu0) -> {
+      Combinators.combine(t, t, o, i, s0, s1, u0, b0)
+        .as((t0, t1, uo, in, ss0, ss1, uu0, bb0) -> {
           return new IcTicketSearch(
             t0,
             t1,
@@ -81,7 +84,9 @@ public final class IcArbTicketListSearchProvider extends IcArbAbstractProvider
             in.intValue(),
             ss0,
             ss1,
-            uu0
+            uu0,
+            bb0.booleanValue(),
+            IcTicketSearchProjection.FULL
           );
         });
 
@@ -67,18 +67,22 @@ public final class IcArbTicketProvider extends IcArbAbstractProvider
       Arbitraries.defaultFor(IcTicketSummary.class);
     final var text =
       Arbitraries.strings();
+    final var versions =
+      Arbitraries.longs().greaterOrEqual(1L);
 
-    return Combinators.combine(comments, summaries, text).as((c, s, t) -> {
-      return new IcTicket(
-        s.ticketId(),
-        s.ticketTitle(),
-        s.timeCreated(),
-        s.timeUpdated(),
-        s.reporter(),
-        s.reporterName(),
-        t,
-        c
-      );
-    });
+    return Combinators.combine(comments, summaries, text, versions)
+      .as((c, s, t, v) -> {
+        return new IcTicket(
+          s.ticketId(),
+          s.ticketTitle(),
+          s.timeCreated(),
+          s.timeUpdated(),
+          v.longValue(),
+          s.reporter(),
+          s.reporterName(),
+          t,
+          c
+        );
+      });
   }
 }
@@ -21,6 +21,8 @@ import net.jqwik.api.Arbitraries;
 import net.jqwik.api.Arbitrary;
 import net.jqwik.api.providers.TypeUsage;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.Set;
 
@@ -30,6 +32,14 @@ import java.util.Set;
 
 public final class IcArbTimeRangeProvider extends IcArbAbstractProvider
 {
+  /*
+   * The upper bound of a range must still be representable as a number of
+   * milliseconds since the epoch.
+   */
+
+  private static final Instant LATEST =
+    Instant.ofEpochMilli(Long.MAX_VALUE).minus(Duration.ofDays(30L));
+
   /**
    * A provider of values.
    */
@@ -52,7 +62,8 @@ public final class IcArbTimeRangeProvider extends IcArbAbstractProvider
     final SubtypeProvider subtypeProvider)
   {
     final var t =
-      Arbitraries.defaultFor(OffsetDateTime.class);
+      Arbitraries.defaultFor(OffsetDateTime.class)
+        .filter(tt -> tt.toInstant().isBefore(LATEST));
 
     return Set.of(t.map(tt -> {
       return new IcTimeRange(tt, tt.plusDays(30));
@@ -17,26 +17,38 @@
 import com.io7m.icatiro.tests.arbitraries.IcArbAccessControlledObjectProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbAuditEventProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbHashProvider;
+import com.io7m.icatiro.tests.arbitraries.IcArbIcTBatchProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbIcTMessageProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbOffsetDateTimeProvider;
+import com.io7m.icatiro.tests.arbitraries.IcArbPermissionMatrixProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbPermissionScopedProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbPermissionSetProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbProjectIdProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbProjectProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbProjectShortNameProvider;
+import com.io7m.icatiro.tests.arbitraries.IcArbProjectStatisticsProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbProjectTitleProvider;
+import com.io7m.icatiro.tests.arbitraries.IcArbSavedSearchNameProvider;
+import com.io7m.icatiro.tests.arbitraries.IcArbSavedSearchProvider;
+import com.io7m.icatiro.tests.arbitraries.IcArbSavedSearchResultsProvider;
+import com.io7m.icatiro.tests.arbitraries.IcArbTicketChangeCursorProvider;
+import com.io7m.icatiro.tests.arbitraries.IcArbTicketChangesProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbTicketColumnOrderingProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbTicketCommentProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbTicketCreationProvider;
+import com.io7m.icatiro.tests.arbitraries.IcArbTicketGetResultProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbTicketIdProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbTicketListSearchProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbTicketProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbTicketSummaryProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbTicketTitleProvider;
+import com.io7m.icatiro.tests.arbitraries.IcArbTicketUpdateProvider;
+import com.io7m.icatiro.tests.arbitraries.IcArbTicketWatchResultProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbTimeRangeProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbTokenProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbURIProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbUUIDProvider;
+import com.io7m.icatiro.tests.arbitraries.IcArbUserPermissionProvider;
 import com.io7m.icatiro.tests.arbitraries.IcArbUserProvider;
 import net.jqwik.api.providers.ArbitraryProvider;
 
@@ -60,26 +72,38 @@ module com.io7m.icatiro.tests.arbitraries
       IcArbAccessControlledObjectProvider,
       IcArbAuditEventProvider,
       IcArbHashProvider,
+      IcArbIcTBatchProvider,
       IcArbIcTMessageProvider,
       IcArbOffsetDateTimeProvider,
+      IcArbPermissionMatrixProvider,
       IcArbPermissionScopedProvider,
       IcArbPermissionSetProvider,
       IcArbProjectIdProvider,
       IcArbProjectProvider,
       IcArbProjectShortNameProvider,
+      IcArbProjectStatisticsProvider,
       IcArbProjectTitleProvider,
+      IcArbSavedSearchNameProvider,
+      IcArbSavedSearchProvider,
+      IcArbSavedSearchResultsProvider,
+      IcArbTicketChangeCursorProvider,
+      IcArbTicketChangesProvider,
       IcArbTicketColumnOrderingProvider,
       IcArbTicketCommentProvider,
       IcArbTicketCreationProvider,
+      IcArbTicketGetResultProvider,
       IcArbTicketIdProvider,
       IcArbTicketListSearchProvider,
       IcArbTicketProvider,
       IcArbTicketSummaryProvider,
       IcArbTicketTitleProvider,
+      IcArbTicketUpdateProvider,
+      IcArbTicketWatchResultProvider,
       IcArbTimeRangeProvider,
       IcArbTokenProvider,
       IcArbURIProvider,
       IcArbUUIDProvider,
+      IcArbUserPermissionProvider,
       IcArbUserProvider
     ;
 
@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.tests;
+
+import com.io7m.icatiro.model.IcHash;
+import com.io7m.icatiro.server.api.IcServerAttachmentConfiguration;
+import com.io7m.icatiro.server.internal.IcAttachmentStore;
+import com.io7m.icatiro.server.internal.IcHTTPErrorStatusException;
+import com.io7m.icatiro.server.internal.IcServerStrings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.HTTP_SIZE_LIMIT;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class IcAttachmentStoreTest
+{
+  private Path directory;
+  private IcAttachmentStore store;
+
+  private static byte[] readAll(
+    final IcAttachmentStore store,
+    final IcHash hash)
+    throws IOException
+  {
+    try (var channel = store.open(hash).orElseThrow()) {
+      final var buffer = ByteBuffer.allocate((int) channel.size());
+      while (buffer.hasRemaining()) {
+        channel.read(buffer);
+      }
+      return buffer.array();
+    }
+  }
+
+  private static long countFiles(
+    final Path directory)
+    throws IOException
+  {
+    try (var stream = Files.walk(directory)) {
+      return stream.filter(Files::isRegularFile).count();
+    }
+  }
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory =
+      IcTestDirectories.createTempDirectory();
+    this.store =
+      IcAttachmentStore.create(
+        new IcServerStrings(Locale.ROOT),
+        new IcServerAttachmentConfiguration(this.directory, 1000L)
+      );
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    IcTestDirectories.deleteDirectory(this.directory);
+  }
+
+  /**
+   * Stored content can be read back by its hash.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testStoreOpen()
+    throws Exception
+  {
+    final var data = "Hello.".getBytes(UTF_8);
+    final var content =
+      this.store.store(new ByteArrayInputStream(data));
+
+    assertEquals(6L, content.size());
+    assertEquals("SHA-256", content.hash().algorithm());
+    assertEquals(
+      "2D8BD7D9BB5F85BA643F0110D50CB506A1FE439E769A22503193EA6046BB87F7",
+      content.hash().hash()
+    );
+    assertArrayEquals(data, readAll(this.store, content.hash()));
+  }
+
+  /**
+   * Storing the same content twice stores it once.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testStoreDeduplicated()
+    throws Exception
+  {
+    final var data = "Hello.".getBytes(UTF_8);
+    final var c0 =
+      this.store.store(new ByteArrayInputStream(data));
+    final var c1 =
+      this.store.store(new ByteArrayInputStream(data));
+
+    assertEquals(c0, c1);
+    assertEquals(1L, countFiles(this.directory));
+  }
+
+  /**
+   * Content at the size limit is accepted, and content over the limit is
+   * rejected without leaving anything behind.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testStoreSizeLimit()
+    throws Exception
+  {
+    final var data = new byte[1000];
+    Arrays.fill(data, (byte) 'x');
+    assertEquals(
+      1000L,
+      this.store.store(new ByteArrayInputStream(data)).size()
+    );
+
+    final var ex =
+      assertThrows(IcHTTPErrorStatusException.class, () -> {
+        this.store.store(new ByteArrayInputStream(new byte[1001]));
+      });
+    assertEquals(413, ex.statusCode());
+    assertEquals(HTTP_SIZE_LIMIT, ex.errorCode());
+    assertEquals(1L, countFiles(this.directory));
+  }
+
+  /**
+   * Nonexistent content, and content named by other algorithms, cannot be
+   * opened.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testOpenNonexistent()
+    throws Exception
+  {
+    final var hash =
+      "2D8BD7D9BB5F85BA643F0110D50CB506A1FE439E769A22503193EA6046BB87F7";
+
+    assertEquals(
+      Optional.empty(),
+      this.store.open(new IcHash("SHA-256", hash))
+    );
+
+    this.store.store(new ByteArrayInputStream("Hello.".getBytes(UTF_8)));
+    assertEquals(
+      Optional.empty(),
+      this.store.open(new IcHash("SHA-512", hash))
+    );
+  }
+}
@@ -17,30 +17,74 @@
 
 package com.io7m.icatiro.tests;
 
+import com.io7m.icatiro.database.api.IcDatabaseException;
+import com.io7m.icatiro.database.api.IcDatabaseGroupsQueriesType;
 import com.io7m.icatiro.database.api.IcDatabaseProjectsQueriesType;
+import com.io7m.icatiro.database.api.IcDatabaseSavedSearchesQueriesType;
+import com.io7m.icatiro.database.api.IcDatabaseTicketImport;
+import com.io7m.icatiro.database.api.IcDatabaseTicketImportProgress;
+import com.io7m.icatiro.database.api.IcDatabaseTicketImportStage;
 import com.io7m.icatiro.database.api.IcDatabaseTicketsQueriesType;
 import com.io7m.icatiro.database.api.IcDatabaseUsersQueriesType;
+import com.io7m.icatiro.model.IcGroupName;
+import com.io7m.icatiro.model.IcHash;
 import com.io7m.icatiro.model.IcPermission;
 import com.io7m.icatiro.model.IcPermissionGlobal;
+import com.io7m.icatiro.model.IcPermissionProjectwide;
 import com.io7m.icatiro.model.IcPermissionSet;
+import com.io7m.icatiro.model.IcPermissionTicketwide;
+import com.io7m.icatiro.model.IcProjectID;
 import com.io7m.icatiro.model.IcProjectShortName;
 import com.io7m.icatiro.model.IcProjectTitle;
+import com.io7m.icatiro.model.IcSavedSearch;
+import com.io7m.icatiro.model.IcSavedSearchEntry;
+import com.io7m.icatiro.model.IcSavedSearchName;
+import com.io7m.icatiro.model.IcTicketAttachmentCreation;
+import com.io7m.icatiro.model.IcTicketChangeCursor;
+import com.io7m.icatiro.model.IcTicketChangeKind;
 import com.io7m.icatiro.model.IcTicketColumn;
 import com.io7m.icatiro.model.IcTicketColumnOrdering;
+import com.io7m.icatiro.model.IcTicketComment;
+import com.io7m.icatiro.model.IcTicketCommentCreation;
 import com.io7m.icatiro.model.IcTicketCreation;
+import com.io7m.icatiro.model.IcTicketExportItemType;
+import com.io7m.icatiro.model.IcTicketExported;
+import com.io7m.icatiro.model.IcTicketID;
 import com.io7m.icatiro.model.IcTicketSearch;
+import com.io7m.icatiro.model.IcTicketSearchProjection;
 import com.io7m.icatiro.model.IcTicketSummary;
+import com.io7m.icatiro.model.IcTicketSummaryType;
 import com.io7m.icatiro.model.IcTicketTitle;
+import com.io7m.icatiro.model.IcTicketUpdate;
 import com.io7m.icatiro.model.IcTimeRange;
 import com.io7m.icatiro.model.IcUser;
+import com.io7m.icatiro.model.IcUserPermission;
 import com.io7m.idstore.model.IdName;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.UUID;
 
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.GROUP_DUPLICATE;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.SAVED_SEARCH_DUPLICATE;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.TICKET_NONEXISTENT;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.TICKET_UPDATE_CONFLICT;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.USER_NONEXISTENT;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public final class IcDatabaseTicketsTest extends IcWithDatabaseContract
 {
@@ -103,7 +147,9 @@ public final class IcDatabaseTicketsTest extends IcWithDatabaseContract
           300,
           Optional.empty(),
           Optional.empty(),
-          Optional.empty()
+          Optional.empty(),
+          false,
+          IcTicketSearchProjection.FULL
         );
 
       final var search =
@@ -149,6 +195,98 @@ public final class IcDatabaseTicketsTest extends IcWithDatabaseContract
     });
   }
 
+  /**
+   * Ticket searches return summaries in the requested projection.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTicketSearchProjection()
+    throws Exception
+  {
+    this.withTransaction(transaction -> {
+      final var u =
+        transaction.queries(IcDatabaseUsersQueriesType.class);
+      final var p =
+        transaction.queries(IcDatabaseProjectsQueriesType.class);
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+      final var uid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        uid,
+        new IdName("x"),
+        List.of(),
+        IcPermissionSet.of(
+          List.of(
+            new IcPermissionGlobal(IcPermission.TICKET_READ),
+            new IcPermissionGlobal(IcPermission.TICKET_CREATE)
+          )
+        )
+      ));
+
+      transaction.userIdSet(uid);
+
+      final var project =
+        p.projectCreate(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT")
+        );
+
+      for (int index = 0; index < 10; ++index) {
+        t.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("Ticket %d".formatted(index)),
+            "Ticket description %d".formatted(index)
+          )
+        );
+      }
+
+      transaction.commit();
+
+      final var full =
+        t.ticketSearch(ticketSearchProjected(IcTicketSearchProjection.FULL))
+          .pageCurrent(t)
+          .items();
+
+      assertEquals(10, full.size());
+
+      for (final var projection : IcTicketSearchProjection.values()) {
+        final var items =
+          t.ticketSearch(ticketSearchProjected(projection))
+            .pageCurrent(t)
+            .items();
+
+        assertEquals(
+          full.stream()
+            .map(IcTicketSummary.class::cast)
+            .map(s -> s.project(projection))
+            .toList(),
+          items
+        );
+      }
+      return null;
+    });
+  }
+
+  private static IcTicketSearch ticketSearchProjected(
+    final IcTicketSearchProjection projection)
+  {
+    return new IcTicketSearch(
+      IcTimeRange.largest(),
+      IcTimeRange.largest(),
+      new IcTicketColumnOrdering(IcTicketColumn.BY_TITLE, true),
+      100,
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      false,
+      projection
+    );
+  }
+
   /**
    * Basic ticket fulltext title searches work.
    *
@@ -218,7 +356,9 @@ public final class IcDatabaseTicketsTest extends IcWithDatabaseContract
           300,
           Optional.of("fox"),
           Optional.empty(),
-          Optional.empty()
+          Optional.empty(),
+          false,
+          IcTicketSearchProjection.FULL
         );
 
       final var search =
@@ -315,7 +455,9 @@ public final class IcDatabaseTicketsTest extends IcWithDatabaseContract
           300,
           Optional.empty(),
           Optional.of("fox"),
-          Optional.empty()
+          Optional.empty(),
+          false,
+          IcTicketSearchProjection.FULL
         );
 
       final var search =
@@ -343,12 +485,2119 @@ public final class IcDatabaseTicketsTest extends IcWithDatabaseContract
     });
   }
 
+  /**
+   * Creating tickets and comments updates the project statistics.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testProjectStatistics()
+    throws Exception
+  {
+    this.withTransaction(transaction -> {
+      final var u =
+        transaction.queries(IcDatabaseUsersQueriesType.class);
+      final var p =
+        transaction.queries(IcDatabaseProjectsQueriesType.class);
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+      final var uid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        uid,
+        new IdName("x"),
+        List.of(),
+        IcPermissionSet.of(
+          List.of(
+            new IcPermissionGlobal(IcPermission.TICKET_READ),
+            new IcPermissionGlobal(IcPermission.TICKET_CREATE),
+            new IcPermissionGlobal(IcPermission.TICKET_COMMENT)
+          )
+        )
+      ));
+
+      transaction.userIdSet(uid);
+
+      final var project =
+        p.projectCreate(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT")
+        );
+
+      final var empty =
+        p.projectStatistics(project.id(), IcTimeRange.largest());
+      assertEquals(List.of(), empty.days());
+
+      for (int index = 0; index < 10; ++index) {
+        final var ticket =
+          t.ticketCreate(
+            new IcTicketCreation(
+              project.id(),
+              new IcTicketTitle("Ticket %d".formatted(index)),
+              "Ticket description %d".formatted(index)
+            )
+          );
+
+        if (index % 2 == 0) {
+          t.ticketCommentCreate(
+            new IcTicketCommentCreation(
+              ticket.ticketId(),
+              OptionalLong.empty(),
+              "Comment %d".formatted(index)
+            )
+          );
+        }
+
+        if (index % 3 == 0) {
+          t.ticketUpdate(
+            new IcTicketUpdate(
+              ticket.ticketId(),
+              1L,
+              new IcTicketTitle("Ticket %d (Updated)".formatted(index)),
+              "Ticket description %d (Updated)".formatted(index)
+            )
+          );
+        }
+      }
+
+      transaction.commit();
+
+      final var statistics =
+        p.projectStatistics(project.id(), IcTimeRange.largest());
+
+      assertEquals(project.id(), statistics.project());
+      assertEquals(1, statistics.days().size());
+
+      final var day = statistics.days().get(0);
+      assertEquals(LocalDate.of(1970, 1, 1), day.day());
+      assertEquals(10L, day.ticketsCreated());
+      assertEquals(4L, day.ticketsUpdated());
+      assertEquals(5L, day.commentsCreated());
+      return null;
+    });
+  }
+
+  /**
+   * Retrieving many tickets returns exactly the tickets that exist, with
+   * their comments.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTicketGetMany()
+    throws Exception
+  {
+    this.withTransaction(transaction -> {
+      final var u =
+        transaction.queries(IcDatabaseUsersQueriesType.class);
+      final var p =
+        transaction.queries(IcDatabaseProjectsQueriesType.class);
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+      final var uid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        uid,
+        new IdName("x"),
+        List.of(),
+        IcPermissionSet.of(
+          List.of(
+            new IcPermissionGlobal(IcPermission.TICKET_READ),
+            new IcPermissionGlobal(IcPermission.TICKET_CREATE),
+            new IcPermissionGlobal(IcPermission.TICKET_COMMENT)
+          )
+        )
+      ));
+
+      transaction.userIdSet(uid);
+
+      final var project =
+        p.projectCreate(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT")
+        );
+
+      final var ids = new ArrayList<IcTicketID>();
+      for (int index = 0; index < 5; ++index) {
+        final var ticket =
+          t.ticketCreate(
+            new IcTicketCreation(
+              project.id(),
+              new IcTicketTitle("Ticket %d".formatted(index)),
+              "Ticket description %d".formatted(index)
+            )
+          );
+
+        for (int c = 0; c < index; ++c) {
+          t.ticketCommentCreate(
+            new IcTicketCommentCreation(
+              ticket.ticketId(),
+              OptionalLong.empty(),
+              "Comment %d".formatted(c)
+            )
+          );
+        }
+        ids.add(ticket.ticketId());
+      }
+
+      final var missing =
+        new IcTicketID(project.id(), 1000L);
+      final var wrongProject =
+        new IcTicketID(
+          new IcProjectID(project.id().value() + 1L),
+          ids.get(0).value()
+        );
+
+      final var requested = new ArrayList<>(ids);
+      requested.add(missing);
+      requested.add(wrongProject);
+
+      final var tickets = t.ticketGetMany(requested);
+      assertEquals(5, tickets.size());
+      assertFalse(tickets.containsKey(missing));
+      assertFalse(tickets.containsKey(wrongProject));
+
+      for (int index = 0; index < 5; ++index) {
+        final var id = ids.get(index);
+        final var ticket = tickets.get(id);
+        assertEquals(t.ticketGetRequire(id), ticket);
+        assertEquals(index, ticket.comments().size());
+      }
+
+      assertEquals(Map.of(), t.ticketGetMany(List.of()));
+      return null;
+    });
+  }
+
+  /**
+   * The change log records ticket and comment creation, and can be read
+   * incrementally.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTicketChanges()
+    throws Exception
+  {
+    this.withTransaction(transaction -> {
+      final var u =
+        transaction.queries(IcDatabaseUsersQueriesType.class);
+      final var p =
+        transaction.queries(IcDatabaseProjectsQueriesType.class);
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+      final var uid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        uid,
+        new IdName("x"),
+        List.of(),
+        IcPermissionSet.of(
+          List.of(
+            new IcPermissionGlobal(IcPermission.TICKET_READ),
+            new IcPermissionGlobal(IcPermission.TICKET_CREATE),
+            new IcPermissionGlobal(IcPermission.TICKET_COMMENT)
+          )
+        )
+      ));
+
+      final var vid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        vid,
+        new IdName("y"),
+        List.of(),
+        IcPermissionSet.empty()
+      ));
+
+      transaction.userIdSet(uid);
+
+      final var project =
+        p.projectCreate(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT")
+        );
+
+      final var ticket0 =
+        t.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("Ticket 0"),
+            "Ticket description 0"
+          )
+        );
+
+      final var comment =
+        t.ticketCommentCreate(
+          new IcTicketCommentCreation(
+            ticket0.ticketId(),
+            OptionalLong.empty(),
+            "Comment 0"
+          )
+        );
+
+      final var ticket1 =
+        t.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("Ticket 1"),
+            "Ticket description 1"
+          )
+        );
+
+      /*
+       * Uncommitted changes are not visible. The transaction's own changes
+       * are held back because the transaction is still running.
+       */
+
+      final var uncommitted =
+        t.ticketChangesSince(IcTicketChangeCursor.start(), 100);
+      assertEquals(List.of(), uncommitted.changes());
+      assertEquals(IcTicketChangeCursor.start(), uncommitted.next());
+      assertTrue(uncommitted.stalledSince().isPresent());
+
+      transaction.commit();
+
+      final var page0 =
+        t.ticketChangesSince(IcTicketChangeCursor.start(), 2);
+      assertEquals(2, page0.changes().size());
+
+      final var c0 = page0.changes().get(0);
+      assertEquals(ticket0.ticketId(), c0.ticket());
+      assertEquals(IcTicketChangeKind.TICKET_CREATED, c0.kind());
+      assertEquals(OptionalLong.empty(), c0.comment());
+
+      final var c1 = page0.changes().get(1);
+      assertEquals(ticket0.ticketId(), c1.ticket());
+      assertEquals(IcTicketChangeKind.TICKET_COMMENT_CREATED, c1.kind());
+      assertEquals(OptionalLong.of(comment.commentId()), c1.comment());
+
+      final var page1 =
+        t.ticketChangesSince(page0.next(), 2);
+      assertEquals(1, page1.changes().size());
+
+      final var c2 = page1.changes().get(0);
+      assertEquals(ticket1.ticketId(), c2.ticket());
+      assertEquals(IcTicketChangeKind.TICKET_CREATED, c2.kind());
+
+      final var page2 =
+        t.ticketChangesSince(page1.next(), 2);
+      assertEquals(List.of(), page2.changes());
+      assertEquals(page1.next(), page2.next());
+      assertEquals(Optional.empty(), page2.stalledSince());
+
+      /*
+       * A user that cannot read the tickets sees no changes, but the
+       * cursor still advances.
+       */
+
+      transaction.userIdSet(vid);
+
+      final var hidden =
+        t.ticketChangesSince(IcTicketChangeCursor.start(), 100);
+      assertEquals(List.of(), hidden.changes());
+      assertEquals(page1.next(), hidden.next());
+      return null;
+    });
+  }
+
+  /**
+   * The revision of a ticket increases with each change.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTicketRevision()
+    throws Exception
+  {
+    this.withTransaction(transaction -> {
+      final var u =
+        transaction.queries(IcDatabaseUsersQueriesType.class);
+      final var p =
+        transaction.queries(IcDatabaseProjectsQueriesType.class);
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+      final var uid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        uid,
+        new IdName("x"),
+        List.of(),
+        IcPermissionSet.of(
+          List.of(
+            new IcPermissionGlobal(IcPermission.TICKET_CREATE),
+            new IcPermissionGlobal(IcPermission.TICKET_COMMENT)
+          )
+        )
+      ));
+
+      transaction.userIdSet(uid);
+
+      final var project =
+        p.projectCreate(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT")
+        );
+
+      final var ticket =
+        t.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("Ticket 0"),
+            "Ticket description 0"
+          )
+        );
+
+      assertEquals(1L, t.ticketRevision(ticket.ticketId()));
+
+      t.ticketCommentCreate(
+        new IcTicketCommentCreation(
+          ticket.ticketId(),
+          OptionalLong.empty(),
+          "Comment 0"
+        )
+      );
+
+      assertEquals(2L, t.ticketRevision(ticket.ticketId()));
+
+      final var ex =
+        assertThrows(IcDatabaseException.class, () -> {
+          t.ticketRevision(new IcTicketID(project.id(), 1000L));
+        });
+      assertEquals(TICKET_NONEXISTENT, ex.errorCode());
+      return null;
+    });
+  }
+
+  /**
+   * The version token of a ticket matches the token of the retrieved ticket,
+   * and changes with each change.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTicketVersionToken()
+    throws Exception
+  {
+    this.withTransaction(transaction -> {
+      final var u =
+        transaction.queries(IcDatabaseUsersQueriesType.class);
+      final var p =
+        transaction.queries(IcDatabaseProjectsQueriesType.class);
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+      final var uid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        uid,
+        new IdName("x"),
+        List.of(),
+        IcPermissionSet.of(
+          List.of(
+            new IcPermissionGlobal(IcPermission.TICKET_CREATE),
+            new IcPermissionGlobal(IcPermission.TICKET_COMMENT)
+          )
+        )
+      ));
+
+      transaction.userIdSet(uid);
+
+      final var project =
+        p.projectCreate(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT")
+        );
+
+      final var ticket =
+        t.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("Ticket 0"),
+            "Ticket description 0"
+          )
+        );
+
+      final var id = ticket.ticketId();
+      final var token0 = t.ticketVersionToken(id);
+      assertEquals(t.ticketGetRequire(id).versionToken(), token0);
+
+      t.ticketCommentCreate(
+        new IcTicketCommentCreation(id, OptionalLong.empty(), "Comment 0")
+      );
+
+      final var token1 = t.ticketVersionToken(id);
+      assertNotEquals(token0, token1);
+      assertEquals(t.ticketGetRequire(id).versionToken(), token1);
+
+      final var ex =
+        assertThrows(IcDatabaseException.class, () -> {
+          t.ticketVersionToken(new IcTicketID(project.id(), 1000L));
+        });
+      assertEquals(TICKET_NONEXISTENT, ex.errorCode());
+      return null;
+    });
+  }
+
+  /**
+   * Creating, retrieving, and listing ticket attachments works.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTicketAttachments()
+    throws Exception
+  {
+    this.withTransaction(transaction -> {
+      final var u =
+        transaction.queries(IcDatabaseUsersQueriesType.class);
+      final var p =
+        transaction.queries(IcDatabaseProjectsQueriesType.class);
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+      final var uid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        uid,
+        new IdName("x"),
+        List.of(),
+        IcPermissionSet.of(
+          List.of(
+            new IcPermissionGlobal(IcPermission.TICKET_CREATE),
+            new IcPermissionGlobal(IcPermission.TICKET_COMMENT)
+          )
+        )
+      ));
+
+      transaction.userIdSet(uid);
+
+      final var project =
+        p.projectCreate(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT")
+        );
+
+      final var ticket =
+        t.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("Ticket 0"),
+            "Ticket description 0"
+          )
+        );
+
+      final var id = ticket.ticketId();
+      final var hash =
+        new IcHash(
+          "SHA-256",
+          "E3B0C44298FC1C149AFBF4C8996FB92427AE41E4649B934CA495991B7852B855"
+        );
+
+      assertEquals(List.of(), t.ticketAttachmentList(id));
+
+      final var a0 =
+        t.ticketAttachmentCreate(
+          new IcTicketAttachmentCreation(id, "a.txt", "text/plain", 0L, hash)
+        );
+      final var a1 =
+        t.ticketAttachmentCreate(
+          new IcTicketAttachmentCreation(id, "b.txt", "text/plain", 0L, hash)
+        );
+
+      assertEquals(id, a0.ticket());
+      assertEquals("a.txt", a0.name());
+      assertEquals("text/plain", a0.contentType());
+      assertEquals(0L, a0.size());
+      assertEquals(hash, a0.hash());
+      assertEquals(uid, a0.owner());
+      assertNotEquals(a0.attachmentId(), a1.attachmentId());
+
+      assertEquals(Optional.of(a0), t.ticketAttachmentGet(id, a0.attachmentId()));
+      assertEquals(Optional.empty(), t.ticketAttachmentGet(id, 1000L));
+      assertEquals(List.of(a0, a1), t.ticketAttachmentList(id));
+
+      final var ex =
+        assertThrows(IcDatabaseException.class, () -> {
+          t.ticketAttachmentCreate(
+            new IcTicketAttachmentCreation(
+              new IcTicketID(project.id(), 1000L),
+              "c.txt",
+              "text/plain",
+              0L,
+              hash
+            )
+          );
+        });
+      assertEquals(TICKET_NONEXISTENT, ex.errorCode());
+      return null;
+    });
+  }
+
+  /**
+   * Exporting a project produces every live and archived ticket, each
+   * followed by its comments.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTicketExport()
+    throws Exception
+  {
+    final var tickets = new ArrayList<IcTicketID>();
+    final var comments = new ArrayList<IcTicketComment>();
+    final var uid = UUID.randomUUID();
+
+    final var projectId = this.withTransaction(transaction -> {
+      final var u =
+        transaction.queries(IcDatabaseUsersQueriesType.class);
+      final var p =
+        transaction.queries(IcDatabaseProjectsQueriesType.class);
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+      u.userPut(new IcUser(
+        uid,
+        new IdName("x"),
+        List.of(),
+        IcPermissionSet.of(
+          List.of(
+            new IcPermissionGlobal(IcPermission.TICKET_CREATE),
+            new IcPermissionGlobal(IcPermission.TICKET_COMMENT)
+          )
+        )
+      ));
+
+      transaction.userIdSet(uid);
+
+      final var project =
+        p.projectCreate(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT")
+        );
+      final var other =
+        p.projectCreate(
+          new IcProjectTitle("Other"),
+          new IcProjectShortName("OTHER")
+        );
+
+      for (int index = 0; index < 3; ++index) {
+        tickets.add(
+          t.ticketCreate(
+            new IcTicketCreation(
+              project.id(),
+              new IcTicketTitle("Ticket %d".formatted(index)),
+              "Ticket description %d".formatted(index)
+            )
+          ).ticketId()
+        );
+      }
+
+      t.ticketCreate(
+        new IcTicketCreation(
+          other.id(),
+          new IcTicketTitle("Other ticket"),
+          "Other ticket description"
+        )
+      );
+
+      final var comment0 =
+        t.ticketCommentCreate(
+          new IcTicketCommentCreation(
+            tickets.get(0), OptionalLong.empty(), "Comment 0")
+        );
+      final var comment1 =
+        t.ticketCommentCreate(
+          new IcTicketCommentCreation(
+            tickets.get(0), OptionalLong.of(comment0.commentId()), "Comment 1")
+        );
+      final var comment2 =
+        t.ticketCommentCreate(
+          new IcTicketCommentCreation(
+            tickets.get(2), OptionalLong.empty(), "Comment 2")
+        );
+
+      assertEquals(
+        1L,
+        t.ticketsArchive(OffsetDateTime.now().plusDays(1L), 1)
+      );
+
+      comments.addAll(List.of(comment0, comment1, comment2));
+      transaction.commit();
+      return project.id();
+    });
+
+    /*
+     * The export runs in a read-only transaction, in which writes fail.
+     */
+
+    this.withTransactionReadOnly(transaction -> {
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+      final var items = new ArrayList<IcTicketExportItemType>();
+      try (var export = t.ticketExport(projectId, 1)) {
+        while (true) {
+          final var item = export.next();
+          if (item.isEmpty()) {
+            break;
+          }
+          items.add(item.get());
+        }
+      }
+
+      assertEquals(6, items.size());
+
+      final var ticket0 = assertInstanceOf(IcTicketExported.class, items.get(0));
+      assertEquals(tickets.get(0), ticket0.id());
+      assertEquals("Ticket description 0", ticket0.description());
+      assertTrue(ticket0.archived());
+
+      assertEquals(comments.get(0), items.get(1));
+      assertEquals(comments.get(1), items.get(2));
+
+      final var ticket1 = assertInstanceOf(IcTicketExported.class, items.get(3));
+      assertEquals(tickets.get(1), ticket1.id());
+      assertFalse(ticket1.archived());
+
+      final var ticket2 = assertInstanceOf(IcTicketExported.class, items.get(4));
+      assertEquals(tickets.get(2), ticket2.id());
+      assertEquals(comments.get(2), items.get(5));
+
+      transaction.userIdSet(uid);
+      assertThrows(IcDatabaseException.class, () -> {
+        t.ticketCommentCreate(
+          new IcTicketCommentCreation(
+            tickets.get(1), OptionalLong.empty(), "Comment 3")
+        );
+      });
+      return null;
+    });
+  }
+
+  /**
+   * Tickets, comments, and permissions can be imported in bulk, and are
+   * assigned new IDs in input order.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTicketsImport()
+    throws Exception
+  {
+    this.withTransaction(transaction -> {
+      final var u =
+        transaction.queries(IcDatabaseUsersQueriesType.class);
+      final var p =
+        transaction.queries(IcDatabaseProjectsQueriesType.class);
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+      final var s =
+        transaction.queries(IcDatabaseSavedSearchesQueriesType.class);
+
+      final var uid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        uid,
+        new IdName("x"),
+        List.of(),
+        IcPermissionSet.empty()
+      ));
+      final var vid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        vid,
+        new IdName("y"),
+        List.of(),
+        IcPermissionSet.empty()
+      ));
+
+      transaction.userIdSet(vid);
+
+      final var name = new IcSavedSearchName("all");
+      s.savedSearchCreate(
+        new IcSavedSearch(
+          name,
+          IcTimeRange.largest(),
+          IcTimeRange.largest(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty()
+        )
+      );
+
+      transaction.userIdSet(uid);
+
+      final var project =
+        p.projectCreate(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT")
+        );
+
+      final var ticketsCsv = """
+        id,title,description,reporter,time_created,time_updated
+        L-2,"Ticket, imported",Description 2,%1$s,2020-01-01T00:00:00Z,2020-01-02T00:00:00Z
+        L-1,Ticket 1,Description 1,%2$s,2020-01-01T12:00:00Z,2020-01-01T12:00:00Z
+        """.formatted(uid, vid);
+
+      final var commentsCsv = """
+        id,ticket,replied_to,owner,text,time
+        C-2,L-1,C-1,%1$s,Reply,2020-01-03T00:00:00Z
+        C-1,L-1,,%2$s,"Comment
+        with a line break",2020-01-02T00:00:00Z
+        C-3,L-2,,%1$s,Other,2020-01-03T00:00:00Z
+        """.formatted(uid, vid);
+
+      final var permissionsCsv = """
+        ticket,user,permission
+        L-2,%1$s,1
+        L-2,%1$s,1
+        L-2,%1$s,4
+        """.formatted(vid);
+
+      final var progress =
+        new ArrayList<IcDatabaseTicketImportProgress>();
+      final var result =
+        t.ticketsImport(
+          new IcDatabaseTicketImport(
+            project.id(),
+            new ByteArrayInputStream(ticketsCsv.getBytes(UTF_8)),
+            new ByteArrayInputStream(commentsCsv.getBytes(UTF_8)),
+            Optional.of(new ByteArrayInputStream(permissionsCsv.getBytes(UTF_8)))
+          ),
+          progress::add
+        );
+
+      assertEquals(2L, result.tickets());
+      assertEquals(3L, result.comments());
+      assertEquals(2L, result.permissions());
+      assertEquals(
+        List.of(
+          IcDatabaseTicketImportStage.COPYING_TICKETS,
+          IcDatabaseTicketImportStage.COPYING_COMMENTS,
+          IcDatabaseTicketImportStage.COPYING_PERMISSIONS,
+          IcDatabaseTicketImportStage.MERGING_TICKETS,
+          IcDatabaseTicketImportStage.MERGING_COMMENTS,
+          IcDatabaseTicketImportStage.MERGING_PERMISSIONS
+        ),
+        progress.stream()
+          .map(IcDatabaseTicketImportProgress::stage)
+          .toList()
+      );
+      assertEquals(3L, progress.get(1).rows());
+
+      final var items = new ArrayList<IcTicketExportItemType>();
+      try (var export = t.ticketExport(project.id(), 100)) {
+        while (true) {
+          final var item = export.next();
+          if (item.isEmpty()) {
+            break;
+          }
+          items.add(item.get());
+        }
+      }
+
+      assertEquals(5, items.size());
+
+      final var ticket0 =
+        assertInstanceOf(IcTicketExported.class, items.get(0));
+      assertEquals("Ticket, imported", ticket0.title().value());
+      assertEquals(uid, ticket0.reporter());
+
+      final var comment0 =
+        assertInstanceOf(IcTicketComment.class, items.get(1));
+      assertEquals("Other", comment0.text());
+
+      final var ticket1 =
+        assertInstanceOf(IcTicketExported.class, items.get(2));
+      assertEquals("Ticket 1", ticket1.title().value());
+      assertEquals(vid, ticket1.reporter());
+      assertTrue(ticket0.id().value() < ticket1.id().value());
+
+      final var reply =
+        assertInstanceOf(IcTicketComment.class, items.get(3));
+      final var comment1 =
+        assertInstanceOf(IcTicketComment.class, items.get(4));
+      assertEquals("Reply", reply.text());
+      assertEquals("Comment\nwith a line break", comment1.text());
+      assertEquals(OptionalLong.of(comment1.commentId()), reply.commentRepliedTo());
+
+      final var permissions =
+        u.userGetRequire(vid).permissions();
+      assertTrue(permissions.implies(ticket0.id(), IcPermission.TICKET_READ));
+      assertTrue(permissions.implies(ticket0.id(), IcPermission.TICKET_COMMENT));
+      assertFalse(permissions.implies(ticket0.id(), IcPermission.TICKET_WRITE));
+
+      /*
+       * The saved search of the second user contains the ticket they
+       * reported, and the ticket they were granted permission to read.
+       */
+
+      transaction.userIdSet(vid);
+      final var results = s.savedSearchResults(name, 0L, 100);
+      assertEquals(
+        List.of(
+          new IcSavedSearchEntry(ticket0.id(), false),
+          new IcSavedSearchEntry(ticket1.id(), false)
+        ),
+        results.entries()
+      );
+      assertEquals(2L, results.revision());
+      return null;
+    });
+  }
+
+  /**
+   * Imports that refer to nonexistent tickets fail, and import nothing.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTicketsImportNonexistentTicket()
+    throws Exception
+  {
+    this.withTransaction(transaction -> {
+      final var u =
+        transaction.queries(IcDatabaseUsersQueriesType.class);
+      final var p =
+        transaction.queries(IcDatabaseProjectsQueriesType.class);
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+      final var uid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        uid,
+        new IdName("x"),
+        List.of(),
+        IcPermissionSet.empty()
+      ));
+
+      transaction.userIdSet(uid);
+
+      final var project =
+        p.projectCreate(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT")
+        );
+
+      final var ticketsCsv = """
+        id,title,description,reporter,time_created,time_updated
+        L-1,Ticket 1,Description 1,%1$s,2020-01-01T12:00:00Z,2020-01-01T12:00:00Z
+        """.formatted(uid);
+
+      final var commentsCsv = """
+        id,ticket,replied_to,owner,text,time
+        C-1,L-2,,%1$s,Comment,2020-01-02T00:00:00Z
+        """.formatted(uid);
+
+      final var ex =
+        assertThrows(IcDatabaseException.class, () -> {
+          t.ticketsImport(
+            new IcDatabaseTicketImport(
+              project.id(),
+              new ByteArrayInputStream(ticketsCsv.getBytes(UTF_8)),
+              new ByteArrayInputStream(commentsCsv.getBytes(UTF_8)),
+              Optional.empty()
+            ),
+            x -> {
+
+            }
+          );
+        });
+
+      assertEquals(TICKET_NONEXISTENT, ex.errorCode());
+      assertEquals(
+        0L,
+        t.ticketSearch(ticketSearchProjected(IcTicketSearchProjection.FULL))
+          .pageCurrent(t)
+          .items()
+          .size()
+      );
+      return null;
+    });
+  }
+
+  /**
+   * Tickets can be updated, and updates based on stale versions, or made
+   * concurrently with another update, fail without waiting.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTicketUpdate()
+    throws Exception
+  {
+    this.withTransaction(transaction -> {
+      final var u =
+        transaction.queries(IcDatabaseUsersQueriesType.class);
+      final var p =
+        transaction.queries(IcDatabaseProjectsQueriesType.class);
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+      final var uid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        uid,
+        new IdName("x"),
+        List.of(),
+        IcPermissionSet.of(
+          List.of(new IcPermissionGlobal(IcPermission.TICKET_CREATE))
+        )
+      ));
+
+      transaction.userIdSet(uid);
+
+      final var project =
+        p.projectCreate(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT")
+        );
+
+      final var ticketId =
+        t.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("Ticket 0"),
+            "Ticket description 0"
+          )
+        ).ticketId();
+
+      assertEquals(1L, t.ticketGetRequire(ticketId).version());
+
+      final var updated =
+        t.ticketUpdate(
+          new IcTicketUpdate(
+            ticketId,
+            1L,
+            new IcTicketTitle("Ticket 0 (Updated)"),
+            "Ticket description 0 (Updated)"
+          )
+        );
+
+      assertEquals(2L, updated.version());
+      assertEquals("Ticket 0 (Updated)", updated.title().value());
+      assertEquals("Ticket description 0 (Updated)", updated.description());
+      assertEquals(2L, t.ticketRevision(ticketId));
+
+      {
+        final var ex =
+          assertThrows(IcDatabaseException.class, () -> {
+            t.ticketUpdate(
+              new IcTicketUpdate(
+                ticketId,
+                1L,
+                new IcTicketTitle("Stale"),
+                "Stale"
+              )
+            );
+          });
+        assertEquals(TICKET_UPDATE_CONFLICT, ex.errorCode());
+      }
+
+      {
+        final var ex =
+          assertThrows(IcDatabaseException.class, () -> {
+            t.ticketUpdate(
+              new IcTicketUpdate(
+                new IcTicketID(project.id(), 1000L),
+                1L,
+                new IcTicketTitle("Missing"),
+                "Missing"
+              )
+            );
+          });
+        assertEquals(TICKET_NONEXISTENT, ex.errorCode());
+      }
+
+      transaction.commit();
+
+      final var changes =
+        t.ticketChangesSince(IcTicketChangeCursor.start(), 100);
+      assertEquals(
+        IcTicketChangeKind.TICKET_UPDATED,
+        changes.changes().get(1).kind()
+      );
+
+      /*
+       * An update that is not yet committed holds the row, and a concurrent
+       * update of the same ticket fails immediately.
+       */
+
+      t.ticketUpdate(
+        new IcTicketUpdate(
+          ticketId,
+          2L,
+          new IcTicketTitle("Ticket 0 (Editor A)"),
+          "Editor A"
+        )
+      );
+
+      this.withTransaction(other -> {
+        other.userIdSet(uid);
+
+        final var ex =
+          assertThrows(IcDatabaseException.class, () -> {
+            other.queries(IcDatabaseTicketsQueriesType.class)
+              .ticketUpdate(
+                new IcTicketUpdate(
+                  ticketId,
+                  2L,
+                  new IcTicketTitle("Ticket 0 (Editor B)"),
+                  "Editor B"
+                )
+              );
+          });
+        assertEquals(TICKET_UPDATE_CONFLICT, ex.errorCode());
+        return null;
+      });
+
+      transaction.commit();
+      assertEquals(3L, t.ticketGetRequire(ticketId).version());
+      return null;
+    });
+  }
+
+  /**
+   * Archived tickets are moved out of the live tables, but can still be
+   * retrieved, and are returned by searches that request them.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTicketsArchive()
+    throws Exception
+  {
+    this.withTransaction(transaction -> {
+      final var u =
+        transaction.queries(IcDatabaseUsersQueriesType.class);
+      final var p =
+        transaction.queries(IcDatabaseProjectsQueriesType.class);
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+      final var uid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        uid,
+        new IdName("x"),
+        List.of(),
+        IcPermissionSet.of(
+          List.of(new IcPermissionGlobal(IcPermission.TICKET_CREATE))
+        )
+      ));
+
+      transaction.userIdSet(uid);
+
+      final var project =
+        p.projectCreate(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT")
+        );
+
+      final var ticket0 =
+        t.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("Ticket 0"),
+            "Ticket description 0"
+          )
+        ).ticketId();
+      final var ticket1 =
+        t.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("Ticket 1"),
+            "Ticket description 1"
+          )
+        ).ticketId();
+
+      t.ticketCommentCreate(
+        new IcTicketCommentCreation(
+          ticket0,
+          OptionalLong.empty(),
+          "Comment 0"
+        )
+      );
+
+      final var other = UUID.randomUUID();
+      u.userPut(new IcUser(
+        other,
+        new IdName("z"),
+        List.of(),
+        IcPermissionSet.empty()
+      ));
+
+      final var read0 =
+        new IcPermissionTicketwide(ticket0, IcPermission.TICKET_READ);
+      u.userPermissionsAdd(other, List.of(read0));
+
+      final var before = t.ticketGetRequire(ticket0);
+      final var revision = t.ticketRevision(ticket0);
+
+      /*
+       * Nothing is old enough to be archived.
+       */
+
+      assertEquals(
+        0L,
+        t.ticketsArchive(before.timeCreated().minusDays(1L), 100)
+      );
+
+      /*
+       * The oldest ticket is archived first.
+       */
+
+      assertEquals(
+        1L,
+        t.ticketsArchive(before.timeCreated().plusDays(1L), 1)
+      );
+
+      assertEquals(before, t.ticketGetRequire(ticket0));
+      assertEquals(revision, t.ticketRevision(ticket0));
+      assertTrue(t.ticketExists(ticket0));
+      assertEquals(
+        Map.of(ticket0, before),
+        t.ticketGetMany(List.of(ticket0))
+      );
+      assertEquals(
+        Set.of(ticket0, ticket1),
+        t.ticketGetMany(List.of(ticket0, ticket1)).keySet()
+      );
+
+      /*
+       * Archived tickets cannot be commented upon.
+       */
+
+      {
+        final var ex =
+          assertThrows(IcDatabaseException.class, () -> {
+            t.ticketCommentCreate(
+              new IcTicketCommentCreation(
+                ticket0,
+                OptionalLong.empty(),
+                "Comment 1"
+              )
+            );
+          });
+        assertEquals(TICKET_NONEXISTENT, ex.errorCode());
+      }
+
+      /*
+       * Archived tickets retain their permissions.
+       */
+
+      assertEquals(
+        List.of(read0),
+        u.userTicketPermissions(other, List.of(ticket0))
+          .stream()
+          .toList()
+      );
+      assertTrue(
+        u.userTicketPermissions(uid, List.of(ticket0))
+          .implies(ticket0, IcPermission.TICKET_WRITE)
+      );
+
+      /*
+       * Archived tickets are only returned by searches that request them.
+       */
+
+      final var live =
+        t.ticketSearch(ticketSearchArchived(false))
+          .pageCurrent(t)
+          .items()
+          .stream()
+          .map(IcTicketSummaryType::ticketId)
+          .toList();
+
+      assertEquals(List.of(ticket1), live);
+
+      final var all =
+        t.ticketSearch(ticketSearchArchived(true))
+          .pageCurrent(t)
+          .items()
+          .stream()
+          .map(IcTicketSummaryType::ticketId)
+          .toList();
+
+      assertEquals(List.of(ticket0, ticket1), all);
+
+      transaction.userIdSet(other);
+
+      final var allOther =
+        t.ticketSearch(ticketSearchArchived(true))
+          .pageCurrent(t)
+          .items()
+          .stream()
+          .map(IcTicketSummaryType::ticketId)
+          .toList();
+
+      assertEquals(List.of(ticket0), allOther);
+      return null;
+    });
+  }
+
+  private static IcTicketSearch ticketSearchArchived(
+    final boolean includeArchived)
+  {
+    return new IcTicketSearch(
+      IcTimeRange.largest(),
+      IcTimeRange.largest(),
+      new IcTicketColumnOrdering(IcTicketColumn.BY_ID, true),
+      100,
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      includeArchived,
+      IcTicketSearchProjection.FULL
+    );
+  }
+
+  /**
+   * Ticketwide permissions can be loaded separately from a user.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUserTicketPermissions()
+    throws Exception
+  {
+    this.withTransaction(transaction -> {
+      final var u =
+        transaction.queries(IcDatabaseUsersQueriesType.class);
+      final var p =
+        transaction.queries(IcDatabaseProjectsQueriesType.class);
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+      final var uid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        uid,
+        new IdName("x"),
+        List.of(),
+        IcPermissionSet.of(
+          List.of(new IcPermissionGlobal(IcPermission.TICKET_CREATE))
+        )
+      ));
+
+      transaction.userIdSet(uid);
+
+      final var project =
+        p.projectCreate(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT")
+        );
+
+      final var ticket0 =
+        t.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("Ticket 0"),
+            "Ticket description 0"
+          )
+        );
+      final var ticket1 =
+        t.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("Ticket 1"),
+            "Ticket description 1"
+          )
+        );
+
+      /*
+       * The permissions are checked for a user other than the reporter, as
+       * the reporter implicitly holds ticketwide permissions.
+       */
+
+      final var other = UUID.randomUUID();
+      u.userPut(new IcUser(
+        other,
+        new IdName("z"),
+        List.of(),
+        IcPermissionSet.empty()
+      ));
+
+      final var read0 =
+        new IcPermissionTicketwide(ticket0.ticketId(), IcPermission.TICKET_READ);
+      final var read1 =
+        new IcPermissionTicketwide(ticket1.ticketId(), IcPermission.TICKET_READ);
+      final var projectRead =
+        new IcPermissionProjectwide(project.id(), IcPermission.TICKET_READ);
+
+      u.userPermissionsAdd(other, List.of(read0, read1, projectRead));
+      u.userPermissionsAdd(other, List.of(read0, projectRead));
+
+      final var full = u.userGetRequire(other);
+      assertEquals(3L, full.permissions().stream().count());
+
+      final var summary =
+        u.userGetWithoutTicketPermissions(other).orElseThrow();
+      assertEquals(
+        List.of(projectRead),
+        summary.permissions().stream().toList()
+      );
+
+      assertEquals(
+        List.of(read0),
+        u.userTicketPermissions(other, List.of(ticket0.ticketId()))
+          .stream()
+          .toList()
+      );
+      assertEquals(
+        List.of(read0, read1),
+        u.userTicketPermissions(
+            other,
+            List.of(ticket0.ticketId(), ticket1.ticketId()))
+          .stream()
+          .toList()
+      );
+
+      /*
+       * Updating the identity of the user does not affect permissions.
+       */
+
+      u.userIdentityPut(new IcUser(
+        other,
+        new IdName("y"),
+        List.of(),
+        IcPermissionSet.empty()
+      ));
+
+      final var renamed = u.userGetRequire(other);
+      assertEquals(new IdName("y"), renamed.name());
+      assertEquals(full.permissions(), renamed.permissions());
+      return null;
+    });
+  }
+
+  /**
+   * Permissions can be granted to and revoked from many users at once.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUsersPermissionsBulk()
+    throws Exception
+  {
+    this.withTransaction(transaction -> {
+      final var u =
+        transaction.queries(IcDatabaseUsersQueriesType.class);
+      final var p =
+        transaction.queries(IcDatabaseProjectsQueriesType.class);
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+      final var admin = UUID.randomUUID();
+      u.userPut(new IcUser(
+        admin,
+        new IdName("x"),
+        List.of(),
+        IcPermissionSet.of(
+          List.of(new IcPermissionGlobal(IcPermission.TICKET_CREATE))
+        )
+      ));
+
+      final var users = new ArrayList<UUID>();
+      for (int index = 0; index < 3; ++index) {
+        final var id = UUID.randomUUID();
+        u.userPut(new IcUser(
+          id,
+          new IdName("u" + index),
+          List.of(),
+          IcPermissionSet.empty()
+        ));
+        users.add(id);
+      }
+
+      transaction.userIdSet(admin);
+
+      final var project =
+        p.projectCreate(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT")
+        );
+
+      final var ticket =
+        t.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("Ticket 0"),
+            "Ticket description 0"
+          )
+        );
+
+      final var global =
+        new IcPermissionGlobal(IcPermission.TICKET_READ);
+      final var projectwide =
+        new IcPermissionProjectwide(project.id(), IcPermission.TICKET_WRITE);
+      final var ticketwide =
+        new IcPermissionTicketwide(ticket.ticketId(), IcPermission.TICKET_COMMENT);
+
+      final var grants = new ArrayList<IcUserPermission>();
+      for (final var user : users) {
+        grants.add(new IcUserPermission(user, global));
+        grants.add(new IcUserPermission(user, projectwide));
+        grants.add(new IcUserPermission(user, ticketwide));
+        grants.add(new IcUserPermission(user, ticketwide));
+      }
+
+      u.usersPermissionsAdd(grants);
+      u.usersPermissionsAdd(grants);
+
+      for (final var user : users) {
+        assertEquals(
+          List.of(global, projectwide, ticketwide),
+          u.userGetRequire(user).permissions().stream().toList()
+        );
+      }
+
+      u.usersPermissionsRemove(
+        List.of(
+          new IcUserPermission(users.get(0), global),
+          new IcUserPermission(users.get(1), ticketwide),
+          new IcUserPermission(users.get(2), projectwide),
+          new IcUserPermission(users.get(2), projectwide)
+        )
+      );
+
+      assertEquals(
+        List.of(projectwide, ticketwide),
+        u.userGetRequire(users.get(0)).permissions().stream().toList()
+      );
+      assertEquals(
+        List.of(global, projectwide),
+        u.userGetRequire(users.get(1)).permissions().stream().toList()
+      );
+      assertEquals(
+        List.of(global, ticketwide),
+        u.userGetRequire(users.get(2)).permissions().stream().toList()
+      );
+
+      final var ex =
+        assertThrows(IcDatabaseException.class, () -> {
+          u.usersPermissionsAdd(
+            List.of(new IcUserPermission(UUID.randomUUID(), global))
+          );
+        });
+      assertEquals(USER_NONEXISTENT, ex.errorCode());
+      return null;
+    });
+  }
+
+  /**
+   * Permissions are held through groups and as the reporter of tickets.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testGroupAndReporterPermissions()
+    throws Exception
+  {
+    this.withTransaction(transaction -> {
+      final var u =
+        transaction.queries(IcDatabaseUsersQueriesType.class);
+      final var g =
+        transaction.queries(IcDatabaseGroupsQueriesType.class);
+      final var p =
+        transaction.queries(IcDatabaseProjectsQueriesType.class);
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+
+      final var reporter = UUID.randomUUID();
+      u.userPut(new IcUser(
+        reporter,
+        new IdName("x"),
+        List.of(),
+        IcPermissionSet.of(
+          List.of(new IcPermissionGlobal(IcPermission.TICKET_CREATE))
+        )
+      ));
+
+      final var other = UUID.randomUUID();
+      u.userPut(new IcUser(
+        other,
+        new IdName("z"),
+        List.of(),
+        IcPermissionSet.empty()
+      ));
+
+      transaction.userIdSet(reporter);
+
+      final var project =
+        p.projectCreate(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT")
+        );
+
+      final var ticket =
+        t.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("Ticket 0"),
+            "Ticket description 0"
+          )
+        );
+
+      /*
+       * The reporter implicitly holds permissions for the ticket.
+       */
+
+      final var reporterPermissions =
+        u.userGetRequire(reporter).permissions();
+
+      for (final var permission : IcPermissionSet.reporterPermissions()) {
+        assertTrue(reporterPermissions.implies(ticket.ticketId(), permission));
+        assertTrue(
+          u.userTicketPermissions(reporter, List.of(ticket.ticketId()))
+            .implies(ticket.ticketId(), permission)
+        );
+      }
+
+      final var parameters =
+        new IcTicketSearch(
+          IcTimeRange.largest(),
+          IcTimeRange.largest(),
+          new IcTicketColumnOrdering(IcTicketColumn.BY_ID, true),
+          100,
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          false,
+          IcTicketSearchProjection.FULL
+        );
+
+      assertEquals(
+        1,
+        t.ticketSearch(parameters).pageCurrent(t).items().size()
+      );
+
+      /*
+       * Another user cannot see the ticket until they join a group that
+       * can.
+       */
+
+      transaction.userIdSet(other);
+      assertEquals(
+        0,
+        t.ticketSearch(parameters).pageCurrent(t).items().size()
+      );
+
+      final var projectRead =
+        new IcPermissionProjectwide(project.id(), IcPermission.TICKET_READ);
+      final var ticketComment =
+        new IcPermissionTicketwide(
+          ticket.ticketId(),
+          IcPermission.TICKET_COMMENT);
+
+      final var group =
+        g.groupCreate(new IcGroupName("readers"));
+      g.groupPermissionsAdd(group.id(), List.of(projectRead, ticketComment));
+      g.groupPermissionsAdd(group.id(), List.of(projectRead));
+      g.groupMemberAdd(group.id(), other);
+      g.groupMemberAdd(group.id(), other);
+
+      assertEquals(List.of(other), g.groupMembers(group.id()));
+      assertEquals(
+        List.of(projectRead),
+        u.userGetWithoutTicketPermissions(other)
+          .orElseThrow()
+          .permissions()
+          .stream()
+          .toList()
+      );
+      assertEquals(
+        List.of(ticketComment),
+        u.userTicketPermissions(other, List.of(ticket.ticketId()))
+          .stream()
+          .toList()
+      );
+      assertEquals(
+        1,
+        t.ticketSearch(parameters).pageCurrent(t).items().size()
+      );
+
+      /*
+       * Group permissions are not stored as grants to the user.
+       */
+
+      u.userPut(u.userGetRequire(other));
+      g.groupMemberRemove(group.id(), other);
+
+      assertEquals(
+        IcPermissionSet.empty(),
+        u.userGetRequire(other).permissions()
+      );
+      assertEquals(
+        0,
+        t.ticketSearch(parameters).pageCurrent(t).items().size()
+      );
+
+      final var ex =
+        assertThrows(IcDatabaseException.class, () -> {
+          g.groupCreate(new IcGroupName("readers"));
+        });
+      assertEquals(GROUP_DUPLICATE, ex.errorCode());
+      return null;
+    });
+  }
+
+  /**
+   * Saved searches record removals when tickets stop matching, and deliver
+   * entries for tickets the owner can no longer read as removals.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSavedSearchRemovals()
+    throws Exception
+  {
+    this.withTransaction(transaction -> {
+      final var u =
+        transaction.queries(IcDatabaseUsersQueriesType.class);
+      final var p =
+        transaction.queries(IcDatabaseProjectsQueriesType.class);
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+      final var s =
+        transaction.queries(IcDatabaseSavedSearchesQueriesType.class);
+
+      final var uid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        uid,
+        new IdName("x"),
+        List.of(),
+        IcPermissionSet.of(
+          List.of(new IcPermissionGlobal(IcPermission.TICKET_READ))
+        )
+      ));
+
+      final var vid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        vid,
+        new IdName("y"),
+        List.of(),
+        IcPermissionSet.of(
+          List.of(new IcPermissionGlobal(IcPermission.TICKET_CREATE))
+        )
+      ));
+
+      transaction.userIdSet(vid);
+
+      final var project =
+        p.projectCreate(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT")
+        );
+
+      final var ticket0 =
+        t.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("The quick brown fox."),
+            "Description."
+          )
+        );
+      final var ticket1 =
+        t.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("Another fox."),
+            "Description."
+          )
+        );
+
+      transaction.userIdSet(uid);
+
+      final var name = new IcSavedSearchName("foxes");
+      s.savedSearchCreate(
+        new IcSavedSearch(
+          name,
+          IcTimeRange.largest(),
+          IcTimeRange.largest(),
+          Optional.of("fox"),
+          Optional.empty(),
+          Optional.empty()
+        )
+      );
+
+      final var results0 = s.savedSearchResults(name, 0L, 100);
+      assertEquals(
+        List.of(
+          new IcSavedSearchEntry(ticket0.ticketId(), false),
+          new IcSavedSearchEntry(ticket1.ticketId(), false)
+        ),
+        results0.entries()
+      );
+
+      transaction.userIdSet(vid);
+      t.ticketUpdate(
+        new IcTicketUpdate(
+          ticket0.ticketId(),
+          1L,
+          new IcTicketTitle("The lazy dog."),
+          "Description."
+        )
+      );
+
+      transaction.userIdSet(uid);
+      final var results1 =
+        s.savedSearchResults(name, results0.revision(), 100);
+      assertEquals(
+        List.of(new IcSavedSearchEntry(ticket0.ticketId(), true)),
+        results1.entries()
+      );
+
+      /*
+       * The owner of the search loses the permission to read tickets. This
+       * removes the remaining ticket from the search, and the removal is
+       * delivered even though the owner cannot read the ticket.
+       */
+
+      u.userPut(new IcUser(uid, new IdName("x"), List.of(), IcPermissionSet.empty()));
+
+      transaction.userIdSet(vid);
+      t.ticketUpdate(
+        new IcTicketUpdate(
+          ticket1.ticketId(),
+          1L,
+          new IcTicketTitle("Another fox (Updated)."),
+          "Description."
+        )
+      );
+
+      transaction.userIdSet(uid);
+      final var results2 =
+        s.savedSearchResults(name, results1.revision(), 100);
+      assertEquals(
+        List.of(new IcSavedSearchEntry(ticket1.ticketId(), true)),
+        results2.entries()
+      );
+      assertEquals(List.of(), s.savedSearchResults(name, 0L, 100).entries());
+      return null;
+    });
+  }
+
+  /**
+   * Saved search results are maintained as tickets are created.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSavedSearch()
+    throws Exception
+  {
+    this.withTransaction(transaction -> {
+      final var u =
+        transaction.queries(IcDatabaseUsersQueriesType.class);
+      final var p =
+        transaction.queries(IcDatabaseProjectsQueriesType.class);
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+      final var s =
+        transaction.queries(IcDatabaseSavedSearchesQueriesType.class);
+
+      final var uid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        uid,
+        new IdName("x"),
+        List.of(),
+        IcPermissionSet.of(
+          List.of(
+            new IcPermissionGlobal(IcPermission.TICKET_READ),
+            new IcPermissionGlobal(IcPermission.TICKET_CREATE)
+          )
+        )
+      ));
+
+      transaction.userIdSet(uid);
+
+      final var project =
+        p.projectCreate(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT")
+        );
+
+      final var existing =
+        t.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("The quick brown fox."),
+            "Description."
+          )
+        );
+
+      t.ticketCreate(
+        new IcTicketCreation(
+          project.id(),
+          new IcTicketTitle("The lazy dog."),
+          "Description."
+        )
+      );
+
+      final var name = new IcSavedSearchName("foxes");
+      s.savedSearchCreate(
+        new IcSavedSearch(
+          name,
+          IcTimeRange.largest(),
+          IcTimeRange.largest(),
+          Optional.of("fox"),
+          Optional.empty(),
+          Optional.empty()
+        )
+      );
+
+      final var results0 = s.savedSearchResults(name, 0L, 100);
+      assertEquals(
+        List.of(new IcSavedSearchEntry(existing.ticketId(), false)),
+        results0.entries()
+      );
+
+      final var created =
+        t.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("Another fox."),
+            "Description."
+          )
+        );
+
+      t.ticketCreate(
+        new IcTicketCreation(
+          project.id(),
+          new IcTicketTitle("Another dog."),
+          "Description."
+        )
+      );
+
+      final var results1 =
+        s.savedSearchResults(name, results0.revision(), 100);
+      assertEquals(
+        List.of(new IcSavedSearchEntry(created.ticketId(), false)),
+        results1.entries()
+      );
+
+      final var results2 =
+        s.savedSearchResults(name, results1.revision(), 100);
+      assertEquals(List.of(), results2.entries());
+      assertEquals(results1.revision(), results2.revision());
+
+      final var ex =
+        assertThrows(IcDatabaseException.class, () -> {
+          s.savedSearchCreate(
+            new IcSavedSearch(
+              name,
+              IcTimeRange.largest(),
+              IcTimeRange.largest(),
+              Optional.empty(),
+              Optional.empty(),
+              Optional.empty()
+            )
+          );
+        });
+      assertEquals(SAVED_SEARCH_DUPLICATE, ex.errorCode());
+      return null;
+    });
+  }
+
+  /**
+   * Saved search results can be retrieved in pages smaller than the number
+   * of tickets initially matched by the search.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSavedSearchPaging()
+    throws Exception
+  {
+    this.withTransaction(transaction -> {
+      final var u =
+        transaction.queries(IcDatabaseUsersQueriesType.class);
+      final var p =
+        transaction.queries(IcDatabaseProjectsQueriesType.class);
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+      final var s =
+        transaction.queries(IcDatabaseSavedSearchesQueriesType.class);
+
+      final var uid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        uid,
+        new IdName("x"),
+        List.of(),
+        IcPermissionSet.of(
+          List.of(
+            new IcPermissionGlobal(IcPermission.TICKET_READ),
+            new IcPermissionGlobal(IcPermission.TICKET_CREATE)
+          )
+        )
+      ));
+
+      transaction.userIdSet(uid);
+
+      final var project =
+        p.projectCreate(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT")
+        );
+
+      final var expected = new ArrayList<IcSavedSearchEntry>();
+      for (int index = 0; index < 5; ++index) {
+        final var ticket =
+          t.ticketCreate(
+            new IcTicketCreation(
+              project.id(),
+              new IcTicketTitle("Fox %d".formatted(index)),
+              "Description."
+            )
+          );
+        expected.add(new IcSavedSearchEntry(ticket.ticketId(), false));
+      }
+
+      final var name = new IcSavedSearchName("foxes");
+      s.savedSearchCreate(
+        new IcSavedSearch(
+          name,
+          IcTimeRange.largest(),
+          IcTimeRange.largest(),
+          Optional.of("fox"),
+          Optional.empty(),
+          Optional.empty()
+        )
+      );
+
+      final var received = new ArrayList<IcSavedSearchEntry>();
+      var revision = 0L;
+      for (int page = 0; page < 3; ++page) {
+        final var results = s.savedSearchResults(name, revision, 2);
+        assertEquals(Math.min(2, 5 - (page * 2)), results.entries().size());
+        assertTrue(results.revision() > revision);
+        received.addAll(results.entries());
+        revision = results.revision();
+      }
+
+      assertEquals(expected, received);
+      assertEquals(List.of(), s.savedSearchResults(name, revision, 2).entries());
+      return null;
+    });
+  }
+
+  /**
+   * Granting and revoking the permission to read tickets updates the saved
+   * searches of the user without requiring the tickets to be written.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSavedSearchPermissionChanges()
+    throws Exception
+  {
+    this.withTransaction(transaction -> {
+      final var u =
+        transaction.queries(IcDatabaseUsersQueriesType.class);
+      final var p =
+        transaction.queries(IcDatabaseProjectsQueriesType.class);
+      final var t =
+        transaction.queries(IcDatabaseTicketsQueriesType.class);
+      final var s =
+        transaction.queries(IcDatabaseSavedSearchesQueriesType.class);
+
+      final var uid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        uid,
+        new IdName("x"),
+        List.of(),
+        IcPermissionSet.empty()
+      ));
+
+      final var vid = UUID.randomUUID();
+      u.userPut(new IcUser(
+        vid,
+        new IdName("y"),
+        List.of(),
+        IcPermissionSet.of(
+          List.of(new IcPermissionGlobal(IcPermission.TICKET_CREATE))
+        )
+      ));
+
+      transaction.userIdSet(vid);
+
+      final var project =
+        p.projectCreate(
+          new IcProjectTitle("Project"),
+          new IcProjectShortName("PROJECT")
+        );
+
+      final var ticket =
+        t.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("The quick brown fox."),
+            "Description."
+          )
+        );
+
+      transaction.userIdSet(uid);
+
+      final var name = new IcSavedSearchName("foxes");
+      s.savedSearchCreate(
+        new IcSavedSearch(
+          name,
+          IcTimeRange.largest(),
+          IcTimeRange.largest(),
+          Optional.of("fox"),
+          Optional.empty(),
+          Optional.empty()
+        )
+      );
+
+      final var results0 = s.savedSearchResults(name, 0L, 100);
+      assertEquals(List.of(), results0.entries());
+
+      final var grant =
+        new IcUserPermission(
+          uid,
+          new IcPermissionProjectwide(project.id(), IcPermission.TICKET_READ)
+        );
+
+      u.usersPermissionsAdd(List.of(grant));
+
+      final var results1 =
+        s.savedSearchResults(name, results0.revision(), 100);
+      assertEquals(
+        List.of(new IcSavedSearchEntry(ticket.ticketId(), false)),
+        results1.entries()
+      );
+
+      u.usersPermissionsRemove(List.of(grant));
+
+      final var results2 =
+        s.savedSearchResults(name, results1.revision(), 100);
+      assertEquals(
+        List.of(new IcSavedSearchEntry(ticket.ticketId(), true)),
+        results2.entries()
+      );
+      return null;
+    });
+  }
+
   private static void checkTickets(
     final long offset,
-    final List<IcTicketSummary> items)
+    final List<IcTicketSummaryType> items)
   {
     for (int index = 0; index < items.size(); ++index) {
-      final var item = items.get(index);
+      final var item = (IcTicketSummary) items.get(index);
       assertEquals(
         "Ticket %d".formatted(offset + index),
         item.ticketTitle().value()
@@ -358,10 +2607,10 @@ public final class IcDatabaseTicketsTest extends IcWithDatabaseContract
 
   private static void checkTicketsFulltextDescription(
     final long offset,
-    final List<IcTicketSummary> items)
+    final List<IcTicketSummaryType> items)
   {
     for (int index = 0; index < items.size(); ++index) {
-      final var item = items.get(index);
+      final var item = (IcTicketSummary) items.get(index);
       assertEquals(
         "Ticket %d".formatted(offset + (index * 2)),
         item.ticketTitle().value()
@@ -370,10 +2619,10 @@ public final class IcDatabaseTicketsTest extends IcWithDatabaseContract
   }
 
   private static void checkTicketsFulltextTitle(
-    final List<IcTicketSummary> items)
+    final List<IcTicketSummaryType> items)
   {
     for (int index = 0; index < items.size(); ++index) {
-      final var item = items.get(index);
+      final var item = (IcTicketSummary) items.get(index);
       assertEquals(
         "The quick brown fox jumped over the lazy dogs.",
         item.ticketTitle().value()
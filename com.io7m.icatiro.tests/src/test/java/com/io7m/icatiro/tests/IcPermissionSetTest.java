@@ -27,6 +27,13 @@ import com.io7m.icatiro.model.IcProjectID;
 import com.io7m.icatiro.model.IcTicketID;
 import net.jqwik.api.ForAll;
 import net.jqwik.api.Property;
+import net.jqwik.api.constraints.LongRange;
+
+import java.util.Set;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -50,6 +57,129 @@ public final class IcPermissionSetTest
     assertEquals(permissions.hashCode(), rebuilt.hashCode());
   }
 
+  @Property
+  public void testToBuilderIdentity(
+    final @ForAll IcPermissionSet permissions)
+  {
+    final var rebuilt = permissions.toBuilder().build();
+    assertEquals(permissions, rebuilt);
+    assertEquals(permissions.toString(), rebuilt.toString());
+    assertEquals(permissions.hashCode(), rebuilt.hashCode());
+  }
+
+  @Property
+  public void testUnion(
+    final @ForAll IcPermissionSet x,
+    final @ForAll IcPermissionSet y)
+  {
+    final var builder = IcPermissionSet.builder();
+    x.stream().forEach(builder::add);
+    y.stream().forEach(builder::add);
+
+    final var union = x.union(y);
+    assertEquals(builder.build(), union);
+    assertEquals(union, y.union(x));
+    assertEquals(x, x.union(IcPermissionSet.empty()));
+  }
+
+  @Property
+  public void testImpliesManyAgreesWithImplies(
+    final @ForAll IcPermissionSet x,
+    final @ForAll List<IcTicketID> others,
+    final @ForAll Set<IcPermission> permissions)
+  {
+    final var tickets = new ArrayList<>(others);
+    x.stream().forEach(p -> {
+      if (p instanceof IcPermissionTicketwide ticketwide) {
+        tickets.add(ticketwide.ticketId());
+      }
+      if (p instanceof IcPermissionProjectwide projectwide) {
+        tickets.add(new IcTicketID(projectwide.projectId(), 1L));
+      }
+    });
+
+    final var matrix = x.impliesMany(tickets, permissions);
+    assertEquals(tickets.size(), matrix.rows());
+    assertEquals(permissions, matrix.columns());
+
+    for (int row = 0; row < tickets.size(); ++row) {
+      for (final var permission : permissions) {
+        assertEquals(
+          x.implies(tickets.get(row), permission),
+          matrix.implies(row, permission),
+          "%s %s".formatted(tickets.get(row), permission)
+        );
+      }
+    }
+  }
+
+  @Property
+  public void testReporterImpliesTicket(
+    final @ForAll IcTicketID ticket,
+    final @ForAll IcPermission permission)
+  {
+    assertEquals(
+      IcPermissionSet.reporterPermissions().contains(permission),
+      IcPermissionSet.builder()
+        .addReporter(ticket)
+        .build()
+        .implies(ticket, permission)
+    );
+  }
+
+  @Property
+  public void testImpliesMembership(
+    final @ForAll IcPermissionSet permissions,
+    final @ForAll IcTicketID ticket,
+    final @ForAll IcPermission permission)
+  {
+    final var members =
+      permissions.stream().toList();
+    final var expected =
+      members.contains(new IcPermissionGlobal(permission))
+      || members.contains(new IcPermissionProjectwide(ticket.project(), permission))
+      || members.contains(new IcPermissionTicketwide(ticket, permission));
+
+    assertEquals(expected, permissions.implies(ticket, permission));
+  }
+
+  @Property
+  public void testImpliesTicketNumbers(
+    final @ForAll Set<@LongRange(min = 0L) Long> numbers,
+    final @ForAll @LongRange(min = 0L) long probe)
+  {
+    final var project = new IcProjectID(1L);
+    final var builder = IcPermissionSet.builder();
+    for (final var number : numbers) {
+      builder.add(
+        new IcPermissionTicketwide(
+          new IcTicketID(project, number.longValue()),
+          IcPermission.TICKET_READ
+        )
+      );
+    }
+
+    final var permissions = builder.build();
+    for (final var number : numbers) {
+      assertTrue(
+        permissions.implies(
+          new IcTicketID(project, number.longValue()),
+          IcPermission.TICKET_READ
+        )
+      );
+    }
+
+    assertEquals(
+      Boolean.valueOf(numbers.contains(Long.valueOf(probe))),
+      Boolean.valueOf(
+        permissions.implies(
+          new IcTicketID(project, probe),
+          IcPermission.TICKET_READ
+        )
+      )
+    );
+  }
+
   @Property
   public void testImpliesSelf(
     final @ForAll IcPermissionSet permissions)
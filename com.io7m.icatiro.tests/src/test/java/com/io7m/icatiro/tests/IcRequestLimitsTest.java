@@ -0,0 +1,216 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.tests;
+
+import com.io7m.icatiro.server.internal.IcHTTPErrorStatusException;
+import com.io7m.icatiro.server.internal.IcRequestBodyException;
+import com.io7m.icatiro.server.internal.IcRequestLimits;
+import com.io7m.icatiro.server.internal.IcServerStrings;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.HTTP_ERROR;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.HTTP_SIZE_LIMIT;
+import static com.io7m.icatiro.error_codes.IcStandardErrorCodes.PROTOCOL_ERROR;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class IcRequestLimitsTest
+{
+  private IcRequestLimits limits;
+
+  private static byte[] compress(
+    final byte[] data)
+    throws IOException
+  {
+    final var output = new ByteArrayOutputStream();
+    try (var gzip = new GZIPOutputStream(output)) {
+      gzip.write(data);
+    }
+    return output.toByteArray();
+  }
+
+  private static HttpServletRequest request(
+    final String encoding,
+    final byte[] data)
+    throws IOException
+  {
+    final var input = new ByteArrayInputStream(data);
+    final var request = Mockito.mock(HttpServletRequest.class);
+    Mockito.when(request.getContentLength())
+      .thenReturn(Integer.valueOf(data.length));
+    Mockito.when(request.getHeader("Content-Encoding"))
+      .thenReturn(encoding);
+    Mockito.when(request.getInputStream())
+      .thenReturn(new ServletInputStream()
+      {
+        @Override
+        public boolean isFinished()
+        {
+          return input.available() == 0;
+        }
+
+        @Override
+        public boolean isReady()
+        {
+          return true;
+        }
+
+        @Override
+        public void setReadListener(
+          final ReadListener readListener)
+        {
+          throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read()
+        {
+          return input.read();
+        }
+      });
+    return request;
+  }
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.limits = new IcRequestLimits(new IcServerStrings(Locale.ROOT));
+  }
+
+  /**
+   * Uncompressed bodies are returned as they are.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testIdentity()
+    throws Exception
+  {
+    final var data = new byte[100];
+    Arrays.fill(data, (byte) 'x');
+
+    try (var input =
+           this.limits.boundedMaximumInputDecoded(request(null, data), 100)) {
+      assertArrayEquals(data, input.readAllBytes());
+    }
+  }
+
+  /**
+   * Compressed bodies are decompressed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testGzip()
+    throws Exception
+  {
+    final var data = new byte[1000];
+    Arrays.fill(data, (byte) 'x');
+
+    final var request = request("gzip", compress(data));
+    try (var input = this.limits.boundedMaximumInputDecoded(request, 1000)) {
+      assertArrayEquals(data, input.readAllBytes());
+    }
+  }
+
+  /**
+   * Compressed bodies that expand beyond the limit fail as they are read.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testGzipTooLarge()
+    throws Exception
+  {
+    final var data = new byte[100_000];
+    Arrays.fill(data, (byte) 'x');
+
+    final var request = request("gzip", compress(data));
+    try (var input = this.limits.boundedMaximumInputDecoded(request, 1000)) {
+      final var ex =
+        assertThrows(IcRequestBodyException.class, input::readAllBytes);
+      assertEquals(413, ex.error().statusCode());
+      assertEquals(HTTP_SIZE_LIMIT, ex.error().errorCode());
+      assertEquals(
+        ex.error(),
+        IcRequestLimits.requestBodyError(new IOException(ex)).orElseThrow()
+      );
+    }
+  }
+
+  /**
+   * Corrupt compressed bodies are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testGzipCorrupt()
+    throws Exception
+  {
+    final var data = new byte[1000];
+    Arrays.fill(data, (byte) 'x');
+
+    final var compressed = compress(data);
+    Arrays.fill(compressed, 10, compressed.length - 8, (byte) 0xff);
+
+    final var request = request("gzip", compressed);
+    try (var input = this.limits.boundedMaximumInputDecoded(request, 1000)) {
+      final var ex =
+        assertThrows(IcRequestBodyException.class, input::readAllBytes);
+      assertEquals(400, ex.error().statusCode());
+      assertEquals(PROTOCOL_ERROR, ex.error().errorCode());
+    }
+  }
+
+  /**
+   * Unsupported encodings are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testEncodingUnsupported()
+    throws Exception
+  {
+    final var ex =
+      assertThrows(IcHTTPErrorStatusException.class, () -> {
+        this.limits.boundedMaximumInputDecoded(
+          request("br", new byte[10]), 1000);
+      });
+    assertEquals(415, ex.statusCode());
+    assertEquals(HTTP_ERROR, ex.errorCode());
+  }
+}
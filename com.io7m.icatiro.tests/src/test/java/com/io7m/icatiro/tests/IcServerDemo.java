@@ -23,6 +23,7 @@ import com.io7m.icatiro.database.api.IcDatabaseUpgrade;
 import com.io7m.icatiro.database.api.IcDatabaseUsersQueriesType;
 import com.io7m.icatiro.database.postgres.IcDatabases;
 import com.io7m.icatiro.server.IcServers;
+import com.io7m.icatiro.server.api.IcServerAttachmentConfiguration;
 import com.io7m.icatiro.server.api.IcServerBrandingConfiguration;
 import com.io7m.icatiro.server.api.IcServerConfiguration;
 import com.io7m.icatiro.server.api.IcServerHTTPServiceConfiguration;
@@ -153,7 +154,11 @@ public final class IcServerDemo
         history,
         rateLimit,
         Optional.of(openTelemetry),
-        idStore
+        idStore,
+        new IcServerAttachmentConfiguration(
+          tmpDirectory.resolve("attachments"),
+          100_000_000L
+        )
       );
 
     final var servers = new IcServers();
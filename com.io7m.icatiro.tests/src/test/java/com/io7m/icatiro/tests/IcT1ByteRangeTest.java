@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.tests;
+
+import com.io7m.icatiro.server.internal.tickets_v1.IcT1ByteRange;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class IcT1ByteRangeTest
+{
+  private static IcT1ByteRange range(
+    final String header,
+    final long size)
+  {
+    return IcT1ByteRange.parse(header, size).orElseThrow();
+  }
+
+  /**
+   * Closed ranges work.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testClosed()
+    throws Exception
+  {
+    assertEquals(new IcT1ByteRange(0L, 1L), range("bytes=0-0", 100L));
+    assertEquals(new IcT1ByteRange(10L, 10L), range("bytes=10-19", 100L));
+    assertEquals(new IcT1ByteRange(10L, 10L), range("bytes= 10 - 19 ", 100L));
+    assertTrue(range("bytes=10-19", 100L).isSatisfiable());
+  }
+
+  /**
+   * Closed ranges that extend past the content are clamped.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testClosedClamped()
+    throws Exception
+  {
+    assertEquals(new IcT1ByteRange(90L, 10L), range("bytes=90-1000", 100L));
+  }
+
+  /**
+   * Open ranges work.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testOpen()
+    throws Exception
+  {
+    assertEquals(new IcT1ByteRange(0L, 100L), range("bytes=0-", 100L));
+    assertEquals(new IcT1ByteRange(99L, 1L), range("bytes=99-", 100L));
+  }
+
+  /**
+   * Suffix ranges work.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSuffix()
+    throws Exception
+  {
+    assertEquals(new IcT1ByteRange(90L, 10L), range("bytes=-10", 100L));
+    assertEquals(new IcT1ByteRange(0L, 100L), range("bytes=-1000", 100L));
+  }
+
+  /**
+   * Ranges that start beyond the content, and empty suffixes, cannot be
+   * satisfied.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUnsatisfiable()
+    throws Exception
+  {
+    assertFalse(range("bytes=100-", 100L).isSatisfiable());
+    assertFalse(range("bytes=100-200", 100L).isSatisfiable());
+    assertFalse(range("bytes=-0", 100L).isSatisfiable());
+    assertFalse(range("bytes=-10", 0L).isSatisfiable());
+    assertFalse(range("bytes=0-", 0L).isSatisfiable());
+  }
+
+  /**
+   * Malformed and unsupported headers are ignored.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testIgnored()
+    throws Exception
+  {
+    assertEquals(Optional.empty(), IcT1ByteRange.parse(null, 100L));
+    assertEquals(Optional.empty(), IcT1ByteRange.parse("", 100L));
+    assertEquals(Optional.empty(), IcT1ByteRange.parse("items=0-1", 100L));
+    assertEquals(Optional.empty(), IcT1ByteRange.parse("bytes=0-1,4-5", 100L));
+    assertEquals(Optional.empty(), IcT1ByteRange.parse("bytes=10", 100L));
+    assertEquals(Optional.empty(), IcT1ByteRange.parse("bytes=-", 100L));
+    assertEquals(Optional.empty(), IcT1ByteRange.parse("bytes=x-1", 100L));
+    assertEquals(Optional.empty(), IcT1ByteRange.parse("bytes=1-x", 100L));
+    assertEquals(Optional.empty(), IcT1ByteRange.parse("bytes=--5", 100L));
+    assertEquals(Optional.empty(), IcT1ByteRange.parse("bytes=20-10", 100L));
+  }
+}
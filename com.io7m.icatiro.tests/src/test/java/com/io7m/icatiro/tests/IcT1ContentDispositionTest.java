@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.tests;
+
+import com.io7m.icatiro.server.internal.tickets_v1.IcT1ContentDisposition;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class IcT1ContentDispositionTest
+{
+  /**
+   * Plain names are not encoded.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPlain()
+    throws Exception
+  {
+    assertEquals(
+      "attachment; filename*=UTF-8''file.txt",
+      IcT1ContentDisposition.attachment("file.txt")
+    );
+  }
+
+  /**
+   * Spaces and other reserved characters are percent-encoded.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReserved()
+    throws Exception
+  {
+    assertEquals(
+      "attachment; filename*=UTF-8''my%20file%20%2A%25%27%3B%22.txt",
+      IcT1ContentDisposition.attachment("my file *%';\".txt")
+    );
+  }
+
+  /**
+   * Non-ASCII characters are encoded as UTF-8.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUnicode()
+    throws Exception
+  {
+    assertEquals(
+      "attachment; filename*=UTF-8''%C3%A9t%C3%A9%20%E2%82%AC.txt",
+      IcT1ContentDisposition.attachment("été €.txt")
+    );
+  }
+}
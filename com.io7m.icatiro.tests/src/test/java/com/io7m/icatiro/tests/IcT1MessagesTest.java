@@ -17,12 +17,25 @@
 
 package com.io7m.icatiro.tests;
 
+import com.io7m.icatiro.model.IcTicket;
+import com.io7m.icatiro.model.IcTicketID;
+import com.io7m.icatiro.model.IcTicketSearch;
+import com.io7m.icatiro.model.IcTicketSearchProjection;
+import com.io7m.icatiro.protocol.IcProtocolException;
+import com.io7m.icatiro.protocol.tickets.IcTCommandBatch;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketGetIfChanged;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketSearchBegin;
 import com.io7m.icatiro.protocol.tickets.IcTMessageType;
 import com.io7m.icatiro.protocol.tickets.cb.IcT1Messages;
 import net.jqwik.api.ForAll;
 import net.jqwik.api.Property;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public final class IcT1MessagesTest
 {
@@ -41,4 +54,85 @@ public final class IcT1MessagesTest
 
     assertEquals(message, m);
   }
+
+  @Property(tries = 2000)
+  public void testSerializationStreams(
+    final @ForAll IcTMessageType message)
+    throws Exception
+  {
+    final var output = new ByteArrayOutputStream();
+    MESSAGES.serialize(message, output);
+
+    assertArrayEquals(MESSAGES.serialize(message), output.toByteArray());
+
+    final var input = new ByteArrayInputStream(output.toByteArray());
+    final var m = MESSAGES.parse(input);
+
+    assertEquals(message, m);
+    assertEquals(-1, input.read());
+  }
+
+  /**
+   * Command batches cannot be expressed in version 1.
+   *
+   * @param message The batch
+   */
+
+  @Property(tries = 100)
+  public void testBatchUnsupported(
+    final @ForAll IcTCommandBatch message)
+  {
+    assertThrows(IcProtocolException.class, () -> {
+      MESSAGES.serialize(message);
+    });
+  }
+
+  /**
+   * Search projections other than full summaries cannot be expressed in
+   * version 1.
+   *
+   * @param search The search
+   */
+
+  @Property(tries = 100)
+  public void testSearchProjectionUnsupported(
+    final @ForAll IcTicketSearch search)
+  {
+    final var message =
+      new IcTCommandTicketSearchBegin(
+        new IcTicketSearch(
+          search.timeCreatedRange(),
+          search.timeUpdatedRange(),
+          search.ordering(),
+          search.limit(),
+          search.titleSearch(),
+          search.descriptionSearch(),
+          search.reporter(),
+          search.includeArchived(),
+          IcTicketSearchProjection.ID
+        )
+      );
+
+    assertThrows(IcProtocolException.class, () -> {
+      MESSAGES.serialize(message);
+    });
+  }
+
+  /**
+   * Conditional ticket retrievals cannot be expressed in version 1.
+   *
+   * @param id     The ticket ID
+   * @param ticket The ticket
+   */
+
+  @Property(tries = 100)
+  public void testTicketGetIfChangedUnsupported(
+    final @ForAll IcTicketID id,
+    final @ForAll IcTicket ticket)
+  {
+    assertThrows(IcProtocolException.class, () -> {
+      MESSAGES.serialize(
+        new IcTCommandTicketGetIfChanged(id, ticket.versionToken()));
+    });
+  }
 }
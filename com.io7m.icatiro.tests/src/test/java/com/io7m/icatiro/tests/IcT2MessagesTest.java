@@ -0,0 +1,318 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.icatiro.tests;
+
+import com.io7m.icatiro.model.IcPage;
+import com.io7m.icatiro.model.IcPermission;
+import com.io7m.icatiro.model.IcPermissionGlobal;
+import com.io7m.icatiro.model.IcPermissionMatrix;
+import com.io7m.icatiro.model.IcPermissionSet;
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcProjectShortName;
+import com.io7m.icatiro.model.IcProjectTitle;
+import com.io7m.icatiro.model.IcTicket;
+import com.io7m.icatiro.model.IcTicketID;
+import com.io7m.icatiro.model.IcTicketSearch;
+import com.io7m.icatiro.model.IcTicketSearchProjection;
+import com.io7m.icatiro.model.IcTicketSummary;
+import com.io7m.icatiro.model.IcTicketSummaryType;
+import com.io7m.icatiro.model.IcTicketTitle;
+import com.io7m.icatiro.protocol.IcProtocolException;
+import com.io7m.icatiro.protocol.tickets.IcTCommandBatch;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketGetIfChanged;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketSearchBegin;
+import com.io7m.icatiro.protocol.tickets.IcTMessageType;
+import com.io7m.icatiro.protocol.tickets.IcTResponseBatch;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketGetIfChanged;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketSearchBegin;
+import com.io7m.icatiro.protocol.tickets.cb.IcT1Messages;
+import com.io7m.icatiro.protocol.tickets.cb.IcT2Messages;
+import com.io7m.idstore.model.IdName;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class IcT2MessagesTest
+{
+  private static final IcT2Messages MESSAGES =
+    new IcT2Messages();
+
+  @Property(tries = 2000)
+  public void testSerialization(
+    final @ForAll IcTMessageType message)
+    throws Exception
+  {
+    final var data =
+      MESSAGES.serialize(message);
+    final var m =
+      MESSAGES.parse(data);
+
+    assertEquals(message, m);
+  }
+
+  @Property(tries = 2000)
+  public void testSerializationStreams(
+    final @ForAll IcTMessageType message)
+    throws Exception
+  {
+    final var output = new ByteArrayOutputStream();
+    MESSAGES.serialize(message, output);
+
+    assertArrayEquals(MESSAGES.serialize(message), output.toByteArray());
+
+    final var input = new ByteArrayInputStream(output.toByteArray());
+    final var m = MESSAGES.parse(input);
+
+    assertEquals(message, m);
+    assertEquals(-1, input.read());
+  }
+
+  /**
+   * Command batches survive serialization.
+   *
+   * @param message The batch
+   *
+   * @throws Exception On errors
+   */
+
+  @Property(tries = 500)
+  public void testSerializationCommandBatch(
+    final @ForAll IcTCommandBatch message)
+    throws Exception
+  {
+    assertEquals(message, MESSAGES.parse(MESSAGES.serialize(message)));
+  }
+
+  /**
+   * Response batches survive serialization.
+   *
+   * @param message The batch
+   *
+   * @throws Exception On errors
+   */
+
+  @Property(tries = 500)
+  public void testSerializationResponseBatch(
+    final @ForAll IcTResponseBatch message)
+    throws Exception
+  {
+    assertEquals(message, MESSAGES.parse(MESSAGES.serialize(message)));
+  }
+
+  /**
+   * Conditional ticket retrievals survive serialization.
+   *
+   * @param id      The ticket ID
+   * @param ticket  The ticket
+   * @param changed Whether the ticket has changed
+   *
+   * @throws Exception On errors
+   */
+
+  @Property(tries = 500)
+  public void testSerializationTicketGetIfChanged(
+    final @ForAll IcTicketID id,
+    final @ForAll IcTicket ticket,
+    final @ForAll boolean changed)
+    throws Exception
+  {
+    final var command =
+      new IcTCommandTicketGetIfChanged(id, ticket.versionToken());
+    final var response =
+      new IcTResponseTicketGetIfChanged(
+        UUID.randomUUID(),
+        changed ? Optional.of(ticket) : Optional.empty()
+      );
+
+    assertEquals(command, MESSAGES.parse(MESSAGES.serialize(command)));
+    assertEquals(response, MESSAGES.parse(MESSAGES.serialize(response)));
+  }
+
+  /**
+   * Searches survive serialization with any projection.
+   *
+   * @param search     The search
+   * @param projection The projection
+   *
+   * @throws Exception On errors
+   */
+
+  @Property(tries = 500)
+  public void testSerializationSearchProjection(
+    final @ForAll IcTicketSearch search,
+    final @ForAll IcTicketSearchProjection projection)
+    throws Exception
+  {
+    final var message =
+      new IcTCommandTicketSearchBegin(withProjection(search, projection));
+
+    assertEquals(message, MESSAGES.parse(MESSAGES.serialize(message)));
+  }
+
+  /**
+   * Pages of projected ticket summaries survive serialization.
+   *
+   * @param summaries   The summaries
+   * @param projection  The projection
+   * @param permissions The permissions
+   *
+   * @throws Exception On errors
+   */
+
+  @Property(tries = 500)
+  public void testSerializationSearchPageProjection(
+    final @ForAll List<IcTicketSummary> summaries,
+    final @ForAll IcTicketSearchProjection projection,
+    final @ForAll IcPermissionMatrix permissions)
+    throws Exception
+  {
+    final var message =
+      new IcTResponseTicketSearchBegin(
+        UUID.randomUUID(),
+        new IcPage<>(
+          summaries.stream()
+            .map(s -> s.project(projection))
+            .toList(),
+          1,
+          1,
+          0L
+        ),
+        permissions
+      );
+
+    assertEquals(message, MESSAGES.parse(MESSAGES.serialize(message)));
+  }
+
+  /**
+   * Pages that mix summaries of different projections are rejected.
+   *
+   * @param summary The summary
+   */
+
+  @Property(tries = 100)
+  public void testSearchPageMixedProjections(
+    final @ForAll IcTicketSummary summary)
+  {
+    final var message =
+      new IcTResponseTicketSearchBegin(
+        UUID.randomUUID(),
+        new IcPage<>(
+          List.of(summary, summary.project(IcTicketSearchProjection.ID)),
+          1,
+          1,
+          0L
+        ),
+        IcPermissionMatrix.empty()
+      );
+
+    assertThrows(IcProtocolException.class, () -> {
+      MESSAGES.serialize(message);
+    });
+  }
+
+  private static IcTicketSearch withProjection(
+    final IcTicketSearch search,
+    final IcTicketSearchProjection projection)
+  {
+    return new IcTicketSearch(
+      search.timeCreatedRange(),
+      search.timeUpdatedRange(),
+      search.ordering(),
+      search.limit(),
+      search.titleSearch(),
+      search.descriptionSearch(),
+      search.reporter(),
+      search.includeArchived(),
+      projection
+    );
+  }
+
+  /**
+   * A page of tickets from a single project with a single reporter is
+   * considerably smaller in version 2.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSearchPageSmaller()
+    throws Exception
+  {
+    final var time =
+      OffsetDateTime.of(2023, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    final var reporter =
+      UUID.randomUUID();
+    final var project =
+      new IcProjectID(1L);
+
+    final var tickets = new ArrayList<IcTicketSummaryType>();
+    final var ids = new ArrayList<IcTicketID>();
+    for (int index = 0; index < 100; ++index) {
+      final var id = new IcTicketID(project, index);
+      ids.add(id);
+      tickets.add(
+        new IcTicketSummary(
+          new IcProjectTitle("An example project"),
+          new IcProjectShortName("EXAMPLE"),
+          id,
+          new IcTicketTitle("Ticket %d".formatted(Integer.valueOf(index))),
+          time,
+          time,
+          reporter,
+          new IdName("someone")
+        )
+      );
+    }
+
+    final var message =
+      new IcTResponseTicketSearchBegin(
+        UUID.randomUUID(),
+        new IcPage<>(tickets, 1, 1, 0L),
+        IcPermissionSet.of(
+          List.of(new IcPermissionGlobal(IcPermission.TICKET_READ))
+        ).impliesMany(ids, EnumSet.of(IcPermission.TICKET_READ))
+      );
+
+    final var dataV1 =
+      new IcT1Messages().serialize(message);
+    final var dataV2 =
+      MESSAGES.serialize(message);
+
+    assertEquals(message, MESSAGES.parse(dataV2));
+    assertTrue(
+      dataV2.length * 2 < dataV1.length,
+      "%d * 2 < %d".formatted(
+        Integer.valueOf(dataV2.length),
+        Integer.valueOf(dataV1.length))
+    );
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2022 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.icatiro.tests;
+
+import com.io7m.icatiro.model.IcPermissionSet;
+import com.io7m.icatiro.model.IcPermissionTicketwide;
+import com.io7m.icatiro.model.IcProjectID;
+import com.io7m.icatiro.model.IcTicketID;
+import com.io7m.icatiro.server.internal.IcTicketPermissionCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.io7m.icatiro.model.IcPermission.TICKET_READ;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class IcTicketPermissionCacheTest
+{
+  private static final IcTicketID TICKET =
+    new IcTicketID(new IcProjectID(1L), 1L);
+
+  private static final IcPermissionSet READABLE =
+    IcPermissionSet.of(
+      List.of(new IcPermissionTicketwide(TICKET, TICKET_READ))
+    );
+
+  /**
+   * Loaded permissions are cached.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCached()
+    throws Exception
+  {
+    final var cache = new IcTicketPermissionCache(8);
+    final var loads = new AtomicInteger();
+
+    final IcTicketPermissionCache.LoaderType loader = tickets -> {
+      loads.incrementAndGet();
+      return READABLE;
+    };
+
+    assertTrue(cache.implies(TICKET, TICKET_READ, loader));
+    assertTrue(cache.implies(TICKET, TICKET_READ, loader));
+    assertEquals(1, loads.get());
+    assertEquals(1, cache.size());
+
+    cache.invalidate(TICKET);
+    assertEquals(0, cache.size());
+    assertTrue(cache.implies(TICKET, TICKET_READ, loader));
+    assertEquals(2, loads.get());
+  }
+
+  /**
+   * Permissions loaded by a load that raced with an invalidation of the
+   * same ticket are not cached.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testInvalidatedDuringLoad()
+    throws Exception
+  {
+    final var cache = new IcTicketPermissionCache(8);
+    final var loads = new AtomicInteger();
+
+    /*
+     * The first load reads the permission, but the permission is revoked
+     * (and the ticket invalidated) before the load completes.
+     */
+
+    final IcTicketPermissionCache.LoaderType loader = tickets -> {
+      if (loads.incrementAndGet() == 1) {
+        cache.invalidate(TICKET);
+        return READABLE;
+      }
+      return IcPermissionSet.empty();
+    };
+
+    assertTrue(cache.implies(TICKET, TICKET_READ, loader));
+    assertEquals(0, cache.size());
+    assertFalse(cache.implies(TICKET, TICKET_READ, loader));
+    assertEquals(2, loads.get());
+    assertEquals(1, cache.size());
+  }
+
+  /**
+   * Permissions loaded in bulk by a load that raced with an invalidation are
+   * not cached.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testInvalidatedDuringBulkLoad()
+    throws Exception
+  {
+    final var cache = new IcTicketPermissionCache(8);
+    final var loads = new AtomicInteger();
+
+    final IcTicketPermissionCache.LoaderType loader = tickets -> {
+      if (loads.incrementAndGet() == 1) {
+        cache.clear();
+        return READABLE;
+      }
+      return IcPermissionSet.empty();
+    };
+
+    final var bit = 1 << TICKET_READ.ordinal();
+    assertArrayEquals(
+      new int[]{bit},
+      cache.masks(List.of(TICKET), loader)
+    );
+    assertEquals(0, cache.size());
+    assertArrayEquals(
+      new int[]{0},
+      cache.masks(List.of(TICKET), loader)
+    );
+    assertEquals(2, loads.get());
+  }
+}
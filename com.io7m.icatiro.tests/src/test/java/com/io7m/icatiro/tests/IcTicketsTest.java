@@ -17,10 +17,12 @@
 package com.io7m.icatiro.tests;
 
 import com.io7m.icatiro.client.IcClients;
+import com.io7m.icatiro.client.api.IcClientConfiguration;
 import com.io7m.icatiro.client.api.IcClientException;
 import com.io7m.icatiro.client.api.IcClientType;
 import com.io7m.icatiro.model.IcPermissionGlobal;
 import com.io7m.icatiro.model.IcPermissionTicketwide;
+import com.io7m.icatiro.model.IcProjectID;
 import com.io7m.icatiro.model.IcProjectShortName;
 import com.io7m.icatiro.model.IcProjectTitle;
 import com.io7m.icatiro.model.IcTicketColumnOrdering;
@@ -28,15 +30,23 @@ import com.io7m.icatiro.model.IcTicketCommentCreation;
 import com.io7m.icatiro.model.IcTicketCreation;
 import com.io7m.icatiro.model.IcTicketID;
 import com.io7m.icatiro.model.IcTicketSearch;
+import com.io7m.icatiro.model.IcTicketSearchProjection;
 import com.io7m.icatiro.model.IcTicketSummary;
+import com.io7m.icatiro.model.IcTicketSummaryType;
 import com.io7m.icatiro.model.IcTicketTitle;
 import com.io7m.icatiro.model.IcTimeRange;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketCommentCreate;
+import com.io7m.icatiro.protocol.tickets.IcTCommandTicketCreate;
+import com.io7m.icatiro.protocol.tickets.IcTCommandType;
+import com.io7m.icatiro.protocol.tickets.IcTResponseError;
+import com.io7m.icatiro.protocol.tickets.IcTResponseTicketCreate;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -54,8 +64,12 @@ import static com.io7m.icatiro.model.IcPermission.TICKET_CREATE;
 import static com.io7m.icatiro.model.IcPermission.TICKET_READ;
 import static com.io7m.icatiro.model.IcPermission.TICKET_WRITE;
 import static com.io7m.icatiro.model.IcTicketColumn.BY_ID;
+import static com.io7m.icatiro.protocol.tickets.IcTBatchMode.ATOMIC;
+import static com.io7m.icatiro.protocol.tickets.IcTBatchMode.PER_COMMAND;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -183,7 +197,9 @@ public final class IcTicketsTest extends IcWithServerContract
           1000,
           Optional.empty(),
           Optional.empty(),
-          Optional.empty()
+          Optional.empty(),
+          false,
+          IcTicketSearchProjection.FULL
         )
       );
 
@@ -192,6 +208,8 @@ public final class IcTicketsTest extends IcWithServerContract
     assertEquals(1, page.pageIndex());
     assertEquals(1, page.pageCount());
     assertEquals(0L, page.pageFirstOffset());
+    assertTrue(page.canWrite(0));
+    assertTrue(page.canComment(0));
   }
 
   /**
@@ -246,7 +264,9 @@ public final class IcTicketsTest extends IcWithServerContract
           30,
           Optional.empty(),
           Optional.empty(),
-          Optional.empty()
+          Optional.empty(),
+          false,
+          IcTicketSearchProjection.FULL
         )
       );
 
@@ -308,7 +328,7 @@ public final class IcTicketsTest extends IcWithServerContract
 
   private static void checkItemsById(
     final long idStart,
-    final List<IcTicketSummary> items)
+    final List<IcTicketSummaryType> items)
   {
     for (int index = 0; index < items.size(); ++index) {
       final var ticket = items.get(index);
@@ -424,7 +444,9 @@ public final class IcTicketsTest extends IcWithServerContract
           30,
           Optional.empty(),
           Optional.empty(),
-          Optional.empty()
+          Optional.empty(),
+          false,
+          IcTicketSearchProjection.FULL
         )
       );
 
@@ -460,7 +482,9 @@ public final class IcTicketsTest extends IcWithServerContract
           30,
           Optional.empty(),
           Optional.empty(),
-          Optional.empty()
+          Optional.empty(),
+          false,
+          IcTicketSearchProjection.FULL
         )
       );
 
@@ -493,7 +517,9 @@ public final class IcTicketsTest extends IcWithServerContract
                 30,
                 Optional.empty(),
                 Optional.empty(),
-                Optional.empty()
+                Optional.empty(),
+                false,
+                IcTicketSearchProjection.FULL
               )
             );
           }).errorCode()
@@ -666,6 +692,179 @@ public final class IcTicketsTest extends IcWithServerContract
     assertEquals(20, ticket.comments().size());
   }
 
+  /**
+   * Compressed requests are accepted and decompressed by the server.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTicketCreateCompressed()
+    throws Exception
+  {
+    final var user0Id = this.createIdstoreUser("someone");
+    this.icatiro().userInitialSet(user0Id);
+
+    try (var compressing =
+           this.clients.create(new IcClientConfiguration(Locale.ROOT, 0))) {
+      compressing.login("someone", "12345678", serverAPIBase());
+
+      final var project =
+        compressing.projectCreate(
+          new IcProjectShortName("PROJECT"),
+          new IcProjectTitle("Example project.")
+        );
+
+      final var description =
+        "A long and repetitive description. ".repeat(1000);
+
+      final var ticketSummary =
+        compressing.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("Title"),
+            description
+          )
+        );
+
+      final var ticket =
+        compressing.ticketGet(ticketSummary.ticketId());
+      assertEquals(description, ticket.description());
+    }
+  }
+
+  /**
+   * Exporting a project works.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTicketExport()
+    throws Exception
+  {
+    final var user0Id = this.createIdstoreUser("someone");
+    this.icatiro().userInitialSet(user0Id);
+    this.client.login("someone", "12345678", serverAPIBase());
+
+    final var project =
+      this.client.projectCreate(
+        new IcProjectShortName("PROJECT"),
+        new IcProjectTitle("Example project.")
+      );
+
+    for (int index = 0; index < 10; ++index) {
+      final var ticket =
+        this.client.ticketCreate(
+          new IcTicketCreation(
+            project.id(),
+            new IcTicketTitle("Title %d".formatted(index)),
+            "Description %d".formatted(index)
+          )
+        );
+      this.client.ticketCommentCreate(
+        new IcTicketCommentCreation(
+          ticket.ticketId(),
+          OptionalLong.empty(),
+          "Comment %d".formatted(index)
+        )
+      );
+    }
+
+    final var output = new ByteArrayOutputStream();
+    this.client.ticketExport(project.id(), output);
+
+    final var lines =
+      output.toString(UTF_8).lines().toList();
+
+    assertEquals(20, lines.size());
+    assertTrue(lines.get(0).contains("\"type\":\"ticket\""));
+    assertTrue(lines.get(0).contains("\"title\":\"Title 0\""));
+    assertTrue(lines.get(1).contains("\"type\":\"comment\""));
+    assertTrue(lines.get(1).contains("\"text\":\"Comment 0\""));
+  }
+
+  /**
+   * Exporting a project without permission fails.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTicketExportNotPermitted()
+    throws Exception
+  {
+    final var user0Id = this.createIdstoreUser("someone");
+    this.icatiro().userInitialSet(user0Id);
+    this.createIdstoreUser("someone-else");
+
+    this.client.login("someone", "12345678", serverAPIBase());
+
+    final var project =
+      this.client.projectCreate(
+        new IcProjectShortName("PROJECT"),
+        new IcProjectTitle("Example project.")
+      );
+
+    this.client.login("someone-else", "12345678", serverAPIBase());
+
+    final var ex =
+      assertThrows(IcClientException.class, () -> {
+        this.client.ticketExport(project.id(), new ByteArrayOutputStream());
+      });
+    assertEquals(OPERATION_NOT_PERMITTED, ex.errorCode());
+  }
+
+  /**
+   * Retrieving a ticket only if it has changed works.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTicketGetIfChanged()
+    throws Exception
+  {
+    final var user0Id = this.createIdstoreUser("someone");
+    this.icatiro().userInitialSet(user0Id);
+    this.client.login("someone", "12345678", serverAPIBase());
+
+    final var project =
+      this.client.projectCreate(
+        new IcProjectShortName("PROJECT"),
+        new IcProjectTitle("Example project.")
+      );
+
+    final var ticketId =
+      this.client.ticketCreate(
+        new IcTicketCreation(
+          project.id(),
+          new IcTicketTitle("Title"),
+          "Description."
+        )
+      ).ticketId();
+
+    final var ticket0 = this.client.ticketGet(ticketId);
+    assertEquals(
+      Optional.empty(),
+      this.client.ticketGetIfChanged(ticketId, ticket0.versionToken())
+    );
+
+    this.client.ticketCommentCreate(
+      new IcTicketCommentCreation(ticketId, OptionalLong.empty(), "Comment")
+    );
+
+    final var ticket1 =
+      this.client.ticketGetIfChanged(ticketId, ticket0.versionToken())
+        .orElseThrow();
+
+    assertEquals(1, ticket1.comments().size());
+    assertEquals(
+      Optional.empty(),
+      this.client.ticketGetIfChanged(ticketId, ticket1.versionToken())
+    );
+  }
+
   /**
    * It's not possible to specify that a comment was a reply to a comment on
    * another ticket.
@@ -805,4 +1004,117 @@ public final class IcTicketsTest extends IcWithServerContract
 
     assertEquals(TICKET_NONEXISTENT, ex.errorCode());
   }
+
+  /**
+   * A failing command in an atomic batch causes the whole batch to have no
+   * effect.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBatchAtomic()
+    throws Exception
+  {
+    final var user0Id = this.createIdstoreUser("someone");
+    this.icatiro().userInitialSet(user0Id);
+    this.client.login("someone", "12345678", serverAPIBase());
+
+    final var project =
+      this.client.projectCreate(
+        new IcProjectShortName("PROJECT"),
+        new IcProjectTitle("Example project.")
+      );
+
+    final var responses =
+      this.client.batch(batchWithFailure(project.id()), ATOMIC);
+
+    assertEquals(2, responses.size());
+    assertInstanceOf(IcTResponseTicketCreate.class, responses.get(0));
+    final var error =
+      assertInstanceOf(IcTResponseError.class, responses.get(1));
+    assertEquals(TICKET_NONEXISTENT.id(), error.errorCode());
+
+    assertEquals(0, this.client.ticketSearchBegin(searchAll()).items().size());
+  }
+
+  /**
+   * A failing command in a per-command batch does not affect the commands
+   * before or after it.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBatchPerCommand()
+    throws Exception
+  {
+    final var user0Id = this.createIdstoreUser("someone");
+    this.icatiro().userInitialSet(user0Id);
+    this.client.login("someone", "12345678", serverAPIBase());
+
+    final var project =
+      this.client.projectCreate(
+        new IcProjectShortName("PROJECT"),
+        new IcProjectTitle("Example project.")
+      );
+
+    final var commands =
+      new ArrayList<>(batchWithFailure(project.id()));
+    commands.add(
+      new IcTCommandTicketCreate(
+        new IcTicketCreation(
+          project.id(),
+          new IcTicketTitle("Another ticket."),
+          "A ticket description"
+        )
+      )
+    );
+
+    final var responses =
+      this.client.batch(commands, PER_COMMAND);
+
+    assertEquals(3, responses.size());
+    assertInstanceOf(IcTResponseTicketCreate.class, responses.get(0));
+    assertInstanceOf(IcTResponseError.class, responses.get(1));
+    assertInstanceOf(IcTResponseTicketCreate.class, responses.get(2));
+
+    assertEquals(2, this.client.ticketSearchBegin(searchAll()).items().size());
+  }
+
+  private static List<IcTCommandType<?>> batchWithFailure(
+    final IcProjectID project)
+  {
+    return List.of(
+      new IcTCommandTicketCreate(
+        new IcTicketCreation(
+          project,
+          new IcTicketTitle("A ticket."),
+          "A ticket description"
+        )
+      ),
+      new IcTCommandTicketCommentCreate(
+        new IcTicketCommentCreation(
+          new IcTicketID(project, 23L),
+          OptionalLong.empty(),
+          "Comment on ticket 23"
+        )
+      )
+    );
+  }
+
+  private static IcTicketSearch searchAll()
+  {
+    return new IcTicketSearch(
+      IcTimeRange.largest(),
+      IcTimeRange.largest(),
+      new IcTicketColumnOrdering(BY_ID, true),
+      1000,
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty(),
+      false,
+      IcTicketSearchProjection.FULL
+    );
+  }
 }
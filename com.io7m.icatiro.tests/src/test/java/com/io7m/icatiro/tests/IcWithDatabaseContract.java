@@ -113,6 +113,17 @@ public abstract class IcWithDatabaseContract
     }
   }
 
+  protected final <T, E extends Exception> T withTransactionReadOnly(
+    final WithTransactionType<T, E> f)
+    throws IcDatabaseException, E
+  {
+    try (var c = this.database.openConnection(IcDatabaseRole.ICATIRO)) {
+      try (var t = c.openTransactionReadOnly()) {
+        return f.execute(t);
+      }
+    }
+  }
+
   private void waitForDatabaseToStart()
     throws InterruptedException, TimeoutException
   {
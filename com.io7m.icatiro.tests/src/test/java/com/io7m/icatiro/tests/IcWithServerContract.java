@@ -22,6 +22,7 @@ import com.io7m.icatiro.database.api.IcDatabaseCreate;
 import com.io7m.icatiro.database.api.IcDatabaseUpgrade;
 import com.io7m.icatiro.database.postgres.IcDatabases;
 import com.io7m.icatiro.server.IcServers;
+import com.io7m.icatiro.server.api.IcServerAttachmentConfiguration;
 import com.io7m.icatiro.server.api.IcServerBrandingConfiguration;
 import com.io7m.icatiro.server.api.IcServerConfiguration;
 import com.io7m.icatiro.server.api.IcServerHTTPServiceConfiguration;
@@ -66,6 +67,7 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.net.URI;
 import java.time.Duration;
 import java.time.Instant;
@@ -139,6 +141,7 @@ public abstract class IcWithServerContract
   }
 
   private IcServerType createIcatiroServer()
+    throws IOException
   {
     final var databaseConfiguration =
       new IcDatabaseConfiguration(
@@ -209,6 +212,10 @@ public abstract class IcWithServerContract
         new IcServerIdstoreConfiguration(
           URI.create("http://localhost:50000"),
           URI.create("http://localhost:50001/password-reset")
+        ),
+        new IcServerAttachmentConfiguration(
+          IcTestDirectories.createTempDirectory(),
+          1_000_000L
         )
       );
 